@@ -0,0 +1,80 @@
+#!/bin/bash
+
+# Compare time to the login window with and without the startup archive from taskflow.sh.
+#
+#   startup_bench.sh [runs]   runs per mode (default 10), alternating modes to spread out noise
+#
+# Each run starts the app with --startup-probe, which exits as soon as the login window opens.
+# Needs a display. Record the archive first with 'taskflow.sh train'.
+
+SCRIPT_DIR="$(cd "$(dirname "${BASH_SOURCE[0]}")" && pwd)"
+RUNS="${1:-10}"
+ARCHIVE="$HOME/.todoapp/cds/taskflow.jsa"
+TIMEOUT_SECONDS=60
+
+if [ -n "$JAVA_HOME" ]; then
+    JAVA="$JAVA_HOME/bin/java"
+else
+    JAVA="$(command -v java)"
+fi
+
+if [ -n "$TASKFLOW_JAR" ]; then
+    JAR="$(cd "$(dirname "$TASKFLOW_JAR")" && pwd)/$(basename "$TASKFLOW_JAR")"
+else
+    JAR="$(ls -t "$SCRIPT_DIR"/../target/*-jar-with-dependencies.jar 2>/dev/null | head -n 1)"
+    [ -n "$JAR" ] && JAR="$(cd "$(dirname "$JAR")" && pwd)/$(basename "$JAR")"
+fi
+if [ -z "$JAR" ] || [ ! -f "$JAR" ]; then
+    echo "No application jar found; run 'mvn package' or set TASKFLOW_JAR" >&2
+    exit 1
+fi
+if [ ! -s "$ARCHIVE" ]; then
+    echo "No archive at $ARCHIVE; run 'scripts/taskflow.sh train' first" >&2
+    exit 1
+fi
+if ! "$SCRIPT_DIR/taskflow.sh" status | grep -q '^Current'; then
+    echo "Warning: $ARCHIVE is stale, the JVM will likely ignore it" >&2
+fi
+
+# Prints "<ms to login window> <ms wall clock>" for one run, or nothing if the probe failed
+probe() {
+    local start end reported
+    start=$(date +%s%N)
+    reported=$(timeout "$TIMEOUT_SECONDS" "$JAVA" "$@" -cp "$JAR" AppLauncher --startup-probe 2>/dev/null \
+        | sed -n 's/^AppLauncher: startup-probe \([0-9]*\) ms$/\1/p')
+    end=$(date +%s%N)
+    [ -n "$reported" ] && echo "$reported $(( (end - start) / 1000000 ))"
+}
+
+summarize() {
+    local label="$1" column="$2" file="$3"
+    sort -n -k"$column" "$file" | awk -v label="$label" -v col="$column" '
+        { v[NR] = $col; sum += $col }
+        END {
+            if (NR == 0) { printf "%-22s no successful runs\n", label; exit }
+            median = NR % 2 ? v[(NR + 1) / 2] : (v[NR / 2] + v[NR / 2 + 1]) / 2
+            printf "%-22s min %5d  median %7.1f  mean %7.1f ms  (%d runs)\n", label, v[1], median, sum / NR, NR
+        }'
+}
+
+WITH=$(mktemp)
+WITHOUT=$(mktemp)
+trap 'rm -f "$WITH" "$WITHOUT"' EXIT
+
+# One unmeasured run per mode warms the OS file cache
+probe -Xshare:auto > /dev/null
+probe -XX:SharedArchiveFile="$ARCHIVE" -Xshare:auto > /dev/null
+
+for ((i = 1; i <= RUNS; i++)); do
+    probe -Xshare:auto >> "$WITHOUT"
+    probe -XX:SharedArchiveFile="$ARCHIVE" -Xshare:auto >> "$WITH"
+    echo -ne "\rRun $i/$RUNS" >&2
+done
+echo >&2
+
+echo "Time to login window:"
+summarize "  default CDS only" 1 "$WITHOUT"
+summarize "  with app archive" 1 "$WITH"
+echo "Process wall clock:"
+summarize "  default CDS only" 2 "$WITHOUT"
+summarize "  with app archive" 2 "$WITH"
@@ -0,0 +1,115 @@
+#!/bin/bash
+
+# Launch TaskFlow with a dynamic AppCDS archive of the classes the first screens load.
+#
+#   taskflow.sh [run]   start the app, mapping the archive when it was recorded for this jar and JDK.
+#                       A missing or stale archive falls back to a plain start and re-records one
+#                       in the background (headless, so no windows pop up) for the next start.
+#                       'run --jfr[=MB]' keeps a continuous flight recording (default 64 MB) that
+#                       the account menu saves on demand.
+#   taskflow.sh train   record the archive now by walking through the login and dashboard windows
+#   taskflow.sh status  report whether the archive is current
+#
+# TASKFLOW_JAR overrides the jar (default: the jar-with-dependencies in target/), JAVA_HOME the JDK.
+
+SCRIPT_DIR="$(cd "$(dirname "${BASH_SOURCE[0]}")" && pwd)"
+CDS_DIRECTORY="$HOME/.todoapp/cds"
+ARCHIVE="$CDS_DIRECTORY/taskflow.jsa"
+STAMP="$ARCHIVE.stamp"
+TRAIN_LOG="$CDS_DIRECTORY/train.log"
+
+if [ -n "$JAVA_HOME" ]; then
+    JAVA="$JAVA_HOME/bin/java"
+else
+    JAVA="$(command -v java)"
+fi
+
+resolve_jar() {
+    if [ -n "$TASKFLOW_JAR" ]; then
+        JAR="$(cd "$(dirname "$TASKFLOW_JAR")" && pwd)/$(basename "$TASKFLOW_JAR")"
+    else
+        JAR="$(ls -t "$SCRIPT_DIR"/../target/*-jar-with-dependencies.jar 2>/dev/null | head -n 1)"
+        [ -n "$JAR" ] && JAR="$(cd "$(dirname "$JAR")" && pwd)/$(basename "$JAR")"
+    fi
+    if [ -z "$JAR" ] || [ ! -f "$JAR" ]; then
+        echo "No application jar found; run 'mvn package' or set TASKFLOW_JAR" >&2
+        exit 1
+    fi
+}
+
+# An archive only matches the exact jar and JDK it was recorded with. The JVM checks this itself
+# and silently ignores a mismatched archive, so the stamp is what tells us to record a new one.
+current_stamp() {
+    local java_real modules
+    java_real="$(readlink -f "$JAVA")"
+    modules="$(dirname "$(dirname "$java_real")")/lib/modules"
+    echo "$JAR $(stat -c '%s %Y' "$JAR") $java_real $(stat -c '%s %Y' "$modules" 2>/dev/null)"
+}
+
+archive_is_current() {
+    [ -s "$ARCHIVE" ] && [ -f "$STAMP" ] && [ "$(cat "$STAMP")" == "$(current_stamp)" ]
+}
+
+# Record into a temporary file and move it into place, so a concurrent start never maps a
+# half-written archive. The lock directory keeps two recordings from racing.
+train() {
+    mkdir -p "$CDS_DIRECTORY"
+    if ! mkdir "$ARCHIVE.lock" 2>/dev/null; then
+        echo "Another training run is in progress ($ARCHIVE.lock)" >&2
+        return 1
+    fi
+    record_archive "$1"
+    local status=$?
+    rmdir "$ARCHIVE.lock"
+    return $status
+}
+
+record_archive() {
+    local headless="$1" stamp
+    stamp="$(current_stamp)"
+    rm -f "$ARCHIVE.tmp"
+    "$JAVA" -XX:ArchiveClassesAtExit="$ARCHIVE.tmp" -Xlog:cds=error ${headless:+-Djava.awt.headless=true} \
+        -cp "$JAR" AppLauncher --cds-train
+    if [ ! -s "$ARCHIVE.tmp" ]; then
+        echo "Training run did not produce an archive" >&2
+        rm -f "$ARCHIVE.tmp"
+        return 1
+    fi
+    mv -f "$ARCHIVE.tmp" "$ARCHIVE"
+    echo "$stamp" > "$STAMP"
+    echo "Recorded $ARCHIVE ($(stat -c '%s' "$ARCHIVE") bytes)"
+}
+
+run() {
+    if archive_is_current; then
+        exec "$JAVA" -XX:SharedArchiveFile="$ARCHIVE" -Xshare:auto -cp "$JAR" AppLauncher "$@"
+    fi
+    echo "Startup archive missing or stale, starting without it and re-recording in the background"
+    mkdir -p "$CDS_DIRECTORY"
+    (train headless > "$TRAIN_LOG" 2>&1 &)
+    exec "$JAVA" -cp "$JAR" AppLauncher "$@"
+}
+
+resolve_jar
+case "${1:-run}" in
+    run)
+        shift
+        run "$@"
+        ;;
+    train)
+        train
+        ;;
+    status)
+        if archive_is_current; then
+            echo "Current: $ARCHIVE"
+        elif [ -f "$ARCHIVE" ]; then
+            echo "Stale: $ARCHIVE (recorded for: $(cat "$STAMP" 2>/dev/null))"
+        else
+            echo "Missing: $ARCHIVE"
+        fi
+        ;;
+    *)
+        echo "Usage: $0 [run|train|status]"
+        exit 1
+        ;;
+esac
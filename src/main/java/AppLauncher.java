@@ -1,14 +1,247 @@
+import java.awt.GraphicsEnvironment;
+import java.awt.Window;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Stream;
 
+import javax.swing.JButton;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.JTextField;
 import javax.swing.SwingUtilities;
 
+import COMMON.JSONUtils;
+import COMMON.Metrics;
+import COMMON.jfr.FlightRecording;
+import COMMON.common;
+import UI.EdtWatchdog;
+import UI.Frame;
 import UI.LoginFrame;
 import controller.UserController;
+import model.Task;
+import model.TaskHandlerV2;
+import model.TaskStatus;
+import model.commands.Command;
+import model.sync.CommandBatch;
+import model.sync.SyncCommand;
+import model.sync.SyncResponse;
+import net.miginfocom.swing.MigLayout;
+import service.sync.CommandConverter;
+import service.sync.ResponseApplier;
+import themes.CoffeYellow;
+import themes.NigthBlue;
 
+/**
+ * Entry point. Besides the normal start it has two modes used by scripts/taskflow.sh and
+ * scripts/startup_bench.sh:
+ *
+ * <ul>
+ *   <li>{@code --cds-train} walks through login, dashboard construction, the JSON load and a
+ *   simulated sync against a scratch home directory, then exits. Run under
+ *   {@code -XX:ArchiveClassesAtExit} it records every class the first screens need into a dynamic
+ *   CDS archive, so later starts map them instead of loading FlatLaf, MigLayout, Jackson,
+ *   SnakeYAML and the PostgreSQL driver from the jar.</li>
+ *   <li>{@code --startup-probe} starts as usual (with a scratch home, so a remembered login doesn't
+ *   skip the login window) and exits as soon as the login window is open, printing the time since
+ *   JVM start.</li>
+ * </ul>
+ *
+ * A normal start also accepts {@code --jfr[=MB]}, which keeps a continuous flight recording that
+ * the account menu can save (see {@link FlightRecording}).
+ */
 public class AppLauncher {
-    public static void main(String[] args) {
+    static final String TRAIN_FLAG = "--cds-train";
+    static final String PROBE_FLAG = "--startup-probe";
+    private static final String TRAINING_USER = "cds-training";
+    private static final int TRAINING_TASKS = 40;
+    private static final long SETTLE_MS = 1500;
+
+    public static void main(String[] args) throws Exception {
+        String mode = args.length > 0 ? args[0] : "";
+        switch (mode) {
+            case TRAIN_FLAG -> train();
+            case PROBE_FLAG -> probe();
+            default -> {
+                EdtWatchdog.install();
+                Metrics.install();
+                FlightRecording.startIfRequested(args);
+                launch(null);
+            }
+        }
+    }
+
+    private static void launch(WindowAdapter loginListener) {
         SwingUtilities.invokeLater(() -> {
             LoginFrame loginFrame = new LoginFrame("Login");
             loginFrame.setController(new UserController());
+            if (loginListener != null) loginFrame.addWindowListener(loginListener);
+        });
+    }
+
+    private static void probe() throws IOException {
+        if (GraphicsEnvironment.isHeadless()) {
+            System.err.println("AppLauncher: " + PROBE_FLAG + " needs a display");
+            System.exit(1);
+        }
+        useScratchHome("taskflow-startup-probe");
+        launch(new WindowAdapter() {
+            @Override
+            public void windowOpened(WindowEvent e) {
+                long startedAt = ManagementFactory.getRuntimeMXBean().getStartTime();
+                System.out.println("AppLauncher: startup-probe " + (System.currentTimeMillis() - startedAt) + " ms");
+                System.exit(0);
+            }
         });
     }
-}
\ No newline at end of file
+
+    private static void train() throws Exception {
+        long start = System.nanoTime();
+        useScratchHome("taskflow-cds-training");
+        EdtWatchdog.install();
+        loadDatabaseDriver();
+        simulateSync();
+        if (GraphicsEnvironment.isHeadless()) {
+            // No windows without a display; still record the look and feel, layout and icon classes
+            System.out.println("AppLauncher: headless training run, skipping the login and dashboard windows");
+            SwingUtilities.invokeAndWait(AppLauncher::exerciseHeadlessUi);
+        } else {
+            exerciseWindows();
+        }
+        System.out.println("AppLauncher: training run finished in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+        System.exit(0);
+    }
+
+    /**
+     * Point user.home at a fresh directory so the run neither reads nor changes the real profile.
+     * Must run before anything touches UserProperties or JSONUtils, which resolve their paths once.
+     */
+    private static void useScratchHome(String name) throws IOException {
+        Path home = Paths.get(System.getProperty("java.io.tmpdir"), name);
+        if (Files.exists(home)) {
+            try (Stream<Path> paths = Files.walk(home)) {
+                paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+            }
+        }
+        Files.createDirectories(home);
+        System.setProperty("user.home", home.toString());
+    }
+
+    /**
+     * Register the PostgreSQL driver the way the first connection would, without connecting.
+     */
+    private static void loadDatabaseDriver() {
+        try {
+            DriverManager.getDriver("jdbc:postgresql://localhost/taskflow");
+        } catch (SQLException e) {
+            System.err.println("AppLauncher: PostgreSQL driver not available: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Queue local edits, round-trip them through the sync wire format and apply a server reply,
+     * leaving a tasks.json behind for the dashboard to load.
+     */
+    private static void simulateSync() throws Exception {
+        TaskHandlerV2 handler = new TaskHandlerV2(TRAINING_USER);
+        TaskStatus[] statuses = TaskStatus.values();
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < TRAINING_TASKS; i++) {
+            Task task = handler.createTask("Training task " + i, "Recorded for the startup archive",
+                    statuses[i % statuses.length], now.plusDays(i % 14), null);
+            if (i % 5 == 0) handler.updateTask(task, task.getTitle() + " (edited)", null, TaskStatus.completed, null, null);
+        }
+
+        List<Command> batch = handler.getCommandQueue().getCommandsForSync();
+        List<SyncCommand> syncCommands = new ArrayList<>();
+        for (Command command : batch) syncCommands.add(CommandConverter.toSyncCommand(command));
+        JSONUtils.toJsonString(new CommandBatch(TRAINING_USER, OffsetDateTime.now(), null, syncCommands));
+
+        List<Map<String, Object>> acknowledged = new ArrayList<>();
+        Set<String> commandIds = new HashSet<>();
+        for (Command command : batch) {
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("client_id", command.getCommandId());
+            result.put("command_type", command.getType().name());
+            result.put("entity_id", command.getEntityId());
+            result.put("success", true);
+            acknowledged.add(result);
+            commandIds.add(command.getCommandId());
+        }
+        Map<String, Object> folder = new LinkedHashMap<>();
+        folder.put("folder_id", UUID.randomUUID().toString());
+        folder.put("folder_name", "Training");
+        Map<String, Object> reply = new LinkedHashMap<>();
+        reply.put("success", acknowledged);
+        reply.put("server_changes", List.of());
+        reply.put("server_timestamp", OffsetDateTime.now().toString());
+        reply.put("folders", List.of(folder));
+        reply.put("folder_version", "1");
+
+        SyncResponse response = JSONUtils.fromJsonString(JSONUtils.toJsonString(reply), SyncResponse.class);
+        new ResponseApplier(handler).apply(response);
+        handler.getCommandQueue().removeCommands(commandIds);
+        handler.forcePersistence();
+    }
+
+    private static void exerciseWindows() throws Exception {
+        LoginFrame[] login = new LoginFrame[1];
+        UserController controller = new UserController();
+        SwingUtilities.invokeAndWait(() -> {
+            login[0] = new LoginFrame("Login");
+            login[0].setController(controller);
+        });
+        Thread.sleep(SETTLE_MS);
+        SwingUtilities.invokeAndWait(() -> {
+            // Fails fast without an API URL, but loads the HTTP client path a real login goes through
+            controller.setUserName(TRAINING_USER);
+            controller.setPassword(TRAINING_USER);
+            controller.doLogin();
+            controller.setUserUUID(TRAINING_USER);
+            controller.launchDashboard(login[0]);
+        });
+        Thread.sleep(SETTLE_MS);
+        for (int i = 0; i < 2; i++) {
+            SwingUtilities.invokeAndWait(() -> {
+                common.toggleColorMode();
+                for (Window window : Window.getWindows()) {
+                    if (window instanceof Frame frame && frame.isDisplayable()) frame.refreshTheme();
+                }
+            });
+            Thread.sleep(SETTLE_MS);
+        }
+    }
+
+    private static void exerciseHeadlessUi() {
+        try {
+            javax.swing.UIManager.setLookAndFeel(new NigthBlue());
+            javax.swing.UIManager.setLookAndFeel(new CoffeYellow());
+        } catch (Exception e) {
+            System.err.println("AppLauncher: failed to install look and feel: " + e.getMessage());
+        }
+        common.activateIconTheme();
+        JPanel panel = new JPanel(new MigLayout("fill, insets 30", "[grow]", "[]20[]"));
+        panel.add(new JLabel("Login", common.getModeIcon(), JLabel.LEADING), "growx, wrap");
+        panel.add(new JTextField("Username"), "growx, h 30!, wrap");
+        panel.add(new JButton("Login", common.getSyncIcon()), "w 100!, center");
+        panel.setSize(400, 350);
+        panel.doLayout();
+    }
+}
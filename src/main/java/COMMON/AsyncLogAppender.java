@@ -0,0 +1,212 @@
+package COMMON;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Writes log lines on a background thread so logging never blocks the caller on I/O.
+ *
+ * Lines wait in a bounded ring buffer; when it is full new lines are dropped (and counted) rather
+ * than stalling the EDT or a sync. The writer drains it in batches, echoes each line to the
+ * console and appends it to {@value #FILE_NAME}, which is rolled to {@code taskflow.1.log} ...
+ * {@code taskflow.<KEEP_FILES>.log} once it passes the size limit.
+ */
+final class AsyncLogAppender {
+    static final String FILE_NAME = "taskflow.log";
+    static final int DEFAULT_CAPACITY = 8192;
+    static final long DEFAULT_MAX_FILE_BYTES = 5L * 1024 * 1024;
+    static final int KEEP_FILES = 3;
+    private static final int BATCH = 256;
+    private static final DateTimeFormatter TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS");
+
+    private record Entry(long timeMillis, Log.Level level, String thread, String logger, String message, Throwable error) {
+    }
+
+    private final BlockingQueue<Entry> buffer;
+    private final File directory;
+    private final long maxFileBytes;
+    private final PrintStream out;
+    private final PrintStream err;
+    private final AtomicLong appended = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    // Guarded by this
+    private long written;
+    private Writer file;
+    private long fileBytes;
+
+    /**
+     * @param directory where the rolling file goes, or null for console only
+     * @param out console stream for debug and info lines, or null
+     * @param err console stream for warnings and errors, or null
+     */
+    AsyncLogAppender(int capacity, File directory, long maxFileBytes, PrintStream out, PrintStream err) {
+        this.buffer = new ArrayBlockingQueue<>(capacity);
+        this.directory = directory;
+        this.maxFileBytes = maxFileBytes;
+        this.out = out;
+        this.err = err;
+    }
+
+    void start() {
+        Thread writer = new Thread(this::writeLoop, "Log-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Queue one line; never blocks.
+     */
+    void append(Log.Level level, String logger, String message, Throwable error) {
+        Entry entry = new Entry(System.currentTimeMillis(), level, Thread.currentThread().getName(), logger, message, error);
+        if (buffer.offer(entry)) {
+            appended.incrementAndGet();
+        } else {
+            dropped.incrementAndGet();
+        }
+    }
+
+    long getDroppedCount() {
+        return dropped.get();
+    }
+
+    /**
+     * Wait up to {@code timeoutMs} until every line queued before this call has been written.
+     */
+    void flush(long timeoutMs) {
+        long target = appended.get();
+        long deadline = System.currentTimeMillis() + timeoutMs;
+        synchronized (this) {
+            long remaining;
+            while (written < target && (remaining = deadline - System.currentTimeMillis()) > 0) {
+                try {
+                    wait(remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void writeLoop() {
+        List<Entry> batch = new ArrayList<>(BATCH);
+        long reportedDrops = 0;
+        while (true) {
+            try {
+                batch.add(buffer.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+            buffer.drainTo(batch, BATCH - 1);
+            long drops = dropped.get();
+            synchronized (this) {
+                if (drops > reportedDrops) {
+                    write(new Entry(System.currentTimeMillis(), Log.Level.WARN, Thread.currentThread().getName(),
+                            "Log", (drops - reportedDrops) + " lines dropped, log buffer full", null));
+                    reportedDrops = drops;
+                }
+                for (Entry entry : batch) write(entry);
+                flushFile();
+                written += batch.size();
+                notifyAll();
+            }
+            batch.clear();
+        }
+    }
+
+    private void write(Entry entry) {
+        String line = entry.logger() + ": " + entry.message();
+        String trace = entry.error() != null ? stackTrace(entry.error()) : null;
+        PrintStream console = entry.level().ordinal() >= Log.Level.WARN.ordinal() ? err : out;
+        if (console != null) {
+            console.println(line);
+            if (trace != null) console.print(trace);
+        }
+        if (directory == null) return;
+        String time = LocalDateTime.ofInstant(Instant.ofEpochMilli(entry.timeMillis()), ZoneId.systemDefault()).format(TIME);
+        StringBuilder text = new StringBuilder(line.length() + 48)
+                .append(time).append(' ').append(entry.level()).append(" [").append(entry.thread()).append("] ")
+                .append(line).append(System.lineSeparator());
+        if (trace != null) text.append(trace);
+        writeToFile(text.toString());
+    }
+
+    private void writeToFile(String text) {
+        try {
+            if (file == null) openFile();
+            file.write(text);
+            fileBytes += text.length();
+            if (fileBytes >= maxFileBytes) roll();
+        } catch (IOException e) {
+            // The console still has the line; retry opening the file on the next one
+            if (err != null) err.println("Log: failed to write " + FILE_NAME + ": " + e.getMessage());
+            closeFile();
+        }
+    }
+
+    private void openFile() throws IOException {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("cannot create " + directory);
+        }
+        File current = new File(directory, FILE_NAME);
+        fileBytes = current.length();
+        file = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(current, true), StandardCharsets.UTF_8));
+    }
+
+    private void roll() throws IOException {
+        closeFile();
+        new File(directory, rolledName(KEEP_FILES)).delete();
+        for (int i = KEEP_FILES - 1; i >= 1; i--) {
+            File older = new File(directory, rolledName(i));
+            if (older.exists()) older.renameTo(new File(directory, rolledName(i + 1)));
+        }
+        new File(directory, FILE_NAME).renameTo(new File(directory, rolledName(1)));
+        openFile();
+    }
+
+    static String rolledName(int index) {
+        return "taskflow." + index + ".log";
+    }
+
+    private void flushFile() {
+        if (file == null) return;
+        try {
+            file.flush();
+        } catch (IOException e) {
+            closeFile();
+        }
+    }
+
+    private void closeFile() {
+        if (file == null) return;
+        try {
+            file.close();
+        } catch (IOException ignored) {
+            // nothing more to lose
+        }
+        file = null;
+    }
+
+    private static String stackTrace(Throwable error) {
+        StringWriter trace = new StringWriter();
+        error.printStackTrace(new PrintWriter(trace));
+        return trace.toString();
+    }
+}
@@ -0,0 +1,214 @@
+package COMMON;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.GraphicsEnvironment;
+import java.awt.Image;
+import java.awt.RenderingHints;
+import java.awt.image.BaseMultiResolutionImage;
+import java.awt.image.BufferedImage;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import javax.imageio.ImageIO;
+import javax.swing.ImageIcon;
+
+import com.formdev.flatlaf.extras.FlatSVGIcon;
+
+/**
+ * Pre-rendered icons for the active theme and display scale.
+ *
+ * Icons are rasterized once per (icon, theme, scale) into a concurrent cache. Activating a theme
+ * swaps the atlas in a single write and renders the rest of its icons on a background thread, so
+ * the EDT only renders an icon itself when it asks for one before the worker got to it. Atlases of
+ * previously used themes stay cached, which makes toggling back and forth free.
+ */
+public final class IconAtlas {
+    private static final int ICON_SIZE = 20;
+
+    /** A theme is identified by its mode and the colour its icons are tinted with. */
+    public record Theme(boolean night, Color tint) { }
+
+    record Key(String path, Theme theme, int scalePercent) { }
+
+    private record Atlas(Theme theme, int scalePercent) { }
+
+    private final List<String> paths;
+    private final int scalePercent;
+    private final Map<Key, ImageIcon> icons = new ConcurrentHashMap<>();
+    private final Map<Theme, CompletableFuture<Void>> prewarms = new ConcurrentHashMap<>();
+    private final AtomicReference<Atlas> active = new AtomicReference<>();
+    // FlatSVGIcon keeps its parsed documents in a plain map, so renders are serialized
+    private final Object renderLock = new Object();
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "IconAtlas");
+        t.setDaemon(true);
+        return t;
+    });
+
+    /**
+     * @param paths classpath resources to pre-render for every activated theme
+     */
+    public IconAtlas(List<String> paths) {
+        this(paths, screenScale());
+    }
+
+    IconAtlas(List<String> paths, double scale) {
+        this.paths = List.copyOf(paths);
+        this.scalePercent = (int) Math.round(scale * 100);
+    }
+
+    /**
+     * Make {@code theme} the active atlas and pre-render its icons in the background.
+     * @return completes when every icon of the theme is rendered
+     */
+    public CompletableFuture<Void> activate(Theme theme) {
+        Atlas previous = active.getAndSet(new Atlas(theme, scalePercent));
+        if (previous == null || !previous.theme().equals(theme)) {
+            System.out.println("IconAtlas: switched to " + describe(theme));
+        }
+        return prewarm(theme);
+    }
+
+    /**
+     * Render a theme's icons in the background without activating it, e.g. the theme a toggle
+     * would switch to. The tint is resolved on the worker thread.
+     */
+    public CompletableFuture<Void> prewarm(boolean night, Supplier<Color> tint) {
+        return CompletableFuture.supplyAsync(() -> new Theme(night, tint.get()), worker)
+                .thenCompose(this::prewarm)
+                .whenComplete((v, e) -> {
+                    if (e != null) System.err.println("IconAtlas: prewarm failed: " + e.getMessage());
+                });
+    }
+
+    private CompletableFuture<Void> prewarm(Theme theme) {
+        return prewarms.computeIfAbsent(theme, t -> CompletableFuture.runAsync(() -> {
+            long start = System.nanoTime();
+            int rendered = 0;
+            for (String path : paths) {
+                if (!icons.containsKey(new Key(path, t, scalePercent))) {
+                    get(path, t);
+                    rendered++;
+                }
+            }
+            if (rendered > 0) {
+                System.out.println("IconAtlas: pre-rendered " + rendered + " icons for " + describe(t)
+                        + " in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+            }
+        }, worker));
+    }
+
+    /**
+     * Icon for {@code path} in the active theme, or null if it can't be loaded. Falls back to
+     * {@code fallback} as the active theme when none has been activated yet.
+     */
+    public ImageIcon get(String path, Supplier<Theme> fallback) {
+        Atlas atlas = active.get();
+        if (atlas == null) {
+            active.compareAndSet(null, new Atlas(fallback.get(), scalePercent));
+            atlas = active.get();
+        }
+        return get(path, atlas.theme());
+    }
+
+    private ImageIcon get(String path, Theme theme) {
+        Key key = new Key(path, theme, scalePercent);
+        ImageIcon icon = icons.get(key);
+        if (icon != null) return icon;
+        synchronized (renderLock) {
+            icon = icons.get(key);
+            if (icon == null) {
+                icon = render(path, theme);
+                if (icon != null) icons.put(key, icon);
+            }
+        }
+        return icon;
+    }
+
+    public Theme getActiveTheme() {
+        Atlas atlas = active.get();
+        return atlas == null ? null : atlas.theme();
+    }
+
+    public double getScale() {
+        return scalePercent / 100.0;
+    }
+
+    /** Number of rendered icons across all themes. */
+    public int size() {
+        return icons.size();
+    }
+
+    public void shutdown() {
+        worker.shutdownNow();
+    }
+
+    private ImageIcon render(String resourcePath, Theme theme) {
+        try {
+            if (resourcePath.endsWith(".svg")) {
+                // Handle SVG files using FlatLaf's built-in SVG support
+                FlatSVGIcon svgIcon = new FlatSVGIcon(resourcePath, ICON_SIZE, ICON_SIZE);
+                // Apply the theme's label foreground color to the SVG icon
+                Color tint = theme.tint();
+                if (tint != null) {
+                    svgIcon.setColorFilter(new FlatSVGIcon.ColorFilter(color -> tint));
+                }
+                if (IconAtlas.class.getClassLoader().getResource(resourcePath) == null) {
+                    System.err.println("Resource not found on classpath: " + resourcePath);
+                    return null;
+                }
+                Image base = rasterize(svgIcon, 1.0);
+                if (scalePercent == 100) return new ImageIcon(base);
+                return new ImageIcon(new BaseMultiResolutionImage(base, rasterize(svgIcon, getScale())));
+            }
+            // Handle PNG files as before
+            try (InputStream is = IconAtlas.class.getClassLoader().getResourceAsStream(resourcePath)) {
+                if (is == null) {
+                    System.err.println("Resource not found on classpath: " + resourcePath);
+                    return null;
+                }
+                Image image = ImageIO.read(is);
+                return new ImageIcon(image.getScaledInstance(ICON_SIZE, ICON_SIZE, Image.SCALE_SMOOTH));
+            }
+        } catch (Exception e) {
+            System.err.println("Error loading icon: " + resourcePath + " - " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static BufferedImage rasterize(FlatSVGIcon icon, double scale) {
+        int size = (int) Math.ceil(ICON_SIZE * scale);
+        BufferedImage image = new BufferedImage(size, size, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = image.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g.scale(scale, scale);
+            icon.paintIcon(null, g, 0, 0);
+        } finally {
+            g.dispose();
+        }
+        return image;
+    }
+
+    private String describe(Theme theme) {
+        return (theme.night() ? "night" : "day") + " theme @" + scalePercent + "%";
+    }
+
+    private static double screenScale() {
+        if (GraphicsEnvironment.isHeadless()) return 1.0;
+        try {
+            return GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice()
+                    .getDefaultConfiguration().getDefaultTransform().getScaleX();
+        } catch (RuntimeException e) {
+            return 1.0;
+        }
+    }
+}
@@ -0,0 +1,258 @@
+package COMMON;
+
+import java.io.File;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Write-behind scheduler shared by everything that persists user data: the command journal, the
+ * task store, the folder cache, the search index and the user properties.
+ *
+ * Writes are keyed by file. A write submitted while an earlier one for the same file is still
+ * waiting replaces it, so a burst of changes costs one write of the final state. One writer thread
+ * runs them all, in {@link Priority} order among those that are due, so the command journal is
+ * never stuck behind a large cache file. {@link #flush(String)} makes a file's write happen now and
+ * waits for it; a shutdown hook flushes everything before the JVM exits.
+ */
+public final class IoScheduler {
+    /**
+     * Order in which due writes run; earlier constants go first.
+     */
+    public enum Priority {
+        /** Pending commands: losing them loses user edits. */
+        JOURNAL,
+        SETTINGS,
+        /** The task store, which can be rebuilt from the server. */
+        DATA,
+        /** Derived files that are rebuilt when missing. */
+        CACHE
+    }
+
+    /**
+     * The file write itself; it runs on the writer thread and should read the state to persist
+     * there, so a coalesced write stores the latest state.
+     */
+    @FunctionalInterface
+    public interface Write {
+        void run() throws Exception;
+    }
+
+    static final long FLUSH_TIMEOUT_MS = 10_000;
+    static final long SHUTDOWN_TIMEOUT_MS = 5_000;
+    private static IoScheduler shared;
+
+    private static final class Pending {
+        final String file;
+        Priority priority;
+        long dueNanos;
+        Write write;
+        boolean done;
+
+        Pending(String file, Priority priority, long dueNanos, Write write) {
+            this.file = file;
+            this.priority = priority;
+            this.dueNanos = dueNanos;
+            this.write = write;
+        }
+    }
+
+    private final String threadName;
+    // Guarded by this; insertion order breaks ties between equally urgent writes
+    private final Map<String, Pending> pending = new LinkedHashMap<>();
+    private Pending writing;
+    private Thread writer;
+    private final Metrics.Histogram writeTimer = Metrics.shared().timer("io.write");
+    private final Metrics.Counter coalesced = Metrics.shared().counter("io.coalesced");
+    private final Metrics.Counter failures = Metrics.shared().counter("io.write_failures");
+
+    IoScheduler(String threadName) {
+        this.threadName = threadName;
+    }
+
+    /**
+     * The application's scheduler; started, with its shutdown flush, on first use.
+     */
+    public static synchronized IoScheduler shared() {
+        if (shared == null) {
+            IoScheduler scheduler = new IoScheduler("IO-writer");
+            scheduler.start();
+            Metrics.shared().gauge("io.pending", scheduler::getPendingCount);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                if (!scheduler.flushAll(SHUTDOWN_TIMEOUT_MS)) {
+                    System.err.println("IoScheduler: shutdown flush timed out, " + scheduler.getPendingCount() + " writes lost");
+                }
+            }, "IoScheduler-flush"));
+            shared = scheduler;
+        }
+        return shared;
+    }
+
+    synchronized void start() {
+        if (writer != null) return;
+        writer = new Thread(this::writeLoop, threadName);
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Write {@code file} after {@code delayMs}, or together with a write of it that is already
+     * waiting: the newer {@code write} replaces the older one, which keeps its earlier due time and
+     * the higher of the two priorities.
+     */
+    public synchronized void submit(String file, Priority priority, long delayMs, Write write) {
+        long due = System.nanoTime() + Math.max(0, delayMs) * 1_000_000;
+        Pending existing = pending.get(file);
+        if (existing == null) {
+            pending.put(file, new Pending(file, priority, due, write));
+        } else {
+            coalesced.increment();
+            existing.write = write;
+            if (priority.ordinal() < existing.priority.ordinal()) existing.priority = priority;
+            if (due - existing.dueNanos < 0) existing.dueNanos = due;
+        }
+        notifyAll();
+    }
+
+    /**
+     * Run the waiting write of {@code file} now and wait until it, or the write of it already under
+     * way, has finished. Loaders call this before reading a file so they see the latest state.
+     *
+     * @return false if the write did not finish within {@value #FLUSH_TIMEOUT_MS} ms
+     */
+    public boolean flush(String file) {
+        Pending target;
+        synchronized (this) {
+            target = pending.get(file);
+            if (target == null) {
+                target = writing != null && writing.file.equals(file) ? writing : null;
+                if (target == null) return true;
+            }
+            if (Thread.currentThread() != writer) {
+                target.dueNanos = System.nanoTime();
+                notifyAll();
+                return awaitDone(target, FLUSH_TIMEOUT_MS);
+            }
+            if (target == writing) return true;
+            // Called from inside a write: waiting for ourselves would never end
+            pending.remove(file);
+        }
+        run(target);
+        return true;
+    }
+
+    /**
+     * Run every waiting write now and wait until all of them have finished.
+     *
+     * @return false if some were still waiting after {@code timeoutMs}
+     */
+    public synchronized boolean flushAll(long timeoutMs) {
+        long now = System.nanoTime();
+        for (Pending p : pending.values()) p.dueNanos = now;
+        notifyAll();
+        long deadline = System.currentTimeMillis() + timeoutMs;
+        long remaining;
+        while (!pending.isEmpty() || writing != null) {
+            if ((remaining = deadline - System.currentTimeMillis()) <= 0) return false;
+            try {
+                wait(remaining);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Whether a write of {@code file} is waiting or running.
+     */
+    public synchronized boolean isPending(String file) {
+        return pending.containsKey(file) || (writing != null && writing.file.equals(file));
+    }
+
+    public synchronized int getPendingCount() {
+        return pending.size() + (writing != null ? 1 : 0);
+    }
+
+    private boolean awaitDone(Pending target, long timeoutMs) {
+        long deadline = System.currentTimeMillis() + timeoutMs;
+        long remaining;
+        while (!target.done) {
+            if ((remaining = deadline - System.currentTimeMillis()) <= 0) return false;
+            try {
+                wait(remaining);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void writeLoop() {
+        while (true) {
+            Pending next;
+            synchronized (this) {
+                try {
+                    while ((next = nextDue()) == null) {
+                        if (pending.isEmpty()) {
+                            wait();
+                        } else {
+                            long waitNanos = earliestDue() - System.nanoTime();
+                            if (waitNanos > 0) wait(Math.max(1, waitNanos / 1_000_000));
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    return;
+                }
+                pending.remove(next.file);
+                writing = next;
+            }
+            run(next);
+            synchronized (this) {
+                writing = null;
+                notifyAll();
+            }
+        }
+    }
+
+    /**
+     * The most urgent write whose time has come; there are only a handful of files, so a scan is
+     * cheaper than keeping a heap ordered while due times change.
+     */
+    private Pending nextDue() {
+        long now = System.nanoTime();
+        Pending best = null;
+        for (Pending p : pending.values()) {
+            if (p.dueNanos - now > 0) continue;
+            if (best == null || p.priority.ordinal() < best.priority.ordinal()) best = p;
+        }
+        return best;
+    }
+
+    private long earliestDue() {
+        long earliest = Long.MAX_VALUE;
+        boolean first = true;
+        for (Pending p : pending.values()) {
+            if (first || p.dueNanos - earliest < 0) earliest = p.dueNanos;
+            first = false;
+        }
+        return earliest;
+    }
+
+    private void run(Pending p) {
+        long start = System.nanoTime();
+        try {
+            p.write.run();
+        } catch (Exception e) {
+            failures.increment();
+            System.err.println("IoScheduler: failed to write " + new File(p.file).getName() + ": " + e.getMessage());
+        } finally {
+            writeTimer.recordSince(start);
+            synchronized (this) {
+                p.done = true;
+                notifyAll();
+            }
+        }
+    }
+}
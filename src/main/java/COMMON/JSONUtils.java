@@ -25,6 +25,12 @@ public class JSONUtils {
         .registerModule(new JavaTimeModule())
         .configure(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, false)
         .configure(DeserializationFeature.ADJUST_DATES_TO_CONTEXT_TIME_ZONE, false);
+    // Columns of the tasks.json rows, including deleted_at
+    private static final List<String> TASK_COLUMNS = List.of(
+        "folder_id", "folder_name", "task_id", "task_title", "description",
+        "sync_status", "last_sync", "status", "due_date", "created_at", "deleted_at"
+    );
+    private static final ParallelWork.Crossover ROW_ENCODING = new ParallelWork.Crossover("tasks.json rows");
       public static void createBaseDirectory() {
         File baseDir = new File(BASE_DIRECTORY);
         if (!baseDir.exists()) {
@@ -301,14 +307,18 @@ public class JSONUtils {
      * @throws IOException If there is an error building the structure
      */
     public static Map<String, Object> buildJsonStructure(Stream<Task> taskStream) {
-        // Define all columns, including deleted_at
-        List<String> allColumns = List.of(
-            "folder_id", "folder_name", "task_id", "task_title", "description",
-            "sync_status", "last_sync", "status", "due_date", "created_at", "deleted_at"
-        );
+        return buildJsonStructure(taskStream.collect(Collectors.toList()));
+    }
 
-        List<List<Object>> data = taskStream.map(task -> {
-            List<Object> row = new ArrayList<>(allColumns.size());
+    /**
+     * Builds a JSON structure for tasks. Rows of large lists are encoded on {@link ParallelWork}.
+     *
+     * @param tasks The tasks to include in the JSON structure
+     * @return A Map representing the JSON structure
+     */
+    public static Map<String, Object> buildJsonStructure(List<Task> tasks) {
+        List<List<Object>> data = ParallelWork.shared().map(ROW_ENCODING, tasks, task -> {
+            List<Object> row = new ArrayList<>(TASK_COLUMNS.size());
             row.add(task.getFolder_id());
             row.add(task.getFolder_name());
             row.add(task.getTask_id());
@@ -321,10 +331,10 @@ public class JSONUtils {
             row.add(task.getCreated_at() != null ? task.getCreated_at().toString() : null);
             row.add(task.getDeleted_at() != null ? task.getDeleted_at().toString() : null);
             return row;
-        }).collect(Collectors.toList());
+        });
 
         Map<String, Object> structure = new LinkedHashMap<>();
-        structure.put("columns", allColumns);
+        structure.put("columns", TASK_COLUMNS);
         structure.put("data", data);
         return structure;
     }
@@ -0,0 +1,146 @@
+package COMMON;
+
+import java.io.File;
+import java.util.Locale;
+import java.util.function.Supplier;
+
+/**
+ * Level-gated logging for code that runs on every sync, keystroke or filter pass.
+ *
+ * A disabled level costs one volatile read: pass a {@link Supplier} when building the message is
+ * not free and it is never called. Enabled messages are handed to an {@link AsyncLogAppender}, so
+ * the caller never waits on the console or the disk; the appender echoes to the console and keeps
+ * a rolling {@value AsyncLogAppender#FILE_NAME} under the base directory's logs folder.
+ *
+ * Configured with system properties:
+ * <ul>
+ *   <li>{@code -Dtaskflow.log.level=debug|info|warn|error|off} (default info)</li>
+ *   <li>{@code -Dtaskflow.log.payloads=true} also logs request and response bodies; they are never
+ *   logged otherwise, whatever the level</li>
+ *   <li>{@code -Dtaskflow.log.console=false} / {@code -Dtaskflow.log.file=false} turn off one output</li>
+ * </ul>
+ */
+public final class Log {
+    public enum Level { DEBUG, INFO, WARN, ERROR, OFF }
+
+    private static final boolean PAYLOADS = Boolean.getBoolean("taskflow.log.payloads");
+    private static volatile Level threshold = levelFromProperty(System.getProperty("taskflow.log.level"));
+    private static volatile AsyncLogAppender appender;
+
+    private final String name;
+
+    private Log(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Logger whose lines are prefixed with the simple name of {@code owner}, like the rest of the
+     * app's output.
+     */
+    public static Log get(Class<?> owner) {
+        return new Log(owner.getSimpleName());
+    }
+
+    public static Level getLevel() {
+        return threshold;
+    }
+
+    public static void setLevel(Level level) {
+        threshold = level;
+    }
+
+    static Level levelFromProperty(String value) {
+        if (value == null || value.isBlank()) return Level.INFO;
+        try {
+            return Level.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            System.err.println("Log: ignoring invalid taskflow.log.level: " + value);
+            return Level.INFO;
+        }
+    }
+
+    public boolean isEnabled(Level level) {
+        return level != Level.OFF && level.ordinal() >= threshold.ordinal();
+    }
+
+    public boolean isDebugEnabled() {
+        return isEnabled(Level.DEBUG);
+    }
+
+    public void debug(String message) {
+        if (isEnabled(Level.DEBUG)) append(Level.DEBUG, message, null);
+    }
+
+    public void debug(Supplier<String> message) {
+        if (isEnabled(Level.DEBUG)) append(Level.DEBUG, message.get(), null);
+    }
+
+    public void info(String message) {
+        if (isEnabled(Level.INFO)) append(Level.INFO, message, null);
+    }
+
+    public void info(Supplier<String> message) {
+        if (isEnabled(Level.INFO)) append(Level.INFO, message.get(), null);
+    }
+
+    public void warn(String message) {
+        if (isEnabled(Level.WARN)) append(Level.WARN, message, null);
+    }
+
+    public void warn(String message, Throwable error) {
+        if (isEnabled(Level.WARN)) append(Level.WARN, message, error);
+    }
+
+    public void error(String message) {
+        if (isEnabled(Level.ERROR)) append(Level.ERROR, message, null);
+    }
+
+    public void error(String message, Throwable error) {
+        if (isEnabled(Level.ERROR)) append(Level.ERROR, message, error);
+    }
+
+    /**
+     * Request and response bodies and similar dumps; only logged (at debug) when
+     * {@code -Dtaskflow.log.payloads=true} is set.
+     */
+    public void payload(Supplier<String> message) {
+        if (PAYLOADS) append(Level.DEBUG, message.get(), null);
+    }
+
+    public static boolean isPayloadLoggingEnabled() {
+        return PAYLOADS;
+    }
+
+    /**
+     * Wait up to {@code timeoutMs} for everything logged so far to be written.
+     */
+    public static void flush(long timeoutMs) {
+        AsyncLogAppender current = appender;
+        if (current != null) current.flush(timeoutMs);
+    }
+
+    private void append(Level level, String message, Throwable error) {
+        appender().append(level, name, message, error);
+    }
+
+    private static AsyncLogAppender appender() {
+        AsyncLogAppender current = appender;
+        if (current == null) {
+            synchronized (Log.class) {
+                current = appender;
+                if (current == null) {
+                    File directory = Boolean.parseBoolean(System.getProperty("taskflow.log.file", "true"))
+                            ? new File(JSONUtils.BASE_DIRECTORY, "logs") : null;
+                    boolean console = Boolean.parseBoolean(System.getProperty("taskflow.log.console", "true"));
+                    current = new AsyncLogAppender(AsyncLogAppender.DEFAULT_CAPACITY, directory,
+                            AsyncLogAppender.DEFAULT_MAX_FILE_BYTES, console ? System.out : null, console ? System.err : null);
+                    current.start();
+                    AsyncLogAppender started = current;
+                    Runtime.getRuntime().addShutdownHook(new Thread(() -> started.flush(2000), "Log-flush"));
+                    appender = current;
+                }
+            }
+        }
+        return current;
+    }
+}
@@ -0,0 +1,319 @@
+package COMMON;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
+
+/**
+ * Fork-join versions of the loops that dominate a refresh on very large task lists: filtering,
+ * sorting and mapping every task.
+ *
+ * The work runs on a dedicated pool that leaves one core to the EDT and never grows past its
+ * parallelism, rather than on the common pool that parallel streams and CompletableFuture share.
+ * Whether splitting pays off depends on the machine and on how much work each item is, so every
+ * call site owns a {@link Crossover} that learns it from the calls themselves.
+ */
+public final class ParallelWork {
+    private static final int MAX_PARALLELISM = 8;
+    // Leaves smaller than this cost more to schedule than they save
+    private static final int MIN_LEAF = 1024;
+    private static final ParallelWork SHARED = new ParallelWork(defaultParallelism());
+
+    /**
+     * Size above which one kind of work runs in parallel, learned from its own runs.
+     *
+     * Sequential runs give the cost per item, parallel runs the fixed cost of splitting and joining.
+     * The threshold is where a sequential run ({@code n * perItem}) gets slower than a parallel one
+     * ({@code overhead + n * perItem / parallelism}). Every {@value #PROBE_INTERVAL}th call near the
+     * threshold runs the other way, so both estimates follow the JIT and the data.
+     */
+    public static final class Crossover {
+        static final int DEFAULT_THRESHOLD = 50_000;
+        static final int MIN_SIZE = 4 * MIN_LEAF;
+        private static final int MAX_THRESHOLD = 1 << 24;
+        private static final int PROBE_INTERVAL = 8;
+        private static final double WEIGHT = 0.2;
+
+        private final String name;
+        private final int minSize;
+        private volatile int threshold;
+        // Guarded by this
+        private double sequentialNsPerItem = Double.NaN;
+        private double parallelOverheadNs = Double.NaN;
+        private long calls;
+        private int loggedThreshold;
+
+        public Crossover(String name) {
+            this(name, DEFAULT_THRESHOLD, MIN_SIZE);
+        }
+
+        Crossover(String name, int initialThreshold, int minSize) {
+            this.name = name;
+            this.threshold = initialThreshold;
+            this.loggedThreshold = initialThreshold;
+            this.minSize = minSize;
+        }
+
+        synchronized boolean useParallel(int size) {
+            if (size < minSize) return false;
+            boolean parallel = size >= threshold;
+            boolean nearThreshold = size >= threshold / 2 && size / 2 <= threshold;
+            if (nearThreshold && ++calls % PROBE_INTERVAL == 0) parallel = !parallel;
+            return parallel;
+        }
+
+        synchronized void record(int size, long nanos, boolean parallel, int parallelism) {
+            if (size <= 0) return;
+            if (!parallel) {
+                sequentialNsPerItem = average(sequentialNsPerItem, (double) nanos / size);
+            } else if (!Double.isNaN(sequentialNsPerItem)) {
+                double overhead = Math.max(0, nanos - sequentialNsPerItem * size / parallelism);
+                parallelOverheadNs = average(parallelOverheadNs, overhead);
+            }
+            if (Double.isNaN(sequentialNsPerItem) || Double.isNaN(parallelOverheadNs) || sequentialNsPerItem <= 0) return;
+            double crossover = parallelOverheadNs / (sequentialNsPerItem * (1 - 1.0 / parallelism));
+            int updated = (int) Math.max(minSize, Math.min(MAX_THRESHOLD, crossover));
+            // The estimate wobbles from run to run; only report moves by more than a factor of two
+            if (updated > 2L * loggedThreshold || updated < loggedThreshold / 2) {
+                System.out.println("ParallelWork: " + name + " crossover " + loggedThreshold + " -> " + updated + " items");
+                loggedThreshold = updated;
+            }
+            threshold = updated;
+        }
+
+        private static double average(double current, double sample) {
+            return Double.isNaN(current) ? sample : current + WEIGHT * (sample - current);
+        }
+
+        public int getThreshold() {
+            return threshold;
+        }
+
+        @Override
+        public String toString() {
+            return name + " (parallel from " + threshold + " items)";
+        }
+    }
+
+    private final int parallelism;
+    private final ForkJoinPool pool;
+
+    ParallelWork(int parallelism) {
+        this.parallelism = Math.max(1, parallelism);
+        ForkJoinPool.ForkJoinWorkerThreadFactory factory = p -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+            thread.setName("ParallelWork-" + thread.getPoolIndex());
+            thread.setDaemon(true);
+            return thread;
+        };
+        // maximumPoolSize == parallelism: blocked workers are not compensated with extra threads
+        this.pool = new ForkJoinPool(this.parallelism, factory, null, false,
+                0, this.parallelism, 1, p -> true, 60, TimeUnit.SECONDS);
+    }
+
+    public static ParallelWork shared() {
+        return SHARED;
+    }
+
+    /**
+     * Processors minus one for the EDT, at most {@value #MAX_PARALLELISM}; overridden with
+     * -Dtaskflow.parallelism=N.
+     */
+    private static int defaultParallelism() {
+        String configured = System.getProperty("taskflow.parallelism");
+        if (configured != null) {
+            try {
+                return Math.max(1, Integer.parseInt(configured.trim()));
+            } catch (NumberFormatException e) {
+                System.err.println("ParallelWork: ignoring invalid taskflow.parallelism: " + configured);
+            }
+        }
+        return Math.min(MAX_PARALLELISM, Runtime.getRuntime().availableProcessors() - 1);
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Indexes {@code i} in {@code [0, count)} for which {@code test} holds, ascending. {@code test}
+     * may be called from several threads at once.
+     */
+    public int[] filterIndices(Crossover crossover, int count, IntPredicate test) {
+        boolean parallel = decide(crossover, count);
+        long start = System.nanoTime();
+        int[] result = parallel
+                ? pool.invoke(new FilterTask(test, 0, count, leafSize(count)))
+                : filterRange(test, 0, count);
+        crossover.record(count, System.nanoTime() - start, parallel, parallelism);
+        return result;
+    }
+
+    /**
+     * Elements of {@code items} matching {@code test}, in order, as a new mutable list.
+     */
+    public <T> List<T> filter(Crossover crossover, List<T> items, Predicate<? super T> test) {
+        int[] matched = filterIndices(crossover, items.size(), i -> test.test(items.get(i)));
+        List<T> result = new ArrayList<>(matched.length);
+        for (int i : matched) result.add(items.get(i));
+        return result;
+    }
+
+    /**
+     * {@code function} applied to every element of {@code items}, in order, as a new mutable list.
+     * {@code function} may be called from several threads at once.
+     */
+    public <T, R> List<R> map(Crossover crossover, List<T> items, Function<? super T, ? extends R> function) {
+        int count = items.size();
+        Object[] out = new Object[count];
+        boolean parallel = decide(crossover, count);
+        long start = System.nanoTime();
+        if (parallel) {
+            pool.invoke(new MapTask<>(items, function, out, 0, count, leafSize(count)));
+        } else {
+            for (int i = 0; i < count; i++) out[i] = function.apply(items.get(i));
+        }
+        crossover.record(count, System.nanoTime() - start, parallel, parallelism);
+        @SuppressWarnings("unchecked")
+        List<R> result = new ArrayList<>((List<R>) Arrays.asList(out));
+        return result;
+    }
+
+    /**
+     * Stable sort of {@code list} in place, like {@link List#sort}.
+     */
+    public <T> void sort(Crossover crossover, List<T> list, Comparator<? super T> comparator) {
+        int count = list.size();
+        boolean parallel = decide(crossover, count);
+        long start = System.nanoTime();
+        if (parallel) {
+            @SuppressWarnings("unchecked")
+            T[] array = (T[]) list.toArray();
+            pool.invoke(new SortTask<>(array, array.clone(), comparator, 0, count, leafSize(count)));
+            ListIterator<T> it = list.listIterator();
+            for (T element : array) {
+                it.next();
+                it.set(element);
+            }
+        } else {
+            list.sort(comparator);
+        }
+        crossover.record(count, System.nanoTime() - start, parallel, parallelism);
+    }
+
+    private boolean decide(Crossover crossover, int count) {
+        return parallelism > 1 && crossover.useParallel(count);
+    }
+
+    // About four leaves per worker, so an unlucky split still keeps everyone busy
+    private int leafSize(int count) {
+        return Math.max(MIN_LEAF, count / (parallelism * 4));
+    }
+
+    private static int[] filterRange(IntPredicate test, int from, int to) {
+        int[] hits = new int[to - from];
+        int n = 0;
+        for (int i = from; i < to; i++) {
+            if (test.test(i)) hits[n++] = i;
+        }
+        return n == hits.length ? hits : Arrays.copyOf(hits, n);
+    }
+
+    private static final class FilterTask extends RecursiveTask<int[]> {
+        private final IntPredicate test;
+        private final int from, to, leaf;
+
+        FilterTask(IntPredicate test, int from, int to, int leaf) {
+            this.test = test;
+            this.from = from;
+            this.to = to;
+            this.leaf = leaf;
+        }
+
+        @Override
+        protected int[] compute() {
+            if (to - from <= leaf) return filterRange(test, from, to);
+            int mid = (from + to) >>> 1;
+            FilterTask left = new FilterTask(test, from, mid, leaf);
+            left.fork();
+            int[] right = new FilterTask(test, mid, to, leaf).compute();
+            int[] first = left.join();
+            int[] joined = Arrays.copyOf(first, first.length + right.length);
+            System.arraycopy(right, 0, joined, first.length, right.length);
+            return joined;
+        }
+    }
+
+    private static final class MapTask<T, R> extends RecursiveAction {
+        private final List<T> items;
+        private final Function<? super T, ? extends R> function;
+        private final Object[] out;
+        private final int from, to, leaf;
+
+        MapTask(List<T> items, Function<? super T, ? extends R> function, Object[] out, int from, int to, int leaf) {
+            this.items = items;
+            this.function = function;
+            this.out = out;
+            this.from = from;
+            this.to = to;
+            this.leaf = leaf;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= leaf) {
+                for (int i = from; i < to; i++) out[i] = function.apply(items.get(i));
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new MapTask<>(items, function, out, from, mid, leaf),
+                    new MapTask<>(items, function, out, mid, to, leaf));
+        }
+    }
+
+    /** Merge sort: leaves use Arrays.sort, merges take the left element on ties to stay stable. */
+    private static final class SortTask<T> extends RecursiveAction {
+        private final T[] array;
+        private final T[] buffer;
+        private final Comparator<? super T> comparator;
+        private final int from, to, leaf;
+
+        SortTask(T[] array, T[] buffer, Comparator<? super T> comparator, int from, int to, int leaf) {
+            this.array = array;
+            this.buffer = buffer;
+            this.comparator = comparator;
+            this.from = from;
+            this.to = to;
+            this.leaf = leaf;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= leaf) {
+                Arrays.sort(array, from, to, comparator);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new SortTask<>(array, buffer, comparator, from, mid, leaf),
+                    new SortTask<>(array, buffer, comparator, mid, to, leaf));
+            if (comparator.compare(array[mid - 1], array[mid]) <= 0) return; // already in order
+            int i = from, j = mid, k = from;
+            while (i < mid && j < to) {
+                buffer[k++] = comparator.compare(array[j], array[i]) < 0 ? array[j++] : array[i++];
+            }
+            while (i < mid) buffer[k++] = array[i++];
+            while (j < to) buffer[k++] = array[j++];
+            System.arraycopy(buffer, from, array, from, to - from);
+        }
+    }
+}
@@ -4,11 +4,13 @@ import org.yaml.snakeyaml.Yaml;
 import java.io.*;
 import java.nio.file.*;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 public class UserProperties {
     private static final String BASE_DIRECTORY = System.getProperty("user.home") + File.separator + ".todoapp";
     private static final String USER_PROPS_FILE = BASE_DIRECTORY + File.separator + "user.yml";
+    private static final long SAVE_DELAY_MS = 200;
     private static Map<String, Object> properties = new HashMap<>();
 
     static {
@@ -58,17 +60,24 @@ public class UserProperties {
         return new HashMap<>();
     }
 
+    /**
+     * Write the properties on the shared {@link IoScheduler}; a run of changes is saved once.
+     */
     public static void saveProperties() {
         // Use current user.home to support test environments
         String currentUserHome = System.getProperty("user.home");
         String currentUserPropsFile = currentUserHome + File.separator + ".todoapp" + File.separator + "user.yml";
-        
-        try (Writer writer = new FileWriter(currentUserPropsFile)) {
-            Yaml yaml = new Yaml();
-            yaml.dump(properties, writer);
-        } catch (IOException e) {
-            handleError("Error saving properties file", e);
-        }
+        // Snapshot now: the map is not safe to read from the writer thread
+        Map<String, Object> snapshot = new LinkedHashMap<>(properties);
+
+        IoScheduler.shared().submit(currentUserPropsFile, IoScheduler.Priority.SETTINGS, SAVE_DELAY_MS, () -> {
+            try (Writer writer = new FileWriter(currentUserPropsFile)) {
+                Yaml yaml = new Yaml();
+                yaml.dump(snapshot, writer);
+            } catch (IOException e) {
+                handleError("Error saving properties file", e);
+            }
+        });
     }
 
     public static void setProperty(String key, Object value) {
@@ -141,6 +150,7 @@ public class UserProperties {
         
         try {
             Files.createDirectories(Paths.get(currentBaseDir));
+            IoScheduler.shared().flush(currentUserPropsFile);
             
             // Load from the new location or create defaults
             Yaml yaml = new Yaml();
@@ -1,23 +1,26 @@
 package COMMON;
 
-import java.io.InputStream;
-import java.util.Map;
-import java.util.HashMap;
+import java.util.List;
+import java.util.function.Supplier;
 
-import javax.imageio.ImageIO;
 import javax.swing.ImageIcon;
-import java.awt.Image;
 import javax.swing.UIManager;
 import java.awt.Color;
 
-import com.formdev.flatlaf.extras.FlatSVGIcon;
-
 import model.TaskStatus;
 
 
 public class common {
 
-    private static final Map<String, ImageIcon> iconCache = new HashMap<>();
+    // Every icon the getters below hand out, pre-rendered when a theme is activated
+    private static final List<String> ATLAS_ICONS = List.of(
+            "icons/app_icon.svg", "icons/day_mode.svg", "icons/night_mode.svg",
+            "icons/add.svg", "icons/view.svg", "icons/delete.svg", "icons/back.svg",
+            "icons/edit.svg", "icons/logout.svg", "icons/userConfig.svg", "icons/save.svg",
+            "icons/sync.svg", "icons/settings.svg", "icons/filter.svg", "icons/restore.svg",
+            "icons/editUser.svg", "icons/deleteUser.svg");
+
+    private static final IconAtlas iconAtlas = new IconAtlas(ATLAS_ICONS);
 
     public static boolean useNightMode = Boolean.valueOf((String) UserProperties.getProperty("darkTheme"));
 
@@ -100,8 +103,7 @@ public class common {
 
     public static void toggleColorMode(){
         useNightMode = !useNightMode;
-        // Clear icon cache so icons get reloaded with new theme colors
-        iconCache.clear();
+        // Icons follow once the new look and feel calls activateIconTheme()
         // Persist the theme preference immediately
         UserProperties.setProperty("darkTheme", String.valueOf(useNightMode));
     }
@@ -127,45 +129,27 @@ public class common {
     }
 
     private static ImageIcon loadIcon(String resourcePath){
-        if (iconCache.containsKey(resourcePath)) {
-            return iconCache.get(resourcePath);
-        }
+        return iconAtlas.get(resourcePath, common::currentIconTheme);
+    }
 
-        try {
-            ImageIcon icon;
-            if (resourcePath.endsWith(".svg")) {
-                // Handle SVG files using FlatLaf's built-in SVG support
-                FlatSVGIcon svgIcon = new FlatSVGIcon(resourcePath, 20, 20);
-                // Apply the current theme's label foreground color to the SVG icon
-                Color labelColor = UIManager.getColor("Label.foreground");
-                if (labelColor != null) {
-                    svgIcon.setColorFilter(new FlatSVGIcon.ColorFilter() {
-                        @Override
-                        public Color filter(Color color) {
-                            return labelColor;
-                        }
-                    });
-                }
-                icon = new ImageIcon(svgIcon.getImage());
-            } else {
-                // Handle PNG files as before
-                try (InputStream is = common.class.getClassLoader().getResourceAsStream(resourcePath)) {
-                    if (is == null) {
-                        System.err.println("Resource not found on classpath: " + resourcePath);
-                        return null;
-                    }
-                    Image image = ImageIO.read(is);
-                    image = image.getScaledInstance(20, 20, Image.SCALE_SMOOTH);
-                    icon = new ImageIcon(image);
-                }
-            }
-
-            iconCache.put(resourcePath, icon);
-            return icon;
-        } catch (Exception e) {
-            System.err.println("Error loading icon: " + resourcePath + " - " + e.getMessage());
-            return null;
-        }
+    /**
+     * Switch icons to the current theme; call right after its look and feel is installed so the
+     * tint matches. The theme's remaining icons are rendered in the background.
+     */
+    public static void activateIconTheme() {
+        iconAtlas.activate(currentIconTheme());
+    }
+
+    /**
+     * Render the icons of the theme a toggle would switch to in the background.
+     * @param tint resolves that theme's label foreground; called off the EDT
+     */
+    public static void prewarmAlternateIconTheme(Supplier<Color> tint) {
+        iconAtlas.prewarm(!useNightMode, tint);
+    }
+
+    private static IconAtlas.Theme currentIconTheme() {
+        return new IconAtlas.Theme(useNightMode, UIManager.getColor("Label.foreground"));
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,121 @@
+package COMMON.jfr;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Event;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+
+/**
+ * Continuous Java Flight Recorder recording for production clients, started with the launcher's
+ * {@code --jfr[=MB]} flag.
+ *
+ * The JDK's "default" settings (low overhead: GC, I/O, locks, sampled stacks) plus the TaskFlow
+ * events of this package are kept in a ring buffer on disk bounded by size and age, so the
+ * recording can stay on for days. Nothing is written where the user can see it until
+ * {@link #dump(Path)} copies the buffer out, e.g. from the dashboard's account menu.
+ */
+public final class FlightRecording {
+    public static final String FLAG = "--jfr";
+    static final long DEFAULT_MAX_MB = 64;
+    private static final Duration MAX_AGE = Duration.ofHours(6);
+    private static final DateTimeFormatter FILE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+    private static final List<Class<? extends Event>> EVENTS = List.of(
+            SyncPhaseEvent.class, ProjectionRebuildEvent.class, PersistenceFlushEvent.class,
+            UiRefreshEvent.class, FolderCacheRefreshEvent.class);
+
+    private static Recording recording;
+
+    private FlightRecording() {
+    }
+
+    /**
+     * Start the recording if {@code args} contain {@code --jfr} or {@code --jfr=<max MB>}.
+     */
+    public static void startIfRequested(String[] args) {
+        for (String arg : args) {
+            if (arg.equals(FLAG)) {
+                start(DEFAULT_MAX_MB);
+            } else if (arg.startsWith(FLAG + "=")) {
+                start(parseMaxMegabytes(arg.substring(FLAG.length() + 1)));
+            }
+        }
+    }
+
+    static long parseMaxMegabytes(String value) {
+        try {
+            long megabytes = Long.parseLong(value.trim());
+            if (megabytes > 0) return megabytes;
+        } catch (NumberFormatException ignored) {
+            // reported below
+        }
+        System.err.println("FlightRecording: ignoring invalid size " + value + ", using " + DEFAULT_MAX_MB + " MB");
+        return DEFAULT_MAX_MB;
+    }
+
+    /**
+     * Start a continuous recording holding at most {@code maxMegabytes}. Safe to call more than once.
+     *
+     * @return whether a recording is running
+     */
+    public static synchronized boolean start(long maxMegabytes) {
+        if (recording != null) return true;
+        if (!FlightRecorder.isAvailable()) {
+            System.err.println("FlightRecording: Flight Recorder is not available in this JVM");
+            return false;
+        }
+        try {
+            Recording continuous = new Recording(Configuration.getConfiguration("default"));
+            continuous.setName("TaskFlow continuous");
+            continuous.setToDisk(true);
+            continuous.setMaxSize(maxMegabytes * 1024 * 1024);
+            continuous.setMaxAge(MAX_AGE);
+            for (Class<? extends Event> type : EVENTS) {
+                continuous.enable(type).withoutStackTrace();
+            }
+            continuous.start();
+            recording = continuous;
+            System.out.println("FlightRecording: continuous recording started, up to " + maxMegabytes + " MB");
+            return true;
+        } catch (IOException | ParseException | IllegalStateException e) {
+            System.err.println("FlightRecording: failed to start: " + e.getMessage());
+            return false;
+        }
+    }
+
+    public static synchronized boolean isRunning() {
+        return recording != null;
+    }
+
+    /**
+     * Copy what the ring buffer holds to a new .jfr file in {@code directory}.
+     *
+     * @return the file written
+     * @throws IllegalStateException if no recording is running
+     */
+    public static synchronized Path dump(Path directory) throws IOException {
+        if (recording == null) throw new IllegalStateException("No flight recording is running");
+        Files.createDirectories(directory);
+        Path file = directory.resolve("taskflow-" + LocalDateTime.now().format(FILE_TIME) + ".jfr");
+        recording.dump(file);
+        System.out.println("FlightRecording: dumped to " + file);
+        return file;
+    }
+
+    /**
+     * Stop and discard the recording.
+     */
+    public static synchronized void stop() {
+        if (recording == null) return;
+        recording.close();
+        recording = null;
+    }
+}
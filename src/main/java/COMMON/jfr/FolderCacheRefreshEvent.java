@@ -0,0 +1,24 @@
+package COMMON.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * The folder cache reloaded from the database.
+ */
+@Name("taskflow.FolderCacheRefresh")
+@Label("Folder Cache Refresh")
+@Category({"TaskFlow", "Sync"})
+@Description("Folders fetched from the database into the local cache")
+@StackTrace(false)
+public final class FolderCacheRefreshEvent extends Event {
+    @Label("Folders")
+    public int folders;
+
+    @Label("Error")
+    public String error;
+}
@@ -0,0 +1,29 @@
+package COMMON.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A user-data file written to disk.
+ */
+@Name("taskflow.PersistenceFlush")
+@Label("Persistence Flush")
+@Category({"TaskFlow", "Store"})
+@Description("A user-data file written to disk")
+@StackTrace(false)
+public final class PersistenceFlushEvent extends Event {
+    @Label("File")
+    public String file;
+
+    @Label("Bytes")
+    @DataAmount
+    public long bytes;
+
+    @Label("Tasks")
+    public int tasks;
+}
@@ -0,0 +1,27 @@
+package COMMON.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * The task store replaying pending commands over the synced tasks.
+ */
+@Name("taskflow.ProjectionRebuild")
+@Label("Projection Rebuild")
+@Category({"TaskFlow", "Store"})
+@Description("Pending commands applied to the synced tasks to produce the visible task list")
+@StackTrace(false)
+public final class ProjectionRebuildEvent extends Event {
+    @Label("Base Tasks")
+    public int baseTasks;
+
+    @Label("Pending Commands")
+    public int pendingCommands;
+
+    @Label("Projected Tasks")
+    public int projectedTasks;
+}
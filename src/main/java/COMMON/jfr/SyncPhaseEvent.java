@@ -0,0 +1,40 @@
+package COMMON.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One phase of a sync round, such as merge_task_commands or the notification fetch.
+ */
+@Name("taskflow.SyncPhase")
+@Label("Sync Phase")
+@Category({"TaskFlow", "Sync"})
+@Description("A phase of a sync round with the commands and bytes it moved")
+@StackTrace(false)
+public final class SyncPhaseEvent extends Event {
+    @Label("Service")
+    @Description("db for the direct database sync, api for the HTTP sync")
+    public String service;
+
+    @Label("Phase")
+    public String phase;
+
+    @Label("Commands")
+    public int commands;
+
+    @Label("Rows")
+    @Description("Tasks, folders or notifications received")
+    public int rows;
+
+    @Label("Bytes")
+    @DataAmount
+    public long bytes;
+
+    @Label("Error")
+    public String error;
+}
@@ -0,0 +1,27 @@
+package COMMON.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * The dashboard putting a new task list on screen, on the EDT.
+ */
+@Name("taskflow.UiRefresh")
+@Label("UI Refresh")
+@Category({"TaskFlow", "UI"})
+@Description("A filtered task list applied to the dashboard")
+@StackTrace(false)
+public final class UiRefreshEvent extends Event {
+    @Label("Listed Tasks")
+    public int listedTasks;
+
+    @Label("Visible Cards")
+    public int visibleCards;
+
+    @Label("Rebuilt Cards")
+    public int rebuiltCards;
+}
@@ -6,11 +6,14 @@ import java.sql.SQLException;
 import COMMON.UserProperties;
 
 public class NeonPool {
+    // Bound connection attempts so an unreachable database fails fast instead of hanging the caller
+    private static final int LOGIN_TIMEOUT_SECONDS = 5;
     private static String dbUrl;
 
     static {
         try {
             dbUrl = (String) UserProperties.getProperty("dbUrl");
+            DriverManager.setLoginTimeout(LOGIN_TIMEOUT_SECONDS);
         } catch (Exception e) {
             System.err.println("Error al configurar la conexión a la base de datos: " + e.getMessage());
         }
@@ -0,0 +1,181 @@
+package UI;
+
+import java.awt.Component;
+import java.awt.Container;
+import java.awt.GraphicsEnvironment;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.DoubleConsumer;
+
+import javax.swing.JComponent;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+
+/**
+ * Single frame clock for every UI animation.
+ *
+ * One Swing timer ticks at the display's refresh rate while at least one animation is active and
+ * stops when none are left. Each tick advances all animations in one pass; components they touch
+ * are registered with {@link #requestLayout} and laid out once at the end of the frame instead of
+ * once per animation. All methods must be called on the EDT.
+ */
+public final class AnimationClock {
+
+    /**
+     * Handle to a scheduled animation.
+     */
+    public static final class Animation {
+        private final long delayNanos;
+        private final long durationNanos;
+        private final DoubleConsumer onFrame;
+        private final Runnable onFinish;
+        private long startNanos = -1;
+        private boolean done;
+
+        private Animation(long delayMs, long durationMs, DoubleConsumer onFrame, Runnable onFinish) {
+            this.delayNanos = Math.max(0, delayMs) * 1_000_000L;
+            this.durationNanos = Math.max(1, durationMs) * 1_000_000L;
+            this.onFrame = onFrame;
+            this.onFinish = onFinish;
+        }
+
+        /**
+         * Stop without running the finish callback.
+         */
+        public void cancel() {
+            done = true;
+        }
+
+        public boolean isDone() {
+            return done;
+        }
+
+        /** @return true when the animation has finished */
+        private boolean advance(long now, long scheduledAt) {
+            if (done) return true;
+            if (startNanos < 0) {
+                if (now - scheduledAt < delayNanos) return false;
+                startNanos = now;
+            }
+            double progress = Math.min(1.0, (now - startNanos) / (double) durationNanos);
+            onFrame.accept(progress);
+            if (progress >= 1.0) {
+                done = true;
+                if (onFinish != null) onFinish.run();
+                return true;
+            }
+            return false;
+        }
+    }
+
+    private static final AnimationClock SHARED = new AnimationClock(frameIntervalMs());
+
+    private final Timer timer;
+    private final List<Animation> active = new ArrayList<>();
+    private final List<Long> scheduledAt = new ArrayList<>();
+    private final Set<JComponent> needsLayout = new LinkedHashSet<>();
+    private long framesRendered;
+
+    AnimationClock(int frameIntervalMs) {
+        timer = new Timer(frameIntervalMs, e -> tick());
+        timer.setCoalesce(true);
+    }
+
+    public static AnimationClock getShared() {
+        return SHARED;
+    }
+
+    /**
+     * Run {@code onFrame} with the linear progress (0..1] once per frame for {@code durationMs},
+     * starting after {@code delayMs}; {@code onFinish} runs right after the final frame.
+     */
+    public Animation animate(long delayMs, long durationMs, DoubleConsumer onFrame, Runnable onFinish) {
+        Animation animation = new Animation(delayMs, durationMs, onFrame, onFinish);
+        active.add(animation);
+        scheduledAt.add(System.nanoTime());
+        if (!timer.isRunning()) timer.start();
+        return animation;
+    }
+
+    /**
+     * Lay out {@code component} (and its validate root) once at the end of the current frame.
+     */
+    public void requestLayout(JComponent component) {
+        needsLayout.add(component);
+        if (!timer.isRunning()) timer.start();
+    }
+
+    public boolean isRunning() {
+        return timer.isRunning();
+    }
+
+    public int getActiveCount() {
+        return active.size();
+    }
+
+    public long getFramesRendered() {
+        return framesRendered;
+    }
+
+    void tick() {
+        long now = System.nanoTime();
+        // Animations started from a callback join the next frame
+        int count = active.size();
+        for (int i = 0; i < count; i++) {
+            Animation animation = active.get(i);
+            try {
+                animation.advance(now, scheduledAt.get(i));
+            } catch (RuntimeException ex) {
+                System.err.println("AnimationClock: animation failed: " + ex.getMessage());
+                animation.cancel();
+            }
+        }
+        for (int i = active.size() - 1; i >= 0; i--) {
+            if (active.get(i).isDone()) {
+                active.remove(i);
+                scheduledAt.remove(i);
+            }
+        }
+        flushLayout();
+        framesRendered++;
+        if (active.isEmpty()) timer.stop();
+    }
+
+    private void flushLayout() {
+        if (needsLayout.isEmpty()) return;
+        Set<Component> roots = new LinkedHashSet<>();
+        for (JComponent component : needsLayout) {
+            component.invalidate();
+            roots.add(validateRoot(component));
+        }
+        needsLayout.clear();
+        for (Component root : roots) {
+            root.validate();
+            root.repaint();
+        }
+    }
+
+    private static Component validateRoot(Component component) {
+        Component c = component;
+        while (c.getParent() != null && !(c instanceof JComponent jc && jc.isValidateRoot())) {
+            c = c.getParent();
+        }
+        return c instanceof Container ? c : SwingUtilities.getRoot(component);
+    }
+
+    private static int frameIntervalMs() {
+        int refreshRate = 60;
+        try {
+            if (!GraphicsEnvironment.isHeadless()) {
+                int rate = GraphicsEnvironment.getLocalGraphicsEnvironment()
+                        .getDefaultScreenDevice().getDisplayMode().getRefreshRate();
+                if (rate > 0) refreshRate = rate;
+            }
+        } catch (UnsupportedOperationException ignored) {
+            // HeadlessException included; keep the 60 Hz default
+        }
+        return Math.max(4, 1000 / refreshRate);
+    }
+}
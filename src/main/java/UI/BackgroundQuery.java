@@ -0,0 +1,88 @@
+package UI;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import javax.swing.SwingUtilities;
+
+/**
+ * Runs UI queries (filtering, projections) on a background thread and publishes only the newest
+ * result to the EDT.
+ *
+ * Every {@link #submit} takes a new generation number. A query whose generation has been
+ * superseded by the time it starts is skipped, and a result that arrives after a newer submit is
+ * dropped instead of published, so a burst of filter clicks ends in exactly one repaint with the
+ * latest criteria.
+ */
+public final class BackgroundQuery<T> {
+    private final ExecutorService worker;
+    private final Executor publishExecutor;
+    private final Consumer<T> publisher;
+    private final AtomicLong generation = new AtomicLong();
+    private final AtomicLong discarded = new AtomicLong();
+
+    /**
+     * @param threadName name of the worker thread
+     * @param publisher receives each current result on the EDT
+     */
+    public BackgroundQuery(String threadName, Consumer<T> publisher) {
+        this(threadName, publisher, SwingUtilities::invokeLater);
+    }
+
+    BackgroundQuery(String threadName, Consumer<T> publisher, Executor publishExecutor) {
+        this.publisher = publisher;
+        this.publishExecutor = publishExecutor;
+        this.worker = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, threadName);
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Queue a query, superseding any earlier one that hasn't been published yet.
+     * @return the generation assigned to this query
+     */
+    public long submit(Supplier<T> query) {
+        long gen = generation.incrementAndGet();
+        worker.execute(() -> {
+            if (gen != generation.get()) {
+                discarded.incrementAndGet();
+                return;
+            }
+            T result;
+            try {
+                result = query.get();
+            } catch (RuntimeException e) {
+                System.err.println("BackgroundQuery: query failed: " + e.getMessage());
+                return;
+            }
+            publishExecutor.execute(() -> {
+                // Re-check on the publishing thread: a newer submit may have happened meanwhile
+                if (gen == generation.get()) {
+                    publisher.accept(result);
+                } else {
+                    discarded.incrementAndGet();
+                }
+            });
+        });
+        return gen;
+    }
+
+    public long getGeneration() {
+        return generation.get();
+    }
+
+    /** Number of queries skipped or results dropped because a newer one was submitted. */
+    public long getDiscardedCount() {
+        return discarded.get();
+    }
+
+    public void shutdown() {
+        worker.shutdownNow();
+    }
+}
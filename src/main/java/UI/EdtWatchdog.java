@@ -0,0 +1,329 @@
+package UI;
+
+import java.awt.AWTEvent;
+import java.awt.EventQueue;
+import java.awt.Toolkit;
+import java.io.File;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import javax.swing.SwingUtilities;
+
+import COMMON.JSONUtils;
+import COMMON.UserProperties;
+
+/**
+ * Watches the Swing thread for work that blocks it.
+ *
+ * An event queue pushed in front of the system one times every dispatched event. A daemon monitor
+ * thread samples the EDT stack once an event has been running longer than the threshold, so the
+ * stack shows what the EDT is stuck in rather than where the event ended. Slow events are grouped
+ * by the innermost application frame of that stack. The monitor also posts a heartbeat to measure
+ * how long a new event waits before it's dispatched. The aggregate is written to
+ * {@value #REPORT_FILE} in the user data directory (the base directory before login) every
+ * {@link #REPORT_INTERVAL_MS} ms when it changed, and on shutdown.
+ */
+public final class EdtWatchdog {
+    public static final String REPORT_FILE = "edt_watchdog.json";
+    static final long DEFAULT_THRESHOLD_MS = 200;
+    private static final long REPORT_INTERVAL_MS = 60_000;
+    private static final int MAX_STACK_DEPTH = 40;
+    // Frames from these packages are skipped when naming the code responsible for a slow event
+    private static final String[] PLATFORM_PACKAGES = {
+        "java.", "javax.", "sun.", "jdk.", "com.sun.", "com.formdev.", "net.miginfocom.",
+        "com.fasterxml.", "org.postgresql.", "org.yaml."
+    };
+
+    private static EdtWatchdog installed;
+
+    /**
+     * Offenders sharing one blocking location.
+     */
+    static final class Offender {
+        private final String location;
+        private int count;
+        private long totalMs;
+        private long maxMs;
+        private StackTraceElement[] stack;
+
+        private Offender(String location) {
+            this.location = location;
+        }
+
+        String getLocation() { return location; }
+        int getCount() { return count; }
+        long getTotalMs() { return totalMs; }
+        long getMaxMs() { return maxMs; }
+    }
+
+    private final class WatchedQueue extends EventQueue {
+        @Override
+        protected void dispatchEvent(AWTEvent event) {
+            // The EDT can be replaced (e.g. after an uncaught exception), so refresh it every time
+            edtThread = Thread.currentThread();
+            long seq = eventSeq.incrementAndGet();
+            long start = System.nanoTime();
+            // Written in this order so the monitor never pairs a new start with an old sequence
+            currentStartNanos = start;
+            currentSeq = seq;
+            try {
+                super.dispatchEvent(event);
+            } finally {
+                currentSeq = 0;
+                long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+                // Events dispatched meanwhile mean this one ran a secondary loop (a modal dialog),
+                // which waits for the user rather than blocking the EDT
+                boolean ranNestedLoop = eventSeq.get() != seq;
+                if (elapsedMs >= thresholdMs && !ranNestedLoop) recordSlowEvent(seq, event, elapsedMs);
+            }
+        }
+
+        void uninstall() {
+            pop();
+        }
+    }
+
+    private final long thresholdMs;
+    private final long sampleIntervalMs;
+    private final Supplier<File> reportFile;
+    private final WatchedQueue queue = new WatchedQueue();
+    private final AtomicLong eventSeq = new AtomicLong();
+    private volatile Thread edtThread;
+    private volatile long currentSeq;
+    private volatile long currentStartNanos;
+    private volatile boolean running;
+    private Thread monitor;
+
+    // Stack sampled by the monitor for the slow event still running; read when it finishes
+    private long sampledSeq;
+    private StackTraceElement[] sampledStack;
+
+    // Guarded by this
+    private final Map<String, Offender> offenders = new HashMap<>();
+    private long slowEvents;
+    private long maxQueueLatencyMs;
+    private long heartbeats;
+    private long totalQueueLatencyMs;
+    private boolean dirty;
+
+    EdtWatchdog(long thresholdMs, long sampleIntervalMs, Supplier<File> reportFile) {
+        this.thresholdMs = thresholdMs;
+        this.sampleIntervalMs = sampleIntervalMs;
+        this.reportFile = reportFile;
+    }
+
+    /**
+     * Start watching the EDT of this application. Safe to call more than once.
+     */
+    public static synchronized EdtWatchdog install() {
+        if (installed == null) {
+            installed = new EdtWatchdog(DEFAULT_THRESHOLD_MS, DEFAULT_THRESHOLD_MS / 4, EdtWatchdog::defaultReportFile);
+            installed.start();
+            EdtWatchdog watchdog = installed;
+            Runtime.getRuntime().addShutdownHook(new Thread(watchdog::writeReport, "EdtWatchdog-report"));
+        }
+        return installed;
+    }
+
+    void start() {
+        running = true;
+        Toolkit.getDefaultToolkit().getSystemEventQueue().push(queue);
+        monitor = new Thread(this::monitorLoop, "EdtWatchdog");
+        monitor.setDaemon(true);
+        monitor.start();
+    }
+
+    void stop() {
+        running = false;
+        if (monitor != null) monitor.interrupt();
+        queue.uninstall();
+    }
+
+    private void monitorLoop() {
+        long lastReport = System.nanoTime();
+        AtomicLong heartbeatPostedAt = new AtomicLong();
+        while (running) {
+            try {
+                TimeUnit.MILLISECONDS.sleep(sampleIntervalMs);
+            } catch (InterruptedException e) {
+                return;
+            }
+            sampleIfBlocked();
+
+            // One heartbeat in flight at a time; its wait is the dispatch latency a click would see
+            if (heartbeatPostedAt.compareAndSet(0, System.nanoTime())) {
+                SwingUtilities.invokeLater(() -> {
+                    long waitedMs = (System.nanoTime() - heartbeatPostedAt.getAndSet(0)) / 1_000_000;
+                    recordQueueLatency(waitedMs);
+                });
+            }
+
+            if (System.nanoTime() - lastReport >= TimeUnit.MILLISECONDS.toNanos(REPORT_INTERVAL_MS)) {
+                lastReport = System.nanoTime();
+                writeReportIfChanged();
+            }
+        }
+    }
+
+    private void sampleIfBlocked() {
+        long seq = currentSeq;
+        Thread edt = edtThread;
+        if (seq == 0 || edt == null) return;
+        long runningMs = (System.nanoTime() - currentStartNanos) / 1_000_000;
+        if (runningMs < thresholdMs) return;
+        synchronized (this) {
+            if (sampledSeq == seq) return;
+        }
+        StackTraceElement[] stack = edt.getStackTrace();
+        // The event may have finished while the stack was taken; then the sample is meaningless
+        if (currentSeq != seq) return;
+        synchronized (this) {
+            sampledSeq = seq;
+            sampledStack = stack;
+        }
+        System.err.println("EdtWatchdog: EDT blocked for " + runningMs + " ms in " + locationOf(stack));
+    }
+
+    private synchronized void recordSlowEvent(long seq, AWTEvent event, long elapsedMs) {
+        StackTraceElement[] stack = sampledSeq == seq ? sampledStack : null;
+        String location = stack != null ? locationOf(stack) : "unsampled " + event.getClass().getSimpleName();
+        Offender offender = offenders.computeIfAbsent(location, Offender::new);
+        offender.count++;
+        offender.totalMs += elapsedMs;
+        if (elapsedMs >= offender.maxMs) {
+            offender.maxMs = elapsedMs;
+            if (stack != null) offender.stack = stack;
+        }
+        slowEvents++;
+        dirty = true;
+    }
+
+    private synchronized void recordQueueLatency(long waitedMs) {
+        heartbeats++;
+        totalQueueLatencyMs += waitedMs;
+        if (waitedMs > maxQueueLatencyMs) {
+            maxQueueLatencyMs = waitedMs;
+            dirty = true;
+        }
+    }
+
+    /**
+     * Innermost application frame of {@code stack}, or its top frame when it has none.
+     */
+    static String locationOf(StackTraceElement[] stack) {
+        if (stack.length == 0) return "unknown";
+        for (StackTraceElement frame : stack) {
+            if (!isPlatformFrame(frame) && !isWatchdogFrame(frame)) {
+                return describe(frame);
+            }
+        }
+        return describe(stack[0]);
+    }
+
+    /** Frame as class.method(File.java:line), without the class loader and module prefix. */
+    private static String describe(StackTraceElement frame) {
+        String source = frame.isNativeMethod() ? "Native Method"
+                : frame.getFileName() == null ? "Unknown Source"
+                : frame.getLineNumber() < 0 ? frame.getFileName()
+                : frame.getFileName() + ":" + frame.getLineNumber();
+        return frame.getClassName() + "." + frame.getMethodName() + "(" + source + ")";
+    }
+
+    private static boolean isWatchdogFrame(StackTraceElement frame) {
+        String className = frame.getClassName();
+        return className.equals(EdtWatchdog.class.getName()) || className.startsWith(EdtWatchdog.class.getName() + "$");
+    }
+
+    private static boolean isPlatformFrame(StackTraceElement frame) {
+        String className = frame.getClassName();
+        for (String prefix : PLATFORM_PACKAGES) {
+            if (className.startsWith(prefix)) return true;
+        }
+        return false;
+    }
+
+    /** Offenders ordered by total blocked time, worst first. */
+    synchronized List<Offender> getOffenders() {
+        List<Offender> sorted = new ArrayList<>(offenders.values());
+        sorted.sort(Comparator.comparingLong(Offender::getTotalMs).reversed());
+        return sorted;
+    }
+
+    public synchronized long getSlowEventCount() {
+        return slowEvents;
+    }
+
+    public synchronized long getMaxQueueLatencyMs() {
+        return maxQueueLatencyMs;
+    }
+
+    public long getDispatchedEventCount() {
+        return eventSeq.get();
+    }
+
+    private void writeReportIfChanged() {
+        synchronized (this) {
+            if (!dirty) return;
+        }
+        writeReport();
+    }
+
+    /**
+     * Write the aggregated report now.
+     */
+    public void writeReport() {
+        File file = reportFile.get();
+        if (file == null) return;
+        try {
+            JSONUtils.writeJsonFile(buildReport(), file);
+        } catch (IOException e) {
+            System.err.println("EdtWatchdog: failed to write report: " + e.getMessage());
+        }
+    }
+
+    synchronized Map<String, Object> buildReport() {
+        dirty = false;
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("generated_at", LocalDateTime.now().toString());
+        report.put("threshold_ms", thresholdMs);
+        report.put("events_dispatched", eventSeq.get());
+        report.put("slow_events", slowEvents);
+        report.put("max_queue_latency_ms", maxQueueLatencyMs);
+        report.put("mean_queue_latency_ms", heartbeats == 0 ? 0 : totalQueueLatencyMs / heartbeats);
+        List<Map<String, Object>> entries = new ArrayList<>();
+        for (Offender offender : getOffenders()) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("location", offender.location);
+            entry.put("count", offender.count);
+            entry.put("total_ms", offender.totalMs);
+            entry.put("max_ms", offender.maxMs);
+            if (offender.stack != null) {
+                entry.put("stack", Arrays.stream(offender.stack).limit(MAX_STACK_DEPTH)
+                        .map(EdtWatchdog::describe).toList());
+            }
+            entries.add(entry);
+        }
+        report.put("offenders", entries);
+        return report;
+    }
+
+    private static File defaultReportFile() {
+        try {
+            String userDir = UserProperties.getCurrentUserDataDirectory();
+            String dir = userDir != null ? userDir : UserProperties.getBaseDirectory();
+            return new File(dir, REPORT_FILE);
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+}
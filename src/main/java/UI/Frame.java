@@ -2,6 +2,7 @@ package UI;
 
 import javax.swing.ImageIcon;
 import javax.swing.JFrame;
+import javax.swing.LookAndFeel;
 import javax.swing.UIManager;
 import javax.swing.SwingUtilities;
 
@@ -18,15 +19,16 @@ public class Frame extends JFrame{
         setLocationRelativeTo(null);
         setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
         refreshTheme();
-        ImageIcon appIcon = common.getAppIcon();
-        setIconImage(appIcon.getImage());
     }
 
 
     private void applyThemeDefaults() {
         try {
             FlatAnimatedLafChange.showSnapshot();
-            UIManager.setLookAndFeel(common.useNightMode ? new NigthBlue() : new CoffeYellow());
+            UIManager.setLookAndFeel(lookAndFeel(common.useNightMode));
+            common.activateIconTheme();
+            boolean alternate = !common.useNightMode;
+            common.prewarmAlternateIconTheme(() -> lookAndFeel(alternate).getDefaults().getColor("Label.foreground"));
             FlatAnimatedLafChange.hideSnapshotWithAnimation();
         } catch (Exception ex) {
             System.err.println("Failed to initialize LaF: " + ex.getMessage());
@@ -34,8 +36,19 @@ public class Frame extends JFrame{
         }
     }
 
+    private static LookAndFeel lookAndFeel(boolean night) {
+        return night ? new NigthBlue() : new CoffeYellow();
+    }
+
+    /**
+     * Apply the current theme to this frame in place: existing components get the new look and
+     * feel, and icons set through {@link UIUtils#setThemedIcon} are swapped for the new theme's.
+     */
     public void refreshTheme() {
         applyThemeDefaults();
         SwingUtilities.updateComponentTreeUI(this);
+        UIUtils.refreshThemedIcons(this);
+        ImageIcon appIcon = common.getAppIcon();
+        if (appIcon != null) setIconImage(appIcon.getImage());
     }
 }
\ No newline at end of file
@@ -1,29 +1,28 @@
 package UI;
 
 import java.awt.BorderLayout;
-import java.awt.Component;
 import java.awt.Container;
 import java.awt.Dimension;
-import java.awt.Point;
 import java.awt.Rectangle;
 import java.awt.event.ComponentAdapter;
 import java.awt.event.ComponentEvent;
 import java.awt.event.WindowAdapter;
 import java.awt.event.WindowEvent;
-import java.awt.event.ActionEvent;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Set;
+import java.util.HashSet;
 import java.util.Collections;
 import java.util.ArrayList;
 import javax.swing.BorderFactory;
-import javax.swing.JLabel;
 import javax.swing.JPanel;
 import javax.swing.JScrollPane;
-import javax.swing.JViewport;
 import javax.swing.SwingUtilities;
 import javax.swing.Timer;
 
+import COMMON.Log;
+import COMMON.Metrics;
+import COMMON.jfr.UiRefreshEvent;
 import COMMON.UserProperties;
 import COMMON.common;
 import UI.components.TopBarPanel;
@@ -33,31 +32,32 @@ import UI.components.EditTaskPanel;
 import UI.components.ViewTaskPanel;
 import UI.components.TaskCardPanel;
 import UI.components.HistoryPanel;
+import UI.components.TaskListDiff;
+import UI.components.VirtualTaskList;
 import controller.TaskController;
+import model.CompletedTaskIndex;
 import model.FiltersCriteria;
+import model.TaskCounters;
 import model.TaskStatus;
 import model.Task;
-import net.miginfocom.swing.MigLayout;
 
 public class TaskDashboardFrame extends Frame {
     private static final int ANIMATION_DURATION = 150;
-    private static final int TIMER_DELAY = 15;
     private static final int CARD_ANIMATION_DURATION = 100;
-    private static final int CARD_TIMER_DELAY = 10;
     private static final int STAGGER_DELAY = 50;
     private static final int FIRST_RUN_DELAY = 200;
+    private static final Log LOG = Log.get(TaskDashboardFrame.class);
 
     private TaskController taskController;
     private boolean firstRun = true;
-    private JPanel taskListPanel;
-    private MigLayout taskListLayout;
+    private VirtualTaskList taskList;
     private JPanel contentContainer;
     private JPanel mainPanel;
     private NewTaskPanel newTaskPanel;
     private EditTaskPanel editTaskCardPanel;
-    private TaskCardPanel activeEditCardPanel;
+    private String editingTaskId;
     private ViewTaskPanel viewTaskCardPanel;
-    private TaskCardPanel activeViewCardPanel;
+    private String viewingTaskId;
     private TopBarPanel topBarPanel;
     private BottomBarPanel bottomBarPanel;
     private boolean isNewTaskVisible = false;
@@ -67,6 +67,12 @@ public class TaskDashboardFrame extends Frame {
     private boolean isHistoryVisible = false;
 
     FiltersCriteria filterCriteria = FiltersCriteria.defaultCriteria();
+    private final BackgroundQuery<List<Task>> taskListQuery = new BackgroundQuery<>("TaskListQuery", this::showTasks);
+    private final BackgroundQuery<CompletedTaskIndex> historyQuery = new BackgroundQuery<>("TaskHistoryQuery", this::showHistoryIndex);
+    // Set when the history panel opens: the next index shows its newest page instead of refreshing in place
+    private boolean historyReset;
+    // Oldest refresh not yet on screen; superseded queries are folded into it
+    private volatile long refreshRequestedAt;
 
     public TaskDashboardFrame(String title) {
         super(title);
@@ -86,17 +92,11 @@ public class TaskDashboardFrame extends Frame {
         });
     }
 
-    private void rebuildUI() {
-        SwingUtilities.invokeLater(() -> {
-            Container content = getContentPane();
-            content.removeAll();
-            initComponents();
-            taskController.loadInitialFolderList();
-            taskController.loadInitialTasks();
-            updateLastSyncLabel();
-            revalidate();
-            repaint();
-        });
+    @Override
+    public void dispose() {
+        taskListQuery.shutdown();
+        historyQuery.shutdown();
+        super.dispose();
     }
 
     public void setController(TaskController taskController) {
@@ -127,11 +127,15 @@ public class TaskDashboardFrame extends Frame {
         mainPanel = new JPanel(new BorderLayout(0, 0));
         topBarPanel = new TopBarPanel(new TopBarPanel.Listener() {
             public void onFolderFilterChanged(String folder) {
-                filterCriteria = new FiltersCriteria(folder, filterCriteria.statuses());
+                filterCriteria = new FiltersCriteria(folder, filterCriteria.statuses(), filterCriteria.searchText());
                 refreshTaskListDisplay();
             }
             public void onStatusFilterChanged(Set<TaskStatus> statuses) {
-                filterCriteria = new FiltersCriteria(filterCriteria.folderName(), statuses);
+                filterCriteria = new FiltersCriteria(filterCriteria.folderName(), statuses, filterCriteria.searchText());
+                refreshTaskListDisplay();
+            }
+            public void onSearchChanged(String text) {
+                filterCriteria = filterCriteria.withSearchText(text);
                 refreshTaskListDisplay();
             }
             public void onClearFilters() {
@@ -157,14 +161,23 @@ public class TaskDashboardFrame extends Frame {
                 common.toggleColorMode();
                 UserProperties.setProperty("darkTheme", String.valueOf(common.useNightMode));
                 refreshTheme();
-                rebuildUI();
+            }
+            public void onSaveRecording() {
+                taskController.handleSaveRecordingRequest();
+            }
+            public void onExportSyncTraces() {
+                taskController.handleExportTracesRequest();
             }
         });
         add(topBarPanel, BorderLayout.NORTH);
 
-        taskListLayout = new MigLayout("wrap 1, fillx, inset 15, hidemode 3", "[grow, fill]", "");
-        taskListPanel = new JPanel(taskListLayout);
-        JScrollPane scrollPane = new JScrollPane(taskListPanel);
+        taskList = new VirtualTaskList(new TaskCardPanel.Listener() {
+            public void onToggleComplete(Task t) { taskController.handleTaskCompletionToggle(t); }
+            public void onView(Task t) { toggleViewTaskCard(t); }
+            public void onEdit(Task t) { toggleEditTaskCard(t); }
+            public void onDelete(Task t) { taskController.handleDeleteTaskRequest(t.getTask_id()); }
+        });
+        JScrollPane scrollPane = new JScrollPane(taskList);
         scrollPane.setBorder(BorderFactory.createEmptyBorder());
         scrollPane.setHorizontalScrollBarPolicy(JScrollPane.HORIZONTAL_SCROLLBAR_NEVER);
         scrollPane.setVerticalScrollBarPolicy(JScrollPane.VERTICAL_SCROLLBAR_ALWAYS);
@@ -231,15 +244,13 @@ public class TaskDashboardFrame extends Frame {
             @Override
             public void onTaskRestore(Task task) {
                 taskController.handleTaskCompletionToggle(task);
-                List<Task> taskHistory = taskController.getTaskHistory();
-                historyPanel.displayTaskHistory(taskHistory);
+                historyQuery.submit(taskController::getTaskHistoryIndex);
             }
             
             @Override
             public void onTaskDelete(Task task) {
                 taskController.handleDeleteTaskRequest(task.getTask_id());
-                List<Task> taskHistory = taskController.getTaskHistory();
-                historyPanel.displayTaskHistory(taskHistory);
+                historyQuery.submit(taskController::getTaskHistoryIndex);
             }
         });        
         historyPanel.setBounds(-width, 0, width, height);
@@ -360,63 +371,17 @@ public class TaskDashboardFrame extends Frame {
      */
     private void slidePanel(JPanel slidingPanel, JPanel stationaryPanel, boolean slideIn, boolean fromRight) {
         int width = contentContainer.getWidth();
-        int totalSteps = Math.max(1, ANIMATION_DURATION / TIMER_DELAY);
-        int delta = Math.max(1, width / totalSteps);
-
-        Timer timer = new Timer(TIMER_DELAY, null);
-        timer.addActionListener(e -> {
-            Point stationaryLoc = stationaryPanel.getLocation();
-            Point slidingLoc = slidingPanel.getLocation();
-
-            if (slideIn) {
-                // Slide in animation
-                if (fromRight) {
-                    // Sliding from right (history panel)
-                    if (slidingLoc.x >= 0) {
-                        slidingPanel.setLocation(0, 0);
-                        stationaryPanel.setLocation(width, 0);
-                        timer.stop();
-                    } else {
-                        stationaryPanel.setLocation(stationaryLoc.x + delta, 0);
-                        slidingPanel.setLocation(slidingLoc.x + delta, 0);
-                    }
-                } else {
-                    // Sliding from left (new task panel)
-                    if (slidingLoc.x <= 0) {
-                        slidingPanel.setLocation(0, 0);
-                        stationaryPanel.setLocation(-width, 0);
-                        timer.stop();
-                    } else {
-                        stationaryPanel.setLocation(stationaryLoc.x - delta, 0);
-                        slidingPanel.setLocation(slidingLoc.x - delta, 0);
-                    }
-                }
-            } else {
-                // Slide out animation
-                if (fromRight) {
-                    // Sliding to right (history panel)
-                    if (stationaryLoc.x <= 0) {
-                        stationaryPanel.setLocation(0, 0);
-                        slidingPanel.setLocation(-width, 0);
-                        timer.stop();
-                    } else {
-                        stationaryPanel.setLocation(stationaryLoc.x - delta, 0);
-                        slidingPanel.setLocation(slidingLoc.x - delta, 0);
-                    }
-                } else {
-                    // Sliding to left (new task panel)
-                    if (stationaryLoc.x >= 0) {
-                        stationaryPanel.setLocation(0, 0);
-                        slidingPanel.setLocation(width, 0);
-                        timer.stop();
-                    } else {
-                        stationaryPanel.setLocation(stationaryLoc.x + delta, 0);
-                        slidingPanel.setLocation(slidingLoc.x + delta, 0);
-                    }
-                }
-            }
-        });
-        timer.start();
+        // fromRight: history panel parked at -width; otherwise new task panel parked at +width
+        int parked = fromRight ? -width : width;
+        int slidingFrom = slidingPanel.getX();
+        int stationaryFrom = stationaryPanel.getX();
+        int slidingTo = slideIn ? 0 : parked;
+        int stationaryTo = slideIn ? -parked : 0;
+
+        AnimationClock.getShared().animate(0, ANIMATION_DURATION, progress -> {
+            slidingPanel.setLocation(slidingFrom + (int) Math.round((slidingTo - slidingFrom) * progress), 0);
+            stationaryPanel.setLocation(stationaryFrom + (int) Math.round((stationaryTo - stationaryFrom) * progress), 0);
+        }, null);
     }
 
     private void slideInNewTaskPanel() {
@@ -449,290 +414,229 @@ public class TaskDashboardFrame extends Frame {
      */
     public void displayTaskHistory() {
         slideInHistoryPanel();
-        List<Task> taskHistory = taskController.getTaskHistory();
-        historyPanel.displayTaskHistory(taskHistory);
+        // Indexing a large history takes a while: build it off the EDT
+        historyReset = true;
+        historyQuery.submit(taskController::getTaskHistoryIndex);
     }
 
-    private void animatePanelHeight(JPanel panel, int targetHeight, Runnable onFinish) {
-        int steps = Math.max(1, CARD_ANIMATION_DURATION / CARD_TIMER_DELAY);
-        int delta = Math.max(1, targetHeight / steps);
-        final int[] curr = {0};
-        Timer t = new Timer(CARD_TIMER_DELAY, null);
-        t.addActionListener((ActionEvent e) -> {
-            if (panel.getParent() != taskListPanel) {
-                ((Timer)e.getSource()).stop();
-                if (onFinish != null) onFinish.run();
-                return;
-            }
-            curr[0] = Math.min(targetHeight, curr[0] + delta);
-            try {
-                taskListLayout.setComponentConstraints(panel, "growx, gapbottom 10, h " + curr[0] + "!");
-            } catch (IllegalArgumentException ignored) {}
-            taskListPanel.revalidate(); taskListPanel.repaint();
-            if (curr[0] >= targetHeight) {
-                ((Timer)e.getSource()).stop();
-                try {
-                    taskListLayout.setComponentConstraints(panel, "growx, gapbottom 10");
-                } catch (IllegalArgumentException ignored) {}
-                if (onFinish != null) onFinish.run();
-            }
+    private void showHistoryIndex(CompletedTaskIndex index) {
+        if (historyReset) {
+            historyReset = false;
+            historyPanel.showHistory(index);
+        } else {
+            historyPanel.refreshHistory(index);
+        }
+    }
+
+    private void animatePanelHeight(String taskId, int targetHeight, Runnable onFinish) {
+        animateRowHeight(taskId, 0, targetHeight, 0, () -> {
+            taskList.setRowHeight(taskId, null);
+            AnimationClock.getShared().requestLayout(taskList);
+            if (onFinish != null) onFinish.run();
         });
-        t.start();
     }
 
-    private void animatePanelCollapse(JPanel panel, Runnable onFinish) {
-        int initial = panel.getHeight();
-        int steps = Math.max(1, CARD_ANIMATION_DURATION / CARD_TIMER_DELAY);
-        int delta = Math.max(1, initial / steps);
-        final int[] curr = {initial};
-        Timer t = new Timer(CARD_TIMER_DELAY, null);
-        t.addActionListener(e -> {
-            if (panel.getParent() != taskListPanel) {
-                ((Timer)e.getSource()).stop();
+    private void animatePanelCollapse(String taskId, Runnable onFinish) {
+        Rectangle row = taskList.getRowBounds(taskId);
+        int initial = row != null ? row.height : 0;
+        animateRowHeight(taskId, initial, 0, 0, onFinish);
+    }
+
+    /**
+     * Pin the row's height and move it from {@code from} to {@code to} on the shared animation clock.
+     * If the task leaves the list mid-way the animation stops and {@code onFinish} still runs.
+     */
+    private void animateRowHeight(String taskId, int from, int to, long delayMs, Runnable onFinish) {
+        AnimationClock clock = AnimationClock.getShared();
+        AnimationClock.Animation[] self = new AnimationClock.Animation[1];
+        self[0] = clock.animate(delayMs, CARD_ANIMATION_DURATION, progress -> {
+            if (!taskList.containsTask(taskId)) {
+                self[0].cancel();
                 if (onFinish != null) onFinish.run();
                 return;
             }
-            curr[0] = Math.max(0, curr[0] - delta);
-            try {
-                taskListLayout.setComponentConstraints(panel, "growx, gapbottom 10, h " + curr[0] + "!");
-            } catch (IllegalArgumentException ignored) {}
-            taskListPanel.revalidate(); taskListPanel.repaint();
-            if (curr[0] <= 0) {
-                ((Timer)e.getSource()).stop();
-                if (onFinish != null) onFinish.run();
-            }
+            taskList.setRowHeight(taskId, from + (int) Math.round((to - from) * progress));
+            clock.requestLayout(taskList);
+        }, onFinish);
+    }
+
+    /**
+     * Collapse whatever the row shows, swap in {@code expansion} (or the task's card again when null)
+     * and grow the row back to the new content's height.
+     */
+    private void swapRow(String taskId, javax.swing.JComponent expansion, Runnable onFinish) {
+        animatePanelCollapse(taskId, () -> {
+            if (expansion != null) taskList.setExpansion(taskId, expansion);
+            else taskList.clearExpansion(taskId);
+            taskList.setRowHeight(taskId, 0);
+            animatePanelHeight(taskId, taskList.getNaturalRowHeight(taskId), onFinish);
         });
-        t.start();
     }
 
-    private void toggleEditTaskCard(Task taskToEdit, TaskCardPanel cardPanel) {
-        if (editTaskCardPanel != null) {
-            final int oldPosition = findComponentPosition(editTaskCardPanel);
-            
-            final TaskCardPanel previousCard = activeEditCardPanel;
-            final int previousCardHeight = previousCard.getPreferredSize().height;
-            
-            animatePanelCollapse(editTaskCardPanel, () -> {
-                taskListPanel.remove(editTaskCardPanel);
-                
-                if (oldPosition >= 0 && oldPosition < taskListPanel.getComponentCount() + 1 && previousCard != cardPanel) {
-                    taskListPanel.add(previousCard, "growx, gapbottom 10", oldPosition);
-                    animatePanelHeight(previousCard, previousCardHeight, null);
-                }
-                
-                taskListPanel.revalidate();
-                taskListPanel.repaint();
-            });
+    private void scrollToRowLater(String taskId) {
+        Timer scrollTimer = new Timer(150, e -> SwingUtilities.invokeLater(() -> taskList.scrollToTask(taskId)));
+        scrollTimer.setRepeats(false);
+        scrollTimer.start();
+    }
+
+    private void toggleEditTaskCard(Task taskToEdit) {
+        String taskId = taskToEdit.getTask_id();
+        if (editTaskCardPanel != null && editingTaskId != null && !editingTaskId.equals(taskId)) {
+            swapRow(editingTaskId, null, null);
         }
-        
-        final int position = findComponentPosition(cardPanel);
-        
-        if (position >= 0) {
-            animatePanelCollapse(cardPanel, () -> {
-                taskListPanel.remove(cardPanel);
-                
-                activeEditCardPanel = cardPanel;
-                editTaskCardPanel = new EditTaskPanel(new EditTaskPanel.Listener() {
-                    public void onUpdate(Task updatedTask) {
-                        // Save the task updates through the controller
-                        taskController.handleEditTaskRequest(
-                            updatedTask.getTask_id(),
-                            updatedTask.getTitle(),
-                            updatedTask.getDescription(),
-                            updatedTask.getFolder_name(),
-                            updatedTask.getDue_date(),
-                            updatedTask.getStatus()
-                        );
-                        
-                        final int editPosition = findComponentPosition(editTaskCardPanel);
-                        
-                        final int originalCardHeight = cardPanel.getPreferredSize().height;
-                        
-                        animatePanelCollapse(editTaskCardPanel, () -> {
-                            taskListPanel.remove(editTaskCardPanel);
-                            
-                            if (editPosition >= 0 && editPosition < taskListPanel.getComponentCount() + 1) {
-                                taskListPanel.add(cardPanel, "growx, gapbottom 10", editPosition);
-                                animatePanelHeight(cardPanel, originalCardHeight, null);
-                            }
-                            
-                            taskListPanel.revalidate();
-                            taskListPanel.repaint();
-                            editTaskCardPanel = null;
-                            activeEditCardPanel = null;
-                            refreshTaskListDisplay();
-                        });
-                    }
-                    
-                    public void onCancel() {
-                        final int editPosition = findComponentPosition(editTaskCardPanel);
-                        
-                        final int originalCardHeight = cardPanel.getPreferredSize().height;
-                        
-                        animatePanelCollapse(editTaskCardPanel, () -> {
-                            taskListPanel.remove(editTaskCardPanel);
-                            
-                            if (editPosition >= 0 && editPosition < taskListPanel.getComponentCount() + 1) {
-                                taskListPanel.add(cardPanel, "growx, gapbottom 10", editPosition);
-                                animatePanelHeight(cardPanel, originalCardHeight, null);
-                            }
-                            
-                            taskListPanel.revalidate();
-                            taskListPanel.repaint();
-                            editTaskCardPanel = null;
-                            activeEditCardPanel = null;
-                        });
-                    }
-                });
-                
-                editTaskCardPanel.setTask(taskToEdit);
-                
-                editTaskCardPanel.setFolders(currentFolderList);
-                taskListPanel.add(editTaskCardPanel, "growx, gapbottom 10, h 0!", position);
-                taskListPanel.revalidate();
-                taskListPanel.repaint();
-                
-                Dimension full = editTaskCardPanel.getPreferredSize();
-                Timer scrollTimer = new Timer(150, e -> {
-                    JScrollPane scrollPane = (JScrollPane) SwingUtilities.getAncestorOfClass(JScrollPane.class, taskListPanel);
-                    if (scrollPane != null) {
-                        SwingUtilities.invokeLater(() -> {
-                            JViewport viewport = scrollPane.getViewport();
-                            Rectangle cardBounds = editTaskCardPanel.getBounds();
-                            Point viewPos = SwingUtilities.convertPoint(taskListPanel, cardBounds.getLocation(), viewport);
-                            viewPos.y += 30;
-                            viewport.scrollRectToVisible(new Rectangle(viewPos, cardBounds.getSize()));
-                        });
-                    }
-                });
-                scrollTimer.setRepeats(false);
-                scrollTimer.start();
 
-                
-                animatePanelHeight(editTaskCardPanel, full.height, null);
+        if (taskList.containsTask(taskId)) {
+            editingTaskId = taskId;
+            editTaskCardPanel = new EditTaskPanel(new EditTaskPanel.Listener() {
+                public void onUpdate(Task updatedTask) {
+                    // Save the task updates through the controller
+                    taskController.handleEditTaskRequest(
+                        updatedTask.getTask_id(),
+                        updatedTask.getTitle(),
+                        updatedTask.getDescription(),
+                        updatedTask.getFolder_name(),
+                        updatedTask.getDue_date(),
+                        updatedTask.getStatus()
+                    );
+                    closeEditor(taskId, true);
+                }
+
+                public void onCancel() {
+                    closeEditor(taskId, false);
+                }
             });
+
+            editTaskCardPanel.setTask(taskToEdit);
+            editTaskCardPanel.setFolders(currentFolderList);
+            swapRow(taskId, editTaskCardPanel, null);
+            scrollToRowLater(taskId);
         }
     }
 
-    private void toggleViewTaskCard(Task taskToView, TaskCardPanel cardPanel) {        
-        if (viewTaskCardPanel != null) {
-            final int oldPosition = findComponentPosition(viewTaskCardPanel);
-            
-            final TaskCardPanel previousCard = activeViewCardPanel;
-            final int previousCardHeight = previousCard.getPreferredSize().height;
-            
-            animatePanelCollapse(viewTaskCardPanel, () -> {
-                taskListPanel.remove(viewTaskCardPanel);
-                
-                if (oldPosition >= 0 && oldPosition < taskListPanel.getComponentCount() + 1 && previousCard != cardPanel) {
-                    taskListPanel.add(previousCard, "growx, gapbottom 10", oldPosition);
-                    animatePanelHeight(previousCard, previousCardHeight, null);
-                }
-                
-                taskListPanel.revalidate();
-                taskListPanel.repaint();
-            });
+    private void closeEditor(String taskId, boolean refresh) {
+        swapRow(taskId, null, () -> {
+            if (taskId.equals(editingTaskId)) {
+                editTaskCardPanel = null;
+                editingTaskId = null;
+            }
+            if (refresh) refreshTaskListDisplay();
+        });
+    }
+
+    private void toggleViewTaskCard(Task taskToView) {
+        String taskId = taskToView.getTask_id();
+        if (viewTaskCardPanel != null && viewingTaskId != null && !viewingTaskId.equals(taskId)) {
+            swapRow(viewingTaskId, null, null);
         }
-        
-        final int position = findComponentPosition(cardPanel);
-        
-        if (position >= 0) {
-            animatePanelCollapse(cardPanel, () -> {
-                taskListPanel.remove(cardPanel);
-                
-                activeViewCardPanel = cardPanel;
-                viewTaskCardPanel = new ViewTaskPanel(new ViewTaskPanel.Listener() {
-                    public void onClose() {
-                        final int viewPosition = findComponentPosition(viewTaskCardPanel);
-                        
-                        final int originalCardHeight = cardPanel.getPreferredSize().height;
-                        
-                        animatePanelCollapse(viewTaskCardPanel, () -> {
-                            taskListPanel.remove(viewTaskCardPanel);
-                            
-                            if (viewPosition >= 0 && viewPosition < taskListPanel.getComponentCount() + 1) {
-                                taskListPanel.add(cardPanel, "growx, gapbottom 10", viewPosition);
-                                animatePanelHeight(cardPanel, originalCardHeight, null);
-                            }
-                            
-                            taskListPanel.revalidate();
-                            taskListPanel.repaint();
+
+        if (taskList.containsTask(taskId)) {
+            viewingTaskId = taskId;
+            viewTaskCardPanel = new ViewTaskPanel(new ViewTaskPanel.Listener() {
+                public void onClose() {
+                    swapRow(taskId, null, () -> {
+                        if (taskId.equals(viewingTaskId)) {
                             viewTaskCardPanel = null;
-                            activeViewCardPanel = null;
-                        });
-                    }
-                }, taskToView);
-                taskListPanel.add(viewTaskCardPanel, "growx, gapbottom 10, h 0!", position);                
-                taskListPanel.revalidate();
-                taskListPanel.repaint();
-                
-                Dimension full = viewTaskCardPanel.getPreferredSize();
-                Timer scrollTimer = new Timer(150, e -> {
-                    JScrollPane scrollPane = (JScrollPane) SwingUtilities.getAncestorOfClass(JScrollPane.class, taskListPanel);
-                    if (scrollPane != null) {
-                        SwingUtilities.invokeLater(() -> {
-                            JViewport viewport = scrollPane.getViewport();
-                            Rectangle cardBounds = viewTaskCardPanel.getBounds();
-                            Point viewPos = SwingUtilities.convertPoint(taskListPanel, cardBounds.getLocation(), viewport);
-                            viewPos.y += 15;
-                            viewport.scrollRectToVisible(new Rectangle(viewPos, cardBounds.getSize()));
-                        });
-                    }
-                });
-                scrollTimer.setRepeats(false);
-                scrollTimer.start();
+                            viewingTaskId = null;
+                        }
+                    });
+                }
+            }, taskToView);
+            swapRow(taskId, viewTaskCardPanel, null);
+            scrollToRowLater(taskId);
+        }
+    }
 
-                
-                animatePanelHeight(viewTaskCardPanel, full.height, null);
-            });
+    /**
+     * Re-run the current filter off the EDT; only the result of the latest call is displayed.
+     */
+    public void refreshTaskListDisplay() {
+        FiltersCriteria criteria = filterCriteria;
+        if (refreshRequestedAt == 0) refreshRequestedAt = System.nanoTime();
+        taskListQuery.submit(() -> {
+            long start = System.nanoTime();
+            List<Task> tasks = taskController.getTasksByFilters(criteria);
+            Metrics.shared().timer("ui.refresh.query").recordSince(start);
+            return tasks;
+        });
+        updateTaskCounts();
+    }
+
+    /**
+     * Re-render the folder and status badges from the store's counters; costs one lookup per
+     * folder, no task is looked at.
+     */
+    public void updateTaskCounts() {
+        if (taskController == null || topBarPanel == null) return;
+        TaskCounters.Summary summary = taskController.getTaskCounts();
+        topBarPanel.setFolderCounts(summary.openByFolder(), summary.open());
+        bottomBarPanel.setTaskCounts(summary.open(), summary.overdue(), summary.completedThisWeek());
+    }
+
+    /**
+     * Tasks that just passed their due date. The overdue and incoming-due views change membership,
+     * so they re-run the filter; any other view only re-binds the affected cards.
+     */
+    public void onTasksBecameOverdue(List<Task> tasks) {
+        updateTaskCounts();
+        Set<TaskStatus> statuses = filterCriteria.statuses();
+        if (statuses != null && (statuses.contains(TaskStatus.overdue) || statuses.contains(TaskStatus.incoming_due))) {
+            refreshTaskListDisplay();
+            return;
         }
+        List<String> taskIds = new ArrayList<>(tasks.size());
+        for (Task task : tasks) taskIds.add(task.getTask_id());
+        taskList.rebind(taskIds);
     }
 
-    private int findComponentPosition(Component component) {
-        Component[] components = taskListPanel.getComponents();
-        for (int i = 0; i < components.length; i++) {
-            if (components[i] == component) {
-                return i;
+    private void showTasks(List<Task> tasksToDisplay) {
+        long start = System.nanoTime();
+        UiRefreshEvent event = new UiRefreshEvent();
+        event.begin();
+        try {
+            applyTasks(tasksToDisplay);
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.listedTasks = tasksToDisplay != null ? tasksToDisplay.size() : 0;
+                event.visibleCards = taskList.getVisibleTaskIds().size();
+                event.rebuiltCards = taskList.getLastRefreshRebuiltCount();
+                event.commit();
             }
+            Metrics metrics = Metrics.shared();
+            metrics.timer("ui.refresh.show").recordSince(start);
+            long requestedAt = refreshRequestedAt;
+            refreshRequestedAt = 0;
+            if (requestedAt != 0) metrics.timer("ui.refresh.total").recordSince(requestedAt);
         }
-        return -1;
     }
 
-    public void refreshTaskListDisplay() {
-        List<Task> tasksToDisplay = taskController.getTasksByFilters(filterCriteria);
-        SwingUtilities.invokeLater(() -> {
-            taskListPanel.removeAll();
-            if (tasksToDisplay != null && !tasksToDisplay.isEmpty()) {
-                int idx = 0;
-                for (Task task : tasksToDisplay) {
-                    final TaskCardPanel[] holder = new TaskCardPanel[1];                    
-                    TaskCardPanel card = new TaskCardPanel(task, new TaskCardPanel.Listener() {
-                        public void onToggleComplete(Task t) { taskController.handleTaskCompletionToggle(t); }
-                        public void onView(Task t) { toggleViewTaskCard(t, holder[0]); }
-                        public void onEdit(Task t) { toggleEditTaskCard(t, holder[0]); }
-                        public void onDelete(Task t) { taskController.handleDeleteTaskRequest(t.getTask_id()); }
-                    });
-                    holder[0] = card;
-                    Dimension full = card.getPreferredSize();
-                    taskListPanel.add(card, "growx, gapbottom 10, h 0!");
-                    int baseDelay = firstRun ? FIRST_RUN_DELAY : 0;
-                    int delay = baseDelay + idx * STAGGER_DELAY;
-                    Timer starter = new Timer(CARD_TIMER_DELAY, null);
-                    starter.setInitialDelay(delay);
-                    starter.setRepeats(false);
-                    starter.addActionListener(e -> animatePanelHeight(card, full.height, null));
-                    starter.start();
-                    idx++;
-                }
-                firstRun = false;
-            } else {
-                JLabel noTasksLabel = new JLabel("No tasks found matching criteria.");
-                noTasksLabel.setHorizontalAlignment(SwingUtilities.CENTER);
-                taskListPanel.add(noTasksLabel, "growx");
-            }
-            taskListPanel.revalidate();
-            taskListPanel.repaint();
-        });
+    private void applyTasks(List<Task> tasksToDisplay) {
+        TaskListDiff diff = taskList.setTasks(tasksToDisplay);
+        if (diff.isEmpty()) return;
+        taskList.validate();
+        // Entry animation only for newly listed rows on screen; existing cards are patched in place
+        Set<String> inserted = new HashSet<>();
+        for (TaskListDiff.Op op : diff.getOps()) {
+            if (op.type() == TaskListDiff.Type.INSERT) inserted.add(op.taskId());
+        }
+        int idx = 0;
+        int baseDelay = firstRun ? FIRST_RUN_DELAY : 0;
+        for (String taskId : taskList.getVisibleTaskIds()) {
+            if (!inserted.contains(taskId) || taskList.getExpansion(taskId) != null) continue;
+            int target = taskList.getNaturalRowHeight(taskId);
+            taskList.setRowHeight(taskId, 0);
+            animateRowHeight(taskId, 0, target, baseDelay + idx * STAGGER_DELAY, () -> {
+                taskList.setRowHeight(taskId, null);
+                AnimationClock.getShared().requestLayout(taskList);
+            });
+            idx++;
+        }
+        AnimationClock.getShared().requestLayout(taskList);
+        LOG.debug(() -> "list refresh " + diff + ", cards rebuilt=" + taskList.getLastRefreshRebuiltCount());
+        Metrics.shared().counter("ui.refresh.cards_rebuilt").add(taskList.getLastRefreshRebuiltCount());
+        if (tasksToDisplay != null && !tasksToDisplay.isEmpty()) {
+            firstRun = false;
+        }
     }
 
     public void updateFolderList(List<String> folderList) {
@@ -749,6 +653,12 @@ public class TaskDashboardFrame extends Frame {
         }
     }
 
+    public void updateConnectivityStatus(boolean online) {
+        if (bottomBarPanel != null) {
+            bottomBarPanel.setOnline(online);
+        }
+    }
+
     public void updateLastSyncLabel(LocalDateTime lastSyncTime) {
         SwingUtilities.invokeLater(() -> {
             bottomBarPanel.setLastSync(lastSyncTime);
@@ -1,9 +1,17 @@
 package UI;
 
+import javax.swing.AbstractButton;
+import javax.swing.Icon;
+import javax.swing.JComponent;
+import javax.swing.JLabel;
+import javax.swing.JMenu;
 import javax.swing.JTextField;
 import javax.swing.JButton;
+import java.awt.Component;
+import java.awt.Container;
 import java.awt.Cursor;
 import java.awt.Font;
+import java.util.function.Supplier;
 
 /**
  * Utility class for common UI operations and patterns.
@@ -14,6 +22,8 @@ public class UIUtils {
     public static final int STANDARD_BUTTON_HEIGHT = 30;
     public static final int STANDARD_GAP = 10;
 
+    private static final String THEMED_ICON = "TaskFlow.themedIcon";
+
     // Font constants
     public static final Font TITLE_FONT_LARGE = new Font("Dialog", Font.BOLD, 30);
     public static final Font TITLE_FONT_MEDIUM = new Font("Dialog", Font.BOLD, 25);
@@ -72,6 +82,43 @@ public class UIUtils {
         button.setCursor(Cursor.getPredefinedCursor(Cursor.HAND_CURSOR));
     }
 
+    /**
+     * Sets an icon that is looked up again by {@link #refreshThemedIcons} after a theme switch,
+     * so the component picks up the icon tinted for the new theme.
+     *
+     * @param component A button, menu item or label
+     * @param icon Supplies the icon for the current theme, e.g. {@code common::getSaveIcon}
+     */
+    public static void setThemedIcon(JComponent component, Supplier<? extends Icon> icon) {
+        component.putClientProperty(THEMED_ICON, icon);
+        applyIcon(component, icon.get());
+    }
+
+    /**
+     * Re-applies every icon set with {@link #setThemedIcon} under {@code root}, including the
+     * items of menus.
+     *
+     * @param root The component tree to update
+     */
+    public static void refreshThemedIcons(Component root) {
+        if (root instanceof JComponent jc && jc.getClientProperty(THEMED_ICON) instanceof Supplier<?> icon) {
+            applyIcon(jc, (Icon) icon.get());
+        }
+        Component[] children = root instanceof JMenu menu ? menu.getMenuComponents()
+                : root instanceof Container container ? container.getComponents() : new Component[0];
+        for (Component child : children) {
+            refreshThemedIcons(child);
+        }
+    }
+
+    private static void applyIcon(JComponent component, Icon icon) {
+        if (component instanceof AbstractButton button) {
+            button.setIcon(icon);
+        } else if (component instanceof JLabel label) {
+            label.setIcon(icon);
+        }
+    }
+
     /**
      * Creates a standard font with the specified style and size.
      *
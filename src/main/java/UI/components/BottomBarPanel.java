@@ -5,7 +5,9 @@ import java.time.format.DateTimeFormatter;
 import javax.swing.JButton;
 import javax.swing.JLabel;
 import javax.swing.JPanel;
+import javax.swing.UIManager;
 import COMMON.common;
+import UI.UIUtils;
 import net.miginfocom.swing.MigLayout;
 
 public class BottomBarPanel extends JPanel {
@@ -17,24 +19,43 @@ public class BottomBarPanel extends JPanel {
     @SuppressWarnings("unused")
     private Listener listener;
     private JLabel lastSyncLabel;
+    private JLabel offlineLabel;
+    private JLabel countsLabel;
+    private JLabel overdueLabel;
     private JButton newTaskBtn;
     private JButton historyButton;
 
     public BottomBarPanel(Listener listener) {
         this.listener = listener;
-        setLayout(new MigLayout("insets 5 10 5 10, fillx", "[]push[][][]", "[]"));
-        setBackground(getBackground().darker());
+        setLayout(new MigLayout("insets 5 10 5 10, fillx, hidemode 3", "[][][]push[][][][]", "[]"));
 
-        newTaskBtn = new JButton("New task", new javax.swing.ImageIcon(
+        newTaskBtn = new JButton("New task");
+        UIUtils.setThemedIcon(newTaskBtn, () -> new javax.swing.ImageIcon(
                 common.getAddIcon().getImage().getScaledInstance(16, 16, java.awt.Image.SCALE_SMOOTH)));
         
         add(newTaskBtn, "gapleft 5");
 
+        countsLabel = new JLabel();
+        countsLabel.setFont(countsLabel.getFont().deriveFont(java.awt.Font.PLAIN, 12f));
+        add(countsLabel, "gapleft 15");
+
+        overdueLabel = new JLabel();
+        overdueLabel.putClientProperty(com.formdev.flatlaf.FlatClientProperties.STYLE, "foreground: $Component.errorColor; font: bold -1");
+        overdueLabel.setVisible(false);
+        add(overdueLabel, "gapleft 10");
+
+        offlineLabel = new JLabel("Offline");
+        offlineLabel.setToolTipText("Server unreachable. Changes are saved locally and will sync when back online.");
+        offlineLabel.putClientProperty(com.formdev.flatlaf.FlatClientProperties.STYLE, "foreground: $Component.errorColor; font: bold");
+        offlineLabel.setVisible(false);
+        add(offlineLabel, "gapright 10");
+
         lastSyncLabel = new JLabel("Sync status unknown");
         lastSyncLabel.setFont(lastSyncLabel.getFont().deriveFont(java.awt.Font.PLAIN, 12f));
         add(lastSyncLabel, "gapright 15");
 
-        JButton syncButton = new JButton(common.getSyncIcon());
+        JButton syncButton = new JButton();
+        UIUtils.setThemedIcon(syncButton, common::getSyncIcon);
         syncButton.setToolTipText("Synchronize Tasks");
         syncButton.setBorderPainted(false);
         syncButton.setContentAreaFilled(false);
@@ -57,12 +78,34 @@ public class BottomBarPanel extends JPanel {
             listener.onNewTask();
         });
     }
+
+    @Override
+    public void updateUI() {
+        super.updateUI();
+        // A shade darker than the panels in between, recomputed for each theme
+        setBackground(UIManager.getColor("Panel.background").darker());
+    }
     
     public void enableBottomBarButtons() {
         newTaskBtn.setEnabled(true);
         historyButton.setEnabled(true);
     }
 
+    public void setOnline(boolean online) {
+        offlineLabel.setVisible(!online);
+        revalidate();
+        repaint();
+    }
+
+    public void setTaskCounts(int open, int overdue, int completedThisWeek) {
+        countsLabel.setText(open + " open \u00b7 " + completedThisWeek + " done this week");
+        overdueLabel.setText(overdue + " overdue");
+        if (overdueLabel.isVisible() != overdue > 0) {
+            overdueLabel.setVisible(overdue > 0);
+            revalidate();
+        }
+    }
+
     public void setLastSync(LocalDateTime t) {
         DateTimeFormatter df = DateTimeFormatter.ofPattern("MMM dd, yyyy HH:mm:ss");
         if (t != null) {
@@ -16,6 +16,9 @@ public class CardPanel extends JPanel {
     private static final String DEFAULT_LAYOUT = "fillx, insets 10 15 10 15";
     private static final String DEFAULT_COLUMNS = "[grow, fill]";
     private static final String DEFAULT_ROWS = "[]";
+
+    // Set while the card uses the theme's default colors, so a theme switch can re-read them
+    private boolean defaultColors;
     
     private static Color getDefaultBackgroundColor() {
         Color bgColor = UIManager.getColor("Panel.background");
@@ -32,6 +35,7 @@ public class CardPanel extends JPanel {
      */
     public CardPanel() {
         this(getDefaultBackgroundColor(), getDefaultBorderColor(), DEFAULT_ARC, DEFAULT_THICKNESS);
+        defaultColors = true;
     }
     
     /**
@@ -111,6 +115,7 @@ public class CardPanel extends JPanel {
         setBackground(getDefaultBackgroundColor());
         putClientProperty("FlatLaf.style", "arc: " + DEFAULT_ARC);
         setBorder(new RoundedLineBorder(getDefaultBorderColor(), DEFAULT_THICKNESS, DEFAULT_ARC));
+        defaultColors = true;
     }    
     /**
      * A utility method for child classes to set theme-aware colors from an external source.
@@ -120,6 +125,7 @@ public class CardPanel extends JPanel {
      * @param borderColor The border color for the card
      */
     public void setThemeColors(Color backgroundColor, Color borderColor) {
+        defaultColors = false;
         setBackground(backgroundColor);
         setBorder(new RoundedLineBorder(borderColor, DEFAULT_THICKNESS, DEFAULT_ARC));
     }
@@ -133,9 +139,21 @@ public class CardPanel extends JPanel {
      * @param thickness The thickness of the border
      */
     public void setThemeColors(Color backgroundColor, Color borderColor, int arc, int thickness) {
+        defaultColors = false;
         setBackground(backgroundColor);
         putClientProperty("FlatLaf.style", "arc: " + arc);
         setBorder(new RoundedLineBorder(borderColor, thickness, arc));
     }
-}
 
+    /**
+     * Re-reads the default border color after a theme switch. The background follows the theme
+     * on its own, and a border set through a FlatLaf style is left alone.
+     */
+    @Override
+    public void updateUI() {
+        super.updateUI();
+        if (defaultColors && getBorder() instanceof RoundedLineBorder) {
+            setBorder(new RoundedLineBorder(getDefaultBorderColor(), DEFAULT_THICKNESS, DEFAULT_ARC));
+        }
+    }
+}
@@ -17,6 +17,7 @@ import javax.swing.SwingUtilities;
 import javax.swing.border.EmptyBorder;
 
 import COMMON.common;
+import UI.UIUtils;
 import model.Task;
 import model.TaskStatus;
 import net.miginfocom.swing.MigLayout;
@@ -86,7 +87,8 @@ public class EditTaskPanel extends JPanel {
                 .sync_status(currentTask.getSync_status());
             listener.onUpdate(builder.build());
         });
-        JButton cancelBtn = new JButton(common.getBackIcon()); cancelBtn.setToolTipText("Cancel");
+        JButton cancelBtn = new JButton();
+        UIUtils.setThemedIcon(cancelBtn, common::getBackIcon); cancelBtn.setToolTipText("Cancel");
         cancelBtn.setBorderPainted(false);
         cancelBtn.setContentAreaFilled(false);
         cancelBtn.setCursor(Cursor.getPredefinedCursor(Cursor.HAND_CURSOR));
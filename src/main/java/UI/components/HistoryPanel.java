@@ -5,17 +5,24 @@ import java.awt.Cursor;
 import java.awt.Font;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
 import java.util.List;
 
 import javax.swing.BorderFactory;
+import javax.swing.BoundedRangeModel;
 import javax.swing.JButton;
 import javax.swing.JLabel;
 import javax.swing.JPanel;
+import javax.swing.JScrollBar;
 import javax.swing.JScrollPane;
 import javax.swing.SwingUtilities;
 import javax.swing.UIManager;
 
 import COMMON.common;
+import UI.UIUtils;
+import model.CompletedTaskIndex;
 import model.Task;
 import net.miginfocom.swing.MigLayout;
 
@@ -27,12 +34,33 @@ public class HistoryPanel extends JPanel {
         void onTaskDelete(Task task);
     }
     
+    // Tasks per page, and how many pages are kept as components at once
+    private static final int PAGE_SIZE = 25;
+    private static final int MAX_PAGES = 3;
+    // Distance from either end of the scroll range that triggers the next page
+    private static final int LOAD_THRESHOLD = 200;
+
     private JPanel contentPanel;
+    private JScrollPane scrollPane;
     private Listener listener;
     private DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("dd MMM yyyy HH:mm");
+    private final int pageSize;
+    private final int maxPages;
+    private CompletedTaskIndex index = CompletedTaskIndex.of(null);
+    // Loaded pages, top to bottom; their tasks are the only ones with components
+    private final Deque<List<Task>> pages = new ArrayDeque<>();
+    private boolean hasNewer;
+    private boolean hasOlder;
+    private int lastScrollValue;
     
     public HistoryPanel(Listener listener) {
+        this(listener, PAGE_SIZE, MAX_PAGES);
+    }
+
+    HistoryPanel(Listener listener, int pageSize, int maxPages) {
         this.listener = listener;
+        this.pageSize = pageSize;
+        this.maxPages = maxPages;
         setLayout(new BorderLayout());
         setBorder(BorderFactory.createEmptyBorder(10, 10, 0, 10));
         
@@ -43,7 +71,8 @@ public class HistoryPanel extends JPanel {
         titleLabel.setFont(titleLabel.getFont().deriveFont(Font.BOLD, 20f));
         titleLabel.setForeground(UIManager.getColor("Label.foreground"));
         
-        JButton closeBtn = new JButton(common.getBackIcon());
+        JButton closeBtn = new JButton();
+        UIUtils.setThemedIcon(closeBtn, common::getBackIcon);
         closeBtn.setToolTipText("Close History");
         closeBtn.setBorderPainted(false);
         closeBtn.setContentAreaFilled(false);
@@ -58,54 +87,218 @@ public class HistoryPanel extends JPanel {
         contentPanel = new JPanel(new MigLayout("fillx, wrap 1", "[grow]", "[]5[]"));
         contentPanel.setOpaque(false);
         
-        JScrollPane scrollPane = new JScrollPane(contentPanel);
+        scrollPane = new JScrollPane(contentPanel);
         scrollPane.setBorder(BorderFactory.createEmptyBorder());
         scrollPane.setOpaque(false);
         scrollPane.getViewport().setOpaque(false);
+        scrollPane.getVerticalScrollBar().setUnitIncrement(16);
+        scrollPane.getVerticalScrollBar().addAdjustmentListener(e ->
+            SwingUtilities.invokeLater(this::loadPagesNearEdges));
         
         add(scrollPane, BorderLayout.CENTER);
     }
     
+    /**
+     * Show an explicit list of completed tasks, newest first.
+     */
     public void displayTaskHistory(List<Task> taskHistory) {
-        SwingUtilities.invokeLater(() -> {
-            contentPanel.removeAll();
-            
-            if (taskHistory == null || taskHistory.isEmpty()) {
-                JLabel emptyLabel = new JLabel("No task history available");
-                emptyLabel.setForeground(UIManager.getColor("Label.foreground"));
-                emptyLabel.setHorizontalAlignment(SwingUtilities.CENTER);
-                contentPanel.add(emptyLabel, "growx");
-            } else {
-                for (Task task : taskHistory) {
-                    HistoryItemPanel itemPanel = new HistoryItemPanel(task, t -> listener.onTaskSelected(t));
-                    contentPanel.add(itemPanel, "growx");
-                }
+        showHistory(CompletedTaskIndex.of(taskHistory));
+    }
+
+    /**
+     * Show the newest page of {@code index}; older pages load as the user scrolls down.
+     */
+    public void showHistory(CompletedTaskIndex index) {
+        onEdt(() -> {
+            this.index = index;
+            clearPages();
+            appendPage(index.older(null, pageSize));
+            scrollPane.getVerticalScrollBar().setValue(0);
+            lastScrollValue = 0;
+            afterPageChange();
+        });
+    }
+
+    /**
+     * Reload the pages currently in view from {@code index}, e.g. after a task was restored or
+     * deleted, keeping the scroll position.
+     */
+    public void refreshHistory(CompletedTaskIndex index) {
+        onEdt(() -> {
+            if (pages.isEmpty()) {
+                showHistory(index);
+                return;
             }
-            
-            contentPanel.revalidate();
-            contentPanel.repaint();
+            CompletedTaskIndex.Cursor start = CompletedTaskIndex.Cursor.of(pages.peekFirst().get(0));
+            int loadedPages = pages.size();
+            this.index = index;
+            clearPages();
+            CompletedTaskIndex.Page page = index.from(start, pageSize);
+            appendPage(page);
+            for (int i = 1; i < loadedPages && hasOlder; i++) {
+                appendPage(index.older(lastCursor(), pageSize));
+            }
+            hasNewer = page.hasNewer();
+            afterPageChange();
         });
     }
+
+    /**
+     * Load the next older page, dropping the top page when more than the page budget is loaded.
+     */
+    void loadOlder() {
+        if (!hasOlder || pages.isEmpty()) return;
+        CompletedTaskIndex.Page page = index.older(lastCursor(), pageSize);
+        appendPage(page);
+        if (pages.size() > maxPages) {
+            int removed = pages.removeFirst().size();
+            int shift = offsetOf(removed);
+            for (int i = 0; i < removed; i++) contentPanel.remove(0);
+            hasNewer = true;
+            scrollPane.validate();
+            moveScroll(-shift);
+        }
+        afterPageChange();
+    }
+
+    /**
+     * Load the next newer page above the current ones, dropping the bottom page when over budget.
+     */
+    void loadNewer() {
+        if (!hasNewer || pages.isEmpty()) return;
+        CompletedTaskIndex.Page page = index.newer(CompletedTaskIndex.Cursor.of(pages.peekFirst().get(0)), pageSize);
+        hasNewer = page.hasNewer();
+        if (page.isEmpty()) return;
+        pages.addFirst(page.tasks());
+        for (int i = 0; i < page.tasks().size(); i++) {
+            contentPanel.add(createItem(page.tasks().get(i)), "growx", i);
+        }
+        if (pages.size() > maxPages) {
+            int removed = pages.removeLast().size();
+            for (int i = 0; i < removed; i++) contentPanel.remove(contentPanel.getComponentCount() - 1);
+            hasOlder = true;
+        }
+        scrollPane.validate();
+        moveScroll(offsetOf(page.tasks().size()));
+        afterPageChange();
+    }
+
+    List<Task> getLoadedTasks() {
+        List<Task> loaded = new ArrayList<>();
+        pages.forEach(loaded::addAll);
+        return loaded;
+    }
+
+    int getLoadedPageCount() {
+        return pages.size();
+    }
+
+    boolean hasOlder() {
+        return hasOlder;
+    }
+
+    boolean hasNewer() {
+        return hasNewer;
+    }
+
+    private void appendPage(CompletedTaskIndex.Page page) {
+        hasOlder = page.hasOlder();
+        if (pages.isEmpty()) hasNewer = page.hasNewer();
+        if (page.isEmpty()) return;
+        pages.addLast(page.tasks());
+        for (Task task : page.tasks()) {
+            contentPanel.add(createItem(task), "growx");
+        }
+    }
+
+    private void clearPages() {
+        pages.clear();
+        hasNewer = false;
+        hasOlder = false;
+        contentPanel.removeAll();
+    }
+
+    private HistoryItemPanel createItem(Task task) {
+        return new HistoryItemPanel(task, t -> listener.onTaskSelected(t));
+    }
+
+    private void afterPageChange() {
+        if (pages.isEmpty()) {
+            JLabel emptyLabel = new JLabel("No task history available");
+            emptyLabel.setForeground(UIManager.getColor("Label.foreground"));
+            emptyLabel.setHorizontalAlignment(SwingUtilities.CENTER);
+            contentPanel.add(emptyLabel, "growx");
+        }
+        contentPanel.revalidate();
+        contentPanel.repaint();
+        // A first page shorter than the viewport produces no scroll events; keep filling it
+        SwingUtilities.invokeLater(this::fillViewport);
+    }
+
+    private void fillViewport() {
+        if (hasOlder && pages.size() < maxPages
+                && contentPanel.getHeight() < scrollPane.getViewport().getHeight()) {
+            loadOlder();
+        }
+    }
+
+    private void loadPagesNearEdges() {
+        BoundedRangeModel model = scrollPane.getVerticalScrollBar().getModel();
+        int value = model.getValue();
+        boolean down = value > lastScrollValue;
+        boolean up = value < lastScrollValue;
+        lastScrollValue = value;
+        if (down && value + model.getExtent() >= model.getMaximum() - LOAD_THRESHOLD) {
+            loadOlder();
+        } else if (up && value <= LOAD_THRESHOLD) {
+            loadNewer();
+        }
+    }
+
+    /** Height taken by the first {@code count} items, including the gaps after them. */
+    private int offsetOf(int count) {
+        if (count <= 0 || count >= contentPanel.getComponentCount()) return 0;
+        return contentPanel.getComponent(count).getY() - contentPanel.getComponent(0).getY();
+    }
+
+    private void moveScroll(int delta) {
+        if (delta == 0) return;
+        JScrollBar bar = scrollPane.getVerticalScrollBar();
+        bar.setValue(bar.getValue() + delta);
+        lastScrollValue = bar.getValue();
+    }
+
+    private CompletedTaskIndex.Cursor lastCursor() {
+        List<Task> last = pages.peekLast();
+        return CompletedTaskIndex.Cursor.of(last.get(last.size() - 1));
+    }
+
+    private static void onEdt(Runnable action) {
+        if (SwingUtilities.isEventDispatchThread()) action.run();
+        else SwingUtilities.invokeLater(action);
+    }
     
     private class HistoryItemPanel extends CardPanel {
+        private JLabel dateLabel;
+
         public HistoryItemPanel(Task task, java.util.function.Consumer<Task> onSelect) {
             super(new MigLayout("fillx, insets 10", "[grow][]", "[]5[]"));
-            setThemeColors(UIManager.getColor("Card.background"), UIManager.getColor("Panel.background").darker());
             
             JLabel titleLabel = new JLabel(task.getTitle() != null ? task.getTitle() : "No Title");
             titleLabel.setFont(titleLabel.getFont().deriveFont(Font.BOLD));
             titleLabel.setForeground(UIManager.getColor("Label.foreground"));
             add(titleLabel, "cell 0 0, growx");
             
-            LocalDateTime actionDate = task.getUpdated_at() != null ? task.getUpdated_at() : task.getCreated_at();
+            LocalDateTime actionDate = CompletedTaskIndex.completedAt(task);
             String dateText = actionDate != null ? dateFormatter.format(actionDate) : "Unknown date";
-            JLabel dateLabel = new JLabel(dateText);
+            dateLabel = new JLabel(dateText);
             dateLabel.setFont(dateLabel.getFont().deriveFont(Font.PLAIN, 11f));
-            dateLabel.setForeground(UIManager.getColor("Label.foreground").darker());
             add(dateLabel, "cell 0 1");
+            applyThemeColors();
             
 
-            JButton restoreBtn = new JButton(common.getRestoreIcon());
+            JButton restoreBtn = new JButton();
+            UIUtils.setThemedIcon(restoreBtn, common::getRestoreIcon);
             restoreBtn.setToolTipText("Restore Task");
             restoreBtn.setBorderPainted(false);
             restoreBtn.setContentAreaFilled(false);
@@ -113,7 +306,8 @@ public class HistoryPanel extends JPanel {
             restoreBtn.addActionListener(e -> listener.onTaskRestore(task));
             add(restoreBtn, "cell 1 0, aligny center");
             
-            JButton deleteBtn = new JButton(common.getDeleteIcon());
+            JButton deleteBtn = new JButton();
+            UIUtils.setThemedIcon(deleteBtn, common::getDeleteIcon);
             deleteBtn.setToolTipText("Delete Task");
             deleteBtn.setBorderPainted(false);
             deleteBtn.setContentAreaFilled(false);
@@ -121,7 +315,8 @@ public class HistoryPanel extends JPanel {
             deleteBtn.addActionListener(e -> listener.onTaskDelete(task));
             add(deleteBtn, "cell 2 0, aligny center");
 
-            JButton viewBtn = new JButton(common.getViewIcon());
+            JButton viewBtn = new JButton();
+            UIUtils.setThemedIcon(viewBtn, common::getViewIcon);
             viewBtn.setToolTipText("View Task Details");
             viewBtn.setBorderPainted(false);
             viewBtn.setContentAreaFilled(false);
@@ -129,5 +324,17 @@ public class HistoryPanel extends JPanel {
             viewBtn.addActionListener(e -> onSelect.accept(task));
             add(viewBtn, "cell 1 0 1 3, aligny center");
         }
+
+        @Override
+        public void updateUI() {
+            super.updateUI();
+            // Called by the superclass constructor before the labels exist
+            if (dateLabel != null) applyThemeColors();
+        }
+
+        private void applyThemeColors() {
+            setThemeColors(UIManager.getColor("Card.background"), UIManager.getColor("Panel.background").darker());
+            dateLabel.setForeground(UIManager.getColor("Label.foreground").darker());
+        }
     }
 }
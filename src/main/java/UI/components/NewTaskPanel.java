@@ -78,7 +78,8 @@ public class NewTaskPanel extends JPanel {
             datePicker.clearSelectedDate();
             timePicker.clearSelectedTime();
         });
-        JButton cancelBtn = new JButton(common.getBackIcon()); 
+        JButton cancelBtn = new JButton();
+        UIUtils.setThemedIcon(cancelBtn, common::getBackIcon); 
         UIUtils.styleIconButton(cancelBtn, "Cancel");
         cancelBtn.addActionListener(e -> listener.onCancel());
         add(saveBtn, "split 2, growx, gapright 10");
@@ -4,7 +4,9 @@ import com.formdev.flatlaf.FlatClientProperties;
 import java.awt.Dimension;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
+import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.function.Supplier;
 
 import javax.swing.ImageIcon;
 import javax.swing.JButton;
@@ -13,6 +15,7 @@ import javax.swing.JLabel;
 import javax.swing.JPanel;
 
 import COMMON.common;
+import UI.UIUtils;
 import model.Task;
 import model.TaskStatus;
 import net.miginfocom.swing.MigLayout;
@@ -32,11 +35,20 @@ public class TaskCardPanel extends CardPanel {
     private final JCheckBox completeCheckBox;
 
     private final JPanel actionsPanel;
+    private static final DateTimeFormatter DUE_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+
+    private Task task;
     
     public TaskCardPanel(Task task, Listener listener) {
+        this(listener);
+        setTask(task);
+    }
 
-        // DateTimeFormatter for reuse
-        DateTimeFormatter fmt = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+    /**
+     * Creates an unbound card. The task list recycles cards as the user scrolls,
+     * so the same instance is re-pointed at different tasks through {@link #setTask}.
+     */
+    public TaskCardPanel(Listener listener) {
 
         setLayout(new MigLayout("fillx, insets 12 16 12 16, wrap", "[grow,fill][right]"));
 
@@ -68,54 +80,88 @@ public class TaskCardPanel extends CardPanel {
         });
 
         // Title
-        titleLabel = new JLabel(task.getTitle() != null ? task.getTitle() : "No Title");
+        titleLabel = new JLabel();
         titleLabel.putClientProperty(FlatClientProperties.STYLE, "font: bold +2");
 
-        // Status badge with dynamic colors
-        statusBadge = new JLabel(task.getStatus() != null ? TaskStatus.getStatusToString(task.getStatus()) : "Unknown");
+        // Status badge, colors are set per task
+        statusBadge = new JLabel();
         statusBadge.setOpaque(true);
         statusBadge.setHorizontalAlignment(javax.swing.SwingConstants.CENTER);
         statusBadge.setBorder(new javax.swing.border.EmptyBorder(2, 8, 2, 8));
-        
-        // Set dynamic colors based on status
-        String bgColor = getStatusBackgroundColor(task.getStatus());
-        String fgColor = getStatusForegroundColor(task.getStatus());
-        statusBadge.putClientProperty(FlatClientProperties.STYLE, "" +
-                "arc:12;" +
-                "background: " + bgColor + ";" +
-                "foreground: " + fgColor);
 
-        // Description with truncation for preview
-        String fullDescText = task.getDescription() != null ? task.getDescription() : "No Description";
-        String descText = truncateDescription(fullDescText, 15); // Show first 15 words
-        descLabel = new JLabel("<html>" + descText.replace("\n", "<br>") + "</html>");
+        // Description preview
+        descLabel = new JLabel();
         descLabel.putClientProperty(FlatClientProperties.STYLE, "foreground: $Label.disabledForeground; font: medium");
 
         // Completion checkbox
         completeCheckBox = new JCheckBox();
-        completeCheckBox.setSelected(task.getStatus() == TaskStatus.completed);
         completeCheckBox.setOpaque(false);
         completeCheckBox.putClientProperty(FlatClientProperties.STYLE, "border: 0,0,0,0");
         completeCheckBox.addActionListener(e -> {
-            if (listener != null) {
-                listener.onToggleComplete(task);
+            if (listener != null && this.task != null) {
+                listener.onToggleComplete(this.task);
             }
         });
 
         // Due date
-        String dueText = task.getDue_date() != null ? "Due " + task.getDue_date().format(fmt) : "No due date";
-        dueDateLabel = new JLabel(dueText);
+        dueDateLabel = new JLabel();
         dueDateLabel.putClientProperty(FlatClientProperties.STYLE, "foreground: $Component.errorColor; font: italic");
 
         // Actions (Compact only)
         actionsPanel = new JPanel(new MigLayout("insets 0, gap 4", "[]"));
         actionsPanel.setOpaque(false);
-        addActionButton(common.getEditIcon(), "Edit task", () -> { if (listener != null) listener.onEdit(task); });
-        addActionButton(common.getDeleteIcon(), "Delete task", () -> { if (listener != null) listener.onDelete(task); });
-        addActionButton(common.getViewIcon(), "View task", () -> { if (listener != null) listener.onView(task); });
+        addActionButton(common::getEditIcon, "Edit task", () -> { if (listener != null && task != null) listener.onEdit(task); });
+        addActionButton(common::getDeleteIcon, "Delete task", () -> { if (listener != null && task != null) listener.onDelete(task); });
+        addActionButton(common::getViewIcon, "View task", () -> { if (listener != null && task != null) listener.onView(task); });
         buildCompactLayout();
     }
 
+    public Task getTask() {
+        return task;
+    }
+
+    /**
+     * Hand the card's actions a newer instance of the task it already shows, without touching the
+     * labels; the task list calls this for rows whose content did not change.
+     */
+    void retarget(Task task) {
+        this.task = task;
+    }
+
+    /**
+     * Point this card at a task, updating the labels in place.
+     */
+    public void setTask(Task task) {
+        this.task = task;
+
+        titleLabel.setText(task.getTitle() != null ? task.getTitle() : "No Title");
+
+        statusBadge.setText(task.getStatus() != null ? TaskStatus.getStatusToString(task.getStatus()) : "Unknown");
+        String bgColor = getStatusBackgroundColor(task.getStatus());
+        String fgColor = getStatusForegroundColor(task.getStatus());
+        statusBadge.putClientProperty(FlatClientProperties.STYLE, "" +
+                "arc:12;" +
+                "background: " + bgColor + ";" +
+                "foreground: " + fgColor);
+
+        // Description with truncation for preview
+        String fullDescText = task.getDescription() != null ? task.getDescription() : "No Description";
+        String descText = truncateDescription(fullDescText, 15); // Show first 15 words
+        descLabel.setText("<html>" + descText.replace("\n", "<br>") + "</html>");
+
+        completeCheckBox.setSelected(task.getStatus() == TaskStatus.completed);
+
+        String dueText;
+        if (task.getDue_date() == null) {
+            dueText = "No due date";
+        } else if (task.getStatus() != TaskStatus.completed && task.getDue_date().isBefore(LocalDateTime.now())) {
+            dueText = "Overdue since " + task.getDue_date().format(DUE_FORMAT);
+        } else {
+            dueText = "Due " + task.getDue_date().format(DUE_FORMAT);
+        }
+        dueDateLabel.setText(dueText);
+    }
+
     private void buildCompactLayout() {
         setLayout(new MigLayout("fillx, insets 16 20 16 20", "[][][grow][]", "[][][]"));
 
@@ -137,8 +183,9 @@ public class TaskCardPanel extends CardPanel {
         add(footerPanel, "cell 0 2, span 3, gaptop 12, growx");
     }
 
-    private void addActionButton(ImageIcon icon, String tooltip, Runnable action) {
-        JButton btn = new JButton(icon);
+    private void addActionButton(Supplier<ImageIcon> icon, String tooltip, Runnable action) {
+        JButton btn = new JButton();
+        UIUtils.setThemedIcon(btn, icon);
         btn.setToolTipText(tooltip);
         btn.setFocusable(false);
         btn.setCursor(java.awt.Cursor.getPredefinedCursor(java.awt.Cursor.HAND_CURSOR));
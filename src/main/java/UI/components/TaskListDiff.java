@@ -0,0 +1,148 @@
+package UI.components;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import model.Task;
+
+/**
+ * Keyed diff between two task lists, matched by task_id.
+ *
+ * A task present in both lists counts as updated when its updated_at differs, or when its status
+ * or folder differs (overdue / incoming-due are derived from the clock and folder names from the
+ * folder cache, not from an edit). Moves are kept to
+ * a minimum: tasks on the longest run that kept its relative order stay put, and only the others
+ * are reported as moved.
+ */
+public final class TaskListDiff {
+
+    public enum Type { INSERT, REMOVE, MOVE, UPDATE }
+
+    /**
+     * One operation. Indexes refer to the previous list for REMOVE and to the next list otherwise;
+     * MOVE also carries the previous index.
+     */
+    public record Op(Type type, String taskId, int fromIndex, int toIndex) {}
+
+    private final List<Op> ops;
+    private final int inserts;
+    private final int removes;
+    private final int moves;
+    private final int updates;
+
+    private TaskListDiff(List<Op> ops) {
+        this.ops = Collections.unmodifiableList(ops);
+        int[] counts = new int[Type.values().length];
+        for (Op op : ops) counts[op.type().ordinal()]++;
+        this.inserts = counts[Type.INSERT.ordinal()];
+        this.removes = counts[Type.REMOVE.ordinal()];
+        this.moves = counts[Type.MOVE.ordinal()];
+        this.updates = counts[Type.UPDATE.ordinal()];
+    }
+
+    public static TaskListDiff compute(List<Task> previous, List<Task> next) {
+        if (previous == null) previous = Collections.emptyList();
+        if (next == null) next = Collections.emptyList();
+
+        Map<String, Integer> previousIndex = new HashMap<>(previous.size() * 2);
+        for (int i = 0; i < previous.size(); i++) {
+            previousIndex.put(previous.get(i).getTask_id(), i);
+        }
+
+        List<Op> ops = new ArrayList<>();
+        boolean[] kept = new boolean[previous.size()];
+        // Old index of each surviving task, in new-list order (for the move computation)
+        int[] survivorOldIndex = new int[next.size()];
+        int[] survivorNewIndex = new int[next.size()];
+        int survivors = 0;
+
+        for (int j = 0; j < next.size(); j++) {
+            Task task = next.get(j);
+            Integer i = previousIndex.get(task.getTask_id());
+            if (i == null) {
+                ops.add(new Op(Type.INSERT, task.getTask_id(), -1, j));
+                continue;
+            }
+            kept[i] = true;
+            survivorOldIndex[survivors] = i;
+            survivorNewIndex[survivors] = j;
+            survivors++;
+            if (isChanged(previous.get(i), task)) {
+                ops.add(new Op(Type.UPDATE, task.getTask_id(), i, j));
+            }
+        }
+        for (int i = 0; i < previous.size(); i++) {
+            if (!kept[i]) ops.add(new Op(Type.REMOVE, previous.get(i).getTask_id(), i, -1));
+        }
+
+        boolean[] stays = longestIncreasingRun(survivorOldIndex, survivors);
+        for (int k = 0; k < survivors; k++) {
+            if (!stays[k]) {
+                int j = survivorNewIndex[k];
+                ops.add(new Op(Type.MOVE, next.get(j).getTask_id(), survivorOldIndex[k], j));
+            }
+        }
+        return new TaskListDiff(ops);
+    }
+
+    static boolean isChanged(Task before, Task after) {
+        if (before == after) return false;
+        if (!Objects.equals(before.getUpdated_at(), after.getUpdated_at())) return true;
+        if (before.getStatus() != after.getStatus()) return true;
+        // A folder rename changes the projected name without touching the task
+        if (!Objects.equals(before.getFolder_name(), after.getFolder_name())
+            || !Objects.equals(before.getFolder_id(), after.getFolder_id())) return true;
+        // Without a timestamp there is nothing to go by but the fields themselves
+        return before.getUpdated_at() == null
+            && !(Objects.equals(before.getTitle(), after.getTitle())
+                && Objects.equals(before.getDescription(), after.getDescription())
+                && Objects.equals(before.getDue_date(), after.getDue_date()));
+    }
+
+    /**
+     * Marks the members of one longest strictly increasing subsequence of values[0..n) (O(n log n)).
+     */
+    private static boolean[] longestIncreasingRun(int[] values, int n) {
+        boolean[] marked = new boolean[n];
+        if (n == 0) return marked;
+        int[] tailIndex = new int[n];
+        int[] predecessor = new int[n];
+        int length = 0;
+        for (int k = 0; k < n; k++) {
+            int lo = 0, hi = length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (values[tailIndex[mid]] < values[k]) lo = mid + 1; else hi = mid;
+            }
+            predecessor[k] = lo > 0 ? tailIndex[lo - 1] : -1;
+            tailIndex[lo] = k;
+            if (lo == length) length++;
+        }
+        for (int k = tailIndex[length - 1]; k >= 0; k = predecessor[k]) {
+            marked[k] = true;
+        }
+        return marked;
+    }
+
+    public List<Op> getOps() {
+        return ops;
+    }
+
+    public boolean isEmpty() {
+        return ops.isEmpty();
+    }
+
+    public int getInserts() { return inserts; }
+    public int getRemoves() { return removes; }
+    public int getMoves() { return moves; }
+    public int getUpdates() { return updates; }
+
+    @Override
+    public String toString() {
+        return "inserts=" + inserts + " removes=" + removes + " moves=" + moves + " updates=" + updates;
+    }
+}
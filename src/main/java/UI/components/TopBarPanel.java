@@ -1,5 +1,6 @@
 package UI.components;
 
+import java.awt.Component;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
@@ -9,17 +10,25 @@ import java.util.EnumMap;
 import java.util.Arrays;
 
 import javax.swing.ButtonGroup;
+import javax.swing.DefaultListCellRenderer;
 import javax.swing.JButton;
 import javax.swing.JComboBox;
 import javax.swing.JCheckBoxMenuItem;
 import javax.swing.JLabel;
+import javax.swing.JList;
 import javax.swing.JMenu;
 import javax.swing.JMenuItem;
 import javax.swing.JPanel;
 import javax.swing.JPopupMenu;
 import javax.swing.JRadioButtonMenuItem;
+import javax.swing.JTextField;
+import javax.swing.SwingUtilities;
+import javax.swing.UIManager;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 
 import COMMON.common;
+import COMMON.jfr.FlightRecording;
 import model.TaskStatus;
 import net.miginfocom.swing.MigLayout;
 import UI.UIConstants;
@@ -29,6 +38,7 @@ public class TopBarPanel extends JPanel {
     public interface Listener {
         void onFolderFilterChanged(String folder);
         void onStatusFilterChanged(Set<TaskStatus> statuses);
+        void onSearchChanged(String text);
         void onClearFilters();
         void onSyncRequested();
         void onHistoryRequested();
@@ -36,10 +46,13 @@ public class TopBarPanel extends JPanel {
         void onEditAccount();
         void onDeleteAccount();
         void onToggleTheme();
+        void onSaveRecording();
+        void onExportSyncTraces();
     }
 
     private Listener listener;
     private JComboBox<String> folderFilterBox;
+    private JTextField searchField;
     private JPopupMenu filterPopupMenu;
     private Map<TaskStatus, JCheckBoxMenuItem> filterCheckBoxMenuItems;
     private Map<TaskStatus, JRadioButtonMenuItem> sortRadioButtonMenuItems;
@@ -47,16 +60,18 @@ public class TopBarPanel extends JPanel {
     private JPopupMenu userPopupMenu;
     private JButton toggleColorButton;
     private Set<TaskStatus> selectedCriterias = Collections.emptySet();
+    private Map<String, Integer> openByFolder = Collections.emptyMap();
+    private int openTotal;
 
     public TopBarPanel(Listener listener) {
         this.listener = listener;
         filterCheckBoxMenuItems = new EnumMap<>(TaskStatus.class);
         sortRadioButtonMenuItems = new EnumMap<>(TaskStatus.class);
         sortButtonGroup = new ButtonGroup();
-        setLayout(new MigLayout("insets 5 10 5 10, fillx", "[][][]push[][]", "[]"));
-        setBackground(getBackground().darker());
+        setLayout(new MigLayout("insets 5 10 5 10, fillx", "[][][][]push[][]", "[]"));
 
-        JLabel logoLabel = new JLabel(common.getAppIcon());
+        JLabel logoLabel = new JLabel();
+        UIUtils.setThemedIcon(logoLabel, common::getAppIcon);
         add(logoLabel, "gapright 10");
         JLabel titleLabel = new JLabel("TaskFlow");
         titleLabel.setFont(UIConstants.TITLE_FONT_SMALL);
@@ -68,26 +83,62 @@ public class TopBarPanel extends JPanel {
             String folder = "All Folders".equals(sel) ? null : sel;
             listener.onFolderFilterChanged(folder);
         });
+        folderFilterBox.setRenderer(new DefaultListCellRenderer() {
+            @Override
+            public Component getListCellRendererComponent(JList<?> list, Object value, int index,
+                                                          boolean isSelected, boolean cellHasFocus) {
+                super.getListCellRendererComponent(list, value, index, isSelected, cellHasFocus);
+                Integer count = "All Folders".equals(value) ? Integer.valueOf(openTotal) : openByFolder.get(value);
+                if (value != null && count != null && count > 0) setText(value + " (" + count + ")");
+                return this;
+            }
+        });
         add(folderFilterBox, "width 150!");
+
+        searchField = new JTextField();
+        searchField.putClientProperty("JTextField.placeholderText", "Search tasks");
+        searchField.putClientProperty("JTextField.showClearButton", true);
+        searchField.getDocument().addDocumentListener(new DocumentListener() {
+            public void insertUpdate(DocumentEvent e) { listener.onSearchChanged(searchField.getText()); }
+            public void removeUpdate(DocumentEvent e) { listener.onSearchChanged(searchField.getText()); }
+            public void changedUpdate(DocumentEvent e) { }
+        });
+        add(searchField, "width 200!, gapleft 10");
         
-        JButton filterButton = new JButton(common.getFilterIcon());
+        JButton filterButton = new JButton();
+        UIUtils.setThemedIcon(filterButton, common::getFilterIcon);
         UIUtils.styleIconButton(filterButton, "Filter Tasks");
         createFilterPopup();
         filterButton.addActionListener(e -> filterPopupMenu.show(filterButton, 0, filterButton.getHeight()));
         add(filterButton, "gapright 15");
 
-        JButton userButton = new JButton(common.getUserConfigIcon());
+        JButton userButton = new JButton();
+        UIUtils.setThemedIcon(userButton, common::getUserConfigIcon);
         UIUtils.styleIconButton(userButton, "User Profile");
         createUserPopup();
         userButton.addActionListener(e -> userPopupMenu.show(userButton, 0, userButton.getHeight()));
         add(userButton);
 
-        toggleColorButton = new JButton(common.getModeIcon());
+        toggleColorButton = new JButton();
+        UIUtils.setThemedIcon(toggleColorButton, common::getModeIcon);
         UIUtils.styleIconButton(toggleColorButton, "Toggle color mode");
         toggleColorButton.addActionListener(e -> listener.onToggleTheme());
         add(toggleColorButton, "aligny center, gapleft 10");
     }
 
+    @Override
+    public void updateUI() {
+        super.updateUI();
+        // A shade darker than the panels in between, recomputed for each theme
+        setBackground(UIManager.getColor("Panel.background").darker());
+        // The popups aren't part of the component tree until shown
+        if (filterPopupMenu != null) {
+            SwingUtilities.updateComponentTreeUI(filterPopupMenu);
+            SwingUtilities.updateComponentTreeUI(userPopupMenu);
+            UIUtils.refreshThemedIcons(userPopupMenu);
+        }
+    }
+
     private void createFilterPopup() {
         filterPopupMenu = new JPopupMenu();
         JMenuItem clear = new JMenuItem("Clear All Filters");
@@ -121,6 +172,7 @@ public class TopBarPanel extends JPanel {
                 item.setSelected(true);
             sortButtonGroup.clearSelection();
             folderFilterBox.setSelectedIndex(0);
+            searchField.setText("");
             listener.onClearFilters();
             });
     }
@@ -147,12 +199,33 @@ public class TopBarPanel extends JPanel {
 
     private void createUserPopup() {
         userPopupMenu = new JPopupMenu();
-        JMenuItem logout = new JMenuItem("Log out", common.getLogoutIcon());
+        JMenuItem logout = new JMenuItem("Log out");
+        UIUtils.setThemedIcon(logout, common::getLogoutIcon);
         logout.addActionListener(e -> listener.onLogout()); userPopupMenu.add(logout);
-        JMenuItem edit = new JMenuItem("Edit Account", common.getEditUserIcon());
+        JMenuItem edit = new JMenuItem("Edit Account");
+        UIUtils.setThemedIcon(edit, common::getEditUserIcon);
         edit.addActionListener(e -> listener.onEditAccount()); userPopupMenu.add(edit);
-        JMenuItem del = new JMenuItem("Delete Account", common.getDeleteUserIcon());
+        JMenuItem del = new JMenuItem("Delete Account");
+        UIUtils.setThemedIcon(del, common::getDeleteUserIcon);
         del.addActionListener(e -> listener.onDeleteAccount()); userPopupMenu.add(del);
+        userPopupMenu.addSeparator();
+        JMenuItem traces = new JMenuItem("Export Sync Traces");
+        traces.addActionListener(e -> listener.onExportSyncTraces()); userPopupMenu.add(traces);
+        // Only offered when the app was started with --jfr
+        if (FlightRecording.isRunning()) {
+            JMenuItem recording = new JMenuItem("Save Flight Recording");
+            recording.addActionListener(e -> listener.onSaveRecording()); userPopupMenu.add(recording);
+        }
+    }
+
+    /**
+     * Open-task badges shown next to each folder name; folders missing from the map show none.
+     */
+    public void setFolderCounts(Map<String, Integer> openByFolder, int openTotal) {
+        if (openByFolder.equals(this.openByFolder) && openTotal == this.openTotal) return;
+        this.openByFolder = openByFolder;
+        this.openTotal = openTotal;
+        folderFilterBox.repaint();
     }
 
     public void updateFolders(List<String> folders) {
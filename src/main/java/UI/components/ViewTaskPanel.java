@@ -8,6 +8,7 @@ import javax.swing.JLabel;
 import javax.swing.JPanel;
 
 import COMMON.common;
+import UI.UIUtils;
 import model.Task;
 import model.TaskStatus;
 import net.miginfocom.swing.MigLayout;
@@ -34,7 +35,8 @@ public class ViewTaskPanel extends CardPanel {
         titleLabel.putClientProperty(FlatClientProperties.STYLE, "font: bold +2; foreground: $Label.foreground");
         headerPanel.add(titleLabel, "growx");
         
-        JButton closeBtn = new JButton(common.getBackIcon());
+        JButton closeBtn = new JButton();
+        UIUtils.setThemedIcon(closeBtn, common::getBackIcon);
         closeBtn.setToolTipText("Close");
         closeBtn.setCursor(Cursor.getPredefinedCursor(Cursor.HAND_CURSOR));
         closeBtn.putClientProperty(FlatClientProperties.STYLE, "" +
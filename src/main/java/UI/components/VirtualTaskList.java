@@ -0,0 +1,517 @@
+package UI.components;
+
+import java.awt.Component;
+import java.awt.Dimension;
+import java.awt.Rectangle;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.swing.JComponent;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.JViewport;
+import javax.swing.Scrollable;
+import javax.swing.SwingConstants;
+import javax.swing.SwingUtilities;
+import javax.swing.event.ChangeListener;
+
+import model.Task;
+
+/**
+ * Scrollable task list that only realizes cards for the rows inside the viewport (plus a few rows
+ * of overscan). Cards leaving the viewport go back to a pool and are re-bound to whatever task
+ * scrolls into view, so the number of live {@link TaskCardPanel}s stays around a screenful no
+ * matter how many tasks are listed.
+ *
+ * Rows have variable height: each row starts with an estimate and is corrected the first time its
+ * card is measured. A row can also show a different component in place of its card
+ * ({@link #setExpansion}, used for the inline edit/view panels) and can be pinned to a fixed
+ * height ({@link #setRowHeight}, used by the expand/collapse animations).
+ */
+public class VirtualTaskList extends JPanel implements Scrollable {
+    private static final int INSET = 15;
+    private static final int GAP = 10;
+    private static final int OVERSCAN = 3;
+    private static final int DEFAULT_ROW_HEIGHT = 130;
+
+    private final TaskCardPanel.Listener cardListener;
+    private final JLabel emptyLabel = new JLabel("No tasks found matching criteria.", SwingConstants.CENTER);
+
+    private List<Task> tasks = Collections.emptyList();
+    private final Map<String, Integer> indexById = new HashMap<>();
+    /** Measured (or estimated) card height per row, excluding the gap. */
+    private int[] heights = new int[0];
+    private boolean[] measured = new boolean[0];
+    /** offsets[i] = y of row i relative to the top inset; offsets[n] = total content height. */
+    private int[] offsets = new int[1];
+    private boolean offsetsDirty;
+    private int estimatedRowHeight = DEFAULT_ROW_HEIGHT;
+    private boolean estimateMeasured;
+
+    private final Map<String, TaskCardPanel> realized = new LinkedHashMap<>();
+    private final ArrayDeque<TaskCardPanel> pool = new ArrayDeque<>();
+    private final Map<String, JComponent> expansions = new HashMap<>();
+    private final Map<String, Integer> fixedHeights = new HashMap<>();
+    private int cardsCreated;
+    private TaskListDiff lastDiff;
+    private final Set<String> pendingInserts = new HashSet<>();
+    private int lastRefreshRebuilt;
+    private long totalCardsRebuilt;
+    private boolean layingOut;
+    private final ChangeListener scrollListener = e -> layoutRows();
+
+    public VirtualTaskList(TaskCardPanel.Listener cardListener) {
+        super(null);
+        this.cardListener = cardListener;
+        emptyLabel.setVisible(false);
+        add(emptyLabel);
+    }
+
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        if (getParent() instanceof JViewport viewport) {
+            // Scrolling only moves the view; rows entering the viewport have to be realized here
+            viewport.addChangeListener(scrollListener);
+        }
+    }
+
+    @Override
+    public void removeNotify() {
+        if (getParent() instanceof JViewport viewport) {
+            viewport.removeChangeListener(scrollListener);
+        }
+        super.removeNotify();
+    }
+
+    /**
+     * Replace the listed tasks by patching the current rows: the new list is diffed against the old
+     * one by task_id, cards of removed tasks are recycled, cards of updated tasks are re-bound, and
+     * every other realized card keeps its labels but is handed the new task instance, so its actions
+     * never act on a stale copy (moves only change its position).
+     * Expansions and pinned heights of tasks no longer listed are dropped.
+     *
+     * @return the operations that were applied
+     */
+    public TaskListDiff setTasks(List<Task> newTasks) {
+        List<Task> next = newTasks != null ? new ArrayList<>(newTasks) : Collections.<Task>emptyList();
+        TaskListDiff diff = TaskListDiff.compute(tasks, next);
+        int[] previousHeights = heights;
+        boolean[] previousMeasured = measured;
+        Map<String, Integer> previousIndex = new HashMap<>(indexById);
+
+        tasks = next;
+        indexById.clear();
+        heights = new int[tasks.size()];
+        measured = new boolean[tasks.size()];
+        for (int i = 0; i < tasks.size(); i++) {
+            String id = tasks.get(i).getTask_id();
+            indexById.put(id, i);
+            Integer old = previousIndex.get(id);
+            // Keep the measured height of rows that survive the refresh
+            if (old != null && previousMeasured[old]) {
+                heights[i] = previousHeights[old];
+                measured[i] = true;
+            } else {
+                heights[i] = estimatedRowHeight;
+            }
+        }
+
+        lastRefreshRebuilt = 0;
+        pendingInserts.clear();
+        for (TaskListDiff.Op op : diff.getOps()) {
+            switch (op.type()) {
+                case REMOVE -> {
+                    TaskCardPanel card = realized.remove(op.taskId());
+                    if (card != null) recycle(card);
+                }
+                case UPDATE -> {
+                    measured[op.toIndex()] = false;
+                    TaskCardPanel card = realized.get(op.taskId());
+                    if (card != null) {
+                        card.setTask(tasks.get(op.toIndex()));
+                        lastRefreshRebuilt++;
+                    }
+                }
+                case INSERT -> pendingInserts.add(op.taskId());
+                case MOVE -> { } // the realized card follows its task_id to the new row
+            }
+        }
+        for (Map.Entry<String, TaskCardPanel> entry : realized.entrySet()) {
+            Task current = tasks.get(indexById.get(entry.getKey()));
+            if (entry.getValue().getTask() != current) entry.getValue().retarget(current);
+        }
+        totalCardsRebuilt += lastRefreshRebuilt;
+        lastDiff = diff;
+
+        dropStale(expansions);
+        dropStale(fixedHeights);
+        offsetsDirty = true;
+        emptyLabel.setVisible(tasks.isEmpty());
+        revalidate();
+        repaint();
+        return diff;
+    }
+
+    /**
+     * Operations applied by the most recent {@link #setTasks}.
+     */
+    public TaskListDiff getLastDiff() {
+        return lastDiff;
+    }
+
+    /**
+     * Cards re-bound because of the most recent refresh: realized rows that were updated, plus
+     * inserted rows realized by the layout that followed. Cards bound while scrolling don't count.
+     */
+    public int getLastRefreshRebuiltCount() {
+        return lastRefreshRebuilt;
+    }
+
+    /** Running total of {@link #getLastRefreshRebuiltCount()} over all refreshes. */
+    public long getTotalCardsRebuilt() {
+        return totalCardsRebuilt;
+    }
+
+    /**
+     * Re-bind the realized cards of {@code taskIds} to their current task, for changes that come
+     * from the clock rather than the task (a due date passing). Rows that aren't realized bind
+     * fresh when they scroll into view.
+     *
+     * @return the number of cards re-bound
+     */
+    public int rebind(Collection<String> taskIds) {
+        int rebound = 0;
+        for (String taskId : taskIds) {
+            Integer index = indexById.get(taskId);
+            TaskCardPanel card = realized.get(taskId);
+            if (index == null || card == null) continue;
+            card.setTask(tasks.get(index));
+            measured[index] = false;
+            rebound++;
+        }
+        if (rebound > 0) rowsChanged();
+        return rebound;
+    }
+
+    public List<Task> getTasks() {
+        return Collections.unmodifiableList(tasks);
+    }
+
+    public boolean containsTask(String taskId) {
+        return indexById.containsKey(taskId);
+    }
+
+    /**
+     * Show {@code component} in place of the task's card until {@link #clearExpansion} is called.
+     */
+    public void setExpansion(String taskId, JComponent component) {
+        if (!indexById.containsKey(taskId)) return;
+        JComponent previous = expansions.put(taskId, component);
+        if (previous != null && previous != component) remove(previous);
+        TaskCardPanel card = realized.remove(taskId);
+        if (card != null) recycle(card);
+        add(component);
+        rowsChanged();
+    }
+
+    public void clearExpansion(String taskId) {
+        JComponent component = expansions.remove(taskId);
+        if (component != null) {
+            remove(component);
+            rowsChanged();
+        }
+    }
+
+    public JComponent getExpansion(String taskId) {
+        return expansions.get(taskId);
+    }
+
+    /**
+     * Pin a row to an exact height (the row's component is squeezed or clipped), or pass null
+     * to go back to its natural height. Only invalidates the list: animations change this every
+     * frame and lay out once per frame through the animation clock, other callers revalidate.
+     */
+    public void setRowHeight(String taskId, Integer height) {
+        if (height == null) fixedHeights.remove(taskId);
+        else if (indexById.containsKey(taskId)) fixedHeights.put(taskId, Math.max(0, height));
+        offsetsDirty = true;
+        invalidate();
+    }
+
+    /**
+     * Height the row takes when not pinned: its expansion's preferred height, or the card's.
+     */
+    public int getNaturalRowHeight(String taskId) {
+        JComponent expansion = expansions.get(taskId);
+        if (expansion != null) return expansion.getPreferredSize().height;
+        Integer index = indexById.get(taskId);
+        return index != null ? heights[index] : 0;
+    }
+
+    /**
+     * Bounds of a row in this component's coordinates, or null if the task is not listed.
+     */
+    public Rectangle getRowBounds(String taskId) {
+        Integer index = indexById.get(taskId);
+        if (index == null) return null;
+        ensureOffsets();
+        return new Rectangle(INSET, INSET + offsets[index], Math.max(0, getWidth() - 2 * INSET), rowHeight(index));
+    }
+
+    public void scrollToTask(String taskId) {
+        Rectangle bounds = getRowBounds(taskId);
+        if (bounds != null) scrollRectToVisible(bounds);
+    }
+
+    /**
+     * Ids of the rows that currently intersect the viewport.
+     */
+    public List<String> getVisibleTaskIds() {
+        Rectangle visible = getVisibleRect();
+        if (tasks.isEmpty() || visible.height <= 0) return Collections.emptyList();
+        ensureOffsets();
+        List<String> ids = new ArrayList<>();
+        for (int i = rowAt(visible.y - INSET); i < tasks.size() && INSET + offsets[i] < visible.y + visible.height; i++) {
+            ids.add(tasks.get(i).getTask_id());
+        }
+        return ids;
+    }
+
+    /** Number of cards currently bound to a row. */
+    public int getRealizedCardCount() {
+        return realized.size();
+    }
+
+    /** Number of card instances ever constructed by this list (realized + pooled). */
+    public int getCardsCreated() {
+        return cardsCreated;
+    }
+
+    @Override
+    public void doLayout() {
+        layoutRows();
+    }
+
+    /**
+     * A new look and feel can change fonts and insets, so every row is measured again.
+     */
+    @Override
+    public void updateUI() {
+        super.updateUI();
+        // Also called by the JPanel constructor, before the row state exists
+        if (measured != null) {
+            Arrays.fill(measured, false);
+            estimateMeasured = false;
+            offsetsDirty = true;
+        }
+    }
+
+    @Override
+    public Dimension getPreferredSize() {
+        ensureOffsets();
+        int width = getParent() != null ? getParent().getWidth() : 400;
+        int content = tasks.isEmpty() ? emptyLabel.getPreferredSize().height : offsets[tasks.size()];
+        return new Dimension(width, content + 2 * INSET);
+    }
+
+    /**
+     * Realize cards for the rows in (or near) the viewport, recycle the rest and position everything.
+     */
+    private void layoutRows() {
+        if (layingOut) return;
+        layingOut = true;
+        try {
+            int width = Math.max(0, getWidth() - 2 * INSET);
+            if (tasks.isEmpty()) {
+                realized.values().forEach(this::recycle);
+                realized.clear();
+                emptyLabel.setBounds(INSET, INSET, width, emptyLabel.getPreferredSize().height);
+                return;
+            }
+            Rectangle visible = getVisibleRect();
+            if (visible.height <= 0) visible = new Rectangle(0, 0, getWidth(), 600);
+
+            // Measuring newly bound cards can shift rows, so settle in at most a couple of passes
+            boolean resized = false;
+            for (int pass = 0; pass < 3; pass++) {
+                ensureOffsets();
+                int first = Math.max(0, rowAt(visible.y - INSET) - OVERSCAN);
+                int last = Math.min(tasks.size() - 1, rowAt(visible.y + visible.height - INSET) + OVERSCAN);
+
+                Iterator<Map.Entry<String, TaskCardPanel>> it = realized.entrySet().iterator();
+                while (it.hasNext()) {
+                    Map.Entry<String, TaskCardPanel> entry = it.next();
+                    Integer index = indexById.get(entry.getKey());
+                    if (index == null || index < first || index > last || expansions.containsKey(entry.getKey())) {
+                        recycle(entry.getValue());
+                        it.remove();
+                    }
+                }
+
+                boolean remeasured = false;
+                for (int i = first; i <= last; i++) {
+                    Task task = tasks.get(i);
+                    String id = task.getTask_id();
+                    Component row = expansions.get(id);
+                    if (row == null) {
+                        TaskCardPanel card = realized.get(id);
+                        boolean bind = card == null;
+                        if (bind) {
+                            card = obtainCard();
+                            realized.put(id, card);
+                            card.setTask(task);
+                            if (pendingInserts.remove(id)) {
+                                lastRefreshRebuilt++;
+                                totalCardsRebuilt++;
+                            }
+                        }
+                        if (!measured[i] || bind) remeasured |= measure(i, card);
+                        row = card;
+                    }
+                    row.setBounds(INSET, INSET + offsets[i], width, rowHeight(i));
+                    row.setVisible(true);
+                }
+                resized |= remeasured;
+                if (!remeasured) break;
+            }
+            // Inserted rows that weren't on screen are just rows now; scrolling to them is not a rebuild
+            pendingInserts.clear();
+            if (resized) {
+                // Total height changed after measuring; let the viewport pick up the new size
+                SwingUtilities.invokeLater(this::revalidate);
+            }
+        } finally {
+            layingOut = false;
+        }
+        validateRows();
+    }
+
+    private void validateRows() {
+        for (TaskCardPanel card : realized.values()) card.validate();
+        for (JComponent expansion : expansions.values()) expansion.validate();
+        repaint();
+    }
+
+    /**
+     * Record the card's height for row i; true if the row's height changed.
+     */
+    private boolean measure(int i, TaskCardPanel card) {
+        int h = card.getPreferredSize().height;
+        measured[i] = true;
+        if (!estimateMeasured) {
+            // First real measurement: use it as the estimate for every row not yet seen
+            estimateMeasured = true;
+            estimatedRowHeight = h;
+            for (int j = 0; j < heights.length; j++) {
+                if (!measured[j]) heights[j] = h;
+            }
+            offsetsDirty = true;
+        }
+        if (h == heights[i]) return offsetsDirty;
+        heights[i] = h;
+        offsetsDirty = true;
+        return true;
+    }
+
+    private int rowHeight(int index) {
+        String id = tasks.get(index).getTask_id();
+        Integer fixed = fixedHeights.get(id);
+        if (fixed != null) return fixed;
+        JComponent expansion = expansions.get(id);
+        return expansion != null ? expansion.getPreferredSize().height : heights[index];
+    }
+
+    /**
+     * Index of the row containing content-relative y (clamped to the list).
+     */
+    private int rowAt(int y) {
+        int n = tasks.size();
+        if (n == 0 || y <= 0) return 0;
+        int pos = Arrays.binarySearch(offsets, 0, n + 1, y);
+        int row = pos >= 0 ? pos : -pos - 2;
+        return Math.max(0, Math.min(n - 1, row));
+    }
+
+    private void ensureOffsets() {
+        int n = tasks.size();
+        if (!offsetsDirty && offsets.length == n + 1) return;
+        if (offsets.length != n + 1) offsets = new int[n + 1];
+        int y = 0;
+        for (int i = 0; i < n; i++) {
+            offsets[i] = y;
+            int h = rowHeight(i);
+            y += h + (h > 0 ? GAP : 0);
+        }
+        offsets[n] = y;
+        offsetsDirty = false;
+    }
+
+    private void rowsChanged() {
+        offsetsDirty = true;
+        revalidate();
+        repaint();
+    }
+
+    private TaskCardPanel obtainCard() {
+        TaskCardPanel card = pool.poll();
+        if (card == null) {
+            card = new TaskCardPanel(cardListener);
+            cardsCreated++;
+            add(card);
+        }
+        return card;
+    }
+
+    private void recycle(TaskCardPanel card) {
+        // Pooled cards stay children of the list, just hidden, to avoid add/remove churn
+        card.setVisible(false);
+        pool.push(card);
+    }
+
+    private void dropStale(Map<String, ?> byTaskId) {
+        Iterator<? extends Map.Entry<String, ?>> it = byTaskId.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<String, ?> entry = it.next();
+            if (!indexById.containsKey(entry.getKey())) {
+                if (entry.getValue() instanceof Component component) remove(component);
+                it.remove();
+            }
+        }
+    }
+
+    @Override
+    public Dimension getPreferredScrollableViewportSize() {
+        return getPreferredSize();
+    }
+
+    @Override
+    public int getScrollableUnitIncrement(Rectangle visibleRect, int orientation, int direction) {
+        return 16;
+    }
+
+    @Override
+    public int getScrollableBlockIncrement(Rectangle visibleRect, int orientation, int direction) {
+        return Math.max(16, visibleRect.height - 16);
+    }
+
+    @Override
+    public boolean getScrollableTracksViewportWidth() {
+        return true;
+    }
+
+    @Override
+    public boolean getScrollableTracksViewportHeight() {
+        return false;
+    }
+}
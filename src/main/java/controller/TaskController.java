@@ -1,19 +1,33 @@
 package controller;
 
+import model.CompletedTaskIndex;
 import model.TaskHandlerV2;
+import model.TaskQuery;
+import model.TaskQueryCache;
+import model.TaskCounters;
+import model.TaskSearchIndex;
 import model.TaskStatus;
 import model.Task;
 import model.FiltersCriteria;
 import UI.LoginFrame;
 import UI.TaskDashboardFrame;
+import COMMON.ParallelWork;
 import COMMON.UserProperties;
+import COMMON.jfr.FlightRecording;
+import service.CommandOutbox;
+import service.DueBoundaryWatcher;
 import service.OptimizedSyncService;
+import service.SyncTraceLog;
+import service.realtime.RealtimeSyncClient;
+import service.realtime.SseEvent;
+import service.sync.RealtimeEventApplier;
+import service.transport.ConnectivityMonitor;
+import service.transport.ResilientTransport;
 
+import java.net.URI;
 import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.List;
 import java.util.Objects;
-import java.util.stream.Collectors;
 
 import DBH.DBHandler;
 import DBH.NeonPool;
@@ -31,16 +45,176 @@ public class TaskController {
     private DBHandler dbHandler;
     private OptimizedSyncService optimizedSyncService;
     private Connection dbConnection;
+    private final ConnectivityMonitor.Listener connectivityListener = this::onConnectivityChanged;
+    private RealtimeSyncClient realtimeClient;
+    private CommandOutbox outbox;
+    private DueBoundaryWatcher dueWatcher;
+    private static final long DEFAULT_POLL_INTERVAL_MS = 60000;
+    // Filters are re-run with the same criteria on every refresh; compile them once
+    private volatile TaskQuery compiledQuery;
+    private static final ParallelWork.Crossover HISTORY_FILTER = new ParallelWork.Crossover("history filter");
+    // Refreshes that follow a sync or edit which changed nothing reuse the previous result
+    private final TaskQueryCache queryCache = new TaskQueryCache(Math.max(1, getIntProperty("queryCacheSize", 16)));
+    // Clock-dependent views are recomputed at most once per bucket; the due watcher refreshes on crossings
+    private static final long QUERY_TIME_BUCKET_MS = 60_000;
 
     public TaskController(TaskHandlerV2 taskHandlerV2, TaskDashboardFrame view, DBHandler dbHandler) {
         this.taskHandlerV2 = taskHandlerV2;
         this.view = view;
         this.dbHandler = dbHandler;
+        ConnectivityMonitor.shared().addListener(connectivityListener);
+        connectDatabase();
+    }
+
+    private synchronized void connectDatabase() {
+        if (optimizedSyncService != null) return;
         try {
             this.dbConnection = NeonPool.getConnection();
             this.optimizedSyncService = new OptimizedSyncService(taskHandlerV2, dbConnection);
+            startOutbox();
         } catch (Exception ex) {
             System.err.println("Controller: DB connection error: " + ex.getMessage());
+            if (ResilientTransport.isTransient(ex)) {
+                // Start probing so we connect and sync as soon as the database is reachable again
+                ConnectivityMonitor.shared().reportOffline(ResilientTransport.DATABASE);
+            }
+        }
+    }
+
+    /**
+     * Reacts to backend reachability changes: updates the offline indicator and, when the
+     * database comes back, connects if needed and syncs whatever was queued while offline.
+     */
+    private void onConnectivityChanged(String endpoint, ConnectivityMonitor.State state) {
+        boolean online = ConnectivityMonitor.shared().isOnline();
+        SwingUtilities.invokeLater(() -> view.updateConnectivityStatus(online));
+        if (state == ConnectivityMonitor.State.ONLINE && ResilientTransport.DATABASE.equals(endpoint)) {
+            connectDatabase();
+            if (outbox != null) outbox.flushNow();
+            performSyncWithUIUpdate(() -> {
+                view.updateLastSyncLabel(getLastSyncTime());
+                view.refreshTaskListDisplay();
+            }, "Reconnect sync failed");
+        }
+    }
+
+    /**
+     * Opens the SSE channel (authApiUrl + /sse/user/{id}) so changes made on other devices show up
+     * without waiting for a manual sync. While the stream is down a full sync is polled instead.
+     */
+    public synchronized void startRealtimeSync() {
+        if (realtimeClient != null) return;
+        String baseUrl = (String) UserProperties.getProperty("authApiUrl");
+        String userId = taskHandlerV2.getUserId();
+        if (baseUrl == null || baseUrl.trim().isEmpty() || userId == null || userId.isEmpty()) {
+            System.out.println("Controller: Realtime sync disabled (no API URL or user)");
+            return;
+        }
+        RealtimeEventApplier applier = new RealtimeEventApplier(taskHandlerV2);
+        RealtimeSyncClient.Listener listener = new RealtimeSyncClient.Listener() {
+            @Override
+            public void onEvent(SseEvent event) {
+                switch (applier.apply(event)) {
+                    case TASKS -> SwingUtilities.invokeLater(view::refreshTaskListDisplay);
+                    case FOLDERS -> SwingUtilities.invokeLater(() -> view.updateFolderList(taskHandlerV2.getFolderNamesList()));
+                    default -> { }
+                }
+            }
+
+            @Override
+            public void onStateChanged(RealtimeSyncClient.State state) {
+                System.out.println("Controller: Realtime channel " + state);
+            }
+        };
+        try {
+            realtimeClient = new RealtimeSyncClient.Builder(URI.create(baseUrl.trim() + "/sse/user/" + userId), listener)
+                .tokenSupplier(() -> (String) UserProperties.getProperty("token"))
+                .pollTask(() -> performSyncWithUIUpdate(() -> {
+                    view.updateLastSyncLabel(getLastSyncTime());
+                    view.refreshTaskListDisplay();
+                }, "Polling sync failed"), getPollIntervalMs())
+                .build();
+            realtimeClient.start();
+        } catch (IllegalArgumentException e) {
+            System.err.println("Controller: Invalid realtime URL: " + e.getMessage());
+            realtimeClient = null;
+        }
+    }
+
+    private synchronized void stopRealtimeSync() {
+        if (realtimeClient != null) {
+            realtimeClient.stop();
+            realtimeClient = null;
+        }
+    }
+
+    /**
+     * Pushes tasks to the dashboard as they pass their due date, so overdue badges and the
+     * overdue/incoming-due views stay current without rescanning the task list on a timer.
+     */
+    public synchronized void startDueBoundaryWatcher() {
+        if (dueWatcher != null) return;
+        dueWatcher = new DueBoundaryWatcher(taskHandlerV2.getDueDateIndex(),
+            tasks -> SwingUtilities.invokeLater(() -> view.onTasksBecameOverdue(tasks)));
+        dueWatcher.start();
+    }
+
+    private synchronized void stopDueBoundaryWatcher() {
+        if (dueWatcher != null) {
+            dueWatcher.shutdown();
+            dueWatcher = null;
+        }
+    }
+
+    private static long getPollIntervalMs() {
+        Object value = UserProperties.getProperty("pollIntervalSeconds");
+        if (value != null) {
+            try {
+                return Math.max(5, Long.parseLong(String.valueOf(value).trim())) * 1000;
+            } catch (NumberFormatException ignore) {
+                // fall through to the default
+            }
+        }
+        return DEFAULT_POLL_INTERVAL_MS;
+    }
+
+    /**
+     * Starts the command outbox so local edits are uploaded within moments of being made, without
+     * paying for a full sync. Disabled with outboxEnabled=false; outboxBatchSize and outboxWindow tune it.
+     */
+    private void startOutbox() {
+        if (outbox != null || "false".equalsIgnoreCase(String.valueOf(UserProperties.getProperty("outboxEnabled")))) return;
+        OptimizedSyncService service = optimizedSyncService;
+        outbox = new CommandOutbox.Builder(taskHandlerV2.getCommandQueue(), service::uploadCommands)
+            .batchSize(getIntProperty("outboxBatchSize", 10))
+            .window(getIntProperty("outboxWindow", 2))
+            .listener((batch, acknowledged) -> SwingUtilities.invokeLater(view::refreshTaskListDisplay))
+            .build();
+        outbox.start();
+    }
+
+    private synchronized void stopOutbox() {
+        if (outbox != null) {
+            outbox.stop();
+            outbox = null;
+        }
+    }
+
+    /**
+     * After a local edit: the outbox ships it on its own; without one, fall back to a full sync.
+     */
+    private void syncAfterLocalChange(String errorMessage) {
+        if (outbox != null) return;
+        performSyncWithUIUpdate(() -> view.refreshTaskListDisplay(), errorMessage);
+    }
+
+    private static int getIntProperty(String key, int defaultValue) {
+        Object value = UserProperties.getProperty(key);
+        if (value == null) return defaultValue;
+        try {
+            return Integer.parseInt(String.valueOf(value).trim());
+        } catch (NumberFormatException e) {
+            return defaultValue;
         }
     }
 
@@ -72,7 +246,11 @@ public class TaskController {
     }
 
     public void loadInitialTasks() {
-        if (optimizedSyncService != null) {
+        if (optimizedSyncService != null && optimizedSyncService.hasBootstrapped()) {
+            // loadInitialFolderList() already ran the first sync; don't repeat the round trips
+            view.updateFolderList(taskHandlerV2.getFolderNamesList());
+            view.refreshTaskListDisplay();
+        } else if (optimizedSyncService != null) {
             performSyncWithUIUpdate(() -> {
                 view.updateFolderList(taskHandlerV2.getFolderNamesList());
                 view.refreshTaskListDisplay();
@@ -148,42 +326,31 @@ public class TaskController {
     
     /**
     * Filters tasks based on the provided criteria object.
-    * Applies filters sequentially.
+    * The criteria are compiled once into a {@link TaskQuery} and run against the store's indexes
+    * in a single pass. Results are cached per data version, so re-running the same criteria
+    * against unchanged data returns the previous list.
     *
     * @param criteria The TaskFilterCriteria record containing filter settings.
-    * @return A new list containing tasks matching the criteria.
+    * @return An unmodifiable list containing tasks matching the criteria.
     */
     public List<Task> getTasksByFilters(FiltersCriteria criteria) {
-        List<Task> filteredTasks = new ArrayList<>(taskHandlerV2.getAllTasks());
-        if (criteria.folderName() != null && !criteria.folderName().equals("All Folders"))
-            filteredTasks = getTasksByFolder(filteredTasks, criteria.folderName());
-        if ( criteria.statuses() == null && criteria.statuses().isEmpty() )
-            return filteredTasks;
-        if ( criteria.statuses().contains(TaskStatus.completed) || criteria.statuses().contains(TaskStatus.pending) || criteria.statuses().contains(TaskStatus.in_progress) ) {
-            filteredTasks = filteredTasks.stream()
-                .filter(task -> criteria.statuses().contains(task.getStatus()))
-                .collect(Collectors.toList());
+        TaskQuery query = compiledQuery;
+        if (query == null || !query.getCriteria().equals(criteria)) {
+            query = TaskQuery.compile(criteria);
+            compiledQuery = query;
         }
-        if ( criteria.statuses().contains(TaskStatus.newest) ) {
-            filteredTasks = filteredTasks.stream()
-                .filter(task -> task.getCreated_at() != null && task.getCreated_at().isBefore(LocalDateTime.now()))
-                .sorted(Comparator.comparing(Task::getCreated_at).reversed())
-                .collect(Collectors.toList());
-        }
-        if ( criteria.statuses().contains(TaskStatus.incoming_due) ) {
-            filteredTasks = filteredTasks.stream()
-                .filter(task -> task.getDue_date() != null && task.getDue_date().isAfter(LocalDateTime.now()))
-                .sorted(Comparator.comparing(Task::getDue_date))
-                .collect(Collectors.toList());
-        }
-        if ( criteria.statuses().contains(TaskStatus.overdue) ) {
-            filteredTasks = filteredTasks.stream()
-                .filter(task -> task.getDue_date() != null && task.getDue_date().isBefore(LocalDateTime.now()))
-                .collect(Collectors.toList());
-        }
-        return filteredTasks;
-    }    
-    
+        // Read the version first: whatever is computed below is at least that fresh
+        long version = taskHandlerV2.getDataVersion();
+        long timeBucket = query.dependsOnTime() ? System.currentTimeMillis() / QUERY_TIME_BUCKET_MS : 0;
+        List<Task> cached = queryCache.get(criteria, version, timeBucket);
+        if (cached != null) return cached;
+
+        TaskSearchIndex.Result matches = criteria.hasSearchText() ? taskHandlerV2.searchTasks(criteria.searchText()) : null;
+        List<Task> result = query.execute(taskHandlerV2.getQueryIndex(), matches, LocalDateTime.now());
+        queryCache.put(criteria, version, timeBucket, result);
+        return result;
+    }
+
     /**
      * Handles creation of a new task from the UI input.
      */
@@ -204,10 +371,7 @@ public class TaskController {
         System.out.println("Controller: Created task with folder_id: " + createdTask.getFolder_id() + ", folder_name: " + createdTask.getFolder_name());
         
         view.refreshTaskListDisplay();
-        performSyncWithUIUpdate(() -> {
-            view.updateLastSyncLabel(getLastSyncTime());
-            view.refreshTaskListDisplay();
-        }, "Exception during DB sync after create");
+        syncAfterLocalChange("Exception during DB sync after create");
     }
 
     public void handleSyncRequest() {
@@ -231,11 +395,15 @@ public class TaskController {
         if (task != null) {
             taskHandlerV2.deleteTask(task, "User deleted");
             view.refreshTaskListDisplay();
-            performSyncWithUIUpdate(() -> view.refreshTaskListDisplay(), "Exception during DB sync after delete");
+            syncAfterLocalChange("Exception during DB sync after delete");
         } else {
             System.err.println("Controller: Could not find task with ID " + taskId + " to delete.");
         }
     }    public void handleWindowClosing() {
+        ConnectivityMonitor.shared().removeListener(connectivityListener);
+        stopRealtimeSync();
+        stopOutbox();
+        stopDueBoundaryWatcher();
         taskHandlerV2.saveTasksToJson();
         if( !Boolean.valueOf((String) UserProperties.getProperty("rememberMe")) ){
             System.out.println("Controller: Logging out user and clearing credentials.");
@@ -251,7 +419,7 @@ public class TaskController {
             TaskStatus newStatus = !task.getStatus().equals(TaskStatus.completed) ? TaskStatus.completed : TaskStatus.pending;
             taskHandlerV2.updateTask(task, null, null, newStatus, null, null);
             view.refreshTaskListDisplay();
-            performSyncWithUIUpdate(() -> view.refreshTaskListDisplay(), "Exception during DB sync after toggle");
+            syncAfterLocalChange("Exception during DB sync after toggle");
         } else {
              System.err.println("Controller: Could not find task to toggle completion.");
         }
@@ -259,6 +427,10 @@ public class TaskController {
     // --- User Action Handlers ---    
     public void handleLogoutRequest() {
         System.out.println("Controller: Logout request received.");
+        ConnectivityMonitor.shared().removeListener(connectivityListener);
+        stopRealtimeSync();
+        stopOutbox();
+        stopDueBoundaryWatcher();
         taskHandlerV2.saveTasksToJson();
         UserProperties.logOut();
         view.dispose();
@@ -278,6 +450,47 @@ public class TaskController {
         }
     }
 
+    /**
+     * Write the continuous flight recording to the user data directory, off the EDT, and tell the
+     * user where it went.
+     */
+    public void handleSaveRecordingRequest() {
+        String userDir = UserProperties.getCurrentUserDataDirectory();
+        java.nio.file.Path directory = java.nio.file.Paths.get(userDir != null ? userDir : UserProperties.getBaseDirectory(), "recordings");
+        Thread dump = new Thread(() -> {
+            try {
+                java.nio.file.Path file = FlightRecording.dump(directory);
+                SwingUtilities.invokeLater(() -> JOptionPane.showMessageDialog(view,
+                        "Flight recording saved to:\n" + file, "Flight Recording", JOptionPane.INFORMATION_MESSAGE));
+            } catch (Exception e) {
+                System.err.println("Controller: Failed to save flight recording: " + e.getMessage());
+                SwingUtilities.invokeLater(() -> JOptionPane.showMessageDialog(view,
+                        "Could not save the flight recording: " + e.getMessage(), "Flight Recording", JOptionPane.ERROR_MESSAGE));
+            }
+        }, "FlightRecording-dump");
+        dump.setDaemon(true);
+        dump.start();
+    }
+
+    public void handleExportTracesRequest() {
+        String userId = taskHandlerV2.getUserId();
+        String userDir = UserProperties.getCurrentUserDataDirectory();
+        java.nio.file.Path directory = java.nio.file.Paths.get(userDir != null ? userDir : UserProperties.getBaseDirectory(), "traces");
+        Thread export = new Thread(() -> {
+            try {
+                java.nio.file.Path file = SyncTraceLog.forUser(userId).export(directory);
+                SwingUtilities.invokeLater(() -> JOptionPane.showMessageDialog(view,
+                        "Sync traces exported to:\n" + file, "Sync Traces", JOptionPane.INFORMATION_MESSAGE));
+            } catch (Exception e) {
+                System.err.println("Controller: Failed to export sync traces: " + e.getMessage());
+                SwingUtilities.invokeLater(() -> JOptionPane.showMessageDialog(view,
+                        "Could not export the sync traces: " + e.getMessage(), "Sync Traces", JOptionPane.ERROR_MESSAGE));
+            }
+        }, "SyncTraces-export");
+        export.setDaemon(true);
+        export.start();
+    }
+
     public void handleDeleteAccountRequest() {
         System.out.println("Controller: Delete Account request received.");
         // TODO: Implement logic to show a dialog for delete user and validate JWT to allow change
@@ -292,7 +505,7 @@ public class TaskController {
         if (task != null) {
             taskHandlerV2.updateTask(task, title, desc, status, due, folder);
             view.refreshTaskListDisplay();
-            performSyncWithUIUpdate(() -> view.refreshTaskListDisplay(), "Exception during DB sync after edit");
+            syncAfterLocalChange("Exception during DB sync after edit");
         } else {
             System.err.println("Controller: Could not find task with ID " + task_id + " to edit.");
         }
@@ -304,11 +517,24 @@ public class TaskController {
      * @return List of Task objects representing the task history
      */
     public List<Task> getTaskHistory() {
-        return new ArrayList<>(
-            taskHandlerV2.getAllTasks().stream()
-                .filter(task -> task.getStatus() == TaskStatus.completed)
-                .collect(Collectors.toList())
-            );
+        return ParallelWork.shared().filter(HISTORY_FILTER, taskHandlerV2.getAllTasks(),
+            task -> task.getStatus() == TaskStatus.completed);
+    }
+
+    /**
+     * Open, overdue and completed-this-week counts for the dashboard badges.
+     */
+    public TaskCounters.Summary getTaskCounts() {
+        return taskHandlerV2.getTaskCountsSummary();
+    }
+
+    /**
+     * Completed tasks indexed by completion time, for paging through the history.
+     * The index is cached by the handler until the task data changes; rebuilding it takes a
+     * while on large histories, so call this off the EDT.
+     */
+    public CompletedTaskIndex getTaskHistoryIndex() {
+        return taskHandlerV2.getCompletedTaskIndex();
     }
 
     // --- Helper Methods ---
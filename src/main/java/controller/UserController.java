@@ -110,6 +110,8 @@ public class UserController {
         dashboard.initialize();
         dashboard.setVisible(true);
         dashboard.refreshTaskListDisplay();
+        controller.startRealtimeSync();
+        controller.startDueBoundaryWatcher();
         loginFrame.dispose();
     }
 }
@@ -0,0 +1,117 @@
+package model;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Immutable index of completed tasks ordered by completion time, newest first.
+ *
+ * A task's completion time is its updated_at, or created_at when it was never updated. Pages are
+ * addressed by {@link Cursor} rather than by offset, so a page stays stable when tasks are
+ * completed or restored while the history is being browsed.
+ */
+public final class CompletedTaskIndex {
+
+    /**
+     * Position of a task in the index.
+     */
+    public record Cursor(LocalDateTime completedAt, String taskId) {
+        public static Cursor of(Task task) {
+            return new Cursor(CompletedTaskIndex.completedAt(task), task.getTask_id());
+        }
+    }
+
+    /**
+     * A slice of the index, newest first.
+     */
+    public record Page(List<Task> tasks, boolean hasNewer, boolean hasOlder) {
+        public boolean isEmpty() {
+            return tasks.isEmpty();
+        }
+    }
+
+    private static final Comparator<Cursor> NEWEST_FIRST = Comparator
+            .comparing(Cursor::completedAt, Comparator.nullsLast(Comparator.<LocalDateTime>reverseOrder()))
+            .thenComparing(Cursor::taskId, Comparator.nullsLast(Comparator.<String>naturalOrder()));
+
+    private static final CompletedTaskIndex EMPTY = new CompletedTaskIndex(new TreeMap<>(NEWEST_FIRST));
+
+    private final NavigableMap<Cursor, Task> byCompletion;
+
+    private CompletedTaskIndex(NavigableMap<Cursor, Task> byCompletion) {
+        this.byCompletion = byCompletion;
+    }
+
+    /**
+     * Index the completed tasks among {@code tasks}; other statuses are skipped.
+     */
+    public static CompletedTaskIndex of(Collection<Task> tasks) {
+        if (tasks == null || tasks.isEmpty()) return EMPTY;
+        NavigableMap<Cursor, Task> map = new TreeMap<>(NEWEST_FIRST);
+        for (Task task : tasks) {
+            if (task != null && task.getStatus() == TaskStatus.completed) {
+                map.put(Cursor.of(task), task);
+            }
+        }
+        return new CompletedTaskIndex(map);
+    }
+
+    public static LocalDateTime completedAt(Task task) {
+        return task.getUpdated_at() != null ? task.getUpdated_at() : task.getCreated_at();
+    }
+
+    public int size() {
+        return byCompletion.size();
+    }
+
+    public boolean isEmpty() {
+        return byCompletion.isEmpty();
+    }
+
+    /**
+     * Up to {@code limit} tasks completed before {@code after}, or the newest ones when it is null.
+     */
+    public Page older(Cursor after, int limit) {
+        NavigableMap<Cursor, Task> tail = after == null ? byCompletion : byCompletion.tailMap(after, false);
+        return pageOf(tail, limit);
+    }
+
+    /**
+     * Up to {@code limit} tasks starting at {@code start} itself (or the next older one if it has
+     * since left the index).
+     */
+    public Page from(Cursor start, int limit) {
+        return pageOf(byCompletion.tailMap(start, true), limit);
+    }
+
+    /**
+     * Up to {@code limit} tasks completed right after {@code before}, still ordered newest first.
+     */
+    public Page newer(Cursor before, int limit) {
+        NavigableMap<Cursor, Task> head = byCompletion.headMap(before, false);
+        List<Task> tasks = new ArrayList<>(Math.min(limit, head.size()));
+        Iterator<Task> it = head.descendingMap().values().iterator();
+        while (tasks.size() < limit && it.hasNext()) {
+            tasks.add(0, it.next());
+        }
+        boolean hasNewer = it.hasNext();
+        return new Page(List.copyOf(tasks), hasNewer, !byCompletion.tailMap(before, true).isEmpty());
+    }
+
+    private Page pageOf(NavigableMap<Cursor, Task> tail, int limit) {
+        List<Task> tasks = new ArrayList<>(Math.min(limit, tail.size()));
+        Iterator<Map.Entry<Cursor, Task>> it = tail.entrySet().iterator();
+        while (tasks.size() < limit && it.hasNext()) {
+            tasks.add(it.next().getValue());
+        }
+        boolean hasNewer = !tail.isEmpty() && byCompletion.lowerKey(tail.firstKey()) != null;
+        return new Page(List.copyOf(tasks), hasNewer, it.hasNext());
+    }
+}
@@ -0,0 +1,167 @@
+package model;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Tasks with a due date, ordered by due date, kept up to date by the store one task at a time.
+ *
+ * The overdue and incoming-due views are range queries on either side of "now", and
+ * {@link #crossings} returns just the tasks that passed their due date between two instants, so a
+ * clock tick never has to look at the whole task list.
+ */
+public final class DueDateIndex {
+
+    /** Position of a task in the index; the id breaks ties between equal due dates. */
+    record Key(LocalDateTime dueDate, String taskId) { }
+
+    private static final Comparator<Key> BY_DUE_DATE = Comparator.comparing(Key::dueDate)
+            .thenComparing(Key::taskId, Comparator.nullsFirst(Comparator.<String>naturalOrder()));
+
+    private final NavigableMap<Key, Task> byDueDate = new TreeMap<>(BY_DUE_DATE);
+    private final Map<String, Key> keysById = new HashMap<>();
+    private volatile Runnable onChange;
+
+    /**
+     * Called after every change, outside the index lock; used to re-arm the boundary timer.
+     */
+    public void setOnChange(Runnable onChange) {
+        this.onChange = onChange;
+    }
+
+    /**
+     * Index or re-index one task. A task without a due date, or a deleted one, is dropped from
+     * the index.
+     */
+    public void put(Task task) {
+        if (task == null || task.getTask_id() == null) return;
+        synchronized (this) {
+            Key old = keysById.remove(task.getTask_id());
+            if (old != null) byDueDate.remove(old);
+            if (task.getDue_date() != null && task.getDeleted_at() == null) {
+                Key key = new Key(task.getDue_date(), task.getTask_id());
+                byDueDate.put(key, task);
+                keysById.put(task.getTask_id(), key);
+            }
+        }
+        changed();
+    }
+
+    public void remove(String taskId) {
+        synchronized (this) {
+            Key old = keysById.remove(taskId);
+            if (old == null) return;
+            byDueDate.remove(old);
+        }
+        changed();
+    }
+
+    /**
+     * Follow a task whose id changed (a server-assigned id replacing the client one).
+     */
+    public void rename(String oldId, String newId) {
+        synchronized (this) {
+            Key old = keysById.remove(oldId);
+            if (old == null) return;
+            Task task = byDueDate.remove(old);
+            Key key = new Key(old.dueDate(), newId);
+            byDueDate.put(key, task);
+            keysById.put(newId, key);
+        }
+        changed();
+    }
+
+    /**
+     * Replace the whole index with {@code tasks}.
+     */
+    public void rebuild(Collection<Task> tasks) {
+        synchronized (this) {
+            byDueDate.clear();
+            keysById.clear();
+            for (Task task : tasks) {
+                if (task == null || task.getTask_id() == null || task.getDue_date() == null || task.getDeleted_at() != null) continue;
+                Key key = new Key(task.getDue_date(), task.getTask_id());
+                byDueDate.put(key, task);
+                keysById.put(task.getTask_id(), key);
+            }
+        }
+        changed();
+    }
+
+    public synchronized int size() {
+        return byDueDate.size();
+    }
+
+    /** Tasks due strictly before {@code time}, earliest first. */
+    public synchronized List<Task> dueBefore(LocalDateTime time) {
+        return new ArrayList<>(byDueDate.headMap(new Key(time, null), false).values());
+    }
+
+    /** Tasks due strictly after {@code time}, earliest first. */
+    public synchronized List<Task> dueAfter(LocalDateTime time) {
+        return new ArrayList<>(byDueDate.tailMap(firstKeyAfter(time), true).values());
+    }
+
+    /**
+     * Number of tasks due strictly before {@code time}, counting no further than {@code limit}.
+     */
+    public synchronized int countDueBefore(LocalDateTime time, int limit) {
+        return count(byDueDate.headMap(new Key(time, null), false), limit);
+    }
+
+    /**
+     * Number of tasks due strictly after {@code time}, counting no further than {@code limit}.
+     */
+    public synchronized int countDueAfter(LocalDateTime time, int limit) {
+        return count(byDueDate.tailMap(firstKeyAfter(time), true), limit);
+    }
+
+    /**
+     * Tasks that became overdue in {@code [from, to)}: due at or after {@code from} and before
+     * {@code to}, earliest first.
+     */
+    public synchronized List<Task> crossings(LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) return List.of();
+        return new ArrayList<>(byDueDate.subMap(new Key(from, null), true, new Key(to, null), false).values());
+    }
+
+    /**
+     * Earliest due date at or after {@code time}, or null when nothing is due from then on.
+     */
+    public synchronized LocalDateTime nextDueAtOrAfter(LocalDateTime time) {
+        Key next = byDueDate.ceilingKey(new Key(time, null));
+        return next != null ? next.dueDate() : null;
+    }
+
+    /** Task ids in due-date order. */
+    synchronized List<String> orderedIds() {
+        List<String> ids = new ArrayList<>(byDueDate.size());
+        for (Key key : byDueDate.keySet()) ids.add(key.taskId());
+        return ids;
+    }
+
+    // LocalDateTime has nanosecond resolution, so "after time" starts one nanosecond later
+    private static Key firstKeyAfter(LocalDateTime time) {
+        return new Key(time.plusNanos(1), null);
+    }
+
+    private static int count(NavigableMap<Key, Task> range, int limit) {
+        int count = 0;
+        for (Key ignored : range.keySet()) {
+            if (++count >= limit) break;
+        }
+        return count;
+    }
+
+    private void changed() {
+        Runnable listener = onChange;
+        if (listener != null) listener.run();
+    }
+}
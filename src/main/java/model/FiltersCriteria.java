@@ -2,8 +2,20 @@ package model;
 
 import java.util.Set;
 
-public record FiltersCriteria(String folderName, Set<TaskStatus> statuses) {
+public record FiltersCriteria(String folderName, Set<TaskStatus> statuses, String searchText) {
+    public FiltersCriteria(String folderName, Set<TaskStatus> statuses) {
+        this(folderName, statuses, null);
+    }
+
     public static FiltersCriteria defaultCriteria() {
         return new FiltersCriteria(null, Set.of(TaskStatus.pending, TaskStatus.in_progress)); 
     }    
+
+    public FiltersCriteria withSearchText(String searchText) {
+        return new FiltersCriteria(folderName, statuses, searchText);
+    }
+
+    public boolean hasSearchText() {
+        return searchText != null && !searchText.isBlank();
+    }
 }
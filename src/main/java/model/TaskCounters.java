@@ -0,0 +1,221 @@
+package model;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Task counts per folder and status, plus the overdue and completed-this-week totals, kept up to
+ * date by the store one task at a time.
+ *
+ * Each task's contribution is remembered so a change only moves it from one bucket to another;
+ * reading the counts never looks at a task. The overdue total is kept relative to an "as of"
+ * instant and catches up on read by adding the open tasks that fell due since, the same
+ * crossings {@link DueDateIndex} hands to the boundary watcher. Deleted tasks are not counted.
+ */
+public final class TaskCounters {
+
+    /**
+     * Counts for the badges: open (pending or in progress) tasks per folder name, in folder order.
+     */
+    public record Summary(Map<String, Integer> openByFolder, int open, int overdue, int completedThisWeek) {
+        public static final Summary EMPTY = new Summary(Map.of(), 0, 0, 0);
+    }
+
+    /** What one task adds to the counts. */
+    private record Contribution(String folderKey, TaskStatus status, LocalDateTime dueDate, LocalDateTime completedAt) {
+        boolean isOpen() {
+            return status != TaskStatus.completed;
+        }
+    }
+
+    private static final String NO_FOLDER = "";
+
+    private final Map<String, Contribution> byTask = new HashMap<>();
+    private final Map<String, int[]> byFolder = new HashMap<>();
+    private final int[] byStatus = new int[TaskStatus.values().length];
+    // Multisets of due dates of open tasks and of completion times of completed ones
+    private final NavigableMap<LocalDateTime, Integer> openDueDates = new TreeMap<>();
+    private final NavigableMap<LocalDateTime, Integer> completionTimes = new TreeMap<>();
+    private LocalDateTime overdueAsOf;
+    private int overdue;
+    private LocalDateTime weekStart;
+    private int completedThisWeek;
+
+    /**
+     * Count or re-count one task.
+     */
+    public synchronized void put(Task task) {
+        if (task == null || task.getTask_id() == null) return;
+        subtract(byTask.remove(task.getTask_id()));
+        if (task.getDeleted_at() != null) return;
+        Contribution contribution = contributionOf(task);
+        byTask.put(task.getTask_id(), contribution);
+        add(contribution);
+    }
+
+    public synchronized void remove(String taskId) {
+        subtract(byTask.remove(taskId));
+    }
+
+    /**
+     * Follow a task whose id changed (a server-assigned id replacing the client one).
+     */
+    public synchronized void rename(String oldId, String newId) {
+        Contribution contribution = byTask.remove(oldId);
+        if (contribution != null) byTask.put(newId, contribution);
+    }
+
+    /**
+     * Replace all counts with those of {@code tasks}.
+     */
+    public synchronized void rebuild(Collection<Task> tasks) {
+        byTask.clear();
+        byFolder.clear();
+        Arrays.fill(byStatus, 0);
+        openDueDates.clear();
+        completionTimes.clear();
+        overdueAsOf = null;
+        weekStart = null;
+        for (Task task : tasks) put(task);
+    }
+
+    /**
+     * Number of tasks with {@code status} filed under {@code folderId} or, for tasks without a
+     * folder id, under {@code folderName}.
+     */
+    public synchronized int count(String folderId, String folderName, TaskStatus status) {
+        return folderCount(folderId, folderName, status.ordinal());
+    }
+
+    public synchronized int count(TaskStatus status) {
+        return byStatus[status.ordinal()];
+    }
+
+    /**
+     * Open tasks due strictly before {@code now}.
+     */
+    public synchronized int overdue(LocalDateTime now) {
+        if (overdueAsOf == null || now.isBefore(overdueAsOf)) {
+            overdue = sum(openDueDates.headMap(now, false));
+        } else {
+            // Only the tasks that fell due since the last read
+            overdue += sum(openDueDates.subMap(overdueAsOf, true, now, false));
+        }
+        overdueAsOf = now;
+        return overdue;
+    }
+
+    /**
+     * Tasks completed since Monday 00:00 of the week containing {@code now}.
+     */
+    public synchronized int completedThisWeek(LocalDateTime now) {
+        LocalDateTime start = startOfWeek(now);
+        if (!start.equals(weekStart)) {
+            weekStart = start;
+            completedThisWeek = sum(completionTimes.tailMap(start, true));
+        }
+        return completedThisWeek;
+    }
+
+    /**
+     * Counts for the badges of {@code folders}, in their order; the first folder of a name wins.
+     * Costs one lookup per folder.
+     */
+    public synchronized Summary summarize(Collection<Folder> folders, LocalDateTime now) {
+        Map<String, Integer> openByFolder = new LinkedHashMap<>();
+        if (folders != null) {
+            for (Folder folder : folders) {
+                if (folder == null || folder.getFolder_name() == null) continue;
+                openByFolder.computeIfAbsent(folder.getFolder_name(), name -> openIn(folder.getFolder_id(), name));
+            }
+        }
+        int open = byStatus[TaskStatus.pending.ordinal()] + byStatus[TaskStatus.in_progress.ordinal()];
+        return new Summary(Collections.unmodifiableMap(openByFolder), open, overdue(now), completedThisWeek(now));
+    }
+
+    private int openIn(String folderId, String folderName) {
+        return folderCount(folderId, folderName, TaskStatus.pending.ordinal())
+                + folderCount(folderId, folderName, TaskStatus.in_progress.ordinal());
+    }
+
+    private int folderCount(String folderId, String folderName, int statusIndex) {
+        int count = 0;
+        if (folderId != null) count += at(byFolder.get(idKey(folderId)), statusIndex);
+        if (folderName != null) count += at(byFolder.get(nameKey(folderName)), statusIndex);
+        return count;
+    }
+
+    private void add(Contribution c) {
+        byFolder.computeIfAbsent(c.folderKey(), k -> new int[byStatus.length])[c.status().ordinal()]++;
+        byStatus[c.status().ordinal()]++;
+        if (c.isOpen() && c.dueDate() != null) {
+            openDueDates.merge(c.dueDate(), 1, Integer::sum);
+            if (overdueAsOf != null && c.dueDate().isBefore(overdueAsOf)) overdue++;
+        }
+        if (c.completedAt() != null) {
+            completionTimes.merge(c.completedAt(), 1, Integer::sum);
+            if (weekStart != null && !c.completedAt().isBefore(weekStart)) completedThisWeek++;
+        }
+    }
+
+    private void subtract(Contribution c) {
+        if (c == null) return;
+        int[] counts = byFolder.get(c.folderKey());
+        if (--counts[c.status().ordinal()] == 0 && isEmpty(counts)) byFolder.remove(c.folderKey());
+        byStatus[c.status().ordinal()]--;
+        if (c.isOpen() && c.dueDate() != null) {
+            openDueDates.computeIfPresent(c.dueDate(), (k, n) -> n > 1 ? n - 1 : null);
+            if (overdueAsOf != null && c.dueDate().isBefore(overdueAsOf)) overdue--;
+        }
+        if (c.completedAt() != null) {
+            completionTimes.computeIfPresent(c.completedAt(), (k, n) -> n > 1 ? n - 1 : null);
+            if (weekStart != null && !c.completedAt().isBefore(weekStart)) completedThisWeek--;
+        }
+    }
+
+    private static Contribution contributionOf(Task task) {
+        String folderKey = task.getFolder_id() != null ? idKey(task.getFolder_id())
+                : task.getFolder_name() != null ? nameKey(task.getFolder_name()) : NO_FOLDER;
+        TaskStatus status = task.getStatus() != null ? task.getStatus() : TaskStatus.pending;
+        LocalDateTime completedAt = status == TaskStatus.completed ? CompletedTaskIndex.completedAt(task) : null;
+        return new Contribution(folderKey, status, task.getDue_date(), completedAt);
+    }
+
+    private static String idKey(String folderId) {
+        return "id:" + folderId;
+    }
+
+    private static String nameKey(String folderName) {
+        return "name:" + folderName;
+    }
+
+    private static LocalDateTime startOfWeek(LocalDateTime now) {
+        LocalDate monday = now.toLocalDate().with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        return monday.atStartOfDay();
+    }
+
+    private static int at(int[] counts, int index) {
+        return counts != null ? counts[index] : 0;
+    }
+
+    private static boolean isEmpty(int[] counts) {
+        for (int count : counts) if (count != 0) return false;
+        return true;
+    }
+
+    private static int sum(Map<LocalDateTime, Integer> counts) {
+        int total = 0;
+        for (int count : counts.values()) total += count;
+        return total;
+    }
+}
@@ -24,10 +24,24 @@ public class TaskHandlerV2 {
     private final BatchPersistenceService batchPersistence;
     private List<Folder> userFoldersList = new java.util.ArrayList<>();
 
-    // New local storage (replace legacy TaskHandler usage)
+    // New local storage (replace legacy TaskHandler usage); guarded by this, since the task list
+    // query reads it on a background worker while the EDT and sync threads change it
     private List<Task> userTasksList = new java.util.ArrayList<>();
     private String tasksJsonFile;
     private java.time.LocalDateTime lastSync = null;
+    // Bumped on every change to the local task or folder lists; see getDataVersion()
+    private final java.util.concurrent.atomic.AtomicLong localVersion = new java.util.concurrent.atomic.AtomicLong();
+    private CompletedTaskIndex completedIndex = CompletedTaskIndex.of(null);
+    private long completedIndexVersion = -1;
+    private TaskQueryIndex queryIndex;
+    private long queryIndexVersion = -1;
+    private final TaskSearchIndex searchIndex = new TaskSearchIndex();
+    private final DueDateIndex dueIndex = new DueDateIndex();
+    private final TaskCounters counters = new TaskCounters();
+    private static final COMMON.ParallelWork.Crossover PROJECTION = new COMMON.ParallelWork.Crossover("task projection");
+    private static final COMMON.Log LOG = COMMON.Log.get(TaskHandlerV2.class);
+    private final String searchIndexFile;
+    private static final long SEARCH_INDEX_SAVE_DELAY_MS = 30_000;
     
     /**
      * Create a new TaskHandlerV2 instance with optimizations enabled
@@ -38,9 +52,10 @@ public class TaskHandlerV2 {
         this.userId = userId;
         this.commandQueue = new CommandQueue(userId);
         this.folderCache = new FolderCacheService(userId);
-        this.batchPersistence = new BatchPersistenceService(2000); // 2 second batch delay
-        this.batchPersistence.setTaskHandler(this);
         this.tasksJsonFile = COMMON.UserProperties.getUserDataFilePath(userId, "tasks.json");
+        this.batchPersistence = new BatchPersistenceService(tasksJsonFile, 2000); // 2 second batch delay
+        this.batchPersistence.setTaskHandler(this);
+        this.searchIndexFile = COMMON.UserProperties.getUserDataFilePath(userId, "search_index.bin");
         
         try {
             System.out.println("TaskHandlerV2: forcePersistence -> target file: " + tasksJsonFile);
@@ -50,12 +65,11 @@ public class TaskHandlerV2 {
             System.err.println("TaskHandlerV2: failed to load tasks: " + e.getMessage());
             this.userTasksList = new java.util.ArrayList<>();
         }
-        
-        // Register shutdown hook for proper cleanup
-        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
-            System.out.println("TaskHandlerV2: Shutting down...");
-            batchPersistence.shutdown();
-        }));
+        loadSearchIndex();
+        List<Task> projected = getAllTasks();
+        dueIndex.rebuild(projected);
+        counters.rebuild(projected);
+        // Pending writes are flushed on exit by the shared IoScheduler
     }
     
 
@@ -71,6 +85,10 @@ public class TaskHandlerV2 {
             if (idx >= 0) userTasksList.set(idx, task);
             else userTasksList.add(task);
         }
+        localVersion.incrementAndGet();
+        searchIndex.put(task);
+        dueIndex.put(task);
+        counters.put(task);
         saveTasksToJsonAsync();
     }
 
@@ -78,7 +96,12 @@ public class TaskHandlerV2 {
      * Remove a task by id from underlying storage.
      */
     public synchronized void removeTaskById(String taskId) {
-        userTasksList.removeIf(t -> t.getTask_id().equals(taskId));
+        if (userTasksList.removeIf(t -> t.getTask_id().equals(taskId))) {
+            localVersion.incrementAndGet();
+        }
+        searchIndex.remove(taskId);
+        dueIndex.remove(taskId);
+        counters.remove(taskId);
         saveTasksToJsonAsync();
     }
 
@@ -97,7 +120,13 @@ public class TaskHandlerV2 {
             .lastSync(getLastSync())
             .build();
         int idx = userTasksList.indexOf(existing);
-        if (idx >= 0) userTasksList.set(idx, updated);
+        if (idx >= 0) {
+            userTasksList.set(idx, updated);
+            localVersion.incrementAndGet();
+        }
+        searchIndex.rename(clientId, serverId);
+        dueIndex.rename(clientId, serverId);
+        counters.rename(clientId, serverId);
     }
 
     /**
@@ -108,7 +137,10 @@ public class TaskHandlerV2 {
         if (t != null) {
             Task updated = t.toBuilder().sync_status("cloud").lastSync(getLastSync()).build();
             int idx = userTasksList.indexOf(t);
-            if (idx >= 0) userTasksList.set(idx, updated);
+            if (idx >= 0) {
+                userTasksList.set(idx, updated);
+                localVersion.incrementAndGet();
+            }
             saveTasksToJsonAsync();
         }
     }
@@ -116,26 +148,36 @@ public class TaskHandlerV2 {
     /**
      * Get a task by id from underlying storage.
      */
-    public Task getTaskById(String taskId) {
+    public synchronized Task getTaskById(String taskId) {
         return userTasksList.stream()
             .filter(task -> task.getTask_id().equals(taskId))
             .findFirst()
             .orElse(null);
     }
     
+    /**
+     * Copy of the stored (unprojected) tasks, taken under the list's lock.
+     */
+    private synchronized List<Task> snapshotTasks() {
+        return new ArrayList<>(userTasksList);
+    }
+
     /**
      * Get all tasks for the current user.
      * If command queue is enabled, returns the projected state with pending commands applied.
      */
     public List<Task> getAllTasks() {
-        List<Task> baseTasks = new ArrayList<>(userTasksList);
+        COMMON.jfr.ProjectionRebuildEvent event = new COMMON.jfr.ProjectionRebuildEvent();
+        event.begin();
+        List<Task> baseTasks = snapshotTasks();
         List<Task> projected = commandQueue.getProjectedTasks(baseTasks);
 
         // Build a lookup map folder_id -> folder_name using cached folders
         Map<String, String> folderIdToName = new HashMap<>();
         
-        // First, try to use cached folders for better performance
-        List<Folder> cachedFolders = folderCache.getCachedFolders();
+        // First, try to use cached folders for better performance. Never refresh here: this runs
+        // on the EDT, the query worker and the IO writer; the sync keeps the cache current
+        List<Folder> cachedFolders = folderCache.getCachedFoldersSnapshot();
         for (Folder f : cachedFolders) {
             if (f != null && f.getFolder_id() != null) {
                 folderIdToName.put(f.getFolder_id(), f.getFolder_name());
@@ -151,28 +193,141 @@ public class TaskHandlerV2 {
             }
         }
 
-        // Resolve folder_name for projected tasks when missing but folder_id is present
-        List<Task> resolved = new ArrayList<>();
-        for (Task t : projected) {
+        // Resolve folder_name for projected tasks when missing but folder_id is present.
+        // Only the map built above is consulted: the workers must not block on I/O
+        List<Task> resolved = COMMON.ParallelWork.shared().map(PROJECTION, projected, t -> {
             if ((t.getFolder_name() == null || t.getFolder_name().isEmpty()) && t.getFolder_id() != null) {
-                // Try cache first for optimal performance
-                String resolvedName = folderCache.getFolderName(t.getFolder_id()).orElse(null);
-                if (resolvedName == null) {
-                    // Fallback to in-memory lookup
-                    resolvedName = folderIdToName.get(t.getFolder_id());
-                }
-                
+                String resolvedName = folderIdToName.get(t.getFolder_id());
                 if (resolvedName != null) {
-                    resolved.add(t.toBuilder().folderName(resolvedName).build());
-                    continue;
+                    return t.toBuilder().folderName(resolvedName).build();
                 }
             }
-            resolved.add(t);
+            return t;
+        });
+        event.end();
+        if (event.shouldCommit()) {
+            event.baseTasks = baseTasks.size();
+            event.pendingCommands = commandQueue.getPendingCommandCount();
+            event.projectedTasks = resolved.size();
+            event.commit();
         }
-
         return resolved;
     }
     
+    /**
+     * Counter that changes whenever {@link #getAllTasks()} may return something different:
+     * a local task or folder change, a change to the pending commands, or a folder cache
+     * refresh (folder names are resolved from the cache).
+     */
+    public long getDataVersion() {
+        return localVersion.get() + commandQueue.getVersion() + folderCache.getChangeCount();
+    }
+    
+    /**
+     * Completed tasks indexed by completion time, rebuilt only when the data version changed.
+     * The rebuild runs outside the handler lock, so call this off the EDT.
+     */
+    public CompletedTaskIndex getCompletedTaskIndex() {
+        long version;
+        synchronized (this) {
+            version = getDataVersion();
+            if (version == completedIndexVersion) return completedIndex;
+        }
+        // getAllTasks() snapshots the list under the lock itself
+        CompletedTaskIndex index = CompletedTaskIndex.of(getAllTasks());
+        synchronized (this) {
+            // Keep a newer index another thread built meanwhile
+            if (getDataVersion() == version) {
+                completedIndex = index;
+                completedIndexVersion = version;
+            }
+        }
+        return index;
+    }
+    
+    /**
+     * Folder, status and due-date indexes over {@link #getAllTasks()} for {@link TaskQuery},
+     * rebuilt only when the data version changed.
+     */
+    public synchronized TaskQueryIndex getQueryIndex() {
+        long version = getDataVersion();
+        if (queryIndex == null || version != queryIndexVersion) {
+            // Same precedence as getFolderIdByName: in-memory folders first, then the cache.
+            // Runs under the handler lock: use the cached folders as they are, never refresh them
+            List<Folder> folders = new ArrayList<>(userFoldersList);
+            folders.addAll(folderCache.getCachedFoldersSnapshot());
+            queryIndex = TaskQueryIndex.of(getAllTasks(), folders, dueIndex);
+            queryIndexVersion = version;
+        }
+        return queryIndex;
+    }
+
+    /**
+     * Tasks with a due date ordered by it, kept current as tasks change.
+     */
+    public DueDateIndex getDueDateIndex() {
+        return dueIndex;
+    }
+
+    /**
+     * Badge counts (open per folder, open, overdue, completed this week) from the incrementally
+     * maintained counters, without looking at any task.
+     */
+    public TaskCounters.Summary getTaskCountsSummary() {
+        // Runs on the EDT on every list refresh: use the folders at hand, never refresh them
+        List<Folder> cached = folderCache.getCachedFoldersSnapshot();
+        List<Folder> folders = !cached.isEmpty() ? cached : new ArrayList<>(userFoldersList);
+        return counters.summarize(folders, LocalDateTime.now());
+    }
+
+    /**
+     * Tasks matching an as-you-type search over title and description.
+     */
+    public TaskSearchIndex.Result searchTasks(String query) {
+        return searchIndex.search(query);
+    }
+    
+    /**
+     * Load the persisted search index if it still matches the tasks, otherwise index them now.
+     */
+    private void loadSearchIndex() {
+        long start = System.nanoTime();
+        List<Task> tasks = getAllTasks();
+        COMMON.IoScheduler.shared().flush(searchIndexFile);
+        TaskSearchIndex persisted = TaskSearchIndex.readFrom(java.nio.file.Paths.get(searchIndexFile),
+                TaskSearchIndex.fingerprint(tasks));
+        if (persisted != null) {
+            searchIndex.replaceWith(persisted);
+        } else {
+            searchIndex.rebuild(tasks);
+            scheduleSearchIndexSave(SEARCH_INDEX_SAVE_DELAY_MS);
+        }
+        System.out.println("TaskHandlerV2: search index " + (persisted != null ? "loaded" : "built")
+                + " for " + searchIndex.size() + " tasks in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+    }
+    
+    /**
+     * Queue a write of the search index. The index is derived from the tasks, so it is written
+     * only on explicit saves and after everything else. Its snapshot and fingerprint are taken
+     * here, under the list's lock, so the IO writer only serializes them.
+     */
+    private void scheduleSearchIndexSave(long delayMs) {
+        long fingerprint;
+        TaskSearchIndex.Snapshot snapshot;
+        synchronized (this) {
+            fingerprint = TaskSearchIndex.fingerprint(getAllTasks());
+            snapshot = searchIndex.snapshot();
+        }
+        java.nio.file.Path file = java.nio.file.Paths.get(searchIndexFile);
+        COMMON.IoScheduler.shared().submit(searchIndexFile, COMMON.IoScheduler.Priority.CACHE, delayMs, () -> {
+            try {
+                snapshot.writeTo(file, fingerprint);
+            } catch (Exception e) {
+                System.err.println("TaskHandlerV2: failed to save search index: " + e.getMessage());
+            }
+        });
+    }
+    
     /**
      * Create a new task
      */
@@ -215,7 +370,13 @@ public class TaskHandlerV2 {
             .build();
         
         // Add task to local list immediately for offline-first operation
-        userTasksList.add(task);
+        synchronized (this) {
+            userTasksList.add(task);
+            localVersion.incrementAndGet();
+            searchIndex.put(task);
+            dueIndex.put(task);
+            counters.put(task);
+        }
         saveTasksToJsonAsync();
         
         return task;
@@ -281,12 +442,18 @@ public class TaskHandlerV2 {
         Task updatedTask = builder.build();
         
         // Replace in the local task list
-        for (int i = 0; i < userTasksList.size(); i++) {
-            Task taskInList = userTasksList.get(i);
-            if (taskInList.getTask_id().equals(originalTask.getTask_id())) {
-                userTasksList.set(i, updatedTask);
-                break;
+        synchronized (this) {
+            for (int i = 0; i < userTasksList.size(); i++) {
+                Task taskInList = userTasksList.get(i);
+                if (taskInList.getTask_id().equals(originalTask.getTask_id())) {
+                    userTasksList.set(i, updatedTask);
+                    localVersion.incrementAndGet();
+                    break;
+                }
             }
+            searchIndex.put(updatedTask);
+            dueIndex.put(updatedTask);
+            counters.put(updatedTask);
         }
         
         // Schedule persistence
@@ -309,6 +476,15 @@ public class TaskHandlerV2 {
             task.getTask_id(), userId, reason
         );
         commandQueue.enqueue(command);
+        searchIndex.remove(task.getTask_id());
+        dueIndex.remove(task.getTask_id());
+        counters.remove(task.getTask_id());
+        
+        // A task created offline and deleted before sync is compacted out of the queue entirely;
+        // drop the local copy too since no DELETE will hide it from the projection
+        if (!commandQueue.hasPendingCommandsFor(task.getTask_id())) {
+            removeTaskById(task.getTask_id());
+        }
     }
     
     /**
@@ -338,6 +514,8 @@ public class TaskHandlerV2 {
     public void saveTasksToJson() {
         // Explicit save is synchronous to ensure file exists immediately (e.g., tests, manual saves)
         batchPersistence.flushImmediately();
+        scheduleSearchIndexSave(0);
+        COMMON.IoScheduler.shared().flush(searchIndexFile);
     }
 
     /**
@@ -354,9 +532,11 @@ public class TaskHandlerV2 {
         try {
             // Persist the projected state (base tasks + pending commands applied)
             // so that newly created/updated/deleted tasks are reflected on disk even before sync.
+            COMMON.jfr.PersistenceFlushEvent event = new COMMON.jfr.PersistenceFlushEvent();
+            event.begin();
             List<Task> toPersist = getAllTasks();
 
-            java.util.Map<String, Object> structure = COMMON.JSONUtils.buildJsonStructure(toPersist.stream());
+            java.util.Map<String, Object> structure = COMMON.JSONUtils.buildJsonStructure(toPersist);
             structure.put("last_sync", getLastSync() != null ? getLastSync().toString() : null);
             // Persist folders list so folder metadata survives restarts
             structure.put("folders", userFoldersList != null ? userFoldersList : new ArrayList<>());
@@ -373,6 +553,13 @@ public class TaskHandlerV2 {
             }
             COMMON.JSONUtils.writeJsonFile(structure, tasksJsonFile);
             System.out.println("TaskHandlerV2: Wrote tasks JSON: exists=" + outFile.exists() + ", len=" + outFile.length());
+            event.end();
+            if (event.shouldCommit()) {
+                event.file = outFile.getName();
+                event.bytes = outFile.length();
+                event.tasks = toPersist.size();
+                event.commit();
+            }
 
         } catch (Exception e) {
             System.err.println("Error persisting tasks: " + e.getMessage());
@@ -383,6 +570,8 @@ public class TaskHandlerV2 {
     // Load persisted tasks file
     private List<Task> loadTasksFromJson() {
         try {
+            // A handler of the same user may still have a write of this file waiting
+            COMMON.IoScheduler.shared().flush(tasksJsonFile);
             java.io.File f = new java.io.File(tasksJsonFile);
             if (!f.exists()) return new ArrayList<>();
             java.util.Map<String, Object> m = COMMON.JSONUtils.readJsonFile(f);
@@ -569,6 +758,7 @@ public class TaskHandlerV2 {
      */
     public void setFoldersList(List<Folder> foldersList) {
         this.userFoldersList = (foldersList != null) ? new java.util.ArrayList<>(foldersList) : new java.util.ArrayList<>();
+        localVersion.incrementAndGet();
         // Update folder cache for better performance
         folderCache.updateFolders(this.userFoldersList);
     }
@@ -578,6 +768,7 @@ public class TaskHandlerV2 {
      */
     public void setFoldersList(List<Folder> foldersList, String folderVersion) {
         this.userFoldersList = (foldersList != null) ? new java.util.ArrayList<>(foldersList) : new java.util.ArrayList<>();
+        localVersion.incrementAndGet();
         // Update folder cache with version for conditional fetching
         folderCache.updateFolders(this.userFoldersList, folderVersion);
     }
@@ -611,9 +802,6 @@ public class TaskHandlerV2 {
      * Resolve folder ID by name (wrapper)
      */
     public String getFolderIdByName(String folderName) {
-        System.out.println("TaskHandlerV2.getFolderIdByName: Input folderName = '" + folderName + "'");
-        System.out.println("TaskHandlerV2.getFolderIdByName: userFoldersList size = " + userFoldersList.size());
-        
         if (folderName == null) return null;
         
         // Try in-memory list first
@@ -622,24 +810,23 @@ public class TaskHandlerV2 {
                 .findFirst()
                 .map(Folder::getFolder_id)
                 .orElse(null);
-        System.out.println("TaskHandlerV2.getFolderIdByName: fromMemory result = '" + fromMemory + "'");
         if (fromMemory != null) return fromMemory;
         
         // Fallback to cache (covers cases where setFoldersList hasn't run yet or list is stale)
         try {
             List<Folder> cached = folderCache.getCachedFolders();
-            System.out.println("TaskHandlerV2.getFolderIdByName: cached size = " + (cached != null ? cached.size() : "null"));
             for (Folder f : cached) {
                 if (f != null && folderName.equals(f.getFolder_name())) {
-                    System.out.println("TaskHandlerV2.getFolderIdByName: Found in cache = '" + f.getFolder_id() + "'");
+                    LOG.debug(() -> "getFolderIdByName: '" + folderName + "' found in cache only");
                     return f.getFolder_id();
                 }
             }
         } catch (Exception e) {
-            System.err.println("TaskHandlerV2: Cache lookup failed: " + e.getMessage());
+            LOG.warn("Cache lookup failed: " + e.getMessage());
         }
-        
-        System.out.println("TaskHandlerV2.getFolderIdByName: No match found, returning null");
+
+        LOG.debug(() -> "getFolderIdByName: no folder named '" + folderName + "' among "
+                + userFoldersList.size() + " folders");
         return null;
     }
 }
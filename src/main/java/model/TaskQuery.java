@@ -0,0 +1,153 @@
+package model;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+import COMMON.ParallelWork;
+
+/**
+ * A {@link FiltersCriteria} compiled into one predicate and one ordering.
+ *
+ * The dashboard's status filter mixes real statuses (pending, in_progress, completed) with views:
+ * "newest" keeps tasks created before now, newest first; "incoming_due" keeps tasks due after
+ * now, earliest due first; "overdue" keeps tasks already due. Compiling resolves that once. Running
+ * the query picks the smallest candidate set the {@link TaskQueryIndex} offers (a folder, the
+ * selected statuses or a due-date range), tests every candidate against all conditions in a single
+ * pass, and sorts only what matched. Large candidate sets are tested and sorted on
+ * {@link ParallelWork}.
+ */
+public final class TaskQuery {
+    public static final String ALL_FOLDERS = "All Folders";
+
+    /** Candidate set a query run starts from. */
+    enum Driver { ALL, FOLDER, STATUS, DUE_BEFORE, DUE_AFTER }
+
+    private static final ParallelWork.Crossover FILTER = new ParallelWork.Crossover("query filter");
+    private static final ParallelWork.Crossover SORT = new ParallelWork.Crossover("query sort");
+
+    private static final Set<TaskStatus> REAL_STATUSES =
+            EnumSet.of(TaskStatus.pending, TaskStatus.in_progress, TaskStatus.completed);
+
+    private final FiltersCriteria criteria;
+    private final String folderName;
+    private final Set<TaskStatus> statuses;
+    private final boolean createdBeforeNow;
+    private final boolean dueAfterNow;
+    private final boolean dueBeforeNow;
+    private final Comparator<Task> order;
+
+    private TaskQuery(FiltersCriteria criteria) {
+        this.criteria = criteria;
+        String folder = criteria.folderName();
+        this.folderName = folder == null || folder.equals(ALL_FOLDERS) ? null : folder;
+
+        Set<TaskStatus> selected = criteria.statuses() == null || criteria.statuses().isEmpty()
+                ? EnumSet.noneOf(TaskStatus.class) : EnumSet.copyOf(criteria.statuses());
+        boolean filtersStatus = selected.stream().anyMatch(REAL_STATUSES::contains);
+        this.statuses = filtersStatus ? selected : null;
+        this.createdBeforeNow = selected.contains(TaskStatus.newest);
+        this.dueAfterNow = selected.contains(TaskStatus.incoming_due);
+        this.dueBeforeNow = selected.contains(TaskStatus.overdue);
+
+        Comparator<Task> newestFirst = Comparator.comparing(Task::getCreated_at, Comparator.reverseOrder());
+        if (dueAfterNow) {
+            Comparator<Task> byDue = Comparator.comparing(Task::getDue_date);
+            this.order = createdBeforeNow ? byDue.thenComparing(newestFirst) : byDue;
+        } else {
+            this.order = createdBeforeNow ? newestFirst : null;
+        }
+    }
+
+    public static TaskQuery compile(FiltersCriteria criteria) {
+        return new TaskQuery(criteria);
+    }
+
+    public FiltersCriteria getCriteria() {
+        return criteria;
+    }
+
+    /**
+     * Whether the result depends on "now" (the newest, incoming_due or overdue views).
+     */
+    public boolean dependsOnTime() {
+        return createdBeforeNow || dueAfterNow || dueBeforeNow;
+    }
+
+    /**
+     * Tasks of {@code index} matching the criteria, in store order unless the criteria sort.
+     * @param search matches of the criteria's search text, or null when it has none
+     * @param now the instant the newest, incoming_due and overdue views are relative to
+     * @return an unmodifiable list
+     */
+    public List<Task> execute(TaskQueryIndex index, TaskSearchIndex.Result search, LocalDateTime now) {
+        String folderId = index.folderIdFor(folderName);
+        Driver driver = chooseDriver(index, folderId, now);
+        int[] candidates = switch (driver) {
+            case FOLDER -> index.inFolder(folderId, folderName);
+            case STATUS -> index.withStatus(statuses);
+            case DUE_BEFORE -> index.dueBefore(now);
+            case DUE_AFTER -> index.dueAfter(now);
+            case ALL -> null;
+        };
+        int count = candidates != null ? candidates.length : index.size();
+        ParallelWork work = ParallelWork.shared();
+        int[] hits = work.filterIndices(FILTER, count,
+                i -> matches(index.get(candidates != null ? candidates[i] : i), folderId, search, now));
+        if (candidates != null) {
+            for (int i = 0; i < hits.length; i++) hits[i] = candidates[hits[i]];
+        }
+        // Due-date candidates come in due order; store order is the tie-breaker for every ordering
+        if (driver == Driver.DUE_BEFORE || driver == Driver.DUE_AFTER) Arrays.sort(hits);
+
+        List<Task> result = new ArrayList<>(hits.length);
+        for (int position : hits) result.add(index.get(position));
+        if (order != null) work.sort(SORT, result, order);
+        return Collections.unmodifiableList(result);
+    }
+
+    Driver chooseDriver(TaskQueryIndex index, LocalDateTime now) {
+        return chooseDriver(index, index.folderIdFor(folderName), now);
+    }
+
+    private Driver chooseDriver(TaskQueryIndex index, String folderId, LocalDateTime now) {
+        Driver best = Driver.ALL;
+        int bestCount = index.size();
+        if (folderName != null) {
+            int count = index.countInFolder(folderId, folderName);
+            if (count < bestCount) { best = Driver.FOLDER; bestCount = count; }
+        }
+        if (statuses != null) {
+            int count = index.countWithStatus(statuses);
+            if (count < bestCount) { best = Driver.STATUS; bestCount = count; }
+        }
+        if (dueBeforeNow) {
+            int count = index.countDueBefore(now);
+            if (count < bestCount) { best = Driver.DUE_BEFORE; bestCount = count; }
+        }
+        if (dueAfterNow) {
+            int count = index.countDueAfter(now);
+            if (count < bestCount) { best = Driver.DUE_AFTER; }
+        }
+        return best;
+    }
+
+    private boolean matches(Task task, String folderId, TaskSearchIndex.Result search, LocalDateTime now) {
+        if (folderName != null) {
+            boolean inFolder = Objects.equals(task.getFolder_name(), folderName)
+                    || (folderId != null && Objects.equals(task.getFolder_id(), folderId));
+            if (!inFolder) return false;
+        }
+        if (statuses != null && !statuses.contains(task.getStatus())) return false;
+        if (createdBeforeNow && (task.getCreated_at() == null || !task.getCreated_at().isBefore(now))) return false;
+        if (dueAfterNow && (task.getDue_date() == null || !task.getDue_date().isAfter(now))) return false;
+        if (dueBeforeNow && (task.getDue_date() == null || !task.getDue_date().isBefore(now))) return false;
+        return search == null || search.contains(task.getTask_id());
+    }
+}
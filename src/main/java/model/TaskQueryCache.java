@@ -0,0 +1,84 @@
+package model;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Results of recent {@link TaskQuery} runs, keyed by the criteria, the store's data version and a
+ * time bucket.
+ *
+ * The dashboard re-runs the current filter after every sync and edit, often with nothing changed.
+ * A cached result is only valid for the data version it was computed from; when a lookup or store
+ * comes with a newer version, every entry is dropped, so nothing has to invalidate the cache
+ * explicitly. Queries whose result depends on the clock (newest, incoming_due, overdue) are also
+ * keyed by the time bucket they ran in. Entries are evicted least recently used first.
+ */
+public final class TaskQueryCache {
+
+    record Key(String folderName, Set<TaskStatus> statuses, String searchText, long version, long timeBucket) {
+        static Key of(FiltersCriteria criteria, long version, long timeBucket) {
+            Set<TaskStatus> statuses = criteria.statuses() == null ? Set.of() : Set.copyOf(criteria.statuses());
+            return new Key(criteria.folderName(), statuses, criteria.searchText(), version, timeBucket);
+        }
+    }
+
+    private final Map<Key, List<Task>> entries;
+    private long version = Long.MIN_VALUE;
+    private long hits;
+    private long misses;
+
+    /**
+     * @param capacity maximum number of cached results
+     */
+    public TaskQueryCache(int capacity) {
+        if (capacity < 1) throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, List<Task>> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * Cached result for {@code criteria} at data version {@code version}, or null.
+     * @param timeBucket bucket of "now" for clock-dependent queries, 0 for the others
+     */
+    public synchronized List<Task> get(FiltersCriteria criteria, long version, long timeBucket) {
+        advanceTo(version);
+        List<Task> result = entries.get(Key.of(criteria, version, timeBucket));
+        if (result != null) hits++; else misses++;
+        return result;
+    }
+
+    /**
+     * Remember an unmodifiable {@code result} computed at data version {@code version}. Results of
+     * a version older than one already seen are not stored.
+     */
+    public synchronized void put(FiltersCriteria criteria, long version, long timeBucket, List<Task> result) {
+        if (version < this.version) return;
+        advanceTo(version);
+        entries.put(Key.of(criteria, version, timeBucket), result);
+    }
+
+    private void advanceTo(long newVersion) {
+        if (newVersion > version) {
+            entries.clear();
+            version = newVersion;
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+}
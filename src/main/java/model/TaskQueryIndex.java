@@ -0,0 +1,235 @@
+package model;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable snapshot of the task list with the secondary indexes {@link TaskQuery} drives from.
+ *
+ * Tasks are addressed by their position in the snapshot. Folder and status postings are sorted
+ * position arrays; the due-date index orders the positions of tasks that have a due date (in the
+ * order of the store's {@link DueDateIndex} when given one), so "due before" and "due after" a
+ * point in time are a binary search away.
+ */
+public final class TaskQueryIndex {
+    private static final int[] NONE = new int[0];
+
+    private final List<Task> tasks;
+    private final Map<String, int[]> byFolderId;
+    private final Map<String, int[]> byFolderName;
+    private final Map<TaskStatus, int[]> byStatus;
+    private final Map<String, String> folderIdsByName;
+    private final int[] byDueDate;
+    private final LocalDateTime[] dueDates;
+
+    private TaskQueryIndex(List<Task> tasks, Map<String, int[]> byFolderId, Map<String, int[]> byFolderName,
+                           Map<TaskStatus, int[]> byStatus, Map<String, String> folderIdsByName,
+                           int[] byDueDate, LocalDateTime[] dueDates) {
+        this.tasks = tasks;
+        this.byFolderId = byFolderId;
+        this.byFolderName = byFolderName;
+        this.byStatus = byStatus;
+        this.folderIdsByName = folderIdsByName;
+        this.byDueDate = byDueDate;
+        this.dueDates = dueDates;
+    }
+
+    /**
+     * Index {@code tasks} in their current order.
+     * @param folders folders used to resolve a folder name to its id; earlier entries win
+     */
+    public static TaskQueryIndex of(List<Task> tasks, Collection<Folder> folders) {
+        return of(tasks, folders, null);
+    }
+
+    /**
+     * Index {@code tasks} in their current order, taking the due-date order from the store's
+     * {@code dueIndex} instead of sorting when it agrees with {@code tasks}.
+     * @param folders folders used to resolve a folder name to its id; earlier entries win
+     */
+    public static TaskQueryIndex of(List<Task> tasks, Collection<Folder> folders, DueDateIndex dueIndex) {
+        List<Task> snapshot = List.copyOf(tasks);
+        Map<String, List<Integer>> folderIds = new HashMap<>();
+        Map<String, List<Integer>> folderNames = new HashMap<>();
+        Map<TaskStatus, List<Integer>> statuses = new EnumMap<>(TaskStatus.class);
+        Map<String, Integer> positionsById = new HashMap<>();
+        int withDueDate = 0;
+        for (int i = 0; i < snapshot.size(); i++) {
+            Task task = snapshot.get(i);
+            if (task.getFolder_id() != null) folderIds.computeIfAbsent(task.getFolder_id(), k -> new ArrayList<>()).add(i);
+            if (task.getFolder_name() != null) folderNames.computeIfAbsent(task.getFolder_name(), k -> new ArrayList<>()).add(i);
+            if (task.getStatus() != null) statuses.computeIfAbsent(task.getStatus(), k -> new ArrayList<>()).add(i);
+            if (task.getDue_date() != null) withDueDate++;
+            positionsById.put(task.getTask_id(), i);
+        }
+        int[] byDueDate = dueIndex != null ? dueOrderFrom(dueIndex, snapshot, positionsById, withDueDate) : null;
+        if (byDueDate == null) byDueDate = sortByDueDate(snapshot, withDueDate);
+        LocalDateTime[] dueDates = new LocalDateTime[byDueDate.length];
+        for (int i = 0; i < byDueDate.length; i++) dueDates[i] = snapshot.get(byDueDate[i]).getDue_date();
+
+        Map<String, String> idsByName = new HashMap<>();
+        if (folders != null) {
+            for (Folder folder : folders) {
+                if (folder != null && folder.getFolder_name() != null && folder.getFolder_id() != null) {
+                    idsByName.putIfAbsent(folder.getFolder_name(), folder.getFolder_id());
+                }
+            }
+        }
+        Map<TaskStatus, int[]> byStatus = new EnumMap<>(TaskStatus.class);
+        statuses.forEach((status, positions) -> byStatus.put(status, toArray(positions)));
+        return new TaskQueryIndex(snapshot, postings(folderIds), postings(folderNames), byStatus,
+                idsByName, byDueDate, dueDates);
+    }
+
+    /**
+     * Positions in the store's due-date order, or null when the store's index doesn't describe
+     * exactly the tasks of the snapshot (it was changed in between).
+     */
+    private static int[] dueOrderFrom(DueDateIndex dueIndex, List<Task> snapshot,
+                                      Map<String, Integer> positionsById, int withDueDate) {
+        List<String> ids = dueIndex.orderedIds();
+        if (ids.size() != withDueDate) return null;
+        int[] order = new int[ids.size()];
+        LocalDateTime previous = null;
+        for (int i = 0; i < order.length; i++) {
+            Integer position = positionsById.get(ids.get(i));
+            if (position == null) return null;
+            LocalDateTime due = snapshot.get(position).getDue_date();
+            if (due == null || (previous != null && due.isBefore(previous))) return null;
+            order[i] = position;
+            previous = due;
+        }
+        return order;
+    }
+
+    private static int[] sortByDueDate(List<Task> snapshot, int withDueDate) {
+        List<Integer> positions = new ArrayList<>(withDueDate);
+        for (int i = 0; i < snapshot.size(); i++) {
+            if (snapshot.get(i).getDue_date() != null) positions.add(i);
+        }
+        positions.sort(Comparator.comparing(i -> snapshot.get(i).getDue_date()));
+        return toArray(positions);
+    }
+
+    public int size() {
+        return tasks.size();
+    }
+
+    public Task get(int position) {
+        return tasks.get(position);
+    }
+
+    /**
+     * Id of the folder called {@code folderName}, or null when it's unknown.
+     */
+    public String folderIdFor(String folderName) {
+        return folderName == null ? null : folderIdsByName.get(folderName);
+    }
+
+    /** Upper bound of {@link #inFolder}: tasks may match by id and by name. */
+    int countInFolder(String folderId, String folderName) {
+        return postings(byFolderId, folderId).length + postings(byFolderName, folderName).length;
+    }
+
+    /**
+     * Sorted positions of tasks with folder id {@code folderId} or folder name {@code folderName}.
+     */
+    int[] inFolder(String folderId, String folderName) {
+        return union(postings(byFolderId, folderId), postings(byFolderName, folderName));
+    }
+
+    int countWithStatus(Set<TaskStatus> statuses) {
+        int count = 0;
+        for (TaskStatus status : statuses) count += postings(byStatus, status).length;
+        return count;
+    }
+
+    /**
+     * Sorted positions of tasks whose status is one of {@code statuses}.
+     */
+    int[] withStatus(Set<TaskStatus> statuses) {
+        int[] result = NONE;
+        for (TaskStatus status : statuses) result = union(result, postings(byStatus, status));
+        return result;
+    }
+
+    int countDueBefore(LocalDateTime time) {
+        return firstDueAtOrAfter(time);
+    }
+
+    int countDueAfter(LocalDateTime time) {
+        return byDueDate.length - firstDueAfter(time);
+    }
+
+    /** Positions of tasks due strictly before {@code time}, earliest due first. */
+    int[] dueBefore(LocalDateTime time) {
+        return Arrays.copyOfRange(byDueDate, 0, firstDueAtOrAfter(time));
+    }
+
+    /** Positions of tasks due strictly after {@code time}, earliest due first. */
+    int[] dueAfter(LocalDateTime time) {
+        return Arrays.copyOfRange(byDueDate, firstDueAfter(time), byDueDate.length);
+    }
+
+    private int firstDueAtOrAfter(LocalDateTime time) {
+        int lo = 0, hi = dueDates.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (dueDates[mid].isBefore(time)) lo = mid + 1; else hi = mid;
+        }
+        return lo;
+    }
+
+    private int firstDueAfter(LocalDateTime time) {
+        int lo = 0, hi = dueDates.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (dueDates[mid].isAfter(time)) hi = mid; else lo = mid + 1;
+        }
+        return lo;
+    }
+
+    private static <K> int[] postings(Map<K, int[]> map, K key) {
+        if (key == null) return NONE;
+        int[] positions = map.get(key);
+        return positions != null ? positions : NONE;
+    }
+
+    private static <K> Map<K, int[]> postings(Map<K, List<Integer>> lists) {
+        Map<K, int[]> map = new HashMap<>();
+        lists.forEach((key, positions) -> map.put(key, toArray(positions)));
+        return map;
+    }
+
+    private static int[] toArray(List<Integer> positions) {
+        int[] array = new int[positions.size()];
+        for (int i = 0; i < array.length; i++) array[i] = positions.get(i);
+        return array;
+    }
+
+    /** Merge two sorted position arrays, dropping duplicates. */
+    static int[] union(int[] a, int[] b) {
+        if (a.length == 0) return b;
+        if (b.length == 0) return a;
+        int[] out = new int[a.length + b.length];
+        int i = 0, j = 0, n = 0;
+        while (i < a.length || j < b.length) {
+            int next;
+            if (j >= b.length || (i < a.length && a[i] <= b[j])) {
+                next = a[i++];
+            } else {
+                next = b[j++];
+            }
+            if (n == 0 || out[n - 1] != next) out[n++] = next;
+        }
+        return n == out.length ? out : Arrays.copyOf(out, n);
+    }
+}
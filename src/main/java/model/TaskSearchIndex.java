@@ -0,0 +1,368 @@
+package model;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Inverted index over task titles and descriptions for as-you-type search.
+ *
+ * Text is split on anything that isn't a letter or digit, lower-cased and stripped of accents,
+ * so "Réunion" is found by "reu". Every query token matches as a prefix, and a task matches when
+ * all query tokens do. The index is kept up to date one task at a time through {@link #put} and
+ * {@link #remove}; {@link #rebuild} is only needed on startup when no persisted copy matches.
+ */
+public final class TaskSearchIndex {
+
+    /**
+     * Tasks matched by one query.
+     */
+    public static final class Result {
+        private final BitSet matches;
+        private final Map<String, Integer> ordinals;
+
+        private Result(BitSet matches, Map<String, Integer> ordinals) {
+            this.matches = matches;
+            this.ordinals = ordinals;
+        }
+
+        /**
+         * True for every task when the query had no searchable text.
+         */
+        public boolean matchesAll() {
+            return matches == null;
+        }
+
+        public boolean contains(String taskId) {
+            if (matches == null) return true;
+            Integer ordinal = ordinals.get(taskId);
+            return ordinal != null && matches.get(ordinal);
+        }
+
+        /** Number of matching tasks, or -1 when the query matches everything. */
+        public int size() {
+            return matches == null ? -1 : matches.cardinality();
+        }
+    }
+
+    /** Sorted task ordinals for one token. */
+    private static final class Postings {
+        private int[] ordinals = new int[4];
+        private int size;
+
+        void add(int ordinal) {
+            // New tasks get the highest ordinal, so this is nearly always an append
+            int pos = size == 0 || ordinals[size - 1] < ordinal ? size : Arrays.binarySearch(ordinals, 0, size, ordinal);
+            if (pos >= 0 && pos < size) return;
+            if (pos < 0) pos = -pos - 1;
+            if (size == ordinals.length) ordinals = Arrays.copyOf(ordinals, size * 2);
+            System.arraycopy(ordinals, pos, ordinals, pos + 1, size - pos);
+            ordinals[pos] = ordinal;
+            size++;
+        }
+
+        void remove(int ordinal) {
+            int pos = Arrays.binarySearch(ordinals, 0, size, ordinal);
+            if (pos < 0) return;
+            System.arraycopy(ordinals, pos + 1, ordinals, pos, size - pos - 1);
+            size--;
+        }
+
+        void addTo(BitSet bits) {
+            for (int i = 0; i < size; i++) bits.set(ordinals[i]);
+        }
+    }
+
+    private static final int FILE_MAGIC = 0x54534958; // "TSIX"
+    private static final int FILE_VERSION = 1;
+    private static final String[] NO_TOKENS = new String[0];
+
+    // Sorted for prefix ranges; the hash map is the same postings for exact lookups on updates
+    private final NavigableMap<String, Postings> postings = new TreeMap<>();
+    private final Map<String, Postings> postingsByToken = new HashMap<>();
+    // Ordinals are never reused (a rebuild starts a new map), so a Result stays correct for
+    // tasks changed after the query
+    private Map<String, Integer> ordinals = new ConcurrentHashMap<>();
+    private final List<String[]> tokensByOrdinal = new ArrayList<>();
+
+    // Per-token matches of the previous query; typing usually changes only the last token
+    private Map<String, BitSet> lastTokenMatches = Map.of();
+    private long lastQueryModCount = -1;
+    private long modCount;
+
+    /**
+     * Index or re-index one task.
+     */
+    public synchronized void put(Task task) {
+        String[] tokens = tokensOf(task);
+        Integer ordinal = ordinals.get(task.getTask_id());
+        if (ordinal == null) {
+            ordinal = tokensByOrdinal.size();
+            tokensByOrdinal.add(tokens);
+            ordinals.put(task.getTask_id(), ordinal);
+            for (String token : tokens) postingsFor(token).add(ordinal);
+        } else {
+            String[] previous = tokensByOrdinal.get(ordinal);
+            if (Arrays.equals(previous, tokens)) return;
+            for (String token : previous) {
+                if (Arrays.binarySearch(tokens, token) < 0) removePosting(token, ordinal);
+            }
+            for (String token : tokens) {
+                if (Arrays.binarySearch(previous, token) < 0) postingsFor(token).add(ordinal);
+            }
+            tokensByOrdinal.set(ordinal, tokens);
+        }
+        modCount++;
+    }
+
+    public synchronized void remove(String taskId) {
+        Integer ordinal = ordinals.remove(taskId);
+        if (ordinal == null) return;
+        for (String token : tokensByOrdinal.get(ordinal)) removePosting(token, ordinal);
+        tokensByOrdinal.set(ordinal, NO_TOKENS);
+        modCount++;
+    }
+
+    /**
+     * Follow a task whose id changed (a server-assigned id replacing the client one).
+     */
+    public synchronized void rename(String oldId, String newId) {
+        Integer ordinal = ordinals.remove(oldId);
+        if (ordinal != null) ordinals.put(newId, ordinal);
+    }
+
+    /**
+     * Replace the whole index with {@code tasks}.
+     */
+    public synchronized void rebuild(Collection<Task> tasks) {
+        clear();
+        for (Task task : tasks) {
+            if (task != null && task.getTask_id() != null) put(task);
+        }
+    }
+
+    public synchronized int size() {
+        return ordinals.size();
+    }
+
+    /**
+     * Tasks whose title or description contains a word starting with every token of
+     * {@code query}.
+     */
+    public synchronized Result search(String query) {
+        Set<String> queryTokens = new LinkedHashSet<>(Arrays.asList(tokenize(query)));
+        if (queryTokens.isEmpty()) return new Result(null, ordinals);
+
+        Map<String, BitSet> reusable = lastQueryModCount == modCount ? lastTokenMatches : Map.of();
+        Map<String, BitSet> tokenMatches = new HashMap<>();
+        BitSet result = null;
+        for (String token : queryTokens) {
+            BitSet matches = reusable.get(token);
+            if (matches == null) {
+                matches = new BitSet(tokensByOrdinal.size());
+                for (Postings p : postings.subMap(token, true, token + Character.MAX_VALUE, false).values()) {
+                    p.addTo(matches);
+                }
+            }
+            tokenMatches.put(token, matches);
+            if (result == null) {
+                result = (BitSet) matches.clone();
+            } else {
+                result.and(matches);
+            }
+        }
+        lastTokenMatches = tokenMatches;
+        lastQueryModCount = modCount;
+        return new Result(result, ordinals);
+    }
+
+    /**
+     * Split {@code text} into lower-case, accent-free words.
+     */
+    public static String[] tokenize(String text) {
+        if (text == null || text.isEmpty()) return NO_TOKENS;
+        String folded = isAscii(text) ? text : Normalizer.normalize(text, Normalizer.Form.NFD);
+        List<String> tokens = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        for (int i = 0; i < folded.length(); i++) {
+            char c = folded.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) continue;
+            if (Character.isLetterOrDigit(c)) {
+                current.append(Character.toLowerCase(c));
+            } else if (current.length() > 0) {
+                tokens.add(current.toString());
+                current.setLength(0);
+            }
+        }
+        if (current.length() > 0) tokens.add(current.toString());
+        return tokens.toArray(NO_TOKENS);
+    }
+
+    /**
+     * Order-independent hash of the searchable fields of {@code tasks}, used to check that a
+     * persisted index still matches the task store.
+     */
+    public static long fingerprint(Collection<Task> tasks) {
+        long sum = tasks.size();
+        for (Task task : tasks) {
+            long h = Objects.hash(task.getTask_id(), task.getTitle(), task.getDescription());
+            sum += h * 0x9E3779B97F4A7C15L ^ (h >>> 29);
+        }
+        return sum;
+    }
+
+    /**
+     * Persist the indexed words of every task so the next start can skip tokenizing.
+     */
+    public void writeTo(Path file, long fingerprint) throws IOException {
+        snapshot().writeTo(file, fingerprint);
+    }
+
+    /**
+     * The indexed words of every task as they are now, to be written later on another thread.
+     * Token arrays are replaced rather than changed, so the copy shares them.
+     */
+    public synchronized Snapshot snapshot() {
+        Map<String, String[]> tokensByTask = new LinkedHashMap<>();
+        for (Map.Entry<String, Integer> entry : ordinals.entrySet()) {
+            tokensByTask.put(entry.getKey(), tokensByOrdinal.get(entry.getValue()));
+        }
+        return new Snapshot(tokensByTask);
+    }
+
+    /**
+     * Immutable copy of an index's contents; see {@link #snapshot()}.
+     */
+    public static final class Snapshot {
+        private final Map<String, String[]> tokensByTask;
+
+        private Snapshot(Map<String, String[]> tokensByTask) {
+            this.tokensByTask = tokensByTask;
+        }
+
+        public void writeTo(Path file, long fingerprint) throws IOException {
+            Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                out.writeInt(FILE_MAGIC);
+                out.writeInt(FILE_VERSION);
+                out.writeLong(fingerprint);
+                out.writeInt(tokensByTask.size());
+                for (Map.Entry<String, String[]> entry : tokensByTask.entrySet()) {
+                    String[] tokens = entry.getValue();
+                    out.writeUTF(entry.getKey());
+                    out.writeInt(tokens.length);
+                    for (String token : tokens) out.writeUTF(token);
+                }
+            }
+            Files.move(tmp, file, java.nio.file.StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Load an index written by {@link #writeTo}, or null when there is none or it was written for
+     * different tasks.
+     */
+    public static TaskSearchIndex readFrom(Path file, long expectedFingerprint) {
+        if (!Files.isRegularFile(file)) return null;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != FILE_MAGIC || in.readInt() != FILE_VERSION) return null;
+            if (in.readLong() != expectedFingerprint) return null;
+            TaskSearchIndex index = new TaskSearchIndex();
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                String taskId = in.readUTF();
+                String[] tokens = new String[in.readInt()];
+                for (int t = 0; t < tokens.length; t++) tokens[t] = in.readUTF();
+                int ordinal = index.tokensByOrdinal.size();
+                index.tokensByOrdinal.add(tokens);
+                index.ordinals.put(taskId, ordinal);
+                for (String token : tokens) index.postingsFor(token).add(ordinal);
+            }
+            return index;
+        } catch (IOException | RuntimeException e) {
+            System.err.println("TaskSearchIndex: ignoring unreadable index " + file + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Take over the contents of {@code other}, e.g. one loaded with {@link #readFrom}.
+     */
+    public synchronized void replaceWith(TaskSearchIndex other) {
+        synchronized (other) {
+            clear();
+            postings.putAll(other.postings);
+            postingsByToken.putAll(other.postingsByToken);
+            ordinals.putAll(other.ordinals);
+            tokensByOrdinal.addAll(other.tokensByOrdinal);
+        }
+    }
+
+    private void clear() {
+        postings.clear();
+        postingsByToken.clear();
+        ordinals = new ConcurrentHashMap<>();
+        tokensByOrdinal.clear();
+        modCount++;
+    }
+
+    private Postings postingsFor(String token) {
+        Postings p = postingsByToken.get(token);
+        if (p == null) {
+            p = new Postings();
+            postingsByToken.put(token, p);
+            postings.put(token, p);
+        }
+        return p;
+    }
+
+    private void removePosting(String token, int ordinal) {
+        Postings p = postingsByToken.get(token);
+        if (p == null) return;
+        p.remove(ordinal);
+        if (p.size == 0) {
+            postingsByToken.remove(token);
+            postings.remove(token);
+        }
+    }
+
+    /** Unique words of a task's title and description, sorted for diffing. */
+    private static String[] tokensOf(Task task) {
+        String[] title = tokenize(task.getTitle());
+        String[] description = tokenize(task.getDescription());
+        String[] tokens = Arrays.copyOf(title, title.length + description.length);
+        System.arraycopy(description, 0, tokens, title.length, description.length);
+        Arrays.sort(tokens);
+        int unique = 0;
+        for (int i = 0; i < tokens.length; i++) {
+            if (unique == 0 || !tokens[i].equals(tokens[unique - 1])) tokens[unique++] = tokens[i];
+        }
+        return unique == tokens.length ? tokens : Arrays.copyOf(tokens, unique);
+    }
+
+    private static boolean isAscii(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) >= 0x80) return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,241 @@
+package model.commands;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+import model.TaskStatus;
+
+/**
+ * Semantic compaction of a pending command list.
+ * Rewrites the queue into the shortest sequence with the same end state:
+ * - CREATE followed by UPDATEs folds into a single CREATE
+ * - CREATE ... DELETE cancels out entirely (the server never sees the task)
+ * - UPDATEs followed by DELETE collapse to the DELETE
+ * - consecutive UPDATEs merge field-by-field (newer values win)
+ * - UPDATEs with no changed fields and repeated DELETEs are dropped
+ *
+ * Commands listed as pinned (already sent and awaiting acknowledgement) are never rewritten
+ * and act as a barrier: only commands queued after them for the same entity are compacted.
+ */
+public final class CommandCompactor {
+
+    private CommandCompactor() {}
+
+    /**
+     * Outcome of a single compaction pass.
+     */
+    public static final class Result {
+        private final List<Command> commands;
+        private final Stats stats;
+
+        Result(List<Command> commands, Stats stats) {
+            this.commands = commands;
+            this.stats = stats;
+        }
+
+        public List<Command> getCommands() { return commands; }
+        public Stats getStats() { return stats; }
+    }
+
+    /**
+     * Counters describing what a compaction pass (or a series of passes) eliminated.
+     */
+    public static final class Stats {
+        private int updatesMerged;
+        private int updatesFoldedIntoCreate;
+        private int createDeletePairsCancelled;
+        private int supersededByDelete;
+        private int noOpsDropped;
+
+        /** Total number of commands removed from the queue. */
+        public int getEliminated() {
+            return updatesMerged + updatesFoldedIntoCreate + 2 * createDeletePairsCancelled
+                + supersededByDelete + noOpsDropped;
+        }
+
+        public int getUpdatesMerged() { return updatesMerged; }
+        public int getUpdatesFoldedIntoCreate() { return updatesFoldedIntoCreate; }
+        public int getCreateDeletePairsCancelled() { return createDeletePairsCancelled; }
+        public int getSupersededByDelete() { return supersededByDelete; }
+        public int getNoOpsDropped() { return noOpsDropped; }
+
+        void add(Stats other) {
+            updatesMerged += other.updatesMerged;
+            updatesFoldedIntoCreate += other.updatesFoldedIntoCreate;
+            createDeletePairsCancelled += other.createDeletePairsCancelled;
+            supersededByDelete += other.supersededByDelete;
+            noOpsDropped += other.noOpsDropped;
+        }
+
+        Stats copy() {
+            Stats s = new Stats();
+            s.add(this);
+            return s;
+        }
+
+        @Override
+        public String toString() {
+            return "eliminated=" + getEliminated()
+                + " (merged=" + updatesMerged
+                + ", folded=" + updatesFoldedIntoCreate
+                + ", cancelledPairs=" + createDeletePairsCancelled
+                + ", supersededByDelete=" + supersededByDelete
+                + ", noOps=" + noOpsDropped + ")";
+        }
+    }
+
+    /**
+     * Compact a command list, leaving pinned commands untouched.
+     *
+     * @param commands pending commands in enqueue order
+     * @param pinnedCommandIds ids of commands that must not be rewritten or removed
+     */
+    public static Result compact(List<Command> commands, Set<String> pinnedCommandIds) {
+        Stats stats = new Stats();
+        Set<String> pinned = pinnedCommandIds != null ? pinnedCommandIds : Collections.emptySet();
+
+        // Output slots; removed commands become null so indices stay stable
+        List<Command> out = new ArrayList<>(commands.size());
+        // Per entity: output indices of compactable commands since the last pinned one
+        Map<String, List<Integer>> chains = new HashMap<>();
+
+        for (Command cmd : commands) {
+            String entityId = cmd.getEntityId();
+            if (pinned.contains(cmd.getCommandId())) {
+                out.add(cmd);
+                chains.remove(entityId);
+                continue;
+            }
+            if (cmd instanceof UpdateTaskCommand update
+                    && (update.changedFields() == null || update.changedFields().isEmpty())) {
+                stats.noOpsDropped++;
+                continue;
+            }
+
+            List<Integer> chain = chains.computeIfAbsent(entityId, k -> new ArrayList<>());
+            Command last = chain.isEmpty() ? null : out.get(chain.get(chain.size() - 1));
+            Command first = chain.isEmpty() ? null : out.get(chain.get(0));
+
+            if (cmd instanceof UpdateTaskCommand update) {
+                if (last instanceof UpdateTaskCommand previous) {
+                    out.set(chain.get(chain.size() - 1), mergeUpdates(previous, update));
+                    stats.updatesMerged++;
+                    continue;
+                }
+                if (last instanceof CreateTaskCommand create && canFold(update)) {
+                    out.set(chain.get(chain.size() - 1), foldIntoCreate(create, update));
+                    stats.updatesFoldedIntoCreate++;
+                    continue;
+                }
+            } else if (cmd instanceof DeleteTaskCommand) {
+                if (last instanceof DeleteTaskCommand) {
+                    stats.noOpsDropped++;
+                    continue;
+                }
+                if (first instanceof CreateTaskCommand) {
+                    // Created and deleted locally: nothing needs to reach the server
+                    for (int index : chain) {
+                        out.set(index, null);
+                    }
+                    stats.supersededByDelete += chain.size() - 1;
+                    stats.createDeletePairsCancelled++;
+                    chain.clear();
+                    continue;
+                }
+                for (Iterator<Integer> it = chain.iterator(); it.hasNext(); ) {
+                    int index = it.next();
+                    if (!(out.get(index) instanceof CreateTaskCommand)) {
+                        out.set(index, null);
+                        stats.supersededByDelete++;
+                        it.remove();
+                    }
+                }
+            }
+
+            chain.add(out.size());
+            out.add(cmd);
+        }
+
+        out.removeIf(Objects::isNull);
+        return new Result(out, stats);
+    }
+
+    /**
+     * Merge two updates for the same entity; newer field values override older ones.
+     */
+    static UpdateTaskCommand mergeUpdates(UpdateTaskCommand base, UpdateTaskCommand update) {
+        Map<String, Object> mergedFields = new HashMap<>(base.changedFields());
+        mergedFields.putAll(update.changedFields());
+        return UpdateTaskCommand.create(base.getEntityId(), base.getUserId(), mergedFields);
+    }
+
+    /**
+     * An update can be folded into a CREATE only if every changed field is one the CREATE carries.
+     */
+    private static boolean canFold(UpdateTaskCommand update) {
+        for (Map.Entry<String, Object> e : update.changedFields().entrySet()) {
+            Object value = e.getValue();
+            switch (e.getKey()) {
+                case "title", "description", "folderId" -> {
+                    if (value != null && !(value instanceof String)) return false;
+                }
+                case "status" -> {
+                    if (value instanceof String s) {
+                        if (TaskStatus.parse(s) == null) return false;
+                    } else if (!(value instanceof TaskStatus)) {
+                        return false;
+                    }
+                }
+                case "dueDate" -> {
+                    if (value instanceof String s) {
+                        try {
+                            LocalDateTime.parse(s);
+                        } catch (RuntimeException ex) {
+                            return false;
+                        }
+                    } else if (value != null && !(value instanceof LocalDateTime)) {
+                        return false;
+                    }
+                }
+                default -> {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Apply an update's fields to a CREATE, keeping the CREATE's id and timestamp
+     * so the server sees one creation with the final values.
+     */
+    private static CreateTaskCommand foldIntoCreate(CreateTaskCommand create, UpdateTaskCommand update) {
+        Map<String, Object> changes = update.changedFields();
+        String title = changes.containsKey("title") ? (String) changes.get("title") : create.title();
+        String description = changes.containsKey("description") ? (String) changes.get("description") : create.description();
+        String folderId = changes.containsKey("folderId") ? (String) changes.get("folderId") : create.folderId();
+
+        TaskStatus status = create.status();
+        if (changes.containsKey("status")) {
+            Object value = changes.get("status");
+            status = value instanceof TaskStatus ? (TaskStatus) value : TaskStatus.parse((String) value);
+        }
+        LocalDateTime dueDate = create.dueDate();
+        if (changes.containsKey("dueDate")) {
+            Object value = changes.get("dueDate");
+            dueDate = value instanceof String ? LocalDateTime.parse((String) value) : (LocalDateTime) value;
+        }
+
+        return new CreateTaskCommand(
+            create.commandId(),
+            create.entityId(),
+            create.userId(),
+            create.timestamp(),
+            title,
+            description,
+            status,
+            dueDate,
+            folderId
+        );
+    }
+}
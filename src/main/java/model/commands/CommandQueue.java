@@ -9,6 +9,10 @@ import java.nio.file.*;
 
 import model.Task;
 import model.TaskStatus;
+import model.commands.CommandCompactor.Stats;
+import COMMON.IoScheduler;
+import COMMON.Log;
+import COMMON.Metrics;
 import COMMON.UserProperties;
 
 /**
@@ -16,97 +20,181 @@ import COMMON.UserProperties;
  * This class handles:
  * - Queuing commands when offline
  * - Projecting current state by applying commands to base data
+ * - Compacting redundant commands (see {@link CommandCompactor})
  * - Synchronizing commands with the server
  * - Persisting commands to disk for reliability
  */
 public class CommandQueue {
+    /**
+     * Notified after a command has been added (and the queue compacted and persisted).
+     */
+    public interface Listener {
+        void onCommandEnqueued(Command command);
+    }
+    
+    private static final Log LOG = Log.get(CommandQueue.class);
+
     private final List<Command> pendingCommands = new CopyOnWriteArrayList<>();
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
     private final String userId;
     private final String commandsFilePath;
+    private final Set<String> inFlightCommandIds = new HashSet<>();
+    private final Stats totalCompactionStats = new Stats();
+    // Bumped whenever the pending commands change, i.e. whenever the projection may differ
+    private volatile long version;
     
     public CommandQueue(String userId) {
         this.userId = userId;
         this.commandsFilePath = UserProperties.getUserDataFilePath(userId, "pending_commands.json");
         loadFromFile();
+        // The queue of the signed-in user; a later login replaces these
+        Metrics.shared().gauge("command_queue.depth", this::getPendingCommandCount);
+        Metrics.shared().gauge("command_queue.in_flight", this::getInFlightCount);
     }
     
     /**
-     * Add a command to the queue for later synchronization with deduplication
+     * Add a command to the queue for later synchronization.
+     * The queue is compacted right away so redundant commands never hit the disk or the wire.
+     * Listeners are notified outside the queue lock so they may call back into the queue.
      */
     public void enqueue(Command command) {
+        addAndCompact(command);
+        for (Listener l : listeners) {
+            try {
+                l.onCommandEnqueued(command);
+            } catch (Exception e) {
+                System.err.println("CommandQueue: listener error: " + e.getMessage());
+            }
+        }
+    }
+    
+    private synchronized void addAndCompact(Command command) {
         if (!command.getUserId().equals(userId)) {
             throw new IllegalArgumentException("Command user ID does not match queue user ID");
         }
         
-        // Try to merge with existing pending command for same entity
-        Command existingCommand = findLastPendingCommandForEntity(command.getEntityId());
-        if (existingCommand != null && canMergeCommands(existingCommand, command)) {
-            Command mergedCommand = mergeCommands(existingCommand, command);
-            replaceCommand(existingCommand, mergedCommand);
-            System.out.println("Command merged: " + command.getType() + " for entity " + command.getEntityId());
+        pendingCommands.add(command);
+        version++;
+        Metrics.shared().counter("command_queue.enqueued").increment();
+        Stats stats = compactInternal();
+        if (stats.getEliminated() > 0) {
+            LOG.debug(() -> "Command compacted: " + command.getType() + " for entity " + command.getEntityId() + " (" + stats + ")");
         } else {
-            pendingCommands.add(command);
-            System.out.println("Command enqueued: " + command.getType() + " for entity " + command.getEntityId());
+            LOG.debug(() -> "Command enqueued: " + command.getType() + " for entity " + command.getEntityId());
         }
         
         persistToFile();
     }
     
     /**
-     * Find the last pending command for a specific entity
+     * Counter that changes whenever the pending commands (and so the projection) change.
      */
-    private Command findLastPendingCommandForEntity(String entityId) {
-        for (int i = pendingCommands.size() - 1; i >= 0; i--) {
-            Command cmd = pendingCommands.get(i);
-            if (cmd.getEntityId().equals(entityId)) {
-                return cmd;
-            }
+    public long getVersion() {
+        return version;
+    }
+    
+    public void addListener(Listener listener) {
+        if (listener != null) listeners.add(listener);
+    }
+    
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+    
+    /**
+     * Run a compaction pass over the pending commands.
+     * @return what this pass eliminated
+     */
+    public synchronized Stats compact() {
+        Stats stats = compactInternal();
+        if (stats.getEliminated() > 0) {
+            version++;
+            persistToFile();
         }
-        return null;
+        return stats;
     }
     
     /**
-     * Check if two commands can be merged
+     * Compact the queue and return every command that is not already in flight, marking them as in flight.
+     * In-flight commands are left untouched by later compaction until they are removed
+     * (acknowledged) or released with {@link #releaseInFlight(Collection)}.
      */
-    private boolean canMergeCommands(Command existing, Command incoming) {
-        // Only merge UPDATE commands for the same entity
-        return existing instanceof UpdateTaskCommand && 
-               incoming instanceof UpdateTaskCommand &&
-               existing.getEntityId().equals(incoming.getEntityId());
+    public synchronized List<Command> getCommandsForSync() {
+        return takeCommandsForUpload(Integer.MAX_VALUE);
     }
     
     /**
-     * Merge two commands into a single optimized command
+     * Compact the queue and hand out up to {@code max} commands that are not in flight yet,
+     * marking them as in flight. Commands for an entity that already has a command in flight are
+     * held back, so each entity's commands reach the server in order even with several batches
+     * outstanding.
      */
-    private Command mergeCommands(Command base, Command update) {
-        if (base instanceof UpdateTaskCommand && update instanceof UpdateTaskCommand) {
-            UpdateTaskCommand baseUpdate = (UpdateTaskCommand) base;
-            UpdateTaskCommand newUpdate = (UpdateTaskCommand) update;
-            
-            // Merge changed fields - newer values override older ones
-            Map<String, Object> mergedFields = new HashMap<>(baseUpdate.changedFields());
-            mergedFields.putAll(newUpdate.changedFields());
-            
-            // Create new merged command with latest timestamp
-            return UpdateTaskCommand.create(
-                base.getEntityId(),
-                base.getUserId(),
-                mergedFields
-            );
+    public synchronized List<Command> takeCommandsForUpload(int max) {
+        Stats stats = compact();
+        if (stats.getEliminated() > 0) {
+            LOG.debug(() -> "Pre-sync compaction: " + stats);
         }
-        
-        // For non-mergeable commands, return the newer one
-        return update;
+        Set<String> blockedEntities = new HashSet<>();
+        for (Command cmd : pendingCommands) {
+            if (inFlightCommandIds.contains(cmd.getCommandId())) {
+                blockedEntities.add(cmd.getEntityId());
+            }
+        }
+        List<Command> batch = new ArrayList<>();
+        for (Command cmd : pendingCommands) {
+            if (batch.size() >= max) break;
+            if (inFlightCommandIds.contains(cmd.getCommandId()) || blockedEntities.contains(cmd.getEntityId())) {
+                continue;
+            }
+            batch.add(cmd);
+        }
+        for (Command cmd : batch) {
+            inFlightCommandIds.add(cmd.getCommandId());
+        }
+        return batch;
+    }
+    
+    /**
+     * Return unacknowledged commands from a finished upload to the pool, making them eligible for
+     * compaction and the next upload again.
+     */
+    public synchronized void releaseInFlight(Collection<Command> commands) {
+        if (commands == null) return;
+        for (Command cmd : commands) {
+            inFlightCommandIds.remove(cmd.getCommandId());
+        }
+    }
+    
+    /**
+     * Number of commands currently handed out for upload and not yet acknowledged.
+     */
+    public synchronized int getInFlightCount() {
+        return inFlightCommandIds.size();
+    }
+    
+    /**
+     * Number of pending commands that are waiting to be handed out for upload.
+     */
+    public synchronized int getUnsentCommandCount() {
+        return pendingCommands.size() - inFlightCommandIds.size();
     }
     
     /**
-     * Replace an existing command with a new one
+     * Cumulative compaction statistics since this queue was created.
      */
-    private void replaceCommand(Command oldCommand, Command newCommand) {
-        int index = pendingCommands.indexOf(oldCommand);
-        if (index >= 0) {
-            pendingCommands.set(index, newCommand);
+    public synchronized Stats getCompactionStats() {
+        return totalCompactionStats.copy();
+    }
+    
+    private Stats compactInternal() {
+        CommandCompactor.Result result = CommandCompactor.compact(pendingCommands, inFlightCommandIds);
+        Stats stats = result.getStats();
+        if (stats.getEliminated() > 0) {
+            pendingCommands.clear();
+            pendingCommands.addAll(result.getCommands());
+            totalCompactionStats.add(stats);
         }
+        return stats;
     }
     
     /**
@@ -167,7 +255,7 @@ public class CommandQueue {
             }
             default -> {
                 // Future command types (appointments, financial entries) not yet implemented
-                System.out.println("Unsupported command type: " + cmd.getType());
+                LOG.debug(() -> "Unsupported command type: " + cmd.getType());
             }
         }
         
@@ -251,19 +339,24 @@ public class CommandQueue {
     /**
      * Clear all commands after successful synchronization
      */
-    public void clearCommands() {
+    public synchronized void clearCommands() {
         pendingCommands.clear();
+        inFlightCommandIds.clear();
+        version++;
         persistToFile();
-        System.out.println("Command queue cleared after successful sync");
+        LOG.debug("Command queue cleared after successful sync");
     }
     
     /**
      * Remove specific commands by their IDs (partial sync success)
      */
-    public void removeCommands(Set<String> commandIds) {
-        pendingCommands.removeIf(cmd -> commandIds.contains(cmd.getCommandId()));
+    public synchronized void removeCommands(Set<String> commandIds) {
+        boolean removed = pendingCommands.removeIf(cmd -> commandIds.contains(cmd.getCommandId()));
+        inFlightCommandIds.removeAll(commandIds);
+        if (!removed) return;
+        version++;
         persistToFile();
-        System.out.println("Removed " + commandIds.size() + " commands from queue");
+        LOG.debug(() -> "Removed " + commandIds.size() + " commands from queue");
     }
     
     /**
@@ -273,22 +366,26 @@ public class CommandQueue {
         return !pendingCommands.isEmpty();
     }
     
+    /**
+     * Check if any pending command targets the given entity
+     */
+    public boolean hasPendingCommandsFor(String entityId) {
+        return pendingCommands.stream().anyMatch(cmd -> cmd.getEntityId().equals(entityId));
+    }
+    
     /**
      * Get the count of pending commands
      */
     public int getPendingCommandCount() {
         return pendingCommands.size();
     }    /**
-     * Persist commands to disk for offline reliability
+     * Persist commands to disk for offline reliability.
+     * The journal goes first among the scheduler's writes; changes made while a write is waiting
+     * are folded into it, since it serializes the queue as it is when it runs.
      */
     private void persistToFile() {
-        try {
-            String jsonData = CommandSerializer.serialize(pendingCommands);
-            Files.writeString(Paths.get(commandsFilePath), jsonData);
-        } catch (Exception e) {
-            System.err.println("Failed to persist commands to file: " + e.getMessage());
-            e.printStackTrace();
-        }
+        IoScheduler.shared().submit(commandsFilePath, IoScheduler.Priority.JOURNAL, 0,
+                () -> Files.writeString(Paths.get(commandsFilePath), CommandSerializer.serialize(pendingCommands)));
     }
     
     /**
@@ -296,6 +393,8 @@ public class CommandQueue {
      */
     private void loadFromFile() {
         try {
+            // A queue of the same user may still have a write of this file waiting
+            IoScheduler.shared().flush(commandsFilePath);
             Path commandsPath = Paths.get(commandsFilePath);
             if (Files.exists(commandsPath)) {
                 String jsonData = Files.readString(commandsPath);
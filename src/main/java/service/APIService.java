@@ -5,6 +5,7 @@ import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.net.URI;
 import java.io.IOException;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -14,12 +15,20 @@ import java.util.stream.Collectors;
 import model.sync.CommandBatch;
 import model.sync.SyncResponse;
 import COMMON.JSONUtils;
+import COMMON.Log;
 import COMMON.UserProperties;
 import model.Folder;
+import service.transport.ResilientTransport;
 
 public class APIService {
-    private static final HttpClient CLIENT = HttpClient.newHttpClient();
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(5);
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(20);
+    private static final HttpClient CLIENT = HttpClient.newBuilder()
+        .connectTimeout(CONNECT_TIMEOUT)
+        .build();
     private static final String BASE_URL = (String) UserProperties.getProperty("authApiUrl");
+    private static final ResilientTransport TRANSPORT = ResilientTransport.forApi();
+    private static final Log LOG = Log.get(APIService.class);
 
     /**
     * Performs user login and returns the JSON response as a map.
@@ -65,6 +74,7 @@ public class APIService {
 
     /**
     * Sends a POST request to the given API path, optionally including the stored JWT.
+    * POSTs are not retried, but transient failures still count towards the API circuit breaker.
     */
     public static HttpResponse<String> post(String path, String jsonBody, boolean withAuth) throws IOException, InterruptedException {
         if (BASE_URL == null || BASE_URL.trim().isEmpty()) {
@@ -76,6 +86,7 @@ public class APIService {
         try {
             HttpRequest.Builder builder = HttpRequest.newBuilder()
                 .uri(URI.create(BASE_URL + path))
+                .timeout(REQUEST_TIMEOUT)
                 .header("Content-Type", "application/json")
                 .POST(HttpRequest.BodyPublishers.ofString(jsonBody));
             if (withAuth) {
@@ -86,7 +97,9 @@ public class APIService {
                 builder.header("Authorization", "Bearer " + token);
             }
             HttpRequest request = builder.build();
-            return CLIENT.send(request, HttpResponse.BodyHandlers.ofString());
+            return TRANSPORT.execute("POST " + path, false,
+                () -> CLIENT.send(request, HttpResponse.BodyHandlers.ofString()),
+                APIService::isTransientStatus);
         } catch (IllegalArgumentException | NullPointerException e) {
             throw new APIServiceException("Invalid request parameters for path='" + path + "': " + e.getMessage(), e);
         }
@@ -94,6 +107,7 @@ public class APIService {
 
     /**
      * Sends a GET request to the given API path, optionally including the stored JWT.
+     * GETs are idempotent and retried with jittered backoff on transient failures.
      */
     public static HttpResponse<String> get(String path, boolean withAuth) throws IOException, InterruptedException {
         if (BASE_URL == null || BASE_URL.trim().isEmpty()) {
@@ -104,6 +118,7 @@ public class APIService {
         try {
             HttpRequest.Builder builder = HttpRequest.newBuilder()
                 .uri(URI.create(BASE_URL + path))
+                .timeout(REQUEST_TIMEOUT)
                 .header("Content-Type", "application/json")
                 .GET();
             if (withAuth) {
@@ -114,33 +129,41 @@ public class APIService {
                 builder.header("Authorization", "Bearer " + token);
             }
             HttpRequest request = builder.build();
-            return CLIENT.send(request, HttpResponse.BodyHandlers.ofString());
+            return TRANSPORT.execute("GET " + path, true,
+                () -> CLIENT.send(request, HttpResponse.BodyHandlers.ofString()),
+                APIService::isTransientStatus);
         } catch (IllegalArgumentException | NullPointerException e) {
             throw new APIServiceException("Invalid request parameters for path='" + path + "': " + e.getMessage(), e);
         }
     }
 
+    /**
+     * Gateway errors mean the backend (or a proxy in front of it) is temporarily unavailable.
+     */
+    private static boolean isTransientStatus(HttpResponse<String> response) {
+        int status = response.statusCode();
+        return status == 502 || status == 503 || status == 504;
+    }
+
     /**
      * Sends a command batch to the API V2 sync endpoint and returns the sync response.
      */
     public static SyncResponse syncCommands(CommandBatch batch) throws IOException, InterruptedException {
         String requestBody = JSONUtils.toJsonString(batch);
-        
-        // Debug logging for the request
-        System.out.println("APIService: Sending request to /api/v2/sync/commands");
-        System.out.println("APIService: Request body: " + requestBody);
-        
+        SyncPhase.addCommands(batch.getCommands() != null ? batch.getCommands().size() : 0);
+        SyncPhase.addBytes(requestBody.length());
+        LOG.debug(() -> "Sending " + requestBody.length() + " chars to /api/v2/sync/commands");
+        LOG.payload(() -> "Request body: " + requestBody);
+
         HttpResponse<String> response = post("/api/v2/sync/commands", requestBody, true);
-        
-    // Debug logging for the response
-    System.out.println("APIService: Response status: " + response.statusCode());
-    System.out.println("APIService: Response headers: " + response.headers().map());
-    System.out.println("APIService: Response body: " + response.body());
-        
+
+        SyncPhase.addBytes(response.body() != null ? response.body().length() : 0);
+        LOG.debug(() -> "Response status: " + response.statusCode());
+        LOG.payload(() -> "Response headers: " + response.headers().map() + System.lineSeparator()
+                + "Response body: " + response.body());
+
         if (response.statusCode() == 200) {
-            SyncResponse syncResponse = JSONUtils.fromJsonString(response.body(), SyncResponse.class);
-            System.out.println("APIService: Successfully parsed SyncResponse");
-            return syncResponse;
+            return JSONUtils.fromJsonString(response.body(), SyncResponse.class);
         }
         
         throw new RuntimeException("Sync failed with status " + response.statusCode() + ": " + response.body());
@@ -200,10 +223,10 @@ public class APIService {
         Map<String, Object> body = new HashMap<>();
         body.put("notification_ids", notificationIds);
         String json = COMMON.JSONUtils.toJsonString(body);
-        System.out.println("APIService: Acking notifications: " + notificationIds);
+        LOG.debug(() -> "Acking notifications: " + notificationIds);
         HttpResponse<String> response = post("/api/v2/notifications/ack", json, true);
-        System.out.println("APIService: Ack response status: " + response.statusCode());
-        System.out.println("APIService: Ack response body: " + response.body());
+        LOG.debug(() -> "Ack response status: " + response.statusCode());
+        LOG.payload(() -> "Ack response body: " + response.body());
         return response.statusCode() == 200;
     }
 
@@ -1,28 +1,37 @@
 package service;
 
+import COMMON.IoScheduler;
+import COMMON.Log;
+import COMMON.Metrics;
 import model.TaskHandlerV2;
 
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Batch persistence service that groups multiple write operations together
  * to reduce disk I/O and improve performance.
+ *
+ * The writes themselves run on the shared {@link IoScheduler}, which coalesces requests that
+ * arrive while one is already waiting.
  */
 public class BatchPersistenceService {
-    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
-        Thread t = new Thread(r, "BatchPersistence-" + System.currentTimeMillis());
-        t.setDaemon(true);
-        return t;
-    });
-    
-    private final AtomicBoolean hasPendingWrites = new AtomicBoolean(false);
+    private static final Log LOG = Log.get(BatchPersistenceService.class);
+
+    // Persistence requests since the last flush; its distribution is the coalescing ratio
+    private final AtomicInteger requestsSinceFlush = new AtomicInteger();
+    private final Metrics.Histogram flushTimer = Metrics.shared().timer("persistence.flush");
+    private final Metrics.Histogram coalescedRequests = Metrics.shared().histogram("persistence.requests_per_flush");
+    private final Metrics.Counter flushFailures = Metrics.shared().counter("persistence.flush_failures");
+    private final IoScheduler io = IoScheduler.shared();
+    private final String file;
     private final long flushDelayMs;
     private TaskHandlerV2 taskHandler;
     
-    public BatchPersistenceService(long flushDelayMs) {
+    /**
+     * @param file the task store this service writes; the key its writes are coalesced under
+     */
+    public BatchPersistenceService(String file, long flushDelayMs) {
+        this.file = file;
         this.flushDelayMs = flushDelayMs;
     }
     
@@ -37,18 +46,19 @@ public class BatchPersistenceService {
      * Schedule a persistence operation with batching delay
      */
     public void schedulePersistence() {
-        if (hasPendingWrites.compareAndSet(false, true)) {
-            scheduler.schedule(this::flush, flushDelayMs, TimeUnit.MILLISECONDS);
-        }
-        // If already scheduled, the existing schedule will handle the write
+        requestsSinceFlush.incrementAndGet();
+        // Joins the write already waiting, if any, without postponing it
+        io.submit(file, IoScheduler.Priority.DATA, flushDelayMs, this::flush);
     }
     
     /**
      * Force immediate persistence (used during shutdown or critical operations)
      */
     public void flushImmediately() {
-        hasPendingWrites.set(false); // Cancel any pending scheduled flush
-        flush();
+        io.submit(file, IoScheduler.Priority.DATA, 0, this::flush);
+        if (!io.flush(file)) {
+            System.err.println("BatchPersistence: Timed out waiting for " + file);
+        }
     }
     
     /**
@@ -56,14 +66,16 @@ public class BatchPersistenceService {
      */
     private void flush() {
         if (taskHandler != null) {
+            long start = System.nanoTime();
+            coalescedRequests.record(requestsSinceFlush.getAndSet(0));
             try {
                 taskHandler.forcePersistence();
-                hasPendingWrites.set(false);
-                System.out.println("BatchPersistence: Successfully flushed tasks to disk");
+                LOG.debug("Flushed tasks to disk");
             } catch (Exception e) {
-                System.err.println("BatchPersistence: Failed to flush tasks: " + e.getMessage());
-                hasPendingWrites.set(false);
+                LOG.error("Failed to flush tasks: " + e.getMessage());
+                flushFailures.increment();
             }
+            flushTimer.recordSince(start);
         }
     }
     
@@ -71,25 +83,14 @@ public class BatchPersistenceService {
      * Check if there are pending writes waiting to be flushed
      */
     public boolean hasPendingWrites() {
-        return hasPendingWrites.get();
+        return io.isPending(file);
     }
     
     /**
-     * Shutdown the service and ensure all pending writes are completed
+     * Ensure all pending writes are completed. The writer thread itself belongs to the shared
+     * scheduler and outlives this service.
      */
     public void shutdown() {
-        try {
-            flushImmediately(); // Ensure all data is persisted
-            scheduler.shutdown();
-            
-            if (!scheduler.awaitTermination(5, TimeUnit.SECONDS)) {
-                System.err.println("BatchPersistence: Force shutdown - some writes may be lost");
-                scheduler.shutdownNow();
-            }
-        } catch (InterruptedException e) {
-            System.err.println("BatchPersistence: Interrupted during shutdown");
-            scheduler.shutdownNow();
-            Thread.currentThread().interrupt();
-        }
+        flushImmediately();
     }
 }
@@ -0,0 +1,176 @@
+package service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs independent fetch phases concurrently and joins them before a single apply step,
+ * so cold-start time is bounded by the slowest phase rather than the sum of all phases.
+ *
+ * Usage: {@link #submit} each phase, {@link #awaitAll()} to join, then read each
+ * {@link Fetch#get()} result and apply. Per-phase latency is recorded in the {@link Report}.
+ */
+public class BootstrapCoordinator {
+
+    @FunctionalInterface
+    public interface Phase<T> {
+        T fetch() throws Exception;
+    }
+
+    /**
+     * Handle to one submitted phase.
+     */
+    public static final class Fetch<T> {
+        private final String name;
+        private final CompletableFuture<T> future;
+
+        private Fetch(String name, CompletableFuture<T> future) {
+            this.name = name;
+            this.future = future;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Result of the phase once {@link #awaitAll()} has returned.
+         * @throws Exception the exception the phase failed with
+         */
+        public T get() throws Exception {
+            try {
+                return future.get();
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof Exception) throw (Exception) cause;
+                throw e;
+            }
+        }
+
+        public boolean failed() {
+            return future.isCompletedExceptionally();
+        }
+    }
+
+    /**
+     * Timing of a completed bootstrap.
+     */
+    public static final class Report {
+        private final Map<String, Long> phaseLatencyMs;
+        private final Map<String, Throwable> failures;
+        private final long wallClockMs;
+
+        Report(Map<String, Long> phaseLatencyMs, Map<String, Throwable> failures, long wallClockMs) {
+            this.phaseLatencyMs = Collections.unmodifiableMap(phaseLatencyMs);
+            this.failures = Collections.unmodifiableMap(failures);
+            this.wallClockMs = wallClockMs;
+        }
+
+        /** Latency of each phase in submission order. */
+        public Map<String, Long> getPhaseLatencyMs() { return phaseLatencyMs; }
+
+        /** Phases that failed, keyed by name. */
+        public Map<String, Throwable> getFailures() { return failures; }
+
+        /** Time from the first submit to the last phase finishing. */
+        public long getWallClockMs() { return wallClockMs; }
+
+        /** What the same phases would have cost run one after another. */
+        public long getSequentialMs() {
+            return phaseLatencyMs.values().stream().mapToLong(Long::longValue).sum();
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            phaseLatencyMs.forEach((name, ms) -> sb.append(name).append('=').append(ms).append("ms")
+                .append(failures.containsKey(name) ? " (failed)" : "").append(' '));
+            return sb.append("wall=").append(wallClockMs).append("ms sequential=").append(getSequentialMs()).append("ms").toString();
+        }
+    }
+
+    private final ExecutorService executor;
+    private final boolean ownsExecutor;
+    private final List<CompletableFuture<?>> futures = new ArrayList<>();
+    private final Map<String, Long> latencies = Collections.synchronizedMap(new LinkedHashMap<>());
+    private final Map<String, Throwable> failures = Collections.synchronizedMap(new LinkedHashMap<>());
+    private long startNanos = -1;
+
+    /**
+     * Coordinator with its own daemon thread per phase (up to {@code parallelism}).
+     */
+    public BootstrapCoordinator(int parallelism) {
+        AtomicInteger n = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(Math.max(1, parallelism), r -> {
+            Thread t = new Thread(r, "Bootstrap-" + n.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        this.ownsExecutor = true;
+    }
+
+    public BootstrapCoordinator(ExecutorService executor) {
+        this.executor = executor;
+        this.ownsExecutor = false;
+    }
+
+    /**
+     * Start a phase right away on the coordinator's executor.
+     */
+    public synchronized <T> Fetch<T> submit(String name, Phase<T> phase) {
+        if (startNanos < 0) startNanos = System.nanoTime();
+        latencies.put(name, -1L); // reserve the slot so the report keeps submission order
+        CompletableFuture<T> future = CompletableFuture.supplyAsync(() -> {
+            long t0 = System.nanoTime();
+            try {
+                return phase.fetch();
+            } catch (Exception e) {
+                failures.put(name, e);
+                throw new CompletionException(e);
+            } finally {
+                latencies.put(name, (System.nanoTime() - t0) / 1_000_000);
+            }
+        }, executor);
+        futures.add(future);
+        return new Fetch<>(name, future);
+    }
+
+    /**
+     * Wait for every submitted phase to finish (successfully or not).
+     */
+    public Report awaitAll() throws InterruptedException {
+        List<CompletableFuture<?>> pending;
+        long start;
+        synchronized (this) {
+            pending = new ArrayList<>(futures);
+            start = startNanos;
+        }
+        try {
+            for (CompletableFuture<?> f : pending) {
+                try {
+                    f.get();
+                } catch (ExecutionException ignore) {
+                    // recorded in failures; the caller sees it through Fetch.get()
+                }
+            }
+        } finally {
+            if (ownsExecutor) executor.shutdown();
+        }
+        long wall = start < 0 ? 0 : (System.nanoTime() - start) / 1_000_000;
+        Report report;
+        synchronized (latencies) {
+            report = new Report(new LinkedHashMap<>(latencies), new LinkedHashMap<>(failures), wall);
+        }
+        System.out.println("BootstrapCoordinator: " + report);
+        return report;
+    }
+}
@@ -0,0 +1,257 @@
+package service;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import COMMON.Log;
+import model.commands.Command;
+import model.commands.CommandQueue;
+import service.transport.RetryPolicy;
+
+/**
+ * Pipelined upload of queued commands, independent of the pull-side sync.
+ *
+ * Shortly after a command is enqueued (after a short linger so bursts of edits share a batch and
+ * get compacted first) the outbox takes a small batch from the {@link CommandQueue} and uploads it.
+ * Up to {@code window} batches may be outstanding at once; acknowledgements are matched by
+ * commandId, and unacknowledged commands go back to the queue for the next attempt.
+ * The queue never hands out a command for an entity that already has one in flight, so
+ * per-entity ordering holds across concurrent batches.
+ */
+public class CommandOutbox implements CommandQueue.Listener {
+    private static final Log LOG = Log.get(CommandOutbox.class);
+
+    /**
+     * Sends one batch to the backend.
+     * @return ids of the commands the backend acknowledged
+     */
+    @FunctionalInterface
+    public interface Uploader {
+        Set<String> upload(List<Command> batch) throws Exception;
+    }
+
+    public interface Listener {
+        void onBatchAcknowledged(List<Command> batch, Set<String> acknowledgedIds);
+    }
+
+    private final CommandQueue queue;
+    private final Uploader uploader;
+    private final Listener listener;
+    private final int batchSize;
+    private final int window;
+    private final long lingerMs;
+    private final RetryPolicy failureBackoff;
+
+    private final AtomicLong batchesSent = new AtomicLong();
+    private final AtomicLong commandsAcknowledged = new AtomicLong();
+    private final AtomicLong lastBatchLatencyMs = new AtomicLong(-1);
+    private final AtomicInteger inFlightBatches = new AtomicInteger();
+    private ScheduledExecutorService scheduler;
+    private ExecutorService uploadExecutor;
+    private ScheduledFuture<?> pendingFlush;
+    private int consecutiveFailures;
+    private volatile boolean running;
+
+    private CommandOutbox(Builder b) {
+        this.queue = b.queue;
+        this.uploader = b.uploader;
+        this.listener = b.listener;
+        this.batchSize = Math.max(1, b.batchSize);
+        this.window = Math.max(1, b.window);
+        this.lingerMs = Math.max(0, b.lingerMs);
+        this.failureBackoff = new RetryPolicy(1, b.retryDelayMs, b.maxRetryDelayMs);
+    }
+
+    /**
+     * Subscribe to the queue and ship anything already pending (e.g. loaded from disk).
+     */
+    public synchronized void start() {
+        if (running) return;
+        running = true;
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "CommandOutbox");
+            t.setDaemon(true);
+            return t;
+        });
+        AtomicInteger n = new AtomicInteger();
+        uploadExecutor = Executors.newFixedThreadPool(window, r -> {
+            Thread t = new Thread(r, "CommandOutbox-upload-" + n.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        queue.addListener(this);
+        scheduleFlush(0);
+    }
+
+    public synchronized void stop() {
+        if (!running) return;
+        running = false;
+        queue.removeListener(this);
+        scheduler.shutdownNow();
+        uploadExecutor.shutdown();
+    }
+
+    @Override
+    public void onCommandEnqueued(Command command) {
+        scheduleFlush(lingerMs);
+    }
+
+    /**
+     * Ship pending commands now, e.g. when the backend comes back online.
+     */
+    public synchronized void flushNow() {
+        consecutiveFailures = 0;
+        if (pendingFlush != null) pendingFlush.cancel(false);
+        pendingFlush = null;
+        scheduleFlush(0);
+    }
+
+    public long getBatchesSent() {
+        return batchesSent.get();
+    }
+
+    public long getCommandsAcknowledged() {
+        return commandsAcknowledged.get();
+    }
+
+    /**
+     * Round trip of the most recent batch, or -1 before the first one completes.
+     */
+    public long getLastBatchLatencyMs() {
+        return lastBatchLatencyMs.get();
+    }
+
+    public int getInFlightBatches() {
+        return inFlightBatches.get();
+    }
+
+    private synchronized void scheduleFlush(long delayMs) {
+        if (!running || pendingFlush != null) return;
+        pendingFlush = scheduler.schedule(this::flush, delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    private synchronized void flush() {
+        pendingFlush = null;
+        if (!running) return;
+        while (inFlightBatches.get() < window) {
+            List<Command> batch = queue.takeCommandsForUpload(batchSize);
+            if (batch.isEmpty()) break;
+            inFlightBatches.incrementAndGet();
+            uploadExecutor.execute(() -> send(batch));
+        }
+    }
+
+    private void send(List<Command> batch) {
+        long start = System.nanoTime();
+        Set<String> acknowledged = Collections.emptySet();
+        boolean failed = false;
+        try {
+            Set<String> result = uploader.upload(batch);
+            if (result != null) acknowledged = result;
+            failed = acknowledged.size() < batch.size();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failed = true;
+        } catch (Exception e) {
+            LOG.warn("upload of " + batch.size() + " commands failed: " + e.getMessage());
+            failed = true;
+        } finally {
+            batchesSent.incrementAndGet();
+            commandsAcknowledged.addAndGet(acknowledged.size());
+            lastBatchLatencyMs.set(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            if (!acknowledged.isEmpty()) {
+                queue.removeCommands(acknowledged);
+            }
+            queue.releaseInFlight(batch);
+            inFlightBatches.decrementAndGet();
+        }
+
+        if (!acknowledged.isEmpty() && listener != null) {
+            try {
+                listener.onBatchAcknowledged(batch, acknowledged);
+            } catch (Exception e) {
+                LOG.warn("listener error: " + e.getMessage(), e);
+            }
+        }
+
+        synchronized (this) {
+            if (failed) {
+                // Rejected or unreachable: back off instead of hot-looping on the same commands
+                consecutiveFailures++;
+                long delay = failureBackoff.backoffCeiling(consecutiveFailures);
+                int unacknowledged = batch.size() - acknowledged.size();
+                LOG.debug(() -> unacknowledged + " commands not acknowledged, retrying in " + delay + " ms");
+                scheduleFlush(delay);
+            } else {
+                consecutiveFailures = 0;
+                if (queue.getUnsentCommandCount() > 0) scheduleFlush(0);
+            }
+        }
+    }
+
+    public static class Builder {
+        private final CommandQueue queue;
+        private final Uploader uploader;
+        private Listener listener;
+        private int batchSize = 10;
+        private int window = 2;
+        private long lingerMs = 100;
+        private long retryDelayMs = 1000;
+        private long maxRetryDelayMs = 60000;
+
+        public Builder(CommandQueue queue, Uploader uploader) {
+            this.queue = queue;
+            this.uploader = uploader;
+        }
+
+        public Builder listener(Listener listener) {
+            this.listener = listener;
+            return this;
+        }
+
+        /**
+         * Maximum number of commands per upload.
+         */
+        public Builder batchSize(int batchSize) {
+            this.batchSize = batchSize;
+            return this;
+        }
+
+        /**
+         * Maximum number of batches awaiting acknowledgement at the same time.
+         */
+        public Builder window(int window) {
+            this.window = window;
+            return this;
+        }
+
+        /**
+         * How long to wait after an enqueue before shipping, so rapid edits share one batch.
+         */
+        public Builder linger(long lingerMs) {
+            this.lingerMs = lingerMs;
+            return this;
+        }
+
+        public Builder retryDelay(long initialMs, long maxMs) {
+            this.retryDelayMs = initialMs;
+            this.maxRetryDelayMs = maxMs;
+            return this;
+        }
+
+        public CommandOutbox build() {
+            if (queue == null || uploader == null) {
+                throw new IllegalArgumentException("queue and uploader are required");
+            }
+            return new CommandOutbox(this);
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package service;
+
+import model.DueDateIndex;
+import model.Task;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Moves tasks across the "now" boundary as their due date passes.
+ *
+ * Instead of rescanning the task list on a fixed period, the watcher sleeps until the next due
+ * date in the {@link DueDateIndex}, rounded up to the end of its minute so tasks due in the same
+ * minute are reported together. On waking it asks the index for the tasks due since the previous
+ * boundary and hands only those to the listener. Every change to the index re-arms the timer, so
+ * a task created or edited to fall due sooner is picked up on time.
+ */
+public class DueBoundaryWatcher {
+    // Re-check at least this often, in case the machine slept or the wall clock was changed
+    private static final Duration MAX_SLEEP = Duration.ofMinutes(15);
+
+    public interface Listener {
+        /** Called on the watcher thread with the tasks that just passed their due date. */
+        void onBecameOverdue(List<Task> tasks);
+    }
+
+    private final DueDateIndex index;
+    private final Listener listener;
+    private final Supplier<LocalDateTime> clock;
+    private final ScheduledExecutorService scheduler;
+
+    // Guarded by this
+    private LocalDateTime boundary;
+    private ScheduledFuture<?> pending;
+    private LocalDateTime pendingWake;
+
+    public DueBoundaryWatcher(DueDateIndex index, Listener listener) {
+        this(index, listener, LocalDateTime::now, Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "DueBoundaryWatcher");
+            t.setDaemon(true);
+            return t;
+        }));
+    }
+
+    DueBoundaryWatcher(DueDateIndex index, Listener listener, Supplier<LocalDateTime> clock,
+                       ScheduledExecutorService scheduler) {
+        this.index = index;
+        this.listener = listener;
+        this.clock = clock;
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Take the current time as the boundary and arm the timer for the next due date after it.
+     */
+    public void start() {
+        synchronized (this) {
+            boundary = clock.get();
+        }
+        index.setOnChange(this::reschedule);
+        reschedule();
+    }
+
+    public void shutdown() {
+        index.setOnChange(null);
+        synchronized (this) {
+            boundary = null;
+            if (pending != null) pending.cancel(false);
+            pending = null;
+            pendingWake = null;
+        }
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * Arm the timer for the next due date after the boundary; a no-op when it's already armed for it.
+     */
+    synchronized void reschedule() {
+        if (boundary == null || scheduler.isShutdown()) return;
+        LocalDateTime now = clock.get();
+        LocalDateTime next = index.nextDueAtOrAfter(boundary);
+        LocalDateTime wake = next != null ? endOfMinute(next) : now.plus(MAX_SLEEP);
+        if (wake.isAfter(now.plus(MAX_SLEEP))) wake = now.plus(MAX_SLEEP);
+        if (pending != null && !pending.isDone()) {
+            if (wake.equals(pendingWake)) return;
+            pending.cancel(false);
+        }
+        long delayMs = Math.max(0, Duration.between(now, wake).toMillis());
+        pendingWake = wake;
+        pending = scheduler.schedule(this::tick, delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Report the tasks that fell due since the last boundary, move the boundary to now and re-arm.
+     */
+    void tick() {
+        List<Task> crossed;
+        synchronized (this) {
+            if (boundary == null) return;
+            LocalDateTime now = clock.get();
+            // If the clock went back, nothing became overdue; just restart from the new time
+            crossed = now.isAfter(boundary) ? index.crossings(boundary, now) : List.of();
+            boundary = now;
+            pending = null;
+            pendingWake = null;
+        }
+        if (!crossed.isEmpty()) {
+            System.out.println("DueBoundaryWatcher: " + crossed.size() + " task(s) became overdue");
+            try {
+                listener.onBecameOverdue(crossed);
+            } catch (RuntimeException e) {
+                System.err.println("DueBoundaryWatcher: listener failed: " + e.getMessage());
+            }
+        }
+        reschedule();
+    }
+
+    /** Time of the next scheduled wake-up, or null when none is armed. */
+    synchronized LocalDateTime getScheduledWake() {
+        return pendingWake;
+    }
+
+    private static LocalDateTime endOfMinute(LocalDateTime time) {
+        LocalDateTime minute = time.truncatedTo(ChronoUnit.MINUTES);
+        return minute.equals(time) ? time : minute.plusMinutes(1);
+    }
+}
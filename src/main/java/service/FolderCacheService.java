@@ -1,8 +1,10 @@
 package service;
 
 import model.Folder;
+import COMMON.IoScheduler;
 import COMMON.JSONUtils;
 import COMMON.UserProperties;
+import COMMON.jfr.FolderCacheRefreshEvent;
 
 import java.io.File;
 import java.util.*;
@@ -16,11 +18,15 @@ import java.util.concurrent.atomic.AtomicLong;
  */
 public class FolderCacheService {
     private static final long CACHE_TTL_MS = TimeUnit.HOURS.toMillis(1); // 1 hour TTL
+    private static final long PERSIST_DELAY_MS = 1000;
     private final Map<String, Folder> folderCache = new ConcurrentHashMap<>();
     private final AtomicLong lastRefresh = new AtomicLong(0);
     private final String cachePath;
     private final String userId;
     private String folderVersion;
+    // Bumped on every change to the cached folders; the server's folderVersion is null after a
+    // refresh from the database and does not track renames
+    private final AtomicLong changeCount = new AtomicLong();
     
     public FolderCacheService(String userId) {
         this.userId = userId;
@@ -54,6 +60,14 @@ public class FolderCacheService {
         return new ArrayList<>(folderCache.values());
     }
     
+    /**
+     * The folders cached right now, never refreshing: for callers that must not block on the
+     * database, such as the EDT or a fork-join worker.
+     */
+    public List<Folder> getCachedFoldersSnapshot() {
+        return new ArrayList<>(folderCache.values());
+    }
+    
     /**
      * Update folders in cache (called from sync operations)
      */
@@ -76,6 +90,7 @@ public class FolderCacheService {
         
         this.folderVersion = version;
         lastRefresh.set(System.currentTimeMillis());
+        changeCount.incrementAndGet();
         persistToLocal();
         
         System.out.println("FolderCache: Updated " + folderCache.size() + " folders" + 
@@ -96,6 +111,13 @@ public class FolderCacheService {
         return folderVersion;
     }
     
+    /**
+     * Counter that changes whenever the cached folders (and so resolved folder names) may differ.
+     */
+    public long getChangeCount() {
+        return changeCount.get();
+    }
+    
     /**
      * Force cache refresh from server
      */
@@ -124,9 +146,19 @@ public class FolderCacheService {
                 return;
             }
             System.out.println("FolderCache: Refreshing from server...");
-            List<Folder> folders = fetchFoldersFromDatabase(uid);
-            if (folders != null) {
-                updateFolders(folders);
+            FolderCacheRefreshEvent event = new FolderCacheRefreshEvent();
+            event.begin();
+            try {
+                List<Folder> folders = fetchFoldersFromDatabase(uid);
+                if (folders != null) {
+                    updateFolders(folders);
+                    event.folders = folders.size();
+                }
+            } catch (Exception e) {
+                event.error = e.getMessage();
+                throw e;
+            } finally {
+                event.commit();
             }
         } catch (Exception e) {
             System.err.println("FolderCache: Failed to refresh from server: " + e.getMessage());
@@ -207,16 +239,14 @@ public class FolderCacheService {
      * Persist cache to local storage
      */
     private void persistToLocal() {
-        try {
-            Map<String, Object> cacheData = new HashMap<>();
-            cacheData.put("folders", new ArrayList<>(folderCache.values()));
-            cacheData.put("lastRefresh", lastRefresh.get());
-            cacheData.put("folderVersion", folderVersion);
-            
-            JSONUtils.writeJsonFile(cacheData, cachePath);
-        } catch (Exception e) {
-            System.err.println("FolderCache: Failed to persist cache: " + e.getMessage());
-        }
+        // Snapshot now; the write itself is deferred and coalesced by the shared scheduler
+        Map<String, Object> cacheData = new HashMap<>();
+        cacheData.put("folders", new ArrayList<>(folderCache.values()));
+        cacheData.put("lastRefresh", lastRefresh.get());
+        cacheData.put("folderVersion", folderVersion);
+
+        IoScheduler.shared().submit(cachePath, IoScheduler.Priority.CACHE, PERSIST_DELAY_MS,
+                () -> JSONUtils.writeJsonFile(cacheData, cachePath));
     }
     
     /**
@@ -224,6 +254,7 @@ public class FolderCacheService {
      */
     private void loadFromPersistence() {
         try {
+            IoScheduler.shared().flush(cachePath);
             File cacheFile = new File(cachePath);
             if (cacheFile.exists()) {
                 Map<String, Object> cacheData = JSONUtils.readJsonFile(cacheFile);
@@ -267,6 +298,7 @@ public class FolderCacheService {
         folderCache.clear();
         folderVersion = null;
         lastRefresh.set(0);
+        changeCount.incrementAndGet();
         persistToLocal();
     }
 }
@@ -6,12 +6,16 @@ import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import COMMON.Log;
+import COMMON.Metrics;
+import COMMON.jfr.FolderCacheRefreshEvent;
 import service.sync.LogTasksUtil;
 import service.sync.TaskAssembler;
 import model.Folder;
 import model.TaskHandlerV2;
 import model.commands.Command;
 import service.sync.CommandConverter;
+import service.transport.ResilientTransport;
 
 import java.sql.*;
 import java.time.LocalDateTime;
@@ -24,20 +28,35 @@ import java.util.concurrent.CompletableFuture;
  * - Batch command processing via todo.merge_task_commands()
  * - Conditional data fetching via todo.retrieve_tasks_modified_since_in_jsonb()
  * - Efficient notification handling via todo.get_pending_notifications()
+ *
+ * All database calls go through the shared database {@link ResilientTransport}: read phases are
+ * retried on transient failures, and the whole sync is skipped while the circuit is open.
  */
 public class OptimizedSyncService {
     private final TaskHandlerV2 taskHandler;
     private final String userId;
     private final ObjectMapper objectMapper;
-    private Connection dbConnection;
+    // Used by the full sync only; outbox uploads and bootstrap fetches take their own connections
+    private volatile Connection dbConnection;
+    private final ResilientTransport transport;
     private final java.util.concurrent.atomic.AtomicBoolean syncRunning = new java.util.concurrent.atomic.AtomicBoolean(false);
     private final java.util.concurrent.atomic.AtomicBoolean rerunRequested = new java.util.concurrent.atomic.AtomicBoolean(false);
     private static final int BATCH_SIZE = 50;
-    
+    private static final String METRICS_PREFIX = "sync.db.";
+    private static final Log LOG = Log.get(OptimizedSyncService.class);
+    private final ResilientTransport.Call<Connection, SQLException> connectionFactory = DBH.NeonPool::getConnection;
+    private volatile boolean bootstrapped;
+    private volatile BootstrapCoordinator.Report lastBootstrapReport;
+
     public OptimizedSyncService(TaskHandlerV2 taskHandler, Connection dbConnection) {
+        this(taskHandler, dbConnection, ResilientTransport.forDatabase());
+    }
+
+    public OptimizedSyncService(TaskHandlerV2 taskHandler, Connection dbConnection, ResilientTransport transport) {
         this.taskHandler = taskHandler;
         this.userId = taskHandler.getUserId();
         this.dbConnection = dbConnection;
+        this.transport = transport;
         this.objectMapper = new ObjectMapper();
         this.objectMapper.registerModule(new JavaTimeModule());
         this.objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
@@ -54,36 +73,54 @@ public class OptimizedSyncService {
                 skipped.success = true;
                 return skipped;
             }
+            List<Command> pendingCommands = new ArrayList<>();
+            long start = System.nanoTime();
+            Metrics metrics = Metrics.shared();
+            SyncTrace trace = null;
             try {
                 SyncResult result = new SyncResult();
                 if (!isValidUUID(userId) || dbConnection == null) {
                     // Skip DB sync when userId is not a UUID (e.g., tests) or DB not configured
                     return result;
                 }
+                if (!transport.isAvailable()) {
+                    // Backend known to be down: fail fast instead of blocking on TCP timeouts
+                    result.success = false;
+                    result.errorMessage = "Database unreachable; sync skipped";
+                    return result;
+                }
+                trace = SyncTrace.begin(SyncPhase.DATABASE, SyncTraceLog.forUser(userId));
                 
-                // 1. Get pending commands from command queue
-                List<Command> pendingCommands = taskHandler.getCommandQueue().getPendingCommands();
+                // 1. Get pending commands from command queue (compacted before upload)
+                pendingCommands = taskHandler.getCommandQueue().getCommandsForSync();
                 if (!pendingCommands.isEmpty()) {
                     result.commandsSynced = syncCommandsToDatabase(pendingCommands);
                 }
                 
-                // 2. Fetch incremental changes from server
                 // IMPORTANT: For first sync we must pass NULL to the DB function to retrieve ALL tasks.
                 // Using EPOCH may not be treated as full fetch by the function.
                 LocalDateTime lastSync = taskHandler.getLastSync();
-                result.tasksReceived = fetchIncrementalChanges(lastSync); // null => full fetch
-                
-                // 3. Handle notifications efficiently
-                result.notificationsProcessed = processNotifications();
-                
-                // 4. Update folder cache if needed
-                updateFolderCacheIfNeeded();
+                if (!bootstrapped) {
+                    // 2-4. First sync after login: fetch tasks, notifications and folders concurrently
+                    performBootstrapFetches(result, lastSync);
+                    bootstrapped = true;
+                } else {
+                    // 2. Fetch incremental changes from server
+                    result.tasksReceived = withDatabase("fetchIncrementalChanges", true,
+                        () -> fetchIncrementalChanges(lastSync)); // null => full fetch
+
+                    // 3. Handle notifications efficiently
+                    result.notificationsProcessed = withDatabase("processNotifications", true, this::processNotifications);
+
+                    // 4. Update folder cache if needed
+                    updateFolderCacheIfNeeded();
+                }
                 
                 // Fallback bootstrap: if no tasks were retrieved and local storage is empty, fetch all visible tasks
                 try {
                     List<model.Task> localNow = taskHandler.getAllTasks();
                     if (result.tasksReceived == 0 && (localNow == null || localNow.isEmpty())) {
-                        int fetched = fetchAllTasksForUser();
+                        int fetched = withDatabase("fetchAllTasksForUser", true, this::fetchAllTasksForUser);
                         result.tasksReceived += fetched;
                     }
                 } catch (Exception e) {
@@ -92,13 +129,37 @@ public class OptimizedSyncService {
 
                 // 5. Mark sync complete
                 taskHandler.setLastSync(LocalDateTime.now());
-                
+
+                metrics.timer(METRICS_PREFIX + "round").recordSince(start);
+                metrics.counter(METRICS_PREFIX + "commands_synced").add(result.commandsSynced);
+                metrics.counter(METRICS_PREFIX + "tasks_received").add(result.tasksReceived);
+                metrics.counter(METRICS_PREFIX + "notifications_processed").add(result.notificationsProcessed);
+                trace.record(result.commandsSynced, result.tasksReceived + result.notificationsProcessed);
                 return result;
                 
+            } catch (ServiceUnavailableException e) {
+                System.err.println("DB sync skipped: " + e.getMessage());
+                metrics.counter(METRICS_PREFIX + "skipped").increment();
+                if (trace != null) trace.fail(e);
+                SyncResult offline = new SyncResult();
+                offline.success = false;
+                offline.errorMessage = e.getMessage();
+                return offline;
             } catch (SQLException e) {
                 System.err.println("DB sync error: " + e.getMessage());
+                metrics.counter(METRICS_PREFIX + "failures").increment();
+                if (trace != null) trace.fail(e);
                 throw new RuntimeException("Database sync failed", e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                if (trace != null) trace.fail(e);
+                throw new RuntimeException("Database sync interrupted", e);
+            } catch (RuntimeException e) {
+                if (trace != null) trace.fail(e);
+                throw e;
             } finally {
+                if (trace != null) trace.close();
+                taskHandler.getCommandQueue().releaseInFlight(pendingCommands);
                 syncRunning.set(false);
                 if (rerunRequested.getAndSet(false)) {
                     performOptimizedSync();
@@ -107,6 +168,107 @@ public class OptimizedSyncService {
         });
     }
 
+    /**
+     * Whether the first (concurrent) sync of this session has completed.
+     */
+    public boolean hasBootstrapped() {
+        return bootstrapped;
+    }
+
+    /**
+     * Per-phase timing of the first sync, or null before it has run.
+     */
+    public BootstrapCoordinator.Report getLastBootstrapReport() {
+        return lastBootstrapReport;
+    }
+
+    /**
+     * The three read phases are independent, so they run concurrently, each on its own connection
+     * (a JDBC connection must not be shared between threads). Nothing touches the task store until
+     * all of them have returned; the results are then applied in one pass.
+     */
+    private void performBootstrapFetches(SyncResult result, LocalDateTime lastSync) throws SQLException, InterruptedException {
+        BootstrapCoordinator coordinator = new BootstrapCoordinator(3);
+        BootstrapCoordinator.Fetch<List<Folder>> folders = coordinator.submit("folders",
+            SyncPhase.inheriting(() -> withOwnConnection("get_accessible_folders", this::fetchFoldersFromDatabase)));
+        BootstrapCoordinator.Fetch<JsonNode> tasks = coordinator.submit("tasks",
+            SyncPhase.inheriting(() -> withOwnConnection("retrieve_tasks_modified_since", conn -> queryTaskLog(conn, lastSync))));
+        BootstrapCoordinator.Fetch<List<PendingNotification>> notifications = coordinator.submit("notifications",
+            SyncPhase.inheriting(() -> withOwnConnection("get_pending_notifications", conn -> fetchPendingNotifications(conn, lastSync))));
+        lastBootstrapReport = coordinator.awaitAll();
+
+        // Folders are best effort, as in updateFolderCacheIfNeeded()
+        try {
+            List<Folder> folderList = folders.get();
+            if (folderList != null && !folderList.isEmpty()) {
+                taskHandler.setFoldersList(folderList);
+            }
+        } catch (Exception e) {
+            System.err.println("Failed to update folder cache: " + e.getMessage());
+        }
+
+        JsonNode taskLog = fetchResult(tasks);
+        JsonNode data = taskLog != null ? taskLog.get("data") : null;
+        result.tasksReceived = (data != null && data.isArray()) ? data.size() : 0;
+        if (result.tasksReceived > 0) applyIncrementalChanges(taskLog);
+
+        List<PendingNotification> pending = fetchResult(notifications);
+        List<UUID> processed = new ArrayList<>();
+        for (PendingNotification n : pending) {
+            handleNotification(n.eventType(), n.entityId(), n.entityType(), n.eventData());
+            processed.add(n.id());
+        }
+        if (!processed.isEmpty()) {
+            withDatabase("mark_notifications_delivered", true, () -> {
+                markNotificationsDelivered(processed);
+                return null;
+            });
+        }
+        result.notificationsProcessed = processed.size();
+    }
+
+    private static <T> T fetchResult(BootstrapCoordinator.Fetch<T> fetch) throws SQLException, InterruptedException {
+        try {
+            return fetch.get();
+        } catch (SQLException | InterruptedException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new SQLException(fetch.getName() + " fetch failed", e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface ConnectionCall<T> {
+        T execute(Connection conn) throws SQLException;
+    }
+
+    /**
+     * Run an idempotent read through the transport on a short-lived connection of its own.
+     */
+    private <T> T withOwnConnection(String operation, ConnectionCall<T> call) throws SQLException, InterruptedException {
+        return withOwnConnection(operation, true, call);
+    }
+
+    /**
+     * Run a call through the transport on a pooled connection of its own, so it can run
+     * concurrently with a full sync and with other such calls.
+     */
+    private <T> T withOwnConnection(String operation, boolean idempotent, ConnectionCall<T> call)
+            throws SQLException, InterruptedException {
+        try (SyncPhase phase = SyncPhase.start(SyncPhase.DATABASE, operation)) {
+            try {
+                return transport.execute(operation, idempotent, () -> {
+                    try (Connection conn = connectionFactory.execute()) {
+                        return call.execute(conn);
+                    }
+                });
+            } catch (SQLException | InterruptedException | RuntimeException e) {
+                phase.fail(e);
+                throw e;
+            }
+        }
+    }
+
     private int fetchAllTasksForUser() throws SQLException {
         // Full fetch: pass NULL timestamp so the DB returns all accessible tasks for the user
         String sql = "SELECT * FROM todo.retrieve_tasks_modified_since_in_jsonb(?::uuid, ?::timestamptz)";
@@ -120,7 +282,8 @@ public class OptimizedSyncService {
                         JsonNode data = node.get("data");
                         int count = (data != null && data.isArray()) ? data.size() : 0;
                         if (count > 0) applyIncrementalChanges(node);
-                        System.out.println("Bootstrap fetched tasks (via function, NULL ts): " + count);
+                        LOG.debug(() -> "Bootstrap fetched tasks (via function, NULL ts): " + count);
+                        SyncPhase.addRows(count);
                         return count;
                     }
                 }
@@ -131,6 +294,33 @@ public class OptimizedSyncService {
         return 0;
     }
 
+    /**
+     * Run a database call through the resilient transport, reopening the connection first
+     * if a previous failure closed it.
+     */
+    private <T> T withDatabase(String operation, boolean idempotent,
+                               ResilientTransport.Call<T, SQLException> call) throws SQLException, InterruptedException {
+        // Timed with retries and back-off included; the transport times each attempt on its own
+        try (SyncPhase phase = SyncPhase.start(SyncPhase.DATABASE, operation)) {
+            try {
+                return transport.execute(operation, idempotent, () -> {
+                    reconnectIfClosed();
+                    return call.execute();
+                });
+            } catch (SQLException | InterruptedException | RuntimeException e) {
+                phase.fail(e);
+                throw e;
+            }
+        }
+    }
+
+    private synchronized void reconnectIfClosed() throws SQLException {
+        if (dbConnection != null && dbConnection.isClosed()) {
+            System.out.println("OptimizedSyncService: Connection closed, reconnecting...");
+            dbConnection = DBH.NeonPool.getConnection();
+        }
+    }
+
     private static boolean isValidUUID(String s) {
         if (s == null) return false;
         try { java.util.UUID.fromString(s); return true; } catch (IllegalArgumentException ex) { return false; }
@@ -139,19 +329,45 @@ public class OptimizedSyncService {
     /**
      * Sync commands to database using todo.merge_task_commands()
      */
-    private int syncCommandsToDatabase(List<Command> commands) throws SQLException {
+    private int syncCommandsToDatabase(List<Command> commands) throws SQLException, InterruptedException {
         if (commands.isEmpty()) return 0;        
         List<List<Command>> batches = createBatches(commands, BATCH_SIZE);
         int totalSynced = 0;
         
         for (List<Command> batch : batches) {
             JsonNode commandsBatch = buildCommandsBatch(batch);
-            JsonNode result = callMergeTaskCommands(commandsBatch);
-            totalSynced += processSyncResult(result, batch);
+            // Not retried: a merge whose response was lost may already have been applied
+            JsonNode result = withDatabase("merge_task_commands", false,
+                () -> callMergeTaskCommands(dbConnection, commandsBatch));
+            totalSynced += processSyncResult(result, batch, true).size();
         }
         return totalSynced;
     }
 
+    /**
+     * Upload one batch of commands outside a full sync (used by the command outbox).
+     * Incremental changes, notifications and folders are not fetched.
+     *
+     * @return ids of the commands the server acknowledged
+     * @throws ServiceUnavailableException if the database is known to be unreachable
+     */
+    public Set<String> uploadCommands(List<Command> batch) throws SQLException, InterruptedException {
+        if (batch == null || batch.isEmpty()) return Collections.emptySet();
+        if (!isValidUUID(userId) || dbConnection == null) {
+            throw new IllegalStateException("Database sync is not configured for user " + userId);
+        }
+        if (!transport.isAvailable()) {
+            throw new ServiceUnavailableException("Database unreachable; upload skipped");
+        }
+        JsonNode commandsBatch = buildCommandsBatch(batch);
+        // Several uploads may be in flight at once, next to a full sync: never share dbConnection
+        JsonNode result = withOwnConnection("merge_task_commands", false,
+            conn -> callMergeTaskCommands(conn, commandsBatch));
+        // No echo fetch: it would scan the task log since lastSync for every upload, and the
+        // uploaded rows already arrive through realtime or the next sync
+        return processSyncResult(result, batch, false);
+    }
+
     /** Build the JSON batch payload expected by todo.merge_task_commands */
     private JsonNode buildCommandsBatch(List<Command> commands) {
         // Convert each queued Command into a transport SyncCommand
@@ -175,15 +391,20 @@ public class OptimizedSyncService {
     /** 
      * Call todo.merge_task_commands(user_id uuid, payload jsonb) and parse JSON result 
      */
-    private JsonNode callMergeTaskCommands(JsonNode commandsBatch) throws SQLException {
+    private JsonNode callMergeTaskCommands(Connection conn, JsonNode commandsBatch) throws SQLException {
         final String sql = "SELECT todo.merge_task_commands(?::uuid, ?::jsonb)";
-        try (PreparedStatement stmt = dbConnection.prepareStatement(sql)) {
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            String payload = commandsBatch.toString();
+            JsonNode commands = commandsBatch.get("commands");
+            SyncPhase.addCommands(commands != null ? commands.size() : 0);
+            SyncPhase.addBytes(payload.length());
             stmt.setObject(1, UUID.fromString(userId));
-            stmt.setString(2, commandsBatch.toString());
+            stmt.setString(2, payload);
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
                     String resultJson = rs.getString(1);
                     if (resultJson != null && !resultJson.isEmpty()) {
+                        SyncPhase.addBytes(resultJson.length());
                         return objectMapper.readTree(resultJson);
                     }
                 }
@@ -196,19 +417,18 @@ public class OptimizedSyncService {
     
     /**
      * Process sync result from database
+     * @param echoFetch whether to re-read created/updated tasks over the shared connection
+     * @return ids of the commands the server applied
      */
-    private int processSyncResult(JsonNode result, List<Command> originalCommands) {
-        int processed = 0;
+    private Set<String> processSyncResult(JsonNode result, List<Command> originalCommands, boolean echoFetch) {
+        Set<String> successfulCommandIds = new HashSet<>();
         JsonNode success = result.get("success");
         if (success != null && success.isArray()) {
-            Set<String> successfulCommandIds = new HashSet<>();
             for (JsonNode successItem : success) {
                 String commandId = successItem.get("commandId").asText();
                 successfulCommandIds.add(commandId);
             }
             taskHandler.getCommandQueue().removeCommands(successfulCommandIds);
-            
-            processed = successfulCommandIds.size();
 
             // Echo fetch: ensure local store reflects server truth for created/updated tasks
             try {
@@ -218,7 +438,7 @@ public class OptimizedSyncService {
                     switch (c.getType()) {
                         case CREATE_TASK:
                         case UPDATE_TASK:
-                            if (c.getEntityId() != null) idsToFetch.add(c.getEntityId());
+                            if (echoFetch && c.getEntityId() != null) idsToFetch.add(c.getEntityId());
                             break;
                         case DELETE_TASK:
                             // Proactively remove locally to reflect deletion
@@ -231,11 +451,13 @@ public class OptimizedSyncService {
                     }
                 }
                 if (!idsToFetch.isEmpty()) {
-                    int fetched = fetchTasksByIds(idsToFetch);
+                    int fetched = withDatabase("echoFetch", true, () -> fetchTasksByIds(idsToFetch));
                     if (fetched > 0) {
-                        System.out.println("Post-merge echo fetched tasks: " + fetched);
+                        LOG.debug(() -> "Post-merge echo fetched tasks: " + fetched);
                     }
                 }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
             } catch (Exception e) {
                 System.err.println("Post-merge echo fetch failed: " + e.getMessage());
             }
@@ -251,7 +473,7 @@ public class OptimizedSyncService {
             applyServerChanges(serverChanges);
         }
         
-        return processed;
+        return successfulCommandIds;
     }
 
     /**
@@ -309,6 +531,7 @@ public class OptimizedSyncService {
                 throw new SQLException("Failed to parse function result for echo fetch", ex);
             }
         }
+        SyncPhase.addRows(count);
         return count;
     }
     
@@ -317,9 +540,21 @@ public class OptimizedSyncService {
      */
     private int fetchIncrementalChanges(LocalDateTime lastSyncNullable) throws SQLException {
         if (!isValidUUID(userId) || dbConnection == null) return 0;
+        JsonNode node = queryTaskLog(dbConnection, lastSyncNullable);
+        if (node == null) return 0;
+        JsonNode data = node.get("data");
+        int count = (data != null && data.isArray()) ? data.size() : 0;
+        if (count > 0) applyIncrementalChanges(node);
+        return count;
+    }
+
+    /**
+     * Call todo.retrieve_tasks_modified_since_in_jsonb() and return its parsed row, without applying it.
+     */
+    private JsonNode queryTaskLog(Connection conn, LocalDateTime lastSyncNullable) throws SQLException {
         String sql = "SELECT * FROM todo.retrieve_tasks_modified_since_in_jsonb(?::uuid, ?::timestamptz)";
 
-        try (PreparedStatement stmt = dbConnection.prepareStatement(sql)) {
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setObject(1, UUID.fromString(userId));
             if (lastSyncNullable != null) stmt.setTimestamp(2, Timestamp.valueOf(lastSyncNullable));
             else stmt.setNull(2, java.sql.Types.TIMESTAMP);
@@ -327,18 +562,16 @@ public class OptimizedSyncService {
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
                     JsonNode node = LogTasksUtil.parseFunctionRow(rs, objectMapper);
-                    if (node == null) return 0;
-                    JsonNode data = node.get("data");
-                    int count = (data != null && data.isArray()) ? data.size() : 0;
-                    if (count > 0) applyIncrementalChanges(node);
-                    return count;
+                    JsonNode data = node != null ? node.get("data") : null;
+                    if (data != null && data.isArray()) SyncPhase.addRows(data.size());
+                    return node;
                 }
             }
         } catch (Exception e) {
             throw new SQLException("Failed to fetch incremental changes", e);
         }
 
-        return 0;
+        return null;
     }
 
     // Parse one row from the function which may return either:
@@ -351,32 +584,42 @@ public class OptimizedSyncService {
      */
     private int processNotifications() throws SQLException {
         if (!isValidUUID(userId) || dbConnection == null) return 0;
-        String sql = "SELECT * FROM todo.get_pending_notifications(?::uuid, ?::timestamptz)";
         List<UUID> processedNotifications = new ArrayList<>();
+        for (PendingNotification n : fetchPendingNotifications(dbConnection, taskHandler.getLastSync())) {
+            handleNotification(n.eventType(), n.entityId(), n.entityType(), n.eventData());
+            processedNotifications.add(n.id());
+        }
         
-        try (PreparedStatement stmt = dbConnection.prepareStatement(sql)) {
+        if (!processedNotifications.isEmpty()) {
+            markNotificationsDelivered(processedNotifications);
+        }
+        
+        return processedNotifications.size();
+    }
+
+    private record PendingNotification(UUID id, String eventType, UUID entityId, String entityType, String eventData) {}
+
+    private List<PendingNotification> fetchPendingNotifications(Connection conn, LocalDateTime since) throws SQLException {
+        String sql = "SELECT * FROM todo.get_pending_notifications(?::uuid, ?::timestamptz)";
+        List<PendingNotification> notifications = new ArrayList<>();
+        
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setObject(1, UUID.fromString(userId));
-            stmt.setTimestamp(2, taskHandler.getLastSync() != null ? 
-                Timestamp.valueOf(taskHandler.getLastSync()) : null);
+            stmt.setTimestamp(2, since != null ? Timestamp.valueOf(since) : null);
             
             try (ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
-                    UUID notificationId = (UUID) rs.getObject("notification_id");
-                    String eventType = rs.getString("event_type");
-                    UUID entityId = (UUID) rs.getObject("entity_id");
-                    String entityType = rs.getString("entity_type");
-                    String eventData = rs.getString("event_data");
-                    handleNotification(eventType, entityId, entityType, eventData);
-                    processedNotifications.add(notificationId);
+                    notifications.add(new PendingNotification(
+                        (UUID) rs.getObject("notification_id"),
+                        rs.getString("event_type"),
+                        (UUID) rs.getObject("entity_id"),
+                        rs.getString("entity_type"),
+                        rs.getString("event_data")));
                 }
             }
         }
-        
-        if (!processedNotifications.isEmpty()) {
-            markNotificationsDelivered(processedNotifications);
-        }
-        
-        return processedNotifications.size();
+        SyncPhase.addRows(notifications.size());
+        return notifications;
     }
     
     /**
@@ -399,13 +642,21 @@ public class OptimizedSyncService {
         if (!isValidUUID(userId) || dbConnection == null) return;
         // Note: Current FolderCacheService implementation handles cache validity internally
         // This method would be enhanced when FolderCacheService API is expanded
+        FolderCacheRefreshEvent event = new FolderCacheRefreshEvent();
+        event.begin();
         try {
-            List<Folder> folders = fetchFoldersFromDatabase();
+            List<Folder> folders = withDatabase("get_accessible_folders", true, this::fetchFoldersFromDatabase);
             if (folders != null && !folders.isEmpty()) {
                 taskHandler.setFoldersList(folders);
+                event.folders = folders.size();
             }
-        } catch (SQLException e) {
+        } catch (SQLException | ServiceUnavailableException e) {
             System.err.println("Failed to update folder cache: " + e.getMessage());
+            event.error = e.getMessage();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            event.commit();
         }
     }
     
@@ -414,7 +665,7 @@ public class OptimizedSyncService {
     private void processConflicts(JsonNode conflicts) {
         // Handle field-level conflicts with server resolution
         for (JsonNode conflict : conflicts) {
-            System.out.println("Conflict detected: " + conflict.toString());
+            LOG.debug(() -> "Conflict detected: " + conflict.toString());
             //TODO: Implement conflict resolution strategy
         }
     }
@@ -442,7 +693,7 @@ public class OptimizedSyncService {
                 model.Task existing = taskHandler.getTaskById(id);
                 model.Task task = TaskAssembler.mergeFromPayload(existing, payload, taskHandler.getLastSync());
                 taskHandler.addOrReplaceTask(task);
-                System.out.println("Applying server change for task: \"" + id + "\"");
+                LOG.debug(() -> "Applying server change for task: \"" + id + "\"");
             } catch (Exception ex) {
                 System.err.println("Server change apply error: " + ex.getMessage());
             }
@@ -454,7 +705,7 @@ public class OptimizedSyncService {
         JsonNode data = logTasks.get("data");
         if (data == null || !data.isArray()) return;
 
-        System.out.println("Applying " + data.size() + " incremental changes");
+        LOG.debug(() -> "Applying " + data.size() + " incremental changes");
         for (JsonNode rawRow : data) {
             try {
                 JsonNode row = LogTasksUtil.normalizeRow(logTasks, rawRow, objectMapper);
@@ -486,16 +737,20 @@ public class OptimizedSyncService {
                 // Refresh local data for the entity
                 break;
             default:
-                System.out.println("Unknown notification type: " + eventType);
+                LOG.debug(() -> "Unknown notification type: " + eventType);
         }
     }
     
     private List<Folder> fetchFoldersFromDatabase() throws SQLException {
+        return fetchFoldersFromDatabase(dbConnection);
+    }
+
+    private List<Folder> fetchFoldersFromDatabase(Connection conn) throws SQLException {
         // Fetch folders from database via function to respect sharing/access rules
         List<Folder> folders = new ArrayList<>();
         String sql = "SELECT * FROM todo.get_accessible_folders(?::uuid)";
 
-        try (PreparedStatement stmt = dbConnection.prepareStatement(sql)) {
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setObject(1, UUID.fromString(userId));
 
             try (ResultSet rs = stmt.executeQuery()) {
@@ -519,6 +774,7 @@ public class OptimizedSyncService {
             }
         }
 
+        SyncPhase.addRows(folders.size());
         return folders;
     }
 
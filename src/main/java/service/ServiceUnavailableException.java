@@ -0,0 +1,15 @@
+package service;
+
+/**
+ * Thrown when a backend call is short-circuited because the circuit breaker
+ * for that backend is open (the API or database was recently unreachable).
+ */
+public class ServiceUnavailableException extends APIServiceException {
+    public ServiceUnavailableException(String message) {
+        super(message);
+    }
+
+    public ServiceUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,125 @@
+package service;
+
+import COMMON.Metrics;
+import COMMON.jfr.SyncPhaseEvent;
+
+/**
+ * One phase of a sync round, timed into the {@code sync.<service>.phase.<name>} metric and
+ * emitted as a {@link SyncPhaseEvent} for Flight Recorder.
+ *
+ * The phase is the current one of its thread until closed, so code deep inside it (the HTTP
+ * client, a JDBC call) can attribute commands, rows and bytes without them being passed around.
+ * Use it in a try-with-resources block.
+ *
+ * While a {@link SyncTrace} is active the phase is also a span of it, nested under the enclosing
+ * phase.
+ */
+final class SyncPhase implements AutoCloseable {
+    static final String DATABASE = "db";
+    static final String API = "api";
+
+    private static final ThreadLocal<SyncPhase> CURRENT = new ThreadLocal<>();
+
+    private final String service;
+    private final String name;
+    private final SyncPhase parent;
+    private final long startNanos = System.nanoTime();
+    private final SyncPhaseEvent event = new SyncPhaseEvent();
+    private final SyncTrace.Span span;
+    private int commands;
+    private int rows;
+    private long bytes;
+    private String error;
+
+    private SyncPhase(String service, String name, SyncPhase parent) {
+        this.service = service;
+        this.name = name;
+        this.parent = parent;
+        this.span = openSpan(service + "." + name, parent);
+    }
+
+    private static SyncTrace.Span openSpan(String spanName, SyncPhase parent) {
+        if (parent != null && parent.span != null) return parent.span.child(spanName);
+        SyncTrace trace = SyncTrace.active();
+        return trace != null ? trace.root().child(spanName) : null;
+    }
+
+    static SyncPhase start(String service, String name) {
+        SyncPhase phase = new SyncPhase(service, name, CURRENT.get());
+        CURRENT.set(phase);
+        phase.event.begin();
+        return phase;
+    }
+
+    /** The innermost open phase of this thread, or null outside a sync. */
+    static SyncPhase current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Wrap a bootstrap fetch so it runs inside the phase and trace that are current here, on
+     * whichever thread the coordinator gives it.
+     */
+    static <T> BootstrapCoordinator.Phase<T> inheriting(BootstrapCoordinator.Phase<T> fetch) {
+        SyncPhase phase = CURRENT.get();
+        SyncTrace trace = SyncTrace.active();
+        return () -> {
+            SyncPhase previousPhase = CURRENT.get();
+            SyncTrace previousTrace = SyncTrace.swapActive(trace);
+            if (phase != null) CURRENT.set(phase); else CURRENT.remove();
+            try {
+                return fetch.fetch();
+            } finally {
+                if (previousPhase != null) CURRENT.set(previousPhase); else CURRENT.remove();
+                SyncTrace.swapActive(previousTrace);
+            }
+        };
+    }
+
+    static void addCommands(int count) {
+        SyncPhase phase = CURRENT.get();
+        if (phase != null) phase.commands += count;
+    }
+
+    static void addRows(int count) {
+        SyncPhase phase = CURRENT.get();
+        if (phase != null) phase.rows += count;
+    }
+
+    static void addBytes(long count) {
+        SyncPhase phase = CURRENT.get();
+        if (phase != null) phase.bytes += count;
+    }
+
+    /**
+     * Mark the phase failed; the first failure is the one reported.
+     */
+    void fail(Throwable cause) {
+        if (error == null) error = cause.getClass().getSimpleName() + ": " + cause.getMessage();
+    }
+
+    SyncTrace.Span getSpan() {
+        return span;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    @Override
+    public void close() {
+        if (parent != null) CURRENT.set(parent); else CURRENT.remove();
+        if (span != null) span.finish(commands, rows, bytes, error);
+        Metrics.shared().timer("sync." + service + ".phase." + name).recordSince(startNanos);
+        event.end();
+        if (event.shouldCommit()) {
+            event.service = service;
+            event.phase = name;
+            event.commands = commands;
+            event.rows = rows;
+            event.bytes = bytes;
+            event.error = error;
+            event.commit();
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package service;
 
+import COMMON.Log;
+import COMMON.Metrics;
 import model.Task;
 import model.Folder;
 import model.TaskHandlerV2;
@@ -25,6 +27,10 @@ import java.util.concurrent.CompletableFuture;
 public class SyncService {
     private TaskHandlerV2 taskHandlerV2; // New command-based handler
     private String userUUID;
+    // Commands handed to the current sync; released in startSyncProcess once it finishes
+    private volatile List<Command> inFlightCommands = new ArrayList<>();
+    private static final String METRICS_PREFIX = "sync.api.";
+    private static final Log LOG = Log.get(SyncService.class);
     public SyncService(TaskHandlerV2 taskHandlerV2) {
         this.taskHandlerV2 = taskHandlerV2;
     }
@@ -44,13 +50,22 @@ public class SyncService {
         return CompletableFuture.supplyAsync(() -> {
             if (userUUID == null)
                 throw new IllegalStateException("User UUID is not set. Cannot start sync process.");
+            long start = System.nanoTime();
+            SyncTrace trace = SyncTrace.begin(SyncPhase.API, SyncTraceLog.forUser(userUUID));
             try {
                 syncWithAPI();
+                Metrics.shared().timer(METRICS_PREFIX + "round").recordSince(start);
                 return true;
             } catch (Exception e) {
+                trace.fail(e);
+                Metrics.shared().counter(METRICS_PREFIX + "failures").increment();
                 System.err.println("Error during API sync process: " + e.getMessage());
                 e.printStackTrace();
                 return false;
+            } finally {
+                trace.close();
+                if (taskHandlerV2 != null) taskHandlerV2.getCommandQueue().releaseInFlight(inFlightCommands);
+                inFlightCommands = new ArrayList<>();
             }
         });
     }
@@ -63,9 +78,18 @@ public class SyncService {
     java.time.LocalDateTime lastSync = taskHandlerV2.getLastSync();
 
     // Build command batch from the command queue
-    List<SyncCommand> commands = buildSyncCommands();
+    List<SyncCommand> commands;
+    try (SyncPhase phase = SyncPhase.start(SyncPhase.API, "build_commands")) {
+        try {
+            commands = buildSyncCommands();
+        } catch (RuntimeException e) {
+            phase.fail(e);
+            throw e;
+        }
+        SyncPhase.addCommands(commands.size());
+    }
         
-        System.out.println("SyncService: Built " + commands.size() + " commands for sync");
+        LOG.info("Built " + commands.size() + " commands for sync");
 
     // Convert local lastSync (LocalDateTime) to OffsetDateTime for transport if present
     java.time.OffsetDateTime lastSyncOffset = lastSync != null ? lastSync.atOffset(java.time.ZoneOffset.systemDefault().getRules().getOffset(java.time.Instant.now())) : null;
@@ -88,46 +112,44 @@ public class SyncService {
             batch.setIncludeFolders(true);
         }
 
-        // Debug: Log the request being sent
-        System.out.println("SyncService: Sending optimized batch to API:");
-        System.out.println("  - User UUID: " + userUUID);
-        System.out.println("  - Client Timestamp: " + syncStartTime);
-        System.out.println("  - Last Sync: " + lastSync);
-        System.out.println("  - Command Count: " + commands.size());
-        System.out.println("  - Folder Version: " + batch.getFolderVersion());
-        System.out.println("  - Include Folders: " + batch.isIncludeFolders());
-        
-        if (!commands.isEmpty()) {
-            System.out.println("  - Commands: ");
+        LOG.debug(() -> "Sending batch to API: lastSync=" + lastSync + ", commands=" + commands.size()
+            + ", folderVersion=" + batch.getFolderVersion() + ", includeFolders=" + batch.isIncludeFolders());
+        if (LOG.isDebugEnabled()) {
             for (SyncCommand cmd : commands) {
-                System.out.println("    * Type: " + cmd.getType() + ", EntityId: " + cmd.getEntityId() + ", CommandId: " + cmd.getCommandId());
+                LOG.debug("  * Type: " + cmd.getType() + ", EntityId: " + cmd.getEntityId() + ", CommandId: " + cmd.getCommandId());
             }
         }
 
         // Send to API
         try {
-            // Debug: print detailed changedFields contents for UPDATE_TASK commands
-            if (!commands.isEmpty()) {
+            if (Log.isPayloadLoggingEnabled()) {
                 for (SyncCommand scmd : commands) {
                     if ("UPDATE_TASK".equals(scmd.getType())) {
-                        Object data = scmd.getData();
-                        Object changedFields = scmd.getChangedFields();
-                        System.out.println("SyncService: UPDATE_TASK payload for entity " + scmd.getEntityId() + ": data=" + data + ", changedFields=" + changedFields);
+                        LOG.payload(() -> "UPDATE_TASK payload for entity " + scmd.getEntityId() + ": data=" + scmd.getData()
+                            + ", changedFields=" + scmd.getChangedFields());
                     }
                 }
             }
-            SyncResponse response = APIService.syncCommands(batch);
+            SyncResponse response;
+            try (SyncPhase phase = SyncPhase.start(SyncPhase.API, "sync_commands")) {
+                try {
+                    response = APIService.syncCommands(batch);
+                } catch (IOException | InterruptedException | RuntimeException e) {
+                    phase.fail(e);
+                    throw e;
+                }
+            }
+            Metrics.shared().counter(METRICS_PREFIX + "commands_sent").add(commands.size());
             
-            // Debug: Print full response structure
-            System.out.println("SyncService: Received response - Success commands: " + 
+            LOG.info(() -> "Received response - Success commands: " + 
                 (response.getProcessedCommands() != null ? response.getProcessedCommands().size() : 0) +
                 ", Failed commands: " + (response.getFailedCommands() != null ? response.getFailedCommands().size() : 0) +
                 ", Server changes: " + (response.getServerChanges() != null ? response.getServerChanges().size() : 0) +
                 ", Conflicts: " + (response.getConflicts() != null ? response.getConflicts().size() : 0));
 
-            // Debug: Log server changes in detail (supports nested 'data' payload)
-            if (response.getServerChanges() != null && !response.getServerChanges().isEmpty()) {
-                System.out.println("SyncService: Server changes received:");
+            // Server changes in detail (supports nested 'data' payload)
+            if (LOG.isDebugEnabled() && response.getServerChanges() != null && !response.getServerChanges().isEmpty()) {
+                LOG.debug("Server changes received:");
                 for (int i = 0; i < response.getServerChanges().size(); i++) {
                     Map<String, Object> change = response.getServerChanges().get(i);
                     String id = change.get("task_id") != null ? String.valueOf(change.get("task_id")) : String.valueOf(change.get("entityId"));
@@ -143,30 +165,26 @@ public class SyncService {
                         title = change.get("task_title") != null ? String.valueOf(change.get("task_title")) : null;
                         status = change.get("status") != null ? String.valueOf(change.get("status")) : null;
                     }
-                    System.out.println("  [" + i + "] Task ID: " + id + 
+                    LOG.debug("  [" + i + "] Task ID: " + id + 
                         ", Title: " + title + 
                         ", Status: " + status);
                 }
-            } else {
-                System.out.println("SyncService: No server changes received from API");
             }
 
-            // Debug: Log processed commands
-            if (response.getProcessedCommands() != null && !response.getProcessedCommands().isEmpty()) {
-                System.out.println("SyncService: Processed commands:");
+            if (LOG.isDebugEnabled() && response.getProcessedCommands() != null && !response.getProcessedCommands().isEmpty()) {
+                LOG.debug("Processed commands:");
                 for (SyncResponse.CommandResult result : response.getProcessedCommands()) {
-                    System.out.println("  - Type: " + result.getCommandType() + 
+                    LOG.debug("  - Type: " + result.getCommandType() + 
                         ", Client ID: " + result.getClientId() + 
                         ", Server ID: " + result.getServerId() + 
                         ", Success: " + result.isSuccess());
                 }
             }
 
-            // Debug: Log failed commands
             if (response.getFailedCommands() != null && !response.getFailedCommands().isEmpty()) {
-                System.out.println("SyncService: Failed commands:");
+                LOG.warn("Failed commands:");
                 for (SyncResponse.CommandResult result : response.getFailedCommands()) {
-                    System.out.println("  - Type: " + result.getCommandType() + 
+                    LOG.warn("  - Type: " + result.getCommandType() + 
                         ", Client ID: " + result.getClientId() + 
                         ", Error: " + result.getErrorMessage());
                 }
@@ -194,11 +212,12 @@ public class SyncService {
             throw new IllegalStateException("SyncService requires a TaskHandlerV2 instance");
         }
         {
-            System.out.println("SyncService: Building commands from CommandQueue");
+            LOG.debug("Building commands from CommandQueue");
             CommandQueue commandQueue = taskHandlerV2.getCommandQueue();
-            List<Command> pendingCommands = commandQueue.getPendingCommands();
+            List<Command> pendingCommands = commandQueue.getCommandsForSync();
+            inFlightCommands = pendingCommands;
             
-            System.out.println("SyncService: Found " + pendingCommands.size() + " pending commands");
+            LOG.debug(() -> "Found " + pendingCommands.size() + " pending commands");
             
             for (Command command : pendingCommands) {
                 SyncCommand syncCommand = CommandConverter.toSyncCommand(command);
@@ -223,12 +242,13 @@ public class SyncService {
     // Post-sync: pull notifications and ack them
     private void fetchAndProcessNotifications() throws IOException, InterruptedException {
         List<Map<String, Object>> notifications = APIService.fetchPendingNotifications();
+        if (notifications != null) SyncPhase.addRows(notifications.size());
         if (notifications == null || notifications.isEmpty()) {
-            System.out.println("SyncService: No pending notifications");
+            LOG.debug("No pending notifications");
             return;
         }
 
-        System.out.println("SyncService: Processing " + notifications.size() + " notifications");
+        LOG.debug(() -> "Processing " + notifications.size() + " notifications");
         List<String> deliveredIds = new ArrayList<>();
 
         for (Map<String, Object> n : notifications) {
@@ -240,7 +260,7 @@ public class SyncService {
             @SuppressWarnings("unchecked")
             Map<String, Object> eventData = n.get("event_data") instanceof Map ? (Map<String, Object>) n.get("event_data") : null;
 
-            System.out.println("SyncService: Notification - id=" + notifId + ", type=" + eventType + ", entity=" + entityType + ":" + entityId);
+            LOG.debug(() -> "Notification - id=" + notifId + ", type=" + eventType + ", entity=" + entityType + ":" + entityId);
 
             if ("task".equalsIgnoreCase(entityType)) {
                 if ("task_deleted".equalsIgnoreCase(eventType)) {
@@ -268,7 +288,7 @@ public class SyncService {
 
         if (!deliveredIds.isEmpty()) {
             boolean ack = APIService.markNotificationsDelivered(deliveredIds);
-            System.out.println("SyncService: Notifications ack result: " + ack + " (count=" + deliveredIds.size() + ")");
+            LOG.debug(() -> "Notifications ack result: " + ack + " (count=" + deliveredIds.size() + ")");
         }
     }
 
@@ -280,10 +300,17 @@ public class SyncService {
         if (response == null) return;
 
         // Always apply server changes so local state is updated even when some commands failed
-        try {
-            new ResponseApplier(taskHandlerV2).apply(response);
-        } catch (Exception apEx) {
-            System.err.println("SyncService: Error applying server changes: " + apEx.getMessage());
+        try (SyncPhase phase = SyncPhase.start(SyncPhase.API, "apply_response")) {
+            if (response.getServerChanges() != null) SyncPhase.addRows(response.getServerChanges().size());
+            try {
+                new ResponseApplier(taskHandlerV2).apply(response);
+            } catch (Exception apEx) {
+                System.err.println("SyncService: Error applying server changes: " + apEx.getMessage());
+                phase.fail(apEx);
+            }
+        }
+        if (response.getFailedCommands() != null) {
+            Metrics.shared().counter(METRICS_PREFIX + "commands_failed").add(response.getFailedCommands().size());
         }
 
         // Remove acknowledged commands (both processed successes and explicit failures) to avoid retry storms
@@ -327,10 +354,13 @@ public class SyncService {
         }
 
         // After processing commands and server changes, pull notifications (if any)
-        try {
-            fetchAndProcessNotifications();
-        } catch (Exception notifEx) {
-            System.err.println("SyncService: Notification processing failed: " + notifEx.getMessage());
+        try (SyncPhase phase = SyncPhase.start(SyncPhase.API, "notifications")) {
+            try {
+                fetchAndProcessNotifications();
+            } catch (Exception notifEx) {
+                System.err.println("SyncService: Notification processing failed: " + notifEx.getMessage());
+                phase.fail(notifEx);
+            }
         }
 
         // Update last sync time - convert server timestamp (OffsetDateTime) to LocalDateTime
@@ -342,7 +372,7 @@ public class SyncService {
         if (response.getFailedCommands() != null && !response.getFailedCommands().isEmpty()) {
             System.err.println("SyncService: Sync completed with failures. See failed_commands.json for details.");
         } else {
-            System.out.println("SyncService: API V2 sync successful");
+            LOG.debug("API V2 sync successful");
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,158 @@
+package service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Span tree of one sync round: the round is the root and every {@link SyncPhase} opened while it
+ * is active becomes a span under the innermost open one, with its timing, counts and error.
+ *
+ * The trace is active on the thread that began it; {@link SyncPhase#inheriting} carries it to the
+ * bootstrap fetch threads. Closing the trace hands it to its {@link SyncTraceLog}.
+ */
+final class SyncTrace implements AutoCloseable {
+    private static final ThreadLocal<SyncTrace> ACTIVE = new ThreadLocal<>();
+
+    static final class Span {
+        private final String name;
+        private final long startNanos = System.nanoTime();
+        // Bootstrap fetches add children from several threads at once
+        private final List<Span> children = new CopyOnWriteArrayList<>();
+        private volatile long durationNanos = -1;
+        private int commands;
+        private int rows;
+        private long bytes;
+        private String error;
+
+        private Span(String name) {
+            this.name = name;
+        }
+
+        Span child(String childName) {
+            Span child = new Span(childName);
+            children.add(child);
+            return child;
+        }
+
+        void finish(int commands, int rows, long bytes, String error) {
+            this.commands = commands;
+            this.rows = rows;
+            this.bytes = bytes;
+            this.error = error;
+            durationNanos = System.nanoTime() - startNanos;
+        }
+
+        String getName() { return name; }
+        List<Span> getChildren() { return children; }
+        int getCommands() { return commands; }
+        int getRows() { return rows; }
+        long getBytes() { return bytes; }
+        String getError() { return error; }
+        boolean isFinished() { return durationNanos >= 0; }
+
+        Map<String, Object> toMap(long originNanos) {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("name", name);
+            map.put("start_ms", millis(startNanos - originNanos));
+            // A span still open when the round ended (e.g. an abandoned fetch) has no duration
+            if (durationNanos >= 0) map.put("duration_ms", millis(durationNanos));
+            if (commands != 0) map.put("commands", commands);
+            if (rows != 0) map.put("rows", rows);
+            if (bytes != 0) map.put("bytes", bytes);
+            if (error != null) map.put("error", error);
+            if (!children.isEmpty()) {
+                List<Map<String, Object>> childMaps = new ArrayList<>(children.size());
+                for (Span child : children) childMaps.add(child.toMap(originNanos));
+                map.put("children", childMaps);
+            }
+            return map;
+        }
+
+        private static double millis(long nanos) {
+            return Math.round(nanos / 1_000.0) / 1_000.0;
+        }
+    }
+
+    private final String id = UUID.randomUUID().toString();
+    private final String service;
+    private final LocalDateTime startedAt = LocalDateTime.now();
+    private final Span root;
+    private final SyncTraceLog log;
+    private final SyncTrace previous;
+    private int commands;
+    private int rows;
+    private String error;
+
+    private SyncTrace(String service, SyncTraceLog log, SyncTrace previous) {
+        this.service = service;
+        this.root = new Span("sync." + service);
+        this.log = log;
+        this.previous = previous;
+    }
+
+    /**
+     * Start tracing a round on this thread.
+     *
+     * @param log where the finished trace goes, or null to keep it in memory only
+     */
+    static SyncTrace begin(String service, SyncTraceLog log) {
+        SyncTrace trace = new SyncTrace(service, log, ACTIVE.get());
+        ACTIVE.set(trace);
+        return trace;
+    }
+
+    /** The trace of the round running on this thread, or null. */
+    static SyncTrace active() {
+        return ACTIVE.get();
+    }
+
+    /**
+     * Make {@code trace} the active one of this thread and return the one it replaces.
+     */
+    static SyncTrace swapActive(SyncTrace trace) {
+        SyncTrace replaced = ACTIVE.get();
+        if (trace != null) ACTIVE.set(trace); else ACTIVE.remove();
+        return replaced;
+    }
+
+    Span root() {
+        return root;
+    }
+
+    String getId() {
+        return id;
+    }
+
+    /**
+     * Totals of the round, shown on the root span.
+     */
+    void record(int commands, int rows) {
+        this.commands = commands;
+        this.rows = rows;
+    }
+
+    void fail(Throwable cause) {
+        if (error == null) error = cause.getClass().getSimpleName() + ": " + cause.getMessage();
+    }
+
+    @Override
+    public void close() {
+        root.finish(commands, rows, 0, error);
+        if (ACTIVE.get() == this) swapActive(previous);
+        if (log != null) log.append(this);
+    }
+
+    Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("id", id);
+        map.put("service", service);
+        map.put("started_at", startedAt.toString());
+        map.put("root", root.toMap(root.startNanos));
+        return map;
+    }
+}
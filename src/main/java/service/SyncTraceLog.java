@@ -0,0 +1,124 @@
+package service;
+
+import COMMON.JSONUtils;
+import COMMON.UserProperties;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Rolling per-user file of finished {@link SyncTrace}s, one JSON object per line in
+ * {@value #FILE_NAME} under the user data directory.
+ *
+ * The file is rolled to {@code sync_traces.1.jsonl} ... {@code sync_traces.<KEEP_FILES>.jsonl}
+ * once it passes the size limit, so the history stays bounded. {@link #export(Path)} gathers all
+ * of it into one JSON document for offline analysis.
+ */
+public final class SyncTraceLog {
+    static final String FILE_NAME = "sync_traces.jsonl";
+    static final long DEFAULT_MAX_FILE_BYTES = 512L * 1024;
+    static final int KEEP_FILES = 2;
+
+    private static final Map<String, SyncTraceLog> BY_USER = new ConcurrentHashMap<>();
+
+    private final File directory;
+    private final long maxFileBytes;
+
+    SyncTraceLog(File directory, long maxFileBytes) {
+        this.directory = directory;
+        this.maxFileBytes = maxFileBytes;
+    }
+
+    /**
+     * The trace log of {@code userId}; both sync services of a session share it.
+     */
+    public static SyncTraceLog forUser(String userId) {
+        return BY_USER.computeIfAbsent(userId,
+                id -> new SyncTraceLog(new File(UserProperties.getUserDataDirectory(id)), DEFAULT_MAX_FILE_BYTES));
+    }
+
+    /**
+     * Append one finished trace. Failures are reported and otherwise ignored: tracing must never
+     * break a sync.
+     */
+    synchronized void append(SyncTrace trace) {
+        try {
+            String line = JSONUtils.toJsonString(trace.toMap()) + "\n";
+            Path current = currentFile();
+            Files.createDirectories(directory.toPath());
+            Files.writeString(current, line, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            if (Files.size(current) >= maxFileBytes) roll();
+        } catch (IOException e) {
+            System.err.println("SyncTraceLog: failed to write trace " + trace.getId() + ": " + e.getMessage());
+        }
+    }
+
+    private void roll() throws IOException {
+        Files.deleteIfExists(rolledFile(KEEP_FILES));
+        for (int i = KEEP_FILES - 1; i >= 1; i--) {
+            Path older = rolledFile(i);
+            if (Files.exists(older)) Files.move(older, rolledFile(i + 1));
+        }
+        Files.move(currentFile(), rolledFile(1));
+    }
+
+    /**
+     * All retained traces, oldest first.
+     */
+    synchronized List<Map<String, Object>> readAll() throws IOException {
+        List<Map<String, Object>> traces = new ArrayList<>();
+        for (int i = KEEP_FILES; i >= 0; i--) {
+            Path file = i == 0 ? currentFile() : rolledFile(i);
+            if (!Files.exists(file)) continue;
+            for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                if (line.isBlank()) continue;
+                try {
+                    traces.add(JSONUtils.fromJsonString(line));
+                } catch (IOException e) {
+                    // A line cut short by a crash; the rest of the file is still usable
+                    System.err.println("SyncTraceLog: skipping unreadable line in " + file.getFileName());
+                }
+            }
+        }
+        return traces;
+    }
+
+    /**
+     * Write every retained trace to a new JSON file in {@code targetDirectory}.
+     *
+     * @return the file written
+     */
+    public Path export(Path targetDirectory) throws IOException {
+        Map<String, Object> document = new LinkedHashMap<>();
+        document.put("exported_at", LocalDateTime.now().toString());
+        document.put("traces", readAll());
+        Files.createDirectories(targetDirectory);
+        Path file = targetDirectory.resolve("sync-traces-" + System.currentTimeMillis() + ".json");
+        JSONUtils.getMapper().writerWithDefaultPrettyPrinter().writeValue(file.toFile(), document);
+        System.out.println("SyncTraceLog: exported to " + file);
+        return file;
+    }
+
+    private Path currentFile() {
+        return new File(directory, FILE_NAME).toPath();
+    }
+
+    private Path rolledFile(int index) {
+        return new File(directory, rolledName(index)).toPath();
+    }
+
+    static String rolledName(int index) {
+        return "sync_traces." + index + ".jsonl";
+    }
+}
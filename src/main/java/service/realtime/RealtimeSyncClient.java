@@ -0,0 +1,362 @@
+package service.realtime;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import service.transport.RetryPolicy;
+
+/**
+ * Keeps one long-lived Server-Sent Events connection to the API and hands each event to a
+ * {@link Listener} as soon as it is parsed.
+ *
+ * Reconnects with capped, jittered backoff (or the server's "retry:" interval) and sends
+ * Last-Event-ID so the server can replay what was missed. While the stream cannot be
+ * established the supplied poll task runs on a fixed cadence instead; polling stops as soon
+ * as the stream is back.
+ */
+public class RealtimeSyncClient {
+    public enum State { STOPPED, CONNECTING, STREAMING, POLLING }
+
+    public interface Listener {
+        void onEvent(SseEvent event);
+
+        default void onStateChanged(State state) {}
+    }
+
+    private final URI streamUri;
+    private final Supplier<String> tokenSupplier;
+    private final Listener listener;
+    private final Runnable pollTask;
+    private final long pollIntervalMs;
+    private final RetryPolicy reconnectBackoff;
+    private final int fallbackAfterFailures;
+    private final long idleTimeoutMs;
+    private final HttpClient httpClient;
+    private final SseEventParser parser;
+
+    private final AtomicLong eventsReceived = new AtomicLong();
+    private final AtomicLong reconnects = new AtomicLong();
+    private volatile State state = State.STOPPED;
+    private volatile boolean running;
+    private volatile long lastActivity;
+    private volatile InputStream currentStream;
+    private Thread readerThread;
+    private ScheduledExecutorService scheduler;
+    private ScheduledFuture<?> pollFuture;
+    private ScheduledFuture<?> idleWatchdog;
+
+    private RealtimeSyncClient(Builder b) {
+        this.streamUri = b.streamUri;
+        this.tokenSupplier = b.tokenSupplier;
+        this.listener = b.listener;
+        this.pollTask = b.pollTask;
+        this.pollIntervalMs = b.pollIntervalMs;
+        this.reconnectBackoff = new RetryPolicy(1, b.reconnectDelayMs, b.maxReconnectDelayMs);
+        this.fallbackAfterFailures = Math.max(1, b.fallbackAfterFailures);
+        this.idleTimeoutMs = b.idleTimeoutMs;
+        this.httpClient = b.httpClient != null ? b.httpClient
+            : HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+        this.parser = new SseEventParser(this::dispatch);
+    }
+
+    /**
+     * Open the stream on a background thread. Calling start on a running client is a no-op.
+     */
+    public synchronized void start() {
+        if (running) return;
+        running = true;
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "RealtimeSyncPoller");
+            t.setDaemon(true);
+            return t;
+        });
+        if (idleTimeoutMs > 0) {
+            long period = Math.max(50, idleTimeoutMs / 2);
+            idleWatchdog = scheduler.scheduleAtFixedRate(this::checkIdle, period, period, TimeUnit.MILLISECONDS);
+        }
+        readerThread = new Thread(this::runLoop, "RealtimeSync");
+        readerThread.setDaemon(true);
+        readerThread.start();
+    }
+
+    /**
+     * Close the stream, stop polling and release the background threads.
+     */
+    public synchronized void stop() {
+        if (!running) return;
+        running = false;
+        closeCurrentStream();
+        if (readerThread != null) readerThread.interrupt();
+        if (idleWatchdog != null) idleWatchdog.cancel(false);
+        stopPolling();
+        scheduler.shutdownNow();
+        setState(State.STOPPED);
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public String getLastEventId() {
+        return parser.getLastEventId();
+    }
+
+    /**
+     * Seed the resume position, e.g. from a previous session.
+     */
+    public void setLastEventId(String lastEventId) {
+        parser.setLastEventId(lastEventId);
+    }
+
+    public long getEventsReceived() {
+        return eventsReceived.get();
+    }
+
+    /**
+     * Number of connection attempts made after the first one.
+     */
+    public long getReconnectCount() {
+        return reconnects.get();
+    }
+
+    private void runLoop() {
+        int failures = 0;
+        boolean first = true;
+        while (running) {
+            if (!first) reconnects.incrementAndGet();
+            first = false;
+            if (state != State.POLLING) setState(State.CONNECTING);
+
+            boolean streamed = false;
+            try {
+                streamed = streamOnce();
+            } catch (InterruptedException e) {
+                break;
+            } catch (IOException e) {
+                if (running) System.err.println("RealtimeSyncClient: stream error: " + e.getMessage());
+            } catch (RuntimeException e) {
+                System.err.println("RealtimeSyncClient: unexpected error: " + e.getMessage());
+            } finally {
+                closeCurrentStream();
+                parser.reset();
+            }
+            if (!running) break;
+
+            failures = streamed ? 0 : failures + 1;
+            if (failures >= fallbackAfterFailures) {
+                startPolling();
+            } else if (state != State.POLLING) {
+                setState(State.CONNECTING);
+            }
+
+            long delay = nextDelay(failures);
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Connect and read until the stream ends.
+     * @return true if the server accepted the stream (even if it later dropped)
+     */
+    private boolean streamOnce() throws IOException, InterruptedException {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(streamUri)
+            .header("Accept", "text/event-stream")
+            .header("Cache-Control", "no-cache")
+            .GET();
+        String token = tokenSupplier != null ? tokenSupplier.get() : null;
+        if (token != null && !token.trim().isEmpty()) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        String lastEventId = parser.getLastEventId();
+        if (lastEventId != null && !lastEventId.isEmpty()) {
+            builder.header("Last-Event-ID", lastEventId);
+        }
+
+        HttpResponse<InputStream> response = httpClient.send(builder.build(), HttpResponse.BodyHandlers.ofInputStream());
+        InputStream in = response.body();
+        currentStream = in;
+        String contentType = response.headers().firstValue("Content-Type").orElse("");
+        if (response.statusCode() != 200 || !contentType.startsWith("text/event-stream")) {
+            System.err.println("RealtimeSyncClient: stream rejected (status " + response.statusCode() + ", type '" + contentType + "')");
+            return false;
+        }
+
+        lastActivity = System.currentTimeMillis();
+        stopPolling();
+        setState(State.STREAMING);
+        System.out.println("RealtimeSyncClient: streaming from " + streamUri
+            + (lastEventId != null ? " (resuming after " + lastEventId + ")" : ""));
+
+        try (Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8)) {
+            char[] buf = new char[4096];
+            int n;
+            while (running && (n = reader.read(buf)) != -1) {
+                lastActivity = System.currentTimeMillis();
+                parser.feed(buf, 0, n);
+            }
+        } catch (IOException e) {
+            if (running) System.out.println("RealtimeSyncClient: stream closed: " + e.getMessage());
+        }
+        return true;
+    }
+
+    private long nextDelay(int failures) {
+        long serverRetry = parser.getRetryMs();
+        if (failures == 0 && serverRetry >= 0) {
+            return serverRetry;
+        }
+        long ceiling = reconnectBackoff.backoffCeiling(Math.max(1, failures));
+        return ceiling / 2 + ThreadLocalRandom.current().nextLong(ceiling / 2 + 1);
+    }
+
+    private void dispatch(SseEvent event) {
+        eventsReceived.incrementAndGet();
+        try {
+            listener.onEvent(event);
+        } catch (Exception e) {
+            System.err.println("RealtimeSyncClient: listener error for event " + event.event() + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Half-open TCP connections never deliver EOF; drop the stream if the server stops
+     * sending data and heartbeat comments for longer than the idle timeout.
+     */
+    private void checkIdle() {
+        if (state == State.STREAMING && System.currentTimeMillis() - lastActivity > idleTimeoutMs) {
+            System.out.println("RealtimeSyncClient: no data for " + idleTimeoutMs + " ms, reconnecting");
+            closeCurrentStream();
+        }
+    }
+
+    private synchronized void startPolling() {
+        if (pollTask == null || !running) return;
+        if (pollFuture == null) {
+            System.out.println("RealtimeSyncClient: stream unavailable, polling every " + pollIntervalMs + " ms");
+            pollFuture = scheduler.scheduleWithFixedDelay(this::runPoll, 0, pollIntervalMs, TimeUnit.MILLISECONDS);
+        }
+        setState(State.POLLING);
+    }
+
+    private synchronized void stopPolling() {
+        if (pollFuture != null) {
+            pollFuture.cancel(false);
+            pollFuture = null;
+        }
+    }
+
+    private void runPoll() {
+        try {
+            pollTask.run();
+        } catch (Exception e) {
+            System.err.println("RealtimeSyncClient: poll failed: " + e.getMessage());
+        }
+    }
+
+    private void closeCurrentStream() {
+        InputStream in = currentStream;
+        currentStream = null;
+        if (in != null) {
+            try {
+                in.close();
+            } catch (IOException ignore) {
+                // already closed
+            }
+        }
+    }
+
+    private void setState(State newState) {
+        if (state == newState) return;
+        state = newState;
+        try {
+            listener.onStateChanged(newState);
+        } catch (Exception e) {
+            System.err.println("RealtimeSyncClient: listener error: " + e.getMessage());
+        }
+    }
+
+    public static class Builder {
+        private final URI streamUri;
+        private final Listener listener;
+        private Supplier<String> tokenSupplier;
+        private Runnable pollTask;
+        private long pollIntervalMs = 60000;
+        private long reconnectDelayMs = 1000;
+        private long maxReconnectDelayMs = 60000;
+        private int fallbackAfterFailures = 2;
+        private long idleTimeoutMs = 90000;
+        private HttpClient httpClient;
+
+        public Builder(URI streamUri, Listener listener) {
+            this.streamUri = streamUri;
+            this.listener = listener;
+        }
+
+        public Builder tokenSupplier(Supplier<String> tokenSupplier) {
+            this.tokenSupplier = tokenSupplier;
+            return this;
+        }
+
+        /**
+         * Task run on a fixed cadence while the stream is down (typically a full sync).
+         */
+        public Builder pollTask(Runnable pollTask, long pollIntervalMs) {
+            this.pollTask = pollTask;
+            this.pollIntervalMs = Math.max(1, pollIntervalMs);
+            return this;
+        }
+
+        public Builder reconnectDelay(long initialMs, long maxMs) {
+            this.reconnectDelayMs = initialMs;
+            this.maxReconnectDelayMs = maxMs;
+            return this;
+        }
+
+        /**
+         * Number of consecutive failed connection attempts before polling starts.
+         */
+        public Builder fallbackAfterFailures(int failures) {
+            this.fallbackAfterFailures = failures;
+            return this;
+        }
+
+        /**
+         * Reconnect if nothing (not even a heartbeat comment) arrives for this long; 0 disables.
+         */
+        public Builder idleTimeout(long idleTimeoutMs) {
+            this.idleTimeoutMs = idleTimeoutMs;
+            return this;
+        }
+
+        public Builder httpClient(HttpClient httpClient) {
+            this.httpClient = httpClient;
+            return this;
+        }
+
+        public RealtimeSyncClient build() {
+            if (streamUri == null || listener == null) {
+                throw new IllegalArgumentException("streamUri and listener are required");
+            }
+            return new RealtimeSyncClient(this);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package service.realtime;
+
+/**
+ * A single dispatched Server-Sent Event.
+ *
+ * @param id the last event id in effect when the event was dispatched (may be null)
+ * @param event the event type; "message" when the stream did not name one
+ * @param data the data lines joined with '\n'
+ */
+public record SseEvent(String id, String event, String data) {
+}
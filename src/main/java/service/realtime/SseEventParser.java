@@ -0,0 +1,139 @@
+package service.realtime;
+
+import java.util.function.Consumer;
+
+/**
+ * Incremental parser for the text/event-stream format.
+ * Chunks can be fed as they arrive from the socket; lines (and CRLF pairs) split across
+ * chunks are reassembled, and each blank line dispatches the event built so far.
+ */
+public class SseEventParser {
+    private final Consumer<SseEvent> sink;
+    private final StringBuilder line = new StringBuilder();
+    private final StringBuilder data = new StringBuilder();
+    private String eventType;
+    private String lastEventId;
+    // Id of the event being received; it only becomes the last event id once that event is dispatched
+    private String pendingEventId;
+    private long retryMs = -1;
+    private boolean hasData;
+    private boolean lastWasCR;
+
+    public SseEventParser(Consumer<SseEvent> sink) {
+        this.sink = sink;
+    }
+
+    /**
+     * Feed the next chunk of the stream.
+     */
+    public void feed(char[] buf, int off, int len) {
+        for (int i = off; i < off + len; i++) {
+            char c = buf[i];
+            if (c == '\n' && lastWasCR) {
+                // Second half of a CRLF already handled at the CR
+                lastWasCR = false;
+                continue;
+            }
+            lastWasCR = c == '\r';
+            if (c == '\r' || c == '\n') {
+                processLine(line.toString());
+                line.setLength(0);
+            } else {
+                line.append(c);
+            }
+        }
+    }
+
+    public void feed(String chunk) {
+        feed(chunk.toCharArray(), 0, chunk.length());
+    }
+
+    /**
+     * Discard a partially received event, e.g. when the connection drops mid-event.
+     * The last event id and retry interval are kept for the reconnect; an id received with the
+     * discarded event is dropped, so the server replays that event.
+     */
+    public void reset() {
+        line.setLength(0);
+        data.setLength(0);
+        eventType = null;
+        pendingEventId = null;
+        hasData = false;
+        lastWasCR = false;
+    }
+
+    public String getLastEventId() {
+        return lastEventId;
+    }
+
+    public void setLastEventId(String lastEventId) {
+        this.lastEventId = lastEventId;
+    }
+
+    /**
+     * Reconnection delay requested by the server via "retry:", or -1 if none was sent.
+     */
+    public long getRetryMs() {
+        return retryMs;
+    }
+
+    private void processLine(String l) {
+        if (l.isEmpty()) {
+            dispatch();
+            return;
+        }
+        if (l.charAt(0) == ':') {
+            return; // comment / heartbeat
+        }
+        String field;
+        String value;
+        int colon = l.indexOf(':');
+        if (colon < 0) {
+            field = l;
+            value = "";
+        } else {
+            field = l.substring(0, colon);
+            value = l.substring(colon + 1);
+            if (value.startsWith(" ")) value = value.substring(1);
+        }
+        switch (field) {
+            case "data" -> {
+                if (hasData) data.append('\n');
+                data.append(value);
+                hasData = true;
+            }
+            case "event" -> eventType = value;
+            case "id" -> {
+                if (value.indexOf('\0') < 0) pendingEventId = value;
+            }
+            case "retry" -> {
+                if (!value.isEmpty() && value.chars().allMatch(Character::isDigit)) {
+                    try {
+                        retryMs = Long.parseLong(value);
+                    } catch (NumberFormatException ignore) {
+                        // out of range: keep previous value
+                    }
+                }
+            }
+            default -> {
+                // unknown fields are ignored per the spec
+            }
+        }
+    }
+
+    private void dispatch() {
+        if (pendingEventId != null) {
+            lastEventId = pendingEventId;
+            pendingEventId = null;
+        }
+        if (!hasData) {
+            eventType = null;
+            return;
+        }
+        SseEvent event = new SseEvent(lastEventId, eventType == null || eventType.isEmpty() ? "message" : eventType, data.toString());
+        data.setLength(0);
+        eventType = null;
+        hasData = false;
+        sink.accept(event);
+    }
+}
@@ -0,0 +1,108 @@
+package service.sync;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import COMMON.JSONUtils;
+import model.Folder;
+import model.Task;
+import model.TaskHandlerV2;
+import service.realtime.SseEvent;
+
+/**
+ * Applies realtime (SSE) change events to the task store.
+ *
+ * Accepts both the SyncEvent shape from doc.md ({"type", "entityId", "data"}) and the
+ * notification shape ({"event_type", "entity_id", "event_data"}); the SSE "event:" name is
+ * used as the type when the payload does not carry one.
+ */
+public final class RealtimeEventApplier {
+    public enum Change { NONE, TASKS, FOLDERS }
+
+    private final TaskHandlerV2 handler;
+
+    public RealtimeEventApplier(TaskHandlerV2 handler) {
+        this.handler = handler;
+    }
+
+    /**
+     * Apply one event.
+     * @return what part of the store changed, so the caller can refresh only that
+     */
+    public Change apply(SseEvent event) {
+        Map<String, Object> payload;
+        try {
+            payload = JSONUtils.fromJsonString(event.data());
+        } catch (Exception e) {
+            System.err.println("RealtimeEventApplier: ignoring non-JSON event '" + event.event() + "': " + e.getMessage());
+            return Change.NONE;
+        }
+        if (payload == null) return Change.NONE;
+
+        String type = firstString(payload, "type", "event_type");
+        if (type == null) type = event.event();
+        String entityId = firstString(payload, "entityId", "entity_id", "task_id", "folder_id");
+        Map<String, Object> data = firstMap(payload, "data", "event_data");
+
+        switch (type.toLowerCase()) {
+            case "task_created", "task_updated", "sync_task" -> {
+                Map<String, Object> wrapper = new HashMap<>();
+                if (entityId != null) wrapper.put("entityId", entityId);
+                wrapper.put("data", data != null ? data : payload);
+                Task serverTask = ResponseApplier.convertServerDataToTask(wrapper);
+                if (serverTask == null) return Change.NONE;
+                if (serverTask.getDeleted_at() != null) {
+                    handler.removeTaskById(serverTask.getTask_id());
+                } else {
+                    handler.addOrReplaceTask(serverTask.toBuilder().sync_status("cloud").build());
+                }
+                return Change.TASKS;
+            }
+            case "task_deleted" -> {
+                if (entityId == null) return Change.NONE;
+                handler.removeTaskById(entityId);
+                return Change.TASKS;
+            }
+            case "folder_created", "folder_updated", "folder_deleted" -> {
+                if (entityId == null) return Change.NONE;
+                return applyFolderChange(type.toLowerCase(), entityId, data != null ? data : payload) ? Change.FOLDERS : Change.NONE;
+            }
+            default -> {
+                return Change.NONE;
+            }
+        }
+    }
+
+    private boolean applyFolderChange(String type, String folderId, Map<String, Object> data) {
+        List<Folder> folders = new ArrayList<>(handler.getFoldersList());
+        boolean removed = folders.removeIf(f -> folderId.equals(f.getFolder_id()));
+        if ("folder_deleted".equals(type)) {
+            if (!removed) return false;
+        } else {
+            String name = firstString(data, "folder_name", "name");
+            if (name == null) return false;
+            folders.add(new Folder.Builder(folderId).folderName(name).syncStatus("cloud").build());
+        }
+        handler.setFoldersList(folders);
+        return true;
+    }
+
+    private static String firstString(Map<String, Object> map, String... keys) {
+        for (String key : keys) {
+            Object v = map.get(key);
+            if (v != null) return String.valueOf(v);
+        }
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> firstMap(Map<String, Object> map, String... keys) {
+        for (String key : keys) {
+            Object v = map.get(key);
+            if (v instanceof Map) return (Map<String, Object>) v;
+        }
+        return null;
+    }
+}
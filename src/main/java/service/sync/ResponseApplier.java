@@ -4,6 +4,7 @@ import java.time.LocalDateTime;
 import java.util.Map;
 import java.util.List;
 
+import COMMON.Log;
 import model.Task;
 import model.TaskHandlerV2;
 import model.TaskStatus;
@@ -11,6 +12,7 @@ import model.Folder;
 import model.sync.SyncResponse;
 
 public final class ResponseApplier {
+    private static final Log LOG = Log.get(ResponseApplier.class);
     private final TaskHandlerV2 handler;
 
     public ResponseApplier(TaskHandlerV2 handler) {
@@ -48,7 +50,7 @@ public final class ResponseApplier {
                         if (result.getEntityId() != null) {
                             // Track entityId for deletion filtering
                             deletedTaskIds.add(result.getEntityId());
-                            System.out.println("ResponseApplier: Processing DELETE for task " + result.getEntityId());
+                            LOG.debug(() -> "Processing DELETE for task " + result.getEntityId());
                             // Use entityId (task ID) for removal
                             handler.removeTaskById(result.getEntityId());
                         }
@@ -63,7 +65,7 @@ public final class ResponseApplier {
                 if (t != null) {
                     // Skip tasks that were just deleted in this sync batch
                     if (deletedTaskIds.contains(t.getTask_id())) {
-                        System.out.println("ResponseApplier: Skipping re-add of deleted task: " + t.getTask_id());
+                        LOG.debug("Skipping re-add of deleted task: " + t.getTask_id());
                         continue;
                     }
                     
@@ -98,15 +100,16 @@ public final class ResponseApplier {
         // Optimized folder handling - only fetch if server provided new folders or version changed
         if (response.getFolders() != null && !response.getFolders().isEmpty()) {
             // Server provided folders in response - use them directly
-            System.out.println("ResponseApplier: Server provided " + response.getFolders().size() + " folders:");
-            for (Folder f : response.getFolders()) {
-                System.out.println("  - " + f.getFolder_name() + " -> " + f.getFolder_id());
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("Server provided " + response.getFolders().size() + " folders:");
+                for (Folder f : response.getFolders()) {
+                    LOG.debug("  - " + f.getFolder_name() + " -> " + f.getFolder_id());
+                }
             }
             handler.setFoldersList(response.getFolders(), response.getFolderVersion());
-            System.out.println("ResponseApplier: Updated folders from sync response (" + 
-                             response.getFolders().size() + " folders)");
+            LOG.debug(() -> "Updated folders from sync response (" + response.getFolders().size() + " folders)");
         } else {
-            System.out.println("ResponseApplier: Skipped folder refresh - no changes detected");
+            LOG.debug("Skipped folder refresh - no changes detected");
         }
     }
 
@@ -0,0 +1,114 @@
+package service.transport;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Consecutive-failure circuit breaker.
+ * CLOSED lets every call through; after {@code failureThreshold} transient failures in a row it
+ * goes OPEN and rejects calls for {@code openDurationMs}; then HALF_OPEN lets a single trial call
+ * through, whose outcome closes or re-opens the circuit.
+ */
+public class CircuitBreaker {
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int failureThreshold;
+    private final long openDurationMs;
+    private final LongSupplier clock;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures = 0;
+    private long openedAt = 0;
+    private boolean trialInFlight = false;
+
+    public CircuitBreaker(int failureThreshold, long openDurationMs) {
+        this(failureThreshold, openDurationMs, System::currentTimeMillis);
+    }
+
+    CircuitBreaker(int failureThreshold, long openDurationMs, LongSupplier clock) {
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openDurationMs = Math.max(0, openDurationMs);
+        this.clock = clock;
+    }
+
+    /**
+     * Returns true if a call may proceed. In HALF_OPEN only one trial call is admitted at a time.
+     */
+    public synchronized boolean allowRequest() {
+        if (state == State.OPEN && clock.getAsLong() - openedAt >= openDurationMs) {
+            state = State.HALF_OPEN;
+            trialInFlight = false;
+        }
+        switch (state) {
+            case CLOSED:
+                return true;
+            case HALF_OPEN:
+                if (trialInFlight) return false;
+                trialInFlight = true;
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Non-consuming check: true unless the circuit is open and its cool-down has not elapsed.
+     */
+    public synchronized boolean isAvailable() {
+        if (state == State.OPEN) {
+            return clock.getAsLong() - openedAt >= openDurationMs;
+        }
+        return !(state == State.HALF_OPEN && trialInFlight);
+    }
+
+    /**
+     * Record a call that reached the backend. Closes the circuit.
+     */
+    public synchronized void recordSuccess() {
+        consecutiveFailures = 0;
+        trialInFlight = false;
+        state = State.CLOSED;
+    }
+
+    /**
+     * Record a transient failure.
+     * @return true if this failure moved the circuit to OPEN
+     */
+    public synchronized boolean recordFailure() {
+        trialInFlight = false;
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || (state == State.CLOSED && consecutiveFailures >= failureThreshold)) {
+            state = State.OPEN;
+            openedAt = clock.getAsLong();
+            return true;
+        }
+        if (state == State.OPEN) {
+            openedAt = clock.getAsLong();
+        }
+        return false;
+    }
+
+    /**
+     * Release a half-open trial that ended without a verdict (e.g. the caller was interrupted).
+     */
+    public synchronized void releaseTrial() {
+        trialInFlight = false;
+    }
+
+    /**
+     * Skip the remaining cool-down and admit a trial call now (used when a reachability probe succeeds).
+     */
+    public synchronized void halfOpen() {
+        if (state == State.OPEN) {
+            state = State.HALF_OPEN;
+            trialInFlight = false;
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public synchronized int getConsecutiveFailures() {
+        return consecutiveFailures;
+    }
+}
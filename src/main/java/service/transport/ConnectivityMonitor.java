@@ -0,0 +1,157 @@
+package service.transport;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tracks whether each backend endpoint ("api", "database") is currently reachable and
+ * notifies subscribers (UI, sync scheduling) on online/offline transitions.
+ *
+ * While an endpoint is offline a reachability probe is re-run with capped exponential backoff;
+ * the first successful probe flips it back online.
+ */
+public class ConnectivityMonitor {
+    public enum State { ONLINE, OFFLINE }
+
+    public interface Listener {
+        void onConnectivityChanged(String endpoint, State state);
+    }
+
+    private static final ConnectivityMonitor SHARED = new ConnectivityMonitor(2000, 60000);
+
+    private final Map<String, State> endpointStates = new ConcurrentHashMap<>();
+    private final Map<String, ReachabilityProbe> probes = new ConcurrentHashMap<>();
+    private final Map<String, Long> probeDelays = new ConcurrentHashMap<>();
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private final long initialProbeDelayMs;
+    private final long maxProbeDelayMs;
+    private ScheduledExecutorService prober;
+
+    public ConnectivityMonitor(long initialProbeDelayMs, long maxProbeDelayMs) {
+        this.initialProbeDelayMs = Math.max(1, initialProbeDelayMs);
+        this.maxProbeDelayMs = Math.max(this.initialProbeDelayMs, maxProbeDelayMs);
+    }
+
+    /**
+     * Process-wide monitor shared by APIService and the sync services.
+     */
+    public static ConnectivityMonitor shared() {
+        return SHARED;
+    }
+
+    /**
+     * Register the probe used to detect when an offline endpoint comes back.
+     */
+    public void registerProbe(String endpoint, ReachabilityProbe probe) {
+        if (endpoint == null || probe == null) return;
+        probes.put(endpoint, probe);
+    }
+
+    public void addListener(Listener listener) {
+        if (listener != null) listeners.add(listener);
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * State of a single endpoint. Endpoints are assumed online until a failure is reported.
+     */
+    public State getState(String endpoint) {
+        return endpointStates.getOrDefault(endpoint, State.ONLINE);
+    }
+
+    /**
+     * True when no known endpoint is offline.
+     */
+    public boolean isOnline() {
+        return !endpointStates.containsValue(State.OFFLINE);
+    }
+
+    public boolean isOnline(String endpoint) {
+        return getState(endpoint) == State.ONLINE;
+    }
+
+    /**
+     * Report that a call to the endpoint succeeded.
+     */
+    public void reportOnline(String endpoint) {
+        if (endpoint == null) return;
+        probeDelays.remove(endpoint);
+        State previous = endpointStates.put(endpoint, State.ONLINE);
+        if (previous == State.OFFLINE) {
+            System.out.println("ConnectivityMonitor: " + endpoint + " is back online");
+            notifyListeners(endpoint, State.ONLINE);
+        }
+    }
+
+    /**
+     * Report that the endpoint is unreachable. Starts background probing if a probe is registered.
+     */
+    public void reportOffline(String endpoint) {
+        if (endpoint == null) return;
+        State previous = endpointStates.put(endpoint, State.OFFLINE);
+        if (previous != State.OFFLINE) {
+            System.err.println("ConnectivityMonitor: " + endpoint + " is offline");
+            notifyListeners(endpoint, State.OFFLINE);
+            scheduleProbe(endpoint);
+        }
+    }
+
+    /**
+     * Run the registered probe for an endpoint right now.
+     * @return true if the endpoint answered
+     */
+    public boolean probeNow(String endpoint) {
+        ReachabilityProbe probe = probes.get(endpoint);
+        if (probe == null) return isOnline(endpoint);
+        boolean reachable;
+        try {
+            reachable = probe.isReachable();
+        } catch (RuntimeException e) {
+            reachable = false;
+        }
+        if (reachable) {
+            reportOnline(endpoint);
+        }
+        return reachable;
+    }
+
+    private void scheduleProbe(String endpoint) {
+        if (!probes.containsKey(endpoint)) return;
+        long delay = probeDelays.merge(endpoint, initialProbeDelayMs, (prev, init) -> Math.min(maxProbeDelayMs, prev * 2));
+        getProber().schedule(() -> {
+            if (getState(endpoint) != State.OFFLINE) return;
+            if (!probeNow(endpoint)) {
+                scheduleProbe(endpoint);
+            }
+        }, delay, TimeUnit.MILLISECONDS);
+    }
+
+    private synchronized ScheduledExecutorService getProber() {
+        if (prober == null) {
+            prober = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "ConnectivityProbe");
+                t.setDaemon(true);
+                return t;
+            });
+        }
+        return prober;
+    }
+
+    private void notifyListeners(String endpoint, State state) {
+        for (Listener l : listeners) {
+            try {
+                l.onConnectivityChanged(endpoint, state);
+            } catch (Exception e) {
+                System.err.println("ConnectivityMonitor: listener error: " + e.getMessage());
+            }
+        }
+    }
+}
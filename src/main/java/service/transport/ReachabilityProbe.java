@@ -0,0 +1,56 @@
+package service.transport;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URI;
+
+/**
+ * Cheap check of whether a backend endpoint accepts connections.
+ * The default implementation only opens (and closes) a TCP socket; no request is sent.
+ */
+@FunctionalInterface
+public interface ReachabilityProbe {
+    boolean isReachable();
+
+    /**
+     * Probe that opens a TCP connection to host:port within the given timeout.
+     */
+    static ReachabilityProbe tcp(String host, int port, int timeoutMs) {
+        return () -> {
+            try (Socket socket = new Socket()) {
+                socket.connect(new InetSocketAddress(host, port), timeoutMs);
+                return true;
+            } catch (IOException | IllegalArgumentException e) {
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Build a TCP probe from an http(s) URL or a jdbc:postgresql URL.
+     * Returns null when the URL has no resolvable host.
+     */
+    static ReachabilityProbe forUrl(String url, int timeoutMs) {
+        if (url == null || url.trim().isEmpty()) return null;
+        String raw = url.trim();
+        if (raw.startsWith("jdbc:")) raw = raw.substring("jdbc:".length());
+        try {
+            URI uri = URI.create(raw);
+            String host = uri.getHost();
+            if (host == null) return null;
+            int port = uri.getPort();
+            if (port < 0) {
+                String scheme = uri.getScheme() != null ? uri.getScheme().toLowerCase() : "";
+                switch (scheme) {
+                    case "https": port = 443; break;
+                    case "postgresql": port = 5432; break;
+                    default: port = 80;
+                }
+            }
+            return tcp(host, port, timeoutMs);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package service.transport;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientException;
+import java.util.function.Predicate;
+
+import COMMON.Log;
+import COMMON.Metrics;
+import COMMON.UserProperties;
+import service.ServiceUnavailableException;
+
+/**
+ * Resilience layer for calls to one backend (the HTTP API or the database).
+ * Combines a {@link RetryPolicy} for idempotent calls, a {@link CircuitBreaker} that
+ * short-circuits while the backend is down, and reports to a {@link ConnectivityMonitor}.
+ *
+ * Only transient failures (I/O errors, timeouts, SQL connection errors, 502/503/504) count
+ * against the breaker; logical errors such as bad SQL or a 4xx mean the backend is reachable.
+ */
+public class ResilientTransport {
+    public static final String API = "api";
+    public static final String DATABASE = "database";
+
+    private static final Log LOG = Log.get(ResilientTransport.class);
+    private static final int PROBE_TIMEOUT_MS = 1500;
+    private static volatile ResilientTransport apiTransport;
+    private static volatile ResilientTransport databaseTransport;
+
+    @FunctionalInterface
+    public interface Call<T, E extends Exception> {
+        T execute() throws E, InterruptedException;
+    }
+
+    @FunctionalInterface
+    public interface Sleeper {
+        void sleep(long millis) throws InterruptedException;
+    }
+
+    private final String name;
+    private final RetryPolicy retryPolicy;
+    private final CircuitBreaker breaker;
+    private final ConnectivityMonitor monitor;
+    private final Sleeper sleeper;
+    private final Metrics.Histogram callTimer;
+    private final Metrics.Counter transientFailures;
+    private final Metrics.Counter rejectedCalls;
+
+    public ResilientTransport(String name, RetryPolicy retryPolicy, CircuitBreaker breaker, ConnectivityMonitor monitor) {
+        this(name, retryPolicy, breaker, monitor, Thread::sleep);
+    }
+
+    ResilientTransport(String name, RetryPolicy retryPolicy, CircuitBreaker breaker, ConnectivityMonitor monitor, Sleeper sleeper) {
+        this.name = name;
+        this.retryPolicy = retryPolicy;
+        this.breaker = breaker;
+        this.monitor = monitor;
+        this.sleeper = sleeper;
+        // One round trip per attempt: an HTTP exchange for the API, a JDBC call for the database
+        this.callTimer = Metrics.shared().timer("transport." + name + ".call");
+        this.transientFailures = Metrics.shared().counter("transport." + name + ".transient_failures");
+        this.rejectedCalls = Metrics.shared().counter("transport." + name + ".rejected");
+        // A successful probe lets a trial call through without waiting for the full cool-down
+        monitor.addListener((endpoint, state) -> {
+            if (name.equals(endpoint) && state == ConnectivityMonitor.State.ONLINE) {
+                breaker.halfOpen();
+            }
+        });
+    }
+
+    /**
+     * Shared transport for the HTTP API (authApiUrl).
+     */
+    public static ResilientTransport forApi() {
+        if (apiTransport == null) {
+            synchronized (ResilientTransport.class) {
+                if (apiTransport == null) {
+                    apiTransport = create(API, (String) UserProperties.getProperty("authApiUrl"));
+                }
+            }
+        }
+        return apiTransport;
+    }
+
+    /**
+     * Shared transport for the PostgreSQL database (dbUrl).
+     */
+    public static ResilientTransport forDatabase() {
+        if (databaseTransport == null) {
+            synchronized (ResilientTransport.class) {
+                if (databaseTransport == null) {
+                    databaseTransport = create(DATABASE, (String) UserProperties.getProperty("dbUrl"));
+                }
+            }
+        }
+        return databaseTransport;
+    }
+
+    private static ResilientTransport create(String name, String url) {
+        ConnectivityMonitor monitor = ConnectivityMonitor.shared();
+        monitor.registerProbe(name, ReachabilityProbe.forUrl(url, PROBE_TIMEOUT_MS));
+        return new ResilientTransport(name, RetryPolicy.defaults(), new CircuitBreaker(3, 30000), monitor);
+    }
+
+    /**
+     * Execute a call without inspecting its result.
+     */
+    public <T, E extends Exception> T execute(String operation, boolean idempotent, Call<T, E> call) throws E, InterruptedException {
+        return execute(operation, idempotent, call, result -> false);
+    }
+
+    /**
+     * Execute a call through the breaker, retrying transient failures when the call is idempotent.
+     *
+     * @param operation short label used in log and error messages
+     * @param idempotent whether the call may safely be repeated
+     * @param call the backend call
+     * @param transientResult marks results that represent a transient backend failure (e.g. HTTP 503)
+     * @throws ServiceUnavailableException if the circuit is open
+     */
+    public <T, E extends Exception> T execute(String operation, boolean idempotent, Call<T, E> call,
+                                              Predicate<T> transientResult) throws E, InterruptedException {
+        int maxAttempts = idempotent ? retryPolicy.getMaxAttempts() : 1;
+        for (int attempt = 1; ; attempt++) {
+            if (!breaker.allowRequest()) {
+                rejectedCalls.increment();
+                throw new ServiceUnavailableException(operation + " failed fast: " + name + " is unavailable (circuit open)");
+            }
+            T result;
+            long start = System.nanoTime();
+            try {
+                result = call.execute();
+            } catch (InterruptedException e) {
+                breaker.releaseTrial();
+                throw e;
+            } catch (Exception e) {
+                callTimer.recordSince(start);
+                if (!isTransient(e)) {
+                    recordReachable();
+                    throw ResilientTransport.<E>rethrow(e);
+                }
+                recordTransientFailure(operation, e.getMessage());
+                if (attempt >= maxAttempts || !breaker.isAvailable()) {
+                    throw ResilientTransport.<E>rethrow(e);
+                }
+                backoff(operation, attempt);
+                continue;
+            }
+            callTimer.recordSince(start);
+            if (transientResult != null && transientResult.test(result)) {
+                recordTransientFailure(operation, "transient response");
+                if (attempt >= maxAttempts || !breaker.isAvailable()) {
+                    return result;
+                }
+                backoff(operation, attempt);
+                continue;
+            }
+            recordReachable();
+            return result;
+        }
+    }
+
+    /**
+     * Non-consuming check used to skip work up front while the backend is known to be down.
+     */
+    public boolean isAvailable() {
+        return breaker.isAvailable();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public CircuitBreaker getBreaker() {
+        return breaker;
+    }
+
+    public ConnectivityMonitor getMonitor() {
+        return monitor;
+    }
+
+    /**
+     * Transient failures are network/timeouts and SQL connection errors anywhere in the cause chain.
+     * JSON parsing errors are IOExceptions too but are not transient.
+     */
+    public static boolean isTransient(Throwable t) {
+        for (Throwable cur = t; cur != null; cur = cur.getCause()) {
+            if (cur instanceof com.fasterxml.jackson.core.JsonProcessingException) return false;
+            if (cur instanceof IOException) return true;
+            if (cur instanceof SQLTransientException || cur instanceof SQLRecoverableException) return true;
+            if (cur instanceof SQLException) {
+                String state = ((SQLException) cur).getSQLState();
+                if (state != null && state.startsWith("08")) return true;
+            }
+            if (cur.getCause() == cur) break;
+        }
+        return false;
+    }
+
+    private void recordReachable() {
+        breaker.recordSuccess();
+        monitor.reportOnline(name);
+    }
+
+    private void recordTransientFailure(String operation, String message) {
+        LOG.warn("[" + name + "] " + operation + " failed: " + message);
+        transientFailures.increment();
+        if (breaker.recordFailure()) {
+            monitor.reportOffline(name);
+        }
+    }
+
+    private void backoff(String operation, int attempt) throws InterruptedException {
+        long delay = retryPolicy.delayBeforeRetry(attempt);
+        LOG.debug(() -> "[" + name + "] retrying " + operation + " in " + delay + " ms");
+        // Full jitter may draw 0; still go through the sleeper so every retry is one back-off step
+        sleeper.sleep(delay);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <E extends Exception> E rethrow(Exception e) {
+        if (e instanceof RuntimeException) throw (RuntimeException) e;
+        return (E) e;
+    }
+}
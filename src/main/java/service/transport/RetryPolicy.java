@@ -0,0 +1,58 @@
+package service.transport;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Exponential backoff with full jitter for idempotent backend calls.
+ * The delay before retry {@code n} is a random value in {@code [0, min(maxDelay, baseDelay * 2^(n-1))]}.
+ */
+public final class RetryPolicy {
+    private final int maxAttempts;
+    private final long baseDelayMs;
+    private final long maxDelayMs;
+
+    public RetryPolicy(int maxAttempts, long baseDelayMs, long maxDelayMs) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("maxAttempts must be at least 1");
+        }
+        this.maxAttempts = maxAttempts;
+        this.baseDelayMs = Math.max(0, baseDelayMs);
+        this.maxDelayMs = Math.max(this.baseDelayMs, maxDelayMs);
+    }
+
+    /**
+     * Default policy: 3 attempts, 200 ms base delay, capped at 2 seconds.
+     */
+    public static RetryPolicy defaults() {
+        return new RetryPolicy(3, 200, 2000);
+    }
+
+    /**
+     * Single attempt, no retries.
+     */
+    public static RetryPolicy none() {
+        return new RetryPolicy(1, 0, 0);
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    /**
+     * Upper bound of the backoff window before the given retry (1-based).
+     */
+    public long backoffCeiling(int retry) {
+        if (retry < 1 || baseDelayMs == 0) return 0;
+        int shift = Math.min(retry - 1, 30);
+        long ceiling = baseDelayMs << shift;
+        return ceiling < 0 ? maxDelayMs : Math.min(maxDelayMs, ceiling);
+    }
+
+    /**
+     * Jittered delay to wait before the given retry (1-based).
+     */
+    public long delayBeforeRetry(int retry) {
+        long ceiling = backoffCeiling(retry);
+        return ceiling == 0 ? 0 : ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+}
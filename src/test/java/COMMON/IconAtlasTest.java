@@ -0,0 +1,83 @@
+package COMMON;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.awt.Color;
+import java.awt.Image;
+import java.awt.image.MultiResolutionImage;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.swing.ImageIcon;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("IconAtlas Tests")
+class IconAtlasTest {
+
+    private static final List<String> PATHS = List.of("icons/add.svg", "icons/edit.svg", "icons/sync.svg");
+    private static final IconAtlas.Theme DAY = new IconAtlas.Theme(false, Color.DARK_GRAY);
+    private static final IconAtlas.Theme NIGHT = new IconAtlas.Theme(true, Color.LIGHT_GRAY);
+
+    private IconAtlas atlas;
+
+    @AfterEach
+    void tearDown() {
+        if (atlas != null) atlas.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should pre-render every icon of an activated theme in the background")
+    void shouldPrewarmActiveTheme() throws Exception {
+        atlas = new IconAtlas(PATHS, 1.0);
+        atlas.activate(DAY).get(5, TimeUnit.SECONDS);
+
+        assertEquals(PATHS.size(), atlas.size());
+        ImageIcon add = atlas.get("icons/add.svg", () -> NIGHT);
+        assertNotNull(add);
+        assertEquals(20, add.getIconWidth());
+        assertSame(add, atlas.get("icons/add.svg", () -> NIGHT), "served from the atlas, not re-rendered");
+    }
+
+    @Test
+    @DisplayName("Should swap atlases on theme change and keep the previous one cached")
+    void shouldSwapThemes() throws Exception {
+        atlas = new IconAtlas(PATHS, 1.0);
+        atlas.activate(DAY).get(5, TimeUnit.SECONDS);
+        ImageIcon dayEdit = atlas.get("icons/edit.svg", () -> DAY);
+
+        atlas.prewarm(true, () -> Color.LIGHT_GRAY).get(5, TimeUnit.SECONDS);
+        assertEquals(DAY, atlas.getActiveTheme(), "prewarming must not switch the theme");
+        assertEquals(2 * PATHS.size(), atlas.size());
+
+        atlas.activate(NIGHT);
+        ImageIcon nightEdit = atlas.get("icons/edit.svg", () -> DAY);
+        assertNotSame(dayEdit, nightEdit);
+
+        atlas.activate(DAY);
+        assertSame(dayEdit, atlas.get("icons/edit.svg", () -> DAY));
+        assertEquals(2 * PATHS.size(), atlas.size());
+    }
+
+    @Test
+    @DisplayName("Should render a HiDPI variant at the display scale")
+    void shouldRenderScaledVariant() throws Exception {
+        atlas = new IconAtlas(PATHS, 2.0);
+        atlas.activate(DAY).get(5, TimeUnit.SECONDS);
+
+        ImageIcon icon = atlas.get("icons/add.svg", () -> DAY);
+        assertEquals(20, icon.getIconWidth(), "logical size stays the same");
+        assertTrue(icon.getImage() instanceof MultiResolutionImage);
+        Image hiDpi = ((MultiResolutionImage) icon.getImage()).getResolutionVariant(40, 40);
+        assertEquals(40, hiDpi.getWidth(null));
+    }
+
+    @Test
+    @DisplayName("Should return null for a missing icon")
+    void shouldReturnNullForMissingIcon() {
+        atlas = new IconAtlas(PATHS, 1.0);
+        assertNull(atlas.get("icons/missing.svg", () -> DAY));
+    }
+}
@@ -0,0 +1,108 @@
+package COMMON;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("IoScheduler Tests")
+class IoSchedulerTest {
+
+    @Test
+    @DisplayName("Should coalesce repeated writes of a file into the latest one")
+    void shouldCoalesceWrites() {
+        IoScheduler io = new IoScheduler("IO-test-coalesce");
+        io.start();
+        List<Integer> written = new CopyOnWriteArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            int value = i;
+            io.submit("tasks.json", IoScheduler.Priority.DATA, 60_000, () -> written.add(value));
+        }
+        assertTrue(io.isPending("tasks.json"));
+
+        assertTrue(io.flush("tasks.json"));
+        assertEquals(List.of(49), written);
+        assertFalse(io.isPending("tasks.json"));
+        // Nothing left to write
+        assertTrue(io.flush("tasks.json"));
+        assertEquals(1, written.size());
+    }
+
+    @Test
+    @DisplayName("Should write the journal before caches that are due at the same time")
+    void shouldOrderByPriority() throws Exception {
+        IoScheduler io = new IoScheduler("IO-test-priority");
+        io.start();
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> order = new CopyOnWriteArrayList<>();
+        io.submit("busy", IoScheduler.Priority.DATA, 0, () -> {
+            blocked.countDown();
+            release.await();
+        });
+        assertTrue(blocked.await(5, TimeUnit.SECONDS));
+
+        io.submit("folder_cache.json", IoScheduler.Priority.CACHE, 0, () -> order.add("cache"));
+        io.submit("user.yml", IoScheduler.Priority.SETTINGS, 0, () -> order.add("settings"));
+        io.submit("pending_commands.json", IoScheduler.Priority.JOURNAL, 0, () -> order.add("journal"));
+        release.countDown();
+
+        assertTrue(io.flushAll(5000));
+        assertEquals(List.of("journal", "settings", "cache"), order);
+        assertEquals(0, io.getPendingCount());
+    }
+
+    @Test
+    @DisplayName("Should keep the earlier due time and higher priority when coalescing")
+    void shouldNotPostponeCoalescedWrites() {
+        IoScheduler io = new IoScheduler("IO-test-due");
+        io.start();
+        AtomicInteger runs = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(1);
+        io.submit("tasks.json", IoScheduler.Priority.CACHE, 50, runs::incrementAndGet);
+        io.submit("tasks.json", IoScheduler.Priority.DATA, 60_000, () -> {
+            runs.incrementAndGet();
+            done.countDown();
+        });
+
+        assertDoesNotThrow(() -> assertTrue(done.await(5, TimeUnit.SECONDS)));
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    @DisplayName("Should report failed writes and keep writing others")
+    void shouldSurviveFailures() {
+        IoScheduler io = new IoScheduler("IO-test-failure");
+        io.start();
+        AtomicInteger written = new AtomicInteger();
+        io.submit("broken", IoScheduler.Priority.JOURNAL, 0, () -> {
+            throw new java.io.IOException("disk full");
+        });
+        io.submit("fine", IoScheduler.Priority.DATA, 0, written::incrementAndGet);
+
+        assertTrue(io.flushAll(5000));
+        assertEquals(1, written.get());
+    }
+
+    @Test
+    @DisplayName("Should run a flush requested from inside a write without waiting for itself")
+    void shouldFlushFromWriterThread() {
+        IoScheduler io = new IoScheduler("IO-test-nested");
+        io.start();
+        List<String> order = new CopyOnWriteArrayList<>();
+        io.submit("index.bin", IoScheduler.Priority.CACHE, 60_000, () -> order.add("index"));
+        io.submit("tasks.json", IoScheduler.Priority.DATA, 0, () -> {
+            io.flush("index.bin");
+            order.add("tasks");
+        });
+
+        assertTrue(io.flushAll(5000));
+        assertEquals(List.of("index", "tasks"), order);
+    }
+}
@@ -0,0 +1,107 @@
+package COMMON;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Log Tests")
+class LogTest {
+
+    private final Log.Level originalLevel = Log.getLevel();
+
+    @AfterEach
+    void restoreLevel() {
+        Log.setLevel(originalLevel);
+    }
+
+    @Test
+    @DisplayName("Should not build messages for disabled levels")
+    void shouldSkipDisabledLevels() {
+        Log log = Log.get(LogTest.class);
+        AtomicInteger built = new AtomicInteger();
+        Log.setLevel(Log.Level.WARN);
+
+        log.debug(() -> "debug " + built.incrementAndGet());
+        log.info(() -> "info " + built.incrementAndGet());
+        assertEquals(0, built.get());
+        assertFalse(log.isDebugEnabled());
+        assertTrue(log.isEnabled(Log.Level.ERROR));
+
+        Log.setLevel(Log.Level.OFF);
+        assertFalse(log.isEnabled(Log.Level.ERROR));
+    }
+
+    @Test
+    @DisplayName("Should never log payloads without the payload flag")
+    void shouldGatePayloads() {
+        Log.setLevel(Log.Level.DEBUG);
+        AtomicInteger built = new AtomicInteger();
+        Log.get(LogTest.class).payload(() -> "body " + built.incrementAndGet());
+
+        assertEquals(Log.isPayloadLoggingEnabled() ? 1 : 0, built.get());
+    }
+
+    @Test
+    @DisplayName("Should parse the level property and fall back to info")
+    void shouldParseLevel() {
+        assertEquals(Log.Level.DEBUG, Log.levelFromProperty(" debug "));
+        assertEquals(Log.Level.INFO, Log.levelFromProperty(null));
+        assertEquals(Log.Level.INFO, Log.levelFromProperty("verbose"));
+    }
+
+    @Test
+    @DisplayName("Should write lines to the console and file off the calling thread")
+    void shouldWriteAsynchronously(@TempDir File dir) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        AsyncLogAppender appender = new AsyncLogAppender(64, dir, 1 << 20,
+                new PrintStream(out, true, StandardCharsets.UTF_8), new PrintStream(err, true, StandardCharsets.UTF_8));
+        appender.start();
+
+        appender.append(Log.Level.INFO, "Sync", "round done", null);
+        appender.append(Log.Level.ERROR, "Sync", "round failed", new IllegalStateException("boom"));
+        appender.flush(5000);
+
+        assertEquals("Sync: round done" + System.lineSeparator(), out.toString(StandardCharsets.UTF_8));
+        assertTrue(err.toString(StandardCharsets.UTF_8).contains("IllegalStateException: boom"));
+        String file = Files.readString(new File(dir, AsyncLogAppender.FILE_NAME).toPath());
+        assertTrue(file.contains(" INFO [" + Thread.currentThread().getName() + "] Sync: round done"));
+        assertTrue(file.contains(" ERROR ["));
+    }
+
+    @Test
+    @DisplayName("Should roll the file past its size limit and keep a bounded number")
+    void shouldRollFiles(@TempDir File dir) {
+        AsyncLogAppender appender = new AsyncLogAppender(1024, dir, 200, null, null);
+        appender.start();
+        for (int i = 0; i < 100; i++) appender.append(Log.Level.INFO, "Roll", "line " + i + " padded to some length", null);
+        appender.flush(5000);
+
+        assertTrue(new File(dir, AsyncLogAppender.FILE_NAME).exists());
+        for (int i = 1; i <= AsyncLogAppender.KEEP_FILES; i++) {
+            assertTrue(new File(dir, AsyncLogAppender.rolledName(i)).exists(), "rolled file " + i);
+        }
+        assertFalse(new File(dir, AsyncLogAppender.rolledName(AsyncLogAppender.KEEP_FILES + 1)).exists());
+    }
+
+    @Test
+    @DisplayName("Should drop lines instead of blocking when the buffer is full")
+    void shouldDropWhenFull() {
+        // Not started: nothing drains the buffer
+        AsyncLogAppender appender = new AsyncLogAppender(4, null, 0, null, null);
+        for (int i = 0; i < 10; i++) appender.append(Log.Level.INFO, "Full", "line " + i, null);
+
+        assertEquals(6, appender.getDroppedCount());
+    }
+}
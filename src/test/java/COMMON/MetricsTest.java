@@ -0,0 +1,62 @@
+package COMMON;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Metrics Tests")
+class MetricsTest {
+
+    @Test
+    @DisplayName("Should put every value in a bucket whose bounds contain it")
+    void shouldBucketWithinBounds() {
+        long[] samples = {0, 1, 15, 16, 17, 100, 1_000, 123_456_789, Long.MAX_VALUE / 3, Long.MAX_VALUE};
+        for (long value : samples) {
+            int bucket = Metrics.Histogram.bucketOf(value);
+            assertTrue(value <= Metrics.Histogram.upperBoundOf(bucket), "upper bound of " + value);
+            if (bucket > 0) assertTrue(value > Metrics.Histogram.upperBoundOf(bucket - 1), "lower bound of " + value);
+        }
+        // Relative bucket width stays within 1/16 above the exact range
+        long bound = Metrics.Histogram.upperBoundOf(Metrics.Histogram.bucketOf(1_000_000));
+        assertTrue(bound - 1_000_000 < 1_000_000 / 16);
+    }
+
+    @Test
+    @DisplayName("Should report percentiles within the bucket precision")
+    void shouldReportPercentiles() {
+        Metrics.Histogram histogram = new Metrics().histogram("latency");
+        for (int i = 1; i <= 1_000; i++) histogram.record(i * 1_000L);
+
+        Metrics.Snapshot snapshot = histogram.snapshot();
+        assertEquals(1_000, snapshot.count());
+        assertEquals(500_500, snapshot.mean(), 0.001);
+        assertEquals(500_000, snapshot.p50(), 500_000 / 16.0);
+        assertEquals(990_000, snapshot.p99(), 990_000 / 16.0);
+        assertEquals(1_000_000, snapshot.max());
+    }
+
+    @Test
+    @DisplayName("Should flatten counters, gauges and timers into named values")
+    void shouldFlattenValues() {
+        Metrics metrics = new Metrics();
+        AtomicLong depth = new AtomicLong(7);
+        metrics.counter("sync.rounds").add(3);
+        metrics.gauge("queue.depth", depth::get);
+        metrics.timer("sync.round").record(2_500_000);
+        depth.set(9);
+
+        Map<String, Number> values = metrics.values();
+        assertEquals(3L, values.get("sync.rounds"));
+        assertEquals(9L, values.get("queue.depth"));
+        assertEquals(1L, values.get("sync.round.count"));
+        assertEquals(2.5, values.get("sync.round.max").doubleValue(), 0.001);
+        assertSame(metrics.counter("sync.rounds"), metrics.counter("sync.rounds"));
+
+        Map<?, ?> histograms = (Map<?, ?>) metrics.buildReport().get("histograms");
+        assertEquals("ms", ((Map<?, ?>) histograms.get("sync.round")).get("unit"));
+    }
+}
@@ -0,0 +1,79 @@
+package COMMON;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import model.Task;
+import model.TaskStatus;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Sequential vs fork-join cost of the tasks.json row encoding from 1k to 500k tasks, and the
+ * crossover the adaptive threshold settles on. Not part of the default test run; use
+ * {@code mvn test -Dtest=ParallelWorkBenchmark} (add {@code -Dtaskflow.parallelism=N} to pin the pool).
+ */
+@DisplayName("ParallelWork Benchmark")
+class ParallelWorkBenchmark {
+
+    private static final int[] SIZES = {1_000, 5_000, 20_000, 50_000, 100_000, 250_000, 500_000};
+    private static final int ROUNDS = 15;
+
+    @Test
+    @DisplayName("Should report the measured crossover for row encoding")
+    void rowEncodingCrossover() {
+        ParallelWork work = ParallelWork.shared();
+        List<Task> all = generateTasks(SIZES[SIZES.length - 1]);
+        System.out.printf("ParallelWorkBenchmark: parallelism=%d%n", work.getParallelism());
+
+        for (int size : SIZES) {
+            List<Task> tasks = all.subList(0, size);
+            double sequential = median(work, new ParallelWork.Crossover("sequential", Integer.MAX_VALUE, Integer.MAX_VALUE), tasks);
+            double parallel = median(work, new ParallelWork.Crossover("parallel", 0, 0), tasks);
+            System.out.printf("ParallelWorkBenchmark: %7d tasks  sequential %8.3f ms  fork-join %8.3f ms%n",
+                    size, sequential, parallel);
+        }
+
+        // Let an adaptive crossover learn from a mix of sizes, as refreshes would
+        ParallelWork.Crossover adaptive = new ParallelWork.Crossover("adaptive");
+        for (int round = 0; round < ROUNDS * 4; round++) {
+            for (int size : SIZES) work.map(adaptive, all.subList(0, size), ParallelWorkBenchmark::encode);
+        }
+        System.out.println("ParallelWorkBenchmark: learned " + adaptive);
+        assertTrue(adaptive.getThreshold() > 0);
+    }
+
+    private static double median(ParallelWork work, ParallelWork.Crossover crossover, List<Task> tasks) {
+        double[] samples = new double[ROUNDS];
+        for (int i = 0; i < ROUNDS; i++) {
+            long start = System.nanoTime();
+            work.map(crossover, tasks, ParallelWorkBenchmark::encode);
+            samples[i] = (System.nanoTime() - start) / 1e6;
+        }
+        java.util.Arrays.sort(samples);
+        return samples[ROUNDS / 2];
+    }
+
+    private static Object encode(Task task) {
+        return JSONUtils.buildJsonStructure(List.of(task)).get("data");
+    }
+
+    private static List<Task> generateTasks(int count) {
+        LocalDateTime base = LocalDateTime.of(2025, 1, 1, 9, 0);
+        List<Task> tasks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            tasks.add(new Task.Builder("task-" + i).taskTitle("Task " + i).description("Description " + i)
+                    .status(i % 3 == 0 ? TaskStatus.completed : TaskStatus.pending)
+                    .folderId("f-" + (i % 20)).folderName("Folder " + (i % 20))
+                    .createdAt(base.plusMinutes(i)).dueDate(base.plusDays(i % 60)).updatedAt(base.plusMinutes(i))
+                    .deletedAt(i % 10 == 0 ? base.plusDays(1) : null)
+                    .build());
+        }
+        return tasks;
+    }
+}
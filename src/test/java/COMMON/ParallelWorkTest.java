@@ -0,0 +1,82 @@
+package COMMON;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ParallelWork Tests")
+class ParallelWorkTest {
+
+    // Four workers even on a single-core machine, and every call large enough goes parallel
+    private final ParallelWork work = new ParallelWork(4);
+
+    private static ParallelWork.Crossover alwaysParallel() {
+        return new ParallelWork.Crossover("test", 0, 0);
+    }
+
+    @Test
+    @DisplayName("Should filter in order like a sequential loop")
+    void shouldFilterInOrder() {
+        ParallelWork.Crossover crossover = alwaysParallel();
+        int[] hits = work.filterIndices(crossover, 100_000, i -> i % 7 == 3);
+
+        assertArrayEquals(IntStream.range(0, 100_000).filter(i -> i % 7 == 3).toArray(), hits);
+        assertArrayEquals(new int[0], work.filterIndices(crossover, 0, i -> true));
+    }
+
+    @Test
+    @DisplayName("Should map every element in order into a mutable list")
+    void shouldMapInOrder() {
+        List<Integer> items = IntStream.range(0, 50_000).boxed().collect(Collectors.toList());
+        List<String> mapped = work.map(alwaysParallel(), items, i -> "#" + i);
+
+        assertEquals(items.stream().map(i -> "#" + i).toList(), mapped);
+        mapped.add("extra");
+    }
+
+    @Test
+    @DisplayName("Should sort stably")
+    void shouldSortStably() {
+        Random random = new Random(3);
+        List<int[]> items = new ArrayList<>();
+        for (int i = 0; i < 60_000; i++) items.add(new int[] {random.nextInt(100), i});
+        List<int[]> expected = new ArrayList<>(items);
+        expected.sort(Comparator.comparingInt(a -> a[0]));
+
+        work.sort(alwaysParallel(), items, Comparator.comparingInt(a -> a[0]));
+
+        for (int i = 0; i < items.size(); i++) assertSame(expected.get(i), items.get(i), "index " + i);
+    }
+
+    @Test
+    @DisplayName("Should put the crossover where parallel overhead equals the saved work")
+    void shouldLearnCrossover() {
+        ParallelWork.Crossover crossover = new ParallelWork.Crossover("test", 50_000, 1_000);
+        // 10 ns per item sequentially; parallel runs on 4 workers cost 1 ms on top of a quarter of that
+        crossover.record(10_000, 100_000, false, 4);
+        crossover.record(200_000, 1_000_000 + 200_000 * 10 / 4, true, 4);
+
+        // overhead / (perItem * (1 - 1/4)) = 1e6 / 7.5
+        assertEquals(133_333, crossover.getThreshold(), 1);
+        assertFalse(crossover.useParallel(500), "below the minimum size");
+        assertTrue(crossover.useParallel(1_000_000));
+    }
+
+    @Test
+    @DisplayName("Should stay sequential with a single worker")
+    void shouldStaySequentialWithOneWorker() {
+        ParallelWork single = new ParallelWork(1);
+        List<Integer> items = IntStream.range(0, 10_000).boxed().collect(Collectors.toList());
+        List<String> threads = single.map(alwaysParallel(), items, i -> Thread.currentThread().getName());
+
+        assertTrue(threads.stream().noneMatch(name -> name.startsWith("ParallelWork-")));
+    }
+}
@@ -0,0 +1,47 @@
+package COMMON.jfr;
+
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("FlightRecording Tests")
+class FlightRecordingTest {
+
+    @AfterEach
+    void stopRecording() {
+        FlightRecording.stop();
+    }
+
+    @Test
+    @DisplayName("Should start from the launcher flag and dump the ring buffer on demand")
+    void shouldDumpOnDemand(@TempDir Path dir) throws Exception {
+        assertFalse(FlightRecording.isRunning());
+        assertThrows(IllegalStateException.class, () -> FlightRecording.dump(dir));
+
+        FlightRecording.startIfRequested(new String[] {"--jfr=16"});
+        assertTrue(FlightRecording.isRunning());
+        UiRefreshEvent event = new UiRefreshEvent();
+        event.listedTasks = 42;
+        event.commit();
+
+        Path file = FlightRecording.dump(dir.resolve("recordings"));
+        assertTrue(Files.size(file) > 0);
+        assertTrue(RecordingFile.readAllEvents(file).stream()
+                .anyMatch(e -> e.getEventType().getName().equals("taskflow.UiRefresh") && e.getInt("listedTasks") == 42));
+    }
+
+    @Test
+    @DisplayName("Should fall back to the default size for an invalid flag value")
+    void shouldParseSize() {
+        assertEquals(128, FlightRecording.parseMaxMegabytes("128"));
+        assertEquals(FlightRecording.DEFAULT_MAX_MB, FlightRecording.parseMaxMegabytes("lots"));
+        assertEquals(FlightRecording.DEFAULT_MAX_MB, FlightRecording.parseMaxMegabytes("0"));
+    }
+}
@@ -0,0 +1,98 @@
+package UI;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import javax.swing.JPanel;
+import javax.swing.SwingUtilities;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the shared animation clock (Swing timers work headless).
+ */
+@DisplayName("AnimationClock Tests")
+class AnimationClockTest {
+
+    @Test
+    @DisplayName("Should drive many animations from one clock and stop when idle")
+    void shouldAdvanceAllAnimationsAndSuspend() throws Exception {
+        AnimationClock clock = new AnimationClock(5);
+        AtomicInteger finished = new AtomicInteger();
+        List<Double> lastProgress = new ArrayList<>();
+        SwingUtilities.invokeAndWait(() -> {
+            for (int i = 0; i < 200; i++) {
+                int index = i;
+                lastProgress.add(0.0);
+                clock.animate(i % 3 * 10, 60, p -> lastProgress.set(index, p), finished::incrementAndGet);
+            }
+            assertTrue(clock.isRunning());
+        });
+
+        waitFor(() -> finished.get() == 200);
+        waitFor(() -> !onEdt(clock::isRunning));
+
+        assertTrue(lastProgress.stream().allMatch(p -> p == 1.0));
+        assertEquals(0, (int) onEdt(clock::getActiveCount));
+        // 200 animations of ~60 ms at a 5 ms tick: frames are shared, not one timer per animation
+        assertTrue(onEdt(clock::getFramesRendered) < 200, "frames: " + onEdt(clock::getFramesRendered));
+    }
+
+    @Test
+    @DisplayName("Should lay out a component once per frame however many animations touch it")
+    void shouldCoalesceLayoutPerFrame() throws Exception {
+        AnimationClock clock = new AnimationClock(5);
+        AtomicInteger layouts = new AtomicInteger();
+        JPanel panel = new JPanel() {
+            @Override
+            public void doLayout() {
+                layouts.incrementAndGet();
+                super.doLayout();
+            }
+        };
+        AtomicInteger done = new AtomicInteger();
+        SwingUtilities.invokeAndWait(() -> {
+            for (int i = 0; i < 50; i++) {
+                clock.animate(0, 40, p -> clock.requestLayout(panel), done::incrementAndGet);
+            }
+        });
+
+        waitFor(() -> done.get() == 50);
+        waitFor(() -> !onEdt(clock::isRunning));
+        long frames = onEdt(clock::getFramesRendered);
+        assertTrue(layouts.get() <= frames, layouts.get() + " layouts for " + frames + " frames");
+    }
+
+    @Test
+    @DisplayName("Should not run the finish callback of a cancelled animation")
+    void shouldCancel() throws Exception {
+        AnimationClock clock = new AnimationClock(5);
+        AtomicInteger finished = new AtomicInteger();
+        SwingUtilities.invokeAndWait(() -> clock.animate(0, 1000, p -> { }, finished::incrementAndGet).cancel());
+        waitFor(() -> !onEdt(clock::isRunning));
+        assertEquals(0, finished.get());
+    }
+
+    private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) fail("condition not met within 5 s");
+            Thread.sleep(5);
+        }
+    }
+
+    private static <T> T onEdt(java.util.function.Supplier<T> supplier) {
+        List<T> holder = new ArrayList<>(1);
+        try {
+            SwingUtilities.invokeAndWait(() -> holder.add(supplier.get()));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        return holder.get(0);
+    }
+}
@@ -0,0 +1,82 @@
+package UI;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("BackgroundQuery Tests")
+class BackgroundQueryTest {
+
+    private final List<String> published = new CopyOnWriteArrayList<>();
+    private final List<String> queryThreads = new CopyOnWriteArrayList<>();
+    private BackgroundQuery<String> query;
+
+    @AfterEach
+    void tearDown() {
+        if (query != null) query.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should run queries off the caller thread and publish only the newest result")
+    void shouldPublishOnlyLatestGeneration() throws Exception {
+        CountDownLatch firstStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+        CountDownLatch lastPublished = new CountDownLatch(1);
+        query = new BackgroundQuery<>("TestQuery", result -> {
+            published.add(result);
+            if (result.equals("gen-5")) lastPublished.countDown();
+        }, Runnable::run);
+
+        query.submit(() -> {
+            queryThreads.add(Thread.currentThread().getName());
+            firstStarted.countDown();
+            await(releaseFirst);
+            return "gen-1";
+        });
+        assertTrue(firstStarted.await(5, TimeUnit.SECONDS));
+        // A burst of filter clicks while the first query is still running
+        for (int i = 2; i <= 5; i++) {
+            String value = "gen-" + i;
+            query.submit(() -> value);
+        }
+        releaseFirst.countDown();
+
+        assertTrue(lastPublished.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of("gen-5"), published, "stale generations must not be published");
+        assertEquals(List.of("TestQuery"), queryThreads);
+        assertEquals(5, query.getGeneration());
+        assertEquals(4, query.getDiscardedCount(), "gen-1 dropped after running, gen-2..4 skipped");
+    }
+
+    @Test
+    @DisplayName("Should keep working after a query throws")
+    void shouldSurviveFailingQuery() throws Exception {
+        CountDownLatch done = new CountDownLatch(1);
+        query = new BackgroundQuery<>("TestQuery", result -> {
+            published.add(result);
+            done.countDown();
+        }, Runnable::run);
+
+        query.submit(() -> { throw new IllegalStateException("boom"); });
+        Thread.sleep(50);
+        query.submit(() -> "ok");
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of("ok"), published);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package UI;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import javax.swing.SwingUtilities;
+
+import COMMON.JSONUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("EdtWatchdog Tests")
+class EdtWatchdogTest {
+
+    @TempDir
+    Path tempDir;
+
+    private EdtWatchdog watchdog;
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (watchdog != null) SwingUtilities.invokeAndWait(watchdog::stop);
+    }
+
+    @Test
+    @DisplayName("Should sample the EDT stack of a slow event and group it by application frame")
+    void shouldReportBlockingLocation() throws Exception {
+        File report = tempDir.resolve(EdtWatchdog.REPORT_FILE).toFile();
+        watchdog = new EdtWatchdog(50, 10, () -> report);
+        watchdog.start();
+
+        for (int i = 0; i < 2; i++) SwingUtilities.invokeAndWait(EdtWatchdogTest::blockTheEdt);
+        SwingUtilities.invokeAndWait(() -> { });
+
+        List<EdtWatchdog.Offender> offenders = watchdog.getOffenders();
+        assertEquals(1, offenders.size(), "both slow events block in the same place: " + offenders);
+        EdtWatchdog.Offender offender = offenders.get(0);
+        assertTrue(offender.getLocation().startsWith("UI.EdtWatchdogTest.blockTheEdt"), offender.getLocation());
+        assertEquals(2, offender.getCount());
+        assertTrue(offender.getMaxMs() >= 150);
+        assertTrue(offender.getTotalMs() >= 300);
+        assertEquals(2, watchdog.getSlowEventCount());
+        assertTrue(watchdog.getDispatchedEventCount() >= 3);
+
+        watchdog.writeReport();
+        Map<String, Object> json = JSONUtils.readJsonFile(report);
+        assertEquals(2, ((Number) json.get("slow_events")).intValue());
+        List<?> entries = (List<?>) json.get("offenders");
+        Map<?, ?> entry = (Map<?, ?>) entries.get(0);
+        assertEquals(offender.getLocation(), entry.get("location"));
+        assertFalse(((List<?>) entry.get("stack")).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should ignore events faster than the threshold")
+    void shouldIgnoreFastEvents() throws Exception {
+        watchdog = new EdtWatchdog(500, 10, () -> null);
+        watchdog.start();
+
+        for (int i = 0; i < 20; i++) SwingUtilities.invokeAndWait(() -> { });
+
+        assertEquals(0, watchdog.getSlowEventCount());
+        assertTrue(watchdog.getOffenders().isEmpty());
+        assertTrue(watchdog.getDispatchedEventCount() >= 20);
+    }
+
+    @Test
+    @DisplayName("Should name the innermost application frame, skipping platform and library code")
+    void shouldLocateApplicationFrame() {
+        StackTraceElement[] stack = {
+            new StackTraceElement("java.lang.Thread", "sleep", "Thread.java", 1),
+            new StackTraceElement("org.postgresql.Driver", "connect", "Driver.java", 2),
+            new StackTraceElement("service.FolderCacheService", "getFolderName", "FolderCacheService.java", 88),
+            new StackTraceElement("model.TaskHandlerV2", "getAllTasks", "TaskHandlerV2.java", 160),
+            new StackTraceElement("java.awt.EventQueue", "dispatchEvent", "EventQueue.java", 3)
+        };
+        assertEquals("service.FolderCacheService.getFolderName(FolderCacheService.java:88)", EdtWatchdog.locationOf(stack));
+
+        StackTraceElement[] platformOnly = { new StackTraceElement("java.lang.Object", "wait", "Object.java", 5) };
+        assertEquals("java.lang.Object.wait(Object.java:5)", EdtWatchdog.locationOf(platformOnly));
+    }
+
+    private static void blockTheEdt() {
+        try {
+            Thread.sleep(150);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package UI;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.awt.image.BufferedImage;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.swing.ImageIcon;
+import javax.swing.JButton;
+import javax.swing.JLabel;
+import javax.swing.JMenu;
+import javax.swing.JMenuItem;
+import javax.swing.JPanel;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("UIUtils Tests")
+class UIUtilsTest {
+
+    @Test
+    @DisplayName("Should swap themed icons in place, including menu items")
+    void shouldRefreshThemedIcons() {
+        ImageIcon day = new ImageIcon(new BufferedImage(20, 20, BufferedImage.TYPE_INT_ARGB));
+        ImageIcon night = new ImageIcon(new BufferedImage(20, 20, BufferedImage.TYPE_INT_ARGB));
+        AtomicReference<ImageIcon> current = new AtomicReference<>(day);
+
+        JPanel root = new JPanel();
+        JButton button = new JButton();
+        JLabel label = new JLabel();
+        JLabel plain = new JLabel(day);
+        JMenu menu = new JMenu("User");
+        JMenuItem item = new JMenuItem("Log out");
+        UIUtils.setThemedIcon(button, current::get);
+        UIUtils.setThemedIcon(label, current::get);
+        UIUtils.setThemedIcon(item, current::get);
+        menu.add(item);
+        root.add(button);
+        root.add(label);
+        root.add(plain);
+        root.add(menu);
+        assertSame(day, button.getIcon());
+
+        current.set(night);
+        UIUtils.refreshThemedIcons(root);
+
+        assertSame(night, button.getIcon());
+        assertSame(night, label.getIcon());
+        assertSame(night, item.getIcon());
+        assertSame(day, plain.getIcon(), "icons set directly are left alone");
+    }
+}
@@ -0,0 +1,97 @@
+package UI.components;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.swing.SwingUtilities;
+
+import model.CompletedTaskIndex;
+import model.Task;
+import model.TaskStatus;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("HistoryPanel Tests")
+class HistoryPanelTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2025, 1, 1, 12, 0);
+
+    private static final HistoryPanel.Listener NO_OP = new HistoryPanel.Listener() {
+        @Override public void onClose() { }
+        @Override public void onTaskSelected(Task task) { }
+        @Override public void onTaskRestore(Task task) { }
+        @Override public void onTaskDelete(Task task) { }
+    };
+
+    @Test
+    @DisplayName("Should load only the first page when opened")
+    void shouldLoadFirstPageOnly() throws Exception {
+        CompletedTaskIndex index = CompletedTaskIndex.of(completedTasks(1000));
+        SwingUtilities.invokeAndWait(() -> {
+            HistoryPanel panel = new HistoryPanel(NO_OP, 20, 3);
+            panel.showHistory(index);
+
+            assertEquals(20, panel.getLoadedTasks().size());
+            assertEquals("t0", panel.getLoadedTasks().get(0).getTask_id());
+            assertTrue(panel.hasOlder());
+            assertFalse(panel.hasNewer());
+        });
+    }
+
+    @Test
+    @DisplayName("Should keep at most the page budget loaded while scrolling both ways")
+    void shouldBoundLoadedPages() throws Exception {
+        CompletedTaskIndex index = CompletedTaskIndex.of(completedTasks(1000));
+        SwingUtilities.invokeAndWait(() -> {
+            HistoryPanel panel = new HistoryPanel(NO_OP, 20, 3);
+            panel.showHistory(index);
+            for (int i = 0; i < 10; i++) panel.loadOlder();
+
+            assertEquals(3, panel.getLoadedPageCount());
+            assertEquals(60, panel.getLoadedTasks().size());
+            assertEquals("t160", panel.getLoadedTasks().get(0).getTask_id());
+            assertEquals("t219", panel.getLoadedTasks().get(59).getTask_id());
+            assertTrue(panel.hasNewer());
+
+            panel.loadNewer();
+            assertEquals(3, panel.getLoadedPageCount());
+            assertEquals("t140", panel.getLoadedTasks().get(0).getTask_id());
+            assertEquals("t199", panel.getLoadedTasks().get(59).getTask_id());
+            assertTrue(panel.hasOlder());
+        });
+    }
+
+    @Test
+    @DisplayName("Should keep the loaded window when refreshed after a restore")
+    void shouldRefreshInPlace() throws Exception {
+        List<Task> tasks = completedTasks(100);
+        SwingUtilities.invokeAndWait(() -> {
+            HistoryPanel panel = new HistoryPanel(NO_OP, 10, 3);
+            panel.showHistory(CompletedTaskIndex.of(tasks));
+            for (int i = 0; i < 4; i++) panel.loadOlder();
+            Task first = panel.getLoadedTasks().get(0);
+
+            List<Task> afterRestore = new ArrayList<>(tasks);
+            afterRestore.remove(first);
+            panel.refreshHistory(CompletedTaskIndex.of(afterRestore));
+
+            assertEquals(3, panel.getLoadedPageCount());
+            assertFalse(panel.getLoadedTasks().contains(first));
+            assertEquals("t21", panel.getLoadedTasks().get(0).getTask_id());
+            assertTrue(panel.hasNewer());
+        });
+    }
+
+    private static List<Task> completedTasks(int count) {
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            tasks.add(new Task.Builder("t" + i).taskTitle("Task " + i).status(TaskStatus.completed)
+                    .updatedAt(T0.minusMinutes(i)).build());
+        }
+        return tasks;
+    }
+}
@@ -0,0 +1,85 @@
+package UI.components;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import model.Task;
+import model.TaskStatus;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("TaskListDiff Tests")
+class TaskListDiffTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2025, 1, 1, 12, 0);
+
+    @Test
+    @DisplayName("Should report nothing for an identical list")
+    void shouldBeEmptyForSameList() {
+        List<Task> tasks = List.of(task("a", T0), task("b", T0), task("c", T0));
+        List<Task> copy = List.of(task("a", T0), task("b", T0), task("c", T0));
+        assertTrue(TaskListDiff.compute(tasks, copy).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should detect inserts, removes and updates by task_id and updated_at")
+    void shouldDetectInsertRemoveUpdate() {
+        List<Task> before = List.of(task("a", T0), task("b", T0), task("c", T0));
+        List<Task> after = List.of(task("a", T0), task("c", T0.plusMinutes(1)), task("d", T0));
+
+        TaskListDiff diff = TaskListDiff.compute(before, after);
+
+        assertEquals(1, diff.getInserts());
+        assertEquals(1, diff.getRemoves());
+        assertEquals(1, diff.getUpdates());
+        assertEquals(0, diff.getMoves());
+        assertEquals(List.of("UPDATE:c", "INSERT:d", "REMOVE:b"), describe(diff));
+    }
+
+    @Test
+    @DisplayName("Should report a status change without an updated_at change as an update")
+    void shouldTreatDerivedStatusChangeAsUpdate() {
+        Task pending = task("a", T0);
+        Task overdue = pending.withStatus(TaskStatus.overdue).withUpdatedAt(T0);
+        assertEquals(1, TaskListDiff.compute(List.of(pending), List.of(overdue)).getUpdates());
+    }
+
+    @Test
+    @DisplayName("Should report a folder rename without an updated_at change as an update")
+    void shouldTreatFolderRenameAsUpdate() {
+        Task before = new Task.Builder("a").taskTitle("Task a").status(TaskStatus.pending)
+            .updatedAt(T0).folderId("f1").folderName("Inbox").build();
+        Task renamed = before.toBuilder().folderName("Today").build();
+        Task moved = before.toBuilder().folderId("f2").build();
+        assertEquals(1, TaskListDiff.compute(List.of(before), List.of(renamed)).getUpdates());
+        assertEquals(1, TaskListDiff.compute(List.of(before), List.of(moved)).getUpdates());
+    }
+
+    @Test
+    @DisplayName("Should move only the tasks outside the longest ordered run")
+    void shouldMinimizeMoves() {
+        List<Task> before = new ArrayList<>();
+        for (String id : new String[] {"a", "b", "c", "d", "e"}) before.add(task(id, T0));
+        // "e" jumps to the front; everything else keeps its relative order
+        List<Task> after = List.of(before.get(4), before.get(0), before.get(1), before.get(2), before.get(3));
+
+        TaskListDiff diff = TaskListDiff.compute(before, after);
+
+        assertEquals(List.of("MOVE:e"), describe(diff));
+        assertEquals(4, diff.getOps().get(0).fromIndex());
+        assertEquals(0, diff.getOps().get(0).toIndex());
+    }
+
+    private static Task task(String id, LocalDateTime updatedAt) {
+        return new Task.Builder(id).taskTitle("Task " + id).status(TaskStatus.pending).updatedAt(updatedAt).build();
+    }
+
+    private static List<String> describe(TaskListDiff diff) {
+        return diff.getOps().stream().map(op -> op.type() + ":" + op.taskId()).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,184 @@
+package UI.components;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.swing.JLabel;
+import javax.swing.JScrollPane;
+import javax.swing.JViewport;
+import javax.swing.SwingUtilities;
+
+import model.Task;
+import model.TaskStatus;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the virtualized, recycling task list. Runs headless: the list only needs a viewport.
+ */
+@DisplayName("VirtualTaskList Tests")
+class VirtualTaskListTest {
+
+    private static final LocalDateTime UPDATED_AT = LocalDateTime.of(2025, 1, 1, 12, 0);
+
+    private VirtualTaskList list;
+    private JScrollPane scrollPane;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        SwingUtilities.invokeAndWait(() -> {
+            list = new VirtualTaskList(null);
+            scrollPane = new JScrollPane(list);
+            scrollPane.setSize(500, 600);
+            list.addNotify();
+        });
+    }
+
+    @Test
+    @DisplayName("Should realize only about a screenful of cards for 100k tasks")
+    void shouldRealizeOnlyVisibleRows() throws Exception {
+        SwingUtilities.invokeAndWait(() -> {
+            list.setTasks(tasks(100_000));
+            layOut();
+        });
+
+        int realized = onEdt(list::getRealizedCardCount);
+        assertTrue(realized > 0, "some cards should be realized");
+        assertTrue(realized < 30, "realized " + realized + " cards");
+        assertTrue(onEdt(() -> list.getPreferredSize().height) > 100_000 * 50);
+    }
+
+    @Test
+    @DisplayName("Should recycle cards instead of creating new ones while scrolling")
+    void shouldRecycleCardsWhileScrolling() throws Exception {
+        SwingUtilities.invokeAndWait(() -> {
+            list.setTasks(tasks(100_000));
+            layOut();
+        });
+        int createdAfterFirstScreen = onEdt(list::getCardsCreated);
+
+        long start = System.nanoTime();
+        SwingUtilities.invokeAndWait(() -> {
+            JViewport viewport = scrollPane.getViewport();
+            for (int step = 1; step <= 200; step++) {
+                viewport.setViewPosition(new Point(0, step * 40_000));
+            }
+        });
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        List<String> visible = onEdt(list::getVisibleTaskIds);
+        assertFalse(visible.isEmpty());
+        assertTrue(Integer.parseInt(visible.get(0).substring(5)) > 50_000, "should have scrolled deep into the list");
+        assertTrue(onEdt(list::getCardsCreated) <= createdAfterFirstScreen + 4,
+            "scrolling should reuse pooled cards, created " + onEdt(list::getCardsCreated));
+        assertTrue(elapsedMs < 5000, "200 scroll steps took " + elapsedMs + " ms");
+    }
+
+    @Test
+    @DisplayName("Should show an expansion in place of the card and honour pinned heights")
+    void shouldSupportExpansionsAndPinnedHeights() throws Exception {
+        JLabel editor = new JLabel("editor");
+        SwingUtilities.invokeAndWait(() -> {
+            list.setTasks(tasks(10));
+            layOut();
+            list.setExpansion("task-2", editor);
+            list.setRowHeight("task-2", 40);
+            layOut();
+        });
+
+        Rectangle row = onEdt(() -> list.getRowBounds("task-2"));
+        assertEquals(40, row.height);
+        assertEquals(row, editor.getBounds());
+
+        SwingUtilities.invokeAndWait(() -> list.setTasks(tasks(2)));
+        assertNull(onEdt(() -> list.getExpansion("task-2")), "expansion of a task no longer listed is dropped");
+        assertNull(editor.getParent());
+    }
+
+    @Test
+    @DisplayName("Should re-bind only the cards whose task changed on refresh")
+    void shouldPatchOnlyChangedCards() throws Exception {
+        List<Task> tasks = tasks(50);
+        SwingUtilities.invokeAndWait(() -> {
+            list.setTasks(tasks);
+            layOut();
+        });
+
+        List<Task> reloaded = tasks(50);
+        SwingUtilities.invokeAndWait(() -> {
+            list.setTasks(reloaded);
+            layOut();
+        });
+        assertTrue(onEdt(() -> list.getLastDiff().isEmpty()));
+        assertEquals(0, onEdt(list::getLastRefreshRebuiltCount), "an unchanged refresh rebuilds nothing");
+        assertTrue(onEdt(() -> {
+            boolean anyCard = false;
+            for (java.awt.Component c : list.getComponents()) {
+                // Pooled cards stay hidden children of the list
+                if (!(c instanceof TaskCardPanel card) || !card.isVisible()) continue;
+                anyCard = true;
+                if (reloaded.stream().noneMatch(t -> t == card.getTask())) return false;
+            }
+            return anyCard;
+        }), "unchanged cards act on the new task instances");
+
+        List<Task> edited = new ArrayList<>(tasks);
+        edited.set(1, tasks.get(1).withTitle("Edited").withUpdatedAt(LocalDateTime.now()));
+        edited.remove(3);
+        SwingUtilities.invokeAndWait(() -> {
+            list.setTasks(edited);
+            layOut();
+        });
+        assertEquals(1, onEdt(() -> list.getLastDiff().getUpdates()));
+        assertEquals(1, onEdt(() -> list.getLastDiff().getRemoves()));
+        assertEquals(1, onEdt(list::getLastRefreshRebuiltCount));
+    }
+
+    /**
+     * validate() is a no-op without a native peer, so drive the layout directly.
+     */
+    @Test
+    @DisplayName("Should re-bind only the realized cards of the given tasks")
+    void shouldRebindRealizedCards() throws Exception {
+        SwingUtilities.invokeAndWait(() -> {
+            list.setTasks(tasks(1_000));
+            layOut();
+        });
+
+        int rebound = onEdt(() -> list.rebind(List.of("task-0", "task-1", "task-999", "missing")));
+
+        assertEquals(2, rebound, "off-screen and unknown tasks are skipped");
+    }
+
+    private void layOut() {
+        scrollPane.doLayout();
+        scrollPane.getViewport().doLayout();
+        list.doLayout();
+    }
+
+    private static List<Task> tasks(int count) {
+        List<Task> tasks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            tasks.add(new Task.Builder("task-" + i)
+                .taskTitle("Task " + i)
+                .description("Description " + i)
+                .status(TaskStatus.pending)
+                .updatedAt(UPDATED_AT)
+                .build());
+        }
+        return tasks;
+    }
+
+    private static <T> T onEdt(java.util.function.Supplier<T> supplier) throws Exception {
+        List<T> holder = new ArrayList<>(1);
+        SwingUtilities.invokeAndWait(() -> holder.add(supplier.get()));
+        return holder.get(0);
+    }
+}
@@ -0,0 +1,78 @@
+package model;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("CompletedTaskIndex Tests")
+class CompletedTaskIndexTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2025, 1, 1, 12, 0);
+
+    @Test
+    @DisplayName("Should index only completed tasks, newest first")
+    void shouldOrderCompletedTasksNewestFirst() {
+        List<Task> tasks = List.of(
+                task("old", TaskStatus.completed, T0),
+                task("open", TaskStatus.pending, T0.plusDays(5)),
+                task("new", TaskStatus.completed, T0.plusDays(2)),
+                task("mid", TaskStatus.completed, T0.plusDays(1)));
+
+        CompletedTaskIndex index = CompletedTaskIndex.of(tasks);
+
+        assertEquals(3, index.size());
+        assertEquals(List.of("new", "mid", "old"), ids(index.older(null, 10)));
+    }
+
+    @Test
+    @DisplayName("Should page older and newer by cursor")
+    void shouldPageByCursor() {
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 10; i++) tasks.add(task("t" + i, TaskStatus.completed, T0.minusHours(i)));
+        CompletedTaskIndex index = CompletedTaskIndex.of(tasks);
+
+        CompletedTaskIndex.Page first = index.older(null, 4);
+        assertEquals(List.of("t0", "t1", "t2", "t3"), ids(first));
+        assertFalse(first.hasNewer());
+        assertTrue(first.hasOlder());
+
+        CompletedTaskIndex.Page second = index.older(CompletedTaskIndex.Cursor.of(tasks.get(3)), 4);
+        assertEquals(List.of("t4", "t5", "t6", "t7"), ids(second));
+        assertTrue(second.hasNewer());
+        assertTrue(second.hasOlder());
+
+        CompletedTaskIndex.Page last = index.older(CompletedTaskIndex.Cursor.of(tasks.get(7)), 4);
+        assertEquals(List.of("t8", "t9"), ids(last));
+        assertFalse(last.hasOlder());
+
+        CompletedTaskIndex.Page back = index.newer(CompletedTaskIndex.Cursor.of(tasks.get(4)), 3);
+        assertEquals(List.of("t1", "t2", "t3"), ids(back));
+        assertTrue(back.hasNewer());
+        assertTrue(back.hasOlder());
+    }
+
+    @Test
+    @DisplayName("Should resume from the next task when the cursor's task is gone")
+    void shouldResumeAfterRemovedTask() {
+        Task a = task("a", TaskStatus.completed, T0.plusHours(2));
+        Task b = task("b", TaskStatus.completed, T0.plusHours(1));
+        Task c = task("c", TaskStatus.completed, T0);
+        CompletedTaskIndex restoredB = CompletedTaskIndex.of(List.of(a, c));
+
+        assertEquals(List.of("c"), ids(restoredB.from(CompletedTaskIndex.Cursor.of(b), 5)));
+    }
+
+    private static Task task(String id, TaskStatus status, LocalDateTime updatedAt) {
+        return new Task.Builder(id).taskTitle("Task " + id).status(status).updatedAt(updatedAt).build();
+    }
+
+    private static List<String> ids(CompletedTaskIndex.Page page) {
+        return page.tasks().stream().map(Task::getTask_id).collect(Collectors.toList());
+    }
+}
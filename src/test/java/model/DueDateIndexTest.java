@@ -0,0 +1,75 @@
+package model;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("DueDateIndex Tests")
+class DueDateIndexTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 6, 1, 12, 0);
+
+    @Test
+    @DisplayName("Should answer overdue and incoming-due as ranges around now")
+    void shouldQueryRangesAroundNow() {
+        DueDateIndex index = new DueDateIndex();
+        index.rebuild(List.of(task("a", NOW.minusDays(2)), task("b", NOW.plusHours(1)),
+                task("c", NOW), task("d", null), task("e", NOW.minusMinutes(1))));
+
+        assertEquals(4, index.size());
+        assertEquals(List.of("a", "e"), ids(index.dueBefore(NOW)));
+        assertEquals(List.of("b"), ids(index.dueAfter(NOW)));
+        assertEquals(2, index.countDueBefore(NOW, Integer.MAX_VALUE));
+        assertEquals(1, index.countDueBefore(NOW, 1));
+        assertEquals(1, index.countDueAfter(NOW, 10));
+    }
+
+    @Test
+    @DisplayName("Should return only the tasks crossing the boundary between two instants")
+    void shouldReturnCrossings() {
+        DueDateIndex index = new DueDateIndex();
+        index.rebuild(List.of(task("a", NOW.minusMinutes(5)), task("b", NOW), task("c", NOW.plusMinutes(1)),
+                task("d", NOW.plusMinutes(2))));
+
+        assertEquals(List.of("b", "c"), ids(index.crossings(NOW, NOW.plusMinutes(2))));
+        assertTrue(index.crossings(NOW, NOW).isEmpty());
+        assertEquals(NOW.plusMinutes(1), index.nextDueAtOrAfter(NOW.plusSeconds(1)));
+        assertNull(index.nextDueAtOrAfter(NOW.plusMinutes(3)));
+    }
+
+    @Test
+    @DisplayName("Should re-key tasks on update, removal and id change")
+    void shouldFollowTaskChanges() {
+        DueDateIndex index = new DueDateIndex();
+        AtomicInteger changes = new AtomicInteger();
+        index.setOnChange(changes::incrementAndGet);
+        index.put(task("tmp", NOW.plusDays(1)));
+        index.put(task("x", NOW.minusDays(1)));
+
+        index.put(task("x", NOW.plusDays(2)));
+        assertEquals(List.of("tmp", "x"), index.orderedIds());
+
+        index.rename("tmp", "server-1");
+        assertEquals(List.of("server-1", "x"), index.orderedIds());
+
+        index.put(task("x", null));
+        index.remove("server-1");
+        index.remove("missing");
+        assertEquals(0, index.size());
+        assertEquals(6, changes.get());
+    }
+
+    private static Task task(String id, LocalDateTime dueDate) {
+        return new Task.Builder(id).taskTitle("Task " + id).status(TaskStatus.pending)
+                .createdAt(NOW.minusDays(10)).dueDate(dueDate).build();
+    }
+
+    private static List<String> ids(List<Task> tasks) {
+        return tasks.stream().map(Task::getTask_id).toList();
+    }
+}
@@ -0,0 +1,119 @@
+package model;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("TaskCounters Tests")
+class TaskCountersTest {
+
+    // A Wednesday
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 6, 4, 12, 0);
+    private static final List<Folder> FOLDERS = List.of(
+            new Folder.Builder("f-work").folderName("Work").build(),
+            new Folder.Builder("f-home").folderName("Home").build());
+
+    @Test
+    @DisplayName("Should match a full recount after random puts, removals and renames")
+    void shouldMatchFullRecount() {
+        Random random = new Random(5);
+        TaskCounters counters = new TaskCounters();
+        Map<String, Task> live = new HashMap<>();
+        TaskStatus[] statuses = {TaskStatus.pending, TaskStatus.in_progress, TaskStatus.completed};
+
+        for (int step = 0; step < 3_000; step++) {
+            // Reads interleaved with changes exercise the incremental overdue and weekly totals
+            LocalDateTime now = NOW.plusHours(step / 100);
+            String id = "t" + random.nextInt(200);
+            switch (random.nextInt(6)) {
+                case 0 -> { counters.remove(id); live.remove(id); }
+                case 1 -> {
+                    Task task = live.remove(id);
+                    if (task != null) {
+                        String newId = "s" + step;
+                        counters.rename(id, newId);
+                        live.put(newId, task);
+                    }
+                }
+                default -> {
+                    LocalDateTime due = random.nextInt(4) == 0 ? null : NOW.plusHours(random.nextInt(96) - 48);
+                    Task task = new Task.Builder(id).taskTitle("Task " + id)
+                            .status(statuses[random.nextInt(3)])
+                            .folderId(random.nextBoolean() ? "f-work" : null)
+                            .folderName(random.nextBoolean() ? "Home" : null)
+                            .dueDate(due).createdAt(NOW.minusDays(10))
+                            .updatedAt(NOW.minusHours(random.nextInt(24 * 6)))
+                            .deletedAt(random.nextInt(20) == 0 ? NOW : null)
+                            .build();
+                    counters.put(task);
+                    if (task.getDeleted_at() == null) live.put(id, task); else live.remove(id);
+                }
+            }
+            if (step % 50 == 0) assertEquals(recount(live.values(), now), counters.summarize(FOLDERS, now), "step " + step);
+        }
+    }
+
+    @Test
+    @DisplayName("Should count overdue tasks as their due date passes")
+    void shouldAdvanceOverdue() {
+        TaskCounters counters = new TaskCounters();
+        counters.put(task("a", TaskStatus.pending, NOW.plusMinutes(5)));
+        counters.put(task("b", TaskStatus.completed, NOW.plusMinutes(5)));
+        assertEquals(0, counters.overdue(NOW));
+
+        assertEquals(1, counters.overdue(NOW.plusMinutes(10)));
+        counters.put(task("a", TaskStatus.completed, NOW.plusMinutes(5)));
+        assertEquals(0, counters.overdue(NOW.plusMinutes(11)));
+        // The clock going back recounts
+        counters.put(task("c", TaskStatus.pending, NOW.minusMinutes(1)));
+        assertEquals(1, counters.overdue(NOW));
+    }
+
+    @Test
+    @DisplayName("Should count per folder id, falling back to the folder name")
+    void shouldCountPerFolder() {
+        TaskCounters counters = new TaskCounters();
+        counters.put(new Task.Builder("1").taskTitle("Task 1").folderId("f-work").folderName("Work").status(TaskStatus.pending).build());
+        counters.put(new Task.Builder("2").taskTitle("Task 2").folderName("Work").status(TaskStatus.in_progress).build());
+        counters.put(new Task.Builder("3").taskTitle("Task 3").folderId("f-home").status(TaskStatus.completed).build());
+
+        assertEquals(1, counters.count("f-work", "Work", TaskStatus.pending));
+        assertEquals(1, counters.count("f-work", "Work", TaskStatus.in_progress));
+        assertEquals(Map.of("Work", 2, "Home", 0), counters.summarize(FOLDERS, NOW).openByFolder());
+        assertEquals(1, counters.count(TaskStatus.completed));
+    }
+
+    private static TaskCounters.Summary recount(Iterable<Task> tasks, LocalDateTime now) {
+        // Every "now" of these tests falls in the week starting Monday June 2nd
+        LocalDateTime weekStart = LocalDateTime.of(2025, 6, 2, 0, 0);
+        List<Task> all = new ArrayList<>();
+        tasks.forEach(all::add);
+        Map<String, Integer> openByFolder = new LinkedHashMap<>();
+        for (Folder folder : FOLDERS) {
+            openByFolder.put(folder.getFolder_name(), (int) all.stream().filter(t -> t.getStatus() != TaskStatus.completed)
+                    .filter(t -> t.getFolder_id() != null ? t.getFolder_id().equals(folder.getFolder_id())
+                            : folder.getFolder_name().equals(t.getFolder_name()))
+                    .count());
+        }
+        int open = (int) all.stream().filter(t -> t.getStatus() != TaskStatus.completed).count();
+        int overdue = (int) all.stream().filter(t -> t.getStatus() != TaskStatus.completed)
+                .filter(t -> t.getDue_date() != null && t.getDue_date().isBefore(now)).count();
+        int completed = (int) all.stream().filter(t -> t.getStatus() == TaskStatus.completed)
+                .filter(t -> !CompletedTaskIndex.completedAt(t).isBefore(weekStart)).count();
+        return new TaskCounters.Summary(openByFolder, open, overdue, completed);
+    }
+
+    private static Task task(String id, TaskStatus status, LocalDateTime dueDate) {
+        return new Task.Builder(id).taskTitle("Task " + id).status(status).dueDate(dueDate)
+                .createdAt(NOW.minusDays(1)).updatedAt(NOW.minusDays(1)).build();
+    }
+}
@@ -0,0 +1,76 @@
+package model;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("TaskQueryCache Tests")
+class TaskQueryCacheTest {
+
+    private static final FiltersCriteria PENDING = new FiltersCriteria(null, Set.of(TaskStatus.pending));
+    private static final List<Task> RESULT = List.of(new Task.Builder("t1").taskTitle("Task").build());
+
+    @Test
+    @DisplayName("Should return the same list for identical criteria at the same version")
+    void shouldHitForSameVersion() {
+        TaskQueryCache cache = new TaskQueryCache(4);
+        assertNull(cache.get(PENDING, 1, 0));
+        // Stored from a mutable set that changes afterwards: the entry must not follow it
+        Set<TaskStatus> statuses = new HashSet<>(EnumSet.of(TaskStatus.pending));
+        cache.put(new FiltersCriteria(null, statuses), 1, 0, RESULT);
+        statuses.add(TaskStatus.completed);
+
+        assertSame(RESULT, cache.get(PENDING, 1, 0));
+        assertSame(RESULT, cache.get(new FiltersCriteria(null, EnumSet.of(TaskStatus.pending)), 1, 0));
+        assertEquals(2, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    @DisplayName("Should drop every entry when the data version moves on")
+    void shouldInvalidateOnVersionBump() {
+        TaskQueryCache cache = new TaskQueryCache(4);
+        cache.put(PENDING, 1, 0, RESULT);
+
+        assertNull(cache.get(PENDING, 2, 0));
+        assertEquals(0, cache.size());
+
+        // A result computed from an older version arriving late is not stored
+        cache.put(PENDING, 1, 0, RESULT);
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    @DisplayName("Should key clock-dependent results by time bucket")
+    void shouldSeparateTimeBuckets() {
+        TaskQueryCache cache = new TaskQueryCache(4);
+        FiltersCriteria overdue = new FiltersCriteria(null, Set.of(TaskStatus.overdue));
+        cache.put(overdue, 1, 100, RESULT);
+
+        assertSame(RESULT, cache.get(overdue, 1, 100));
+        assertNull(cache.get(overdue, 1, 101));
+    }
+
+    @Test
+    @DisplayName("Should evict the least recently used result")
+    void shouldEvictLeastRecentlyUsed() {
+        TaskQueryCache cache = new TaskQueryCache(2);
+        FiltersCriteria work = new FiltersCriteria("Work", null);
+        FiltersCriteria home = new FiltersCriteria("Home", null);
+        cache.put(PENDING, 1, 0, RESULT);
+        cache.put(work, 1, 0, RESULT);
+        cache.get(PENDING, 1, 0);
+        cache.put(home, 1, 0, RESULT);
+
+        assertNotNull(cache.get(PENDING, 1, 0));
+        assertNull(cache.get(work, 1, 0));
+        assertNotNull(cache.get(home, 1, 0));
+        assertThrows(IllegalArgumentException.class, () -> new TaskQueryCache(0));
+    }
+}
@@ -0,0 +1,192 @@
+package model;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("TaskQuery Tests")
+class TaskQueryTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 6, 1, 12, 0);
+    private static final List<Folder> FOLDERS = List.of(
+            new Folder.Builder("f-work").folderName("Work").build(),
+            new Folder.Builder("f-home").folderName("Home").build());
+
+    @Test
+    @DisplayName("Should match the sequential filter passes for every criteria combination")
+    void shouldMatchSequentialFiltering() {
+        List<Task> tasks = randomTasks(new Random(42), 300);
+        TaskQueryIndex index = TaskQueryIndex.of(tasks, FOLDERS);
+        TaskStatus[] all = TaskStatus.values();
+        List<String> folders = new ArrayList<>(List.of(TaskQuery.ALL_FOLDERS, "Work", "Home", "Unknown"));
+        folders.add(null);
+
+        for (String folder : folders) {
+            for (int mask = 0; mask < 1 << all.length; mask++) {
+                Set<TaskStatus> statuses = EnumSet.noneOf(TaskStatus.class);
+                for (int b = 0; b < all.length; b++) if ((mask & 1 << b) != 0) statuses.add(all[b]);
+                FiltersCriteria criteria = new FiltersCriteria(folder, statuses);
+
+                List<Task> expected = sequentialFilter(tasks, criteria);
+                List<Task> actual = TaskQuery.compile(criteria).execute(index, null, NOW);
+                assertEquals(ids(expected), ids(actual), "folder=" + folder + " statuses=" + statuses);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should give the same results when the due order comes from the store's index")
+    void shouldMatchWithStoreDueDateIndex() {
+        List<Task> tasks = randomTasks(new Random(11), 200);
+        DueDateIndex dueIndex = new DueDateIndex();
+        dueIndex.rebuild(tasks);
+        TaskQueryIndex sorted = TaskQueryIndex.of(tasks, FOLDERS);
+        TaskQueryIndex fromStore = TaskQueryIndex.of(tasks, FOLDERS, dueIndex);
+        // A stale store index (a task missing) must fall back to sorting
+        dueIndex.remove(tasks.stream().filter(t -> t.getDue_date() != null).findFirst().orElseThrow().getTask_id());
+        TaskQueryIndex fromStale = TaskQueryIndex.of(tasks, FOLDERS, dueIndex);
+
+        for (Set<TaskStatus> statuses : List.of(EnumSet.of(TaskStatus.overdue), EnumSet.of(TaskStatus.incoming_due),
+                EnumSet.of(TaskStatus.incoming_due, TaskStatus.newest, TaskStatus.pending))) {
+            TaskQuery query = TaskQuery.compile(new FiltersCriteria(null, statuses));
+            List<String> expected = ids(query.execute(sorted, null, NOW));
+            assertEquals(expected, ids(query.execute(fromStore, null, NOW)), "statuses=" + statuses);
+            assertEquals(expected, ids(query.execute(fromStale, null, NOW)), "statuses=" + statuses);
+        }
+    }
+
+    @Test
+    @DisplayName("Should treat missing statuses as no status filter")
+    void shouldAcceptNullStatuses() {
+        List<Task> tasks = randomTasks(new Random(7), 50);
+        TaskQueryIndex index = TaskQueryIndex.of(tasks, FOLDERS);
+
+        List<Task> result = TaskQuery.compile(new FiltersCriteria(null, null)).execute(index, null, NOW);
+
+        assertEquals(ids(tasks), ids(result));
+        assertThrows(UnsupportedOperationException.class, () -> result.add(tasks.get(0)));
+    }
+
+    @Test
+    @DisplayName("Should drive from the smallest candidate set")
+    void shouldChooseMostSelectiveDriver() {
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            tasks.add(task("t" + i, i < 3 ? "Home" : "Work", i < 90 ? TaskStatus.pending : TaskStatus.completed,
+                    NOW.minusDays(10), i < 5 ? NOW.minusDays(1) : NOW.plusDays(i)));
+        }
+        TaskQueryIndex index = TaskQueryIndex.of(tasks, FOLDERS);
+
+        assertEquals(TaskQuery.Driver.FOLDER, driver(index, "Home", EnumSet.of(TaskStatus.pending)));
+        assertEquals(TaskQuery.Driver.STATUS, driver(index, "Work", EnumSet.of(TaskStatus.completed)));
+        assertEquals(TaskQuery.Driver.DUE_BEFORE, driver(index, TaskQuery.ALL_FOLDERS, EnumSet.of(TaskStatus.pending, TaskStatus.overdue)));
+        assertEquals(TaskQuery.Driver.ALL, driver(index, TaskQuery.ALL_FOLDERS, EnumSet.noneOf(TaskStatus.class)));
+
+        List<Task> overdue = TaskQuery.compile(new FiltersCriteria(null, EnumSet.of(TaskStatus.pending, TaskStatus.overdue)))
+                .execute(index, null, NOW);
+        assertEquals(List.of("t0", "t1", "t2", "t3", "t4"), ids(overdue));
+    }
+
+    @Test
+    @DisplayName("Should apply search matches in the same pass")
+    void shouldApplySearch() {
+        List<Task> tasks = List.of(
+                task("a", "Work", TaskStatus.pending, NOW.minusDays(1), null).toBuilder().taskTitle("Quarterly report").build(),
+                task("b", "Work", TaskStatus.pending, NOW.minusDays(2), null).toBuilder().taskTitle("Groceries").build(),
+                task("c", "Home", TaskStatus.pending, NOW.minusDays(3), null).toBuilder().taskTitle("Report taxes").build());
+        TaskSearchIndex search = new TaskSearchIndex();
+        search.rebuild(tasks);
+        TaskQueryIndex index = TaskQueryIndex.of(tasks, FOLDERS);
+
+        FiltersCriteria criteria = new FiltersCriteria("Work", EnumSet.of(TaskStatus.pending), "rep");
+        List<Task> result = TaskQuery.compile(criteria).execute(index, search.search(criteria.searchText()), NOW);
+
+        assertEquals(List.of("a"), ids(result));
+    }
+
+    @Test
+    @DisplayName("Should merge sorted position lists without duplicates")
+    void shouldUnionPositions() {
+        assertArrayEquals(new int[] {1, 2, 3, 5, 8}, TaskQueryIndex.union(new int[] {1, 3, 5}, new int[] {2, 3, 8}));
+        assertArrayEquals(new int[] {4}, TaskQueryIndex.union(new int[0], new int[] {4}));
+    }
+
+    /** The filter passes the controller used to run one after another. */
+    private static List<Task> sequentialFilter(List<Task> tasks, FiltersCriteria criteria) {
+        List<Task> filtered = new ArrayList<>(tasks);
+        String folder = criteria.folderName();
+        if (folder != null && !folder.equals(TaskQuery.ALL_FOLDERS)) {
+            String folderId = FOLDERS.stream().filter(f -> folder.equals(f.getFolder_name()))
+                    .map(Folder::getFolder_id).findFirst().orElse(null);
+            filtered = filtered.stream()
+                    .filter(t -> (folderId != null && Objects.equals(t.getFolder_id(), folderId))
+                            || Objects.equals(t.getFolder_name(), folder))
+                    .collect(Collectors.toList());
+        }
+        Set<TaskStatus> statuses = criteria.statuses();
+        if (statuses.contains(TaskStatus.completed) || statuses.contains(TaskStatus.pending) || statuses.contains(TaskStatus.in_progress)) {
+            filtered = filtered.stream().filter(t -> statuses.contains(t.getStatus())).collect(Collectors.toList());
+        }
+        if (statuses.contains(TaskStatus.newest)) {
+            filtered = filtered.stream()
+                    .filter(t -> t.getCreated_at() != null && t.getCreated_at().isBefore(NOW))
+                    .sorted(Comparator.comparing(Task::getCreated_at).reversed())
+                    .collect(Collectors.toList());
+        }
+        if (statuses.contains(TaskStatus.incoming_due)) {
+            filtered = filtered.stream()
+                    .filter(t -> t.getDue_date() != null && t.getDue_date().isAfter(NOW))
+                    .sorted(Comparator.comparing(Task::getDue_date))
+                    .collect(Collectors.toList());
+        }
+        if (statuses.contains(TaskStatus.overdue)) {
+            filtered = filtered.stream()
+                    .filter(t -> t.getDue_date() != null && t.getDue_date().isBefore(NOW))
+                    .collect(Collectors.toList());
+        }
+        return filtered;
+    }
+
+    private static TaskQuery.Driver driver(TaskQueryIndex index, String folder, Set<TaskStatus> statuses) {
+        return TaskQuery.compile(new FiltersCriteria(folder, statuses)).chooseDriver(index, NOW);
+    }
+
+    private static List<Task> randomTasks(Random random, int count) {
+        TaskStatus[] statuses = {TaskStatus.pending, TaskStatus.in_progress, TaskStatus.completed};
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            // Coarse times so ties in due and creation dates are common
+            LocalDateTime created = random.nextInt(10) == 0 ? null : NOW.plusDays(random.nextInt(6) - 4);
+            LocalDateTime due = random.nextInt(4) == 0 ? null : NOW.plusDays(random.nextInt(9) - 4);
+            Task task = task("t" + i, null, statuses[random.nextInt(statuses.length)], created, due);
+            switch (random.nextInt(4)) {
+                case 0 -> task = task.toBuilder().folderId("f-work").build();
+                case 1 -> task = task.toBuilder().folderName("Work").build();
+                case 2 -> task = task.toBuilder().folderId("f-home").folderName("Home").build();
+                default -> { }
+            }
+            tasks.add(task);
+        }
+        return tasks;
+    }
+
+    private static Task task(String id, String folderName, TaskStatus status, LocalDateTime createdAt, LocalDateTime dueDate) {
+        return new Task.Builder(id).taskTitle("Task " + id).folderName(folderName).status(status)
+                .createdAt(createdAt).dueDate(dueDate).updatedAt(NOW).build();
+    }
+
+    private static List<String> ids(List<Task> tasks) {
+        return tasks.stream().map(Task::getTask_id).collect(Collectors.toList());
+    }
+}
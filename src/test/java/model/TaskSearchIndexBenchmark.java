@@ -0,0 +1,92 @@
+package model;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Per-keystroke search latency at 100k tasks. Not part of the default test run; use
+ * {@code mvn test -Dtest=TaskSearchIndexBenchmark}.
+ */
+@DisplayName("TaskSearchIndex Benchmark")
+class TaskSearchIndexBenchmark {
+
+    private static final int TASKS = 100_000;
+    private static final int WARMUP_ROUNDS = 20;
+    private static final String[] WORDS = {
+        "meeting", "review", "budget", "report", "call", "email", "plan", "design", "deploy", "release",
+        "invoice", "client", "réunion", "école", "café", "dentist", "groceries", "travel", "hotel", "flight",
+        "quarterly", "sprint", "backlog", "refactor", "migration", "database", "server", "frontend", "notes",
+        "draft", "présentation", "schedule", "interview", "training", "workshop", "contract", "payment"
+    };
+    private static final List<String> QUERIES = List.of("meeting notes", "reu ecole", "q", "backlog sprint review");
+
+    @Test
+    @DisplayName("Should answer each keystroke in under 5 ms at 100k tasks")
+    void perKeystrokeLatency() {
+        TaskSearchIndex index = new TaskSearchIndex();
+        long buildStart = System.nanoTime();
+        index.rebuild(generateTasks());
+        System.out.printf("TaskSearchIndexBenchmark: indexed %d tasks in %d ms%n",
+                TASKS, (System.nanoTime() - buildStart) / 1_000_000);
+
+        for (int i = 0; i < WARMUP_ROUNDS; i++) typeAll(index);
+
+        long[] samples = typeAll(index);
+        Arrays.sort(samples);
+        double p50 = samples[samples.length / 2] / 1e6;
+        double p95 = samples[(int) (samples.length * 0.95)] / 1e6;
+        double max = samples[samples.length - 1] / 1e6;
+        System.out.printf("TaskSearchIndexBenchmark: %d keystrokes, p50=%.3f ms, p95=%.3f ms, max=%.3f ms%n",
+                samples.length, p50, p95, max);
+
+        long start = System.nanoTime();
+        index.put(new Task.Builder("task-0").taskTitle("Edited title").status(TaskStatus.pending).build());
+        System.out.printf("TaskSearchIndexBenchmark: incremental update in %.3f ms%n", (System.nanoTime() - start) / 1e6);
+
+        assertTrue(p95 < 5.0, "p95 per keystroke: " + p95 + " ms");
+    }
+
+    /** Time the search for every prefix of every query, as if typed. */
+    private static long[] typeAll(TaskSearchIndex index) {
+        List<Long> samples = new ArrayList<>();
+        for (String query : QUERIES) {
+            for (int len = 1; len <= query.length(); len++) {
+                String typed = query.substring(0, len);
+                long start = System.nanoTime();
+                TaskSearchIndex.Result result = index.search(typed);
+                samples.add(System.nanoTime() - start);
+                assertNotNull(result);
+            }
+        }
+        return samples.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private static List<Task> generateTasks() {
+        Random random = new Random(42);
+        List<Task> tasks = new ArrayList<>(TASKS);
+        for (int i = 0; i < TASKS; i++) {
+            tasks.add(new Task.Builder("task-" + i)
+                    .taskTitle(words(random, 2 + random.nextInt(4)) + " #" + i)
+                    .description(words(random, 5 + random.nextInt(15)))
+                    .status(TaskStatus.pending)
+                    .build());
+        }
+        return tasks;
+    }
+
+    private static String words(Random random, int count) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            if (i > 0) sb.append(' ');
+            sb.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,87 @@
+package model;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("TaskSearchIndex Tests")
+class TaskSearchIndexTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Should tokenize into lower-case words without accents")
+    void shouldFoldCaseAndAccents() {
+        assertArrayEquals(new String[] {"reunion", "a", "l", "ecole", "14h"},
+                TaskSearchIndex.tokenize("Réunion à l'École, 14h!"));
+        assertArrayEquals(new String[0], TaskSearchIndex.tokenize("  --  "));
+    }
+
+    @Test
+    @DisplayName("Should match every query token as a prefix of a title or description word")
+    void shouldMatchPrefixesOfAllTokens() {
+        TaskSearchIndex index = new TaskSearchIndex();
+        index.put(task("1", "Réunion budget", "salle B"));
+        index.put(task("2", "Budget review", null));
+        index.put(task("3", "Groceries", "milk, bread"));
+
+        assertMatches(index.search("bud"), "1", "2");
+        assertMatches(index.search("REU bud"), "1");
+        assertMatches(index.search("bre"), "3");
+        assertMatches(index.search("budget groc"));
+        assertTrue(index.search("  ").matchesAll());
+    }
+
+    @Test
+    @DisplayName("Should follow updates, removals and id changes without a rebuild")
+    void shouldUpdateIncrementally() {
+        TaskSearchIndex index = new TaskSearchIndex();
+        index.put(task("local-1", "Call dentist", null));
+        index.put(task("2", "Call plumber", null));
+        assertMatches(index.search("call"), "local-1", "2");
+
+        index.put(task("local-1", "Email dentist", null));
+        assertMatches(index.search("call"), "2");
+        assertMatches(index.search("email"), "local-1");
+
+        index.rename("local-1", "server-1");
+        assertMatches(index.search("dent"), "server-1");
+
+        index.remove("2");
+        assertMatches(index.search("call"));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    @DisplayName("Should reload a persisted index only for the same tasks")
+    void shouldPersistWithFingerprint() throws Exception {
+        List<Task> tasks = List.of(task("1", "Plan trip", "book hotel"), task("2", "Pay rent", null));
+        TaskSearchIndex index = new TaskSearchIndex();
+        index.rebuild(tasks);
+        Path file = tempDir.resolve("search_index.bin");
+        index.writeTo(file, TaskSearchIndex.fingerprint(tasks));
+
+        TaskSearchIndex loaded = TaskSearchIndex.readFrom(file, TaskSearchIndex.fingerprint(tasks));
+        assertNotNull(loaded);
+        assertMatches(loaded.search("hot"), "1");
+
+        List<Task> edited = List.of(task("1", "Plan trip", "book flight"), task("2", "Pay rent", null));
+        assertNull(TaskSearchIndex.readFrom(file, TaskSearchIndex.fingerprint(edited)));
+        assertNull(TaskSearchIndex.readFrom(tempDir.resolve("missing.bin"), 0));
+    }
+
+    private static Task task(String id, String title, String description) {
+        return new Task.Builder(id).taskTitle(title).description(description).status(TaskStatus.pending).build();
+    }
+
+    private static void assertMatches(TaskSearchIndex.Result result, String... ids) {
+        assertEquals(ids.length, result.size());
+        for (String id : ids) assertTrue(result.contains(id), "expected match: " + id);
+    }
+}
@@ -7,13 +7,15 @@ import org.junit.jupiter.api.Test;
 
 import java.time.LocalDateTime;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
- * Tests for command queue optimizations including command deduplication and merging.
+ * Tests for command queue optimizations including command deduplication, merging and compaction.
  */
 @DisplayName("CommandQueue Optimization Tests")
 class CommandQueueOptimizationTest {
@@ -70,8 +72,8 @@ class CommandQueueOptimizationTest {
     }
     
     @Test
-    @DisplayName("Should not merge CREATE and UPDATE commands")
-    void shouldNotMergeCreateAndUpdateCommands() {
+    @DisplayName("Should fold UPDATE commands into a pending CREATE")
+    void shouldFoldUpdateIntoCreate() {
         // Create a CREATE command
         CreateTaskCommand createCmd = CreateTaskCommand.create(
             testTaskId, testUserId, "Test Task", "Description", 
@@ -79,16 +81,82 @@ class CommandQueueOptimizationTest {
         );
         commandQueue.enqueue(createCmd);
         
-        // Create an UPDATE command for same task
+        // Create UPDATE commands for same task
         Map<String, Object> changes = new HashMap<>();
         changes.put("title", "Updated Title");
+        commandQueue.enqueue(UpdateTaskCommand.create(testTaskId, testUserId, changes));
         
-        UpdateTaskCommand updateCmd = UpdateTaskCommand.create(testTaskId, testUserId, changes);
-        commandQueue.enqueue(updateCmd);
+        Map<String, Object> statusChange = new HashMap<>();
+        statusChange.put("status", "completed");
+        commandQueue.enqueue(UpdateTaskCommand.create(testTaskId, testUserId, statusChange));
         
-        // Should have 2 separate commands
-        assertEquals(2, commandQueue.getPendingCommandCount(),
-            "CREATE and UPDATE commands should not be merged");
+        // Should have a single CREATE carrying the final values
+        assertEquals(1, commandQueue.getPendingCommandCount(),
+            "UPDATE commands should be folded into the CREATE");
+        Command folded = commandQueue.getPendingCommands().get(0);
+        assertTrue(folded instanceof CreateTaskCommand);
+        CreateTaskCommand create = (CreateTaskCommand) folded;
+        assertEquals(createCmd.getCommandId(), create.getCommandId());
+        assertEquals("Updated Title", create.title());
+        assertEquals("Description", create.description());
+        assertEquals(TaskStatus.completed, create.status());
+        assertEquals(2, commandQueue.getCompactionStats().getUpdatesFoldedIntoCreate());
+    }
+    
+    @Test
+    @DisplayName("Should drop CREATE, UPDATEs and DELETE for a task that never reached the server")
+    void shouldCancelCreateAndDelete() {
+        commandQueue.enqueue(CreateTaskCommand.create(
+            testTaskId, testUserId, "Short-lived", null, TaskStatus.pending, null, null));
+        for (int i = 0; i < 5; i++) {
+            Map<String, Object> changes = new HashMap<>();
+            changes.put("title", "Edit " + i);
+            commandQueue.enqueue(UpdateTaskCommand.create(testTaskId, testUserId, changes));
+        }
+        commandQueue.enqueue(DeleteTaskCommand.create(testTaskId, testUserId));
+        
+        assertFalse(commandQueue.hasPendingCommands(), "Nothing should be uploaded for the task");
+        CommandCompactor.Stats stats = commandQueue.getCompactionStats();
+        assertEquals(1, stats.getCreateDeletePairsCancelled());
+        assertEquals(7, stats.getEliminated(), "all seven commands should be eliminated");
+    }
+    
+    @Test
+    @DisplayName("Should collapse UPDATEs followed by DELETE into the DELETE")
+    void shouldCollapseUpdatesIntoDelete() {
+        Map<String, Object> changes = new HashMap<>();
+        changes.put("title", "Doomed");
+        commandQueue.enqueue(UpdateTaskCommand.create(testTaskId, testUserId, changes));
+        commandQueue.enqueue(UpdateTaskCommand.create("other-task", testUserId, changes));
+        commandQueue.enqueue(DeleteTaskCommand.create(testTaskId, testUserId));
+        commandQueue.enqueue(DeleteTaskCommand.create(testTaskId, testUserId));
+        
+        assertEquals(2, commandQueue.getPendingCommandCount());
+        Command first = commandQueue.getPendingCommands().get(0);
+        Command second = commandQueue.getPendingCommands().get(1);
+        assertEquals("other-task", first.getEntityId());
+        assertTrue(second instanceof DeleteTaskCommand);
+        assertEquals(testTaskId, second.getEntityId());
+    }
+    
+    @Test
+    @DisplayName("Should not rewrite commands that are already in flight")
+    void shouldNotCompactInFlightCommands() {
+        CreateTaskCommand createCmd = CreateTaskCommand.create(
+            testTaskId, testUserId, "Sent", null, TaskStatus.pending, null, null);
+        commandQueue.enqueue(createCmd);
+        
+        List<Command> batch = commandQueue.getCommandsForSync();
+        assertEquals(1, batch.size());
+        
+        // Delete arrives while the CREATE is being uploaded: it must survive
+        commandQueue.enqueue(DeleteTaskCommand.create(testTaskId, testUserId));
+        assertEquals(2, commandQueue.getPendingCommandCount());
+        
+        commandQueue.removeCommands(Set.of(createCmd.getCommandId()));
+        commandQueue.releaseInFlight(batch);
+        assertEquals(1, commandQueue.getPendingCommandCount());
+        assertTrue(commandQueue.getPendingCommands().get(0) instanceof DeleteTaskCommand);
     }
     
     @Test
@@ -156,7 +224,8 @@ class CommandQueueOptimizationTest {
         UpdateTaskCommand cmd = UpdateTaskCommand.create(testTaskId, testUserId, emptyChanges);
         commandQueue.enqueue(cmd);
         
-        assertEquals(1, commandQueue.getPendingCommandCount());
+        assertEquals(0, commandQueue.getPendingCommandCount(), "No-op updates should be dropped");
+        assertEquals(1, commandQueue.getCompactionStats().getNoOpsDropped());
         
         // Add another update with actual changes
         Map<String, Object> realChanges = new HashMap<>();
@@ -166,7 +235,7 @@ class CommandQueueOptimizationTest {
         commandQueue.enqueue(cmd2);
         
         assertEquals(1, commandQueue.getPendingCommandCount(),
-            "Commands should be merged even when one has empty changes");
+            "Only the update with real changes should remain");
         
         Command merged = commandQueue.getPendingCommands().get(0);
         assertTrue(merged instanceof UpdateTaskCommand);
@@ -0,0 +1,59 @@
+package service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the concurrent bootstrap fan-out/join.
+ */
+@DisplayName("BootstrapCoordinator Tests")
+class BootstrapCoordinatorTest {
+
+    @Test
+    @DisplayName("Should take about as long as the slowest phase, not the sum")
+    void shouldRunPhasesConcurrently() throws Exception {
+        BootstrapCoordinator coordinator = new BootstrapCoordinator(3);
+        BootstrapCoordinator.Fetch<String> folders = coordinator.submit("folders", () -> sleepThen(150, "f"));
+        BootstrapCoordinator.Fetch<String> tasks = coordinator.submit("tasks", () -> sleepThen(200, "t"));
+        BootstrapCoordinator.Fetch<String> notifications = coordinator.submit("notifications", () -> sleepThen(150, "n"));
+
+        BootstrapCoordinator.Report report = coordinator.awaitAll();
+
+        assertEquals("f", folders.get());
+        assertEquals("t", tasks.get());
+        assertEquals("n", notifications.get());
+        assertEquals(List.of("folders", "tasks", "notifications"), List.copyOf(report.getPhaseLatencyMs().keySet()));
+        assertTrue(report.getPhaseLatencyMs().get("tasks") >= 200);
+        assertTrue(report.getSequentialMs() >= 500);
+        assertTrue(report.getWallClockMs() < 450, "wall clock was " + report.getWallClockMs() + " ms");
+    }
+
+    @Test
+    @DisplayName("Should let the other phases finish when one fails")
+    void shouldIsolateFailures() throws Exception {
+        BootstrapCoordinator coordinator = new BootstrapCoordinator(2);
+        BootstrapCoordinator.Fetch<String> folders = coordinator.submit("folders", () -> {
+            throw new IOException("connection refused");
+        });
+        BootstrapCoordinator.Fetch<String> tasks = coordinator.submit("tasks", () -> sleepThen(50, "t"));
+
+        BootstrapCoordinator.Report report = coordinator.awaitAll();
+
+        assertTrue(folders.failed());
+        IOException e = assertThrows(IOException.class, folders::get);
+        assertEquals("connection refused", e.getMessage());
+        assertEquals("t", tasks.get());
+        assertEquals(1, report.getFailures().size());
+        assertTrue(report.getFailures().containsKey("folders"));
+    }
+
+    private static String sleepThen(long ms, String value) throws InterruptedException {
+        Thread.sleep(ms);
+        return value;
+    }
+}
@@ -0,0 +1,145 @@
+package service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+
+import model.TaskStatus;
+import model.commands.Command;
+import model.commands.CommandQueue;
+import model.commands.CreateTaskCommand;
+import model.commands.UpdateTaskCommand;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the pipelined command outbox.
+ */
+@DisplayName("CommandOutbox Tests")
+class CommandOutboxTest {
+
+    private String userId;
+    private CommandQueue queue;
+    private CommandOutbox outbox;
+
+    @BeforeEach
+    void setUp() {
+        userId = "test-user-" + UUID.randomUUID();
+        queue = new CommandQueue(userId);
+        queue.clearCommands();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (outbox != null) outbox.stop();
+    }
+
+    @Test
+    @DisplayName("Should upload commands shortly after enqueue and drop them on acknowledgement")
+    void shouldUploadSoonAfterEnqueue() throws Exception {
+        List<List<Command>> uploads = new CopyOnWriteArrayList<>();
+        outbox = new CommandOutbox.Builder(queue, batch -> {
+                uploads.add(batch);
+                return ids(batch);
+            })
+            .linger(10)
+            .build();
+        outbox.start();
+
+        queue.enqueue(create("t1"));
+        waitFor(() -> !queue.hasPendingCommands());
+
+        assertEquals(1, uploads.size());
+        assertEquals(1, outbox.getCommandsAcknowledged());
+        assertTrue(outbox.getLastBatchLatencyMs() >= 0);
+    }
+
+    @Test
+    @DisplayName("Should keep at most window batches in flight and preserve per-entity order")
+    void shouldBoundInFlightWindow() throws Exception {
+        AtomicInteger concurrent = new AtomicInteger();
+        AtomicInteger maxConcurrent = new AtomicInteger();
+        List<Command> sentOrder = new CopyOnWriteArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            queue.enqueue(create("task-" + i));
+        }
+        outbox = new CommandOutbox.Builder(queue, batch -> {
+                int now = concurrent.incrementAndGet();
+                maxConcurrent.accumulateAndGet(now, Math::max);
+                Thread.sleep(40);
+                sentOrder.addAll(batch);
+                concurrent.decrementAndGet();
+                return ids(batch);
+            })
+            .batchSize(3)
+            .window(2)
+            .linger(0)
+            .build();
+        outbox.start();
+
+        // Update for task-0 while its CREATE is in flight: it must wait for the CREATE's ack
+        waitFor(() -> concurrent.get() >= 1);
+        Map<String, Object> changes = new HashMap<>();
+        changes.put("title", "edited");
+        queue.enqueue(UpdateTaskCommand.create("task-0", userId, changes));
+        waitFor(() -> !queue.hasPendingCommands() && outbox.getInFlightBatches() == 0);
+
+        assertEquals(2, maxConcurrent.get(), "window should cap concurrent uploads");
+        assertEquals(13, outbox.getCommandsAcknowledged());
+        List<String> task0 = sentOrder.stream()
+            .filter(c -> c.getEntityId().equals("task-0"))
+            .map(c -> c.getType().name())
+            .collect(Collectors.toList());
+        assertEquals(List.of("CREATE_TASK", "UPDATE_TASK"), task0);
+    }
+
+    @Test
+    @DisplayName("Should return unacknowledged commands to the queue and retry after a backoff")
+    void shouldRetryUnacknowledgedCommands() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+        outbox = new CommandOutbox.Builder(queue, batch -> {
+                if (attempts.incrementAndGet() == 1) throw new IOException("connection reset");
+                return ids(batch);
+            })
+            .linger(0)
+            .retryDelay(20, 20)
+            .build();
+        queue.enqueue(create("t1"));
+        outbox.start();
+
+        waitFor(() -> !queue.hasPendingCommands());
+        assertEquals(2, attempts.get());
+        assertEquals(0, queue.getInFlightCount());
+    }
+
+    private CreateTaskCommand create(String taskId) {
+        return CreateTaskCommand.create(taskId, userId, "Title " + taskId, null, TaskStatus.pending, null, null);
+    }
+
+    private static Set<String> ids(List<Command> batch) {
+        Set<String> ids = new HashSet<>();
+        for (Command c : batch) ids.add(c.getCommandId());
+        return ids;
+    }
+
+    private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) fail("condition not met within 5 s");
+            Thread.sleep(5);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package service;
+
+import model.DueDateIndex;
+import model.Task;
+import model.TaskStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("DueBoundaryWatcher Tests")
+class DueBoundaryWatcherTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2025, 6, 1, 12, 0, 30);
+
+    private final AtomicReference<LocalDateTime> clock = new AtomicReference<>(START);
+    private final List<List<String>> pushed = new ArrayList<>();
+    private final DueDateIndex index = new DueDateIndex();
+    private DueBoundaryWatcher watcher;
+
+    @AfterEach
+    void tearDown() {
+        if (watcher != null) watcher.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should wake at the end of the next due minute and push only the crossings")
+    void shouldPushOnlyCrossings() {
+        index.rebuild(List.of(task("past", START.minusHours(1)), task("soon", START.plusSeconds(10)),
+                task("same-minute", START.plusSeconds(20)), task("later", START.plusHours(2))));
+        start();
+
+        assertEquals(LocalDateTime.of(2025, 6, 1, 12, 1), watcher.getScheduledWake());
+
+        clock.set(LocalDateTime.of(2025, 6, 1, 12, 1));
+        watcher.tick();
+
+        assertEquals(List.of(List.of("soon", "same-minute")), pushed);
+        assertEquals(LocalDateTime.of(2025, 6, 1, 12, 16), watcher.getScheduledWake(), "capped sleep");
+    }
+
+    @Test
+    @DisplayName("Should re-arm when a task is added that falls due sooner")
+    void shouldRearmOnIndexChange() {
+        index.put(task("later", START.plusMinutes(10)));
+        start();
+        assertEquals(START.plusMinutes(10).withSecond(0).plusMinutes(1), watcher.getScheduledWake());
+
+        index.put(task("sooner", START.plusMinutes(2).withSecond(0)));
+        assertEquals(START.plusMinutes(2).withSecond(0), watcher.getScheduledWake());
+
+        clock.set(START.plusMinutes(3));
+        watcher.tick();
+        assertEquals(List.of(List.of("sooner")), pushed);
+    }
+
+    @Test
+    @DisplayName("Should push nothing when the clock goes back")
+    void shouldIgnoreClockGoingBack() {
+        index.put(task("t", START.minusMinutes(1)));
+        start();
+
+        clock.set(START.minusMinutes(5));
+        watcher.tick();
+        assertTrue(pushed.isEmpty());
+    }
+
+    private void start() {
+        watcher = new DueBoundaryWatcher(index, tasks -> pushed.add(tasks.stream().map(Task::getTask_id).toList()),
+                clock::get, Executors.newSingleThreadScheduledExecutor());
+        watcher.start();
+    }
+
+    private static Task task(String id, LocalDateTime dueDate) {
+        return new Task.Builder(id).taskTitle("Task " + id).status(TaskStatus.pending)
+                .createdAt(START.minusDays(1)).dueDate(dueDate).build();
+    }
+}
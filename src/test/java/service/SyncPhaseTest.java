@@ -0,0 +1,59 @@
+package service;
+
+import COMMON.Metrics;
+import COMMON.jfr.SyncPhaseEvent;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("SyncPhase Tests")
+class SyncPhaseTest {
+
+    @Test
+    @DisplayName("Should attribute counts to the innermost open phase and emit one event per phase")
+    void shouldEmitEventsWithCounts(@TempDir Path dir) throws Exception {
+        long before = Metrics.shared().timer("sync.db.phase.test_merge").snapshot().count();
+        Path file = dir.resolve("phases.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(SyncPhaseEvent.class);
+            recording.start();
+            try (SyncPhase outer = SyncPhase.start(SyncPhase.DATABASE, "test_merge")) {
+                SyncPhase.addCommands(3);
+                SyncPhase.addBytes(120);
+                try (SyncPhase inner = SyncPhase.start(SyncPhase.DATABASE, "test_fetch")) {
+                    SyncPhase.addRows(7);
+                    inner.fail(new IllegalStateException("timeout"));
+                }
+                assertSame(outer, SyncPhase.current());
+            }
+            recording.stop();
+            recording.dump(file);
+        }
+        assertNull(SyncPhase.current());
+        // Counts outside a phase are ignored
+        SyncPhase.addRows(1);
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+                .filter(e -> e.getEventType().getName().equals("taskflow.SyncPhase"))
+                .filter(e -> e.getString("phase").startsWith("test_"))
+                .toList();
+        assertEquals(2, events.size());
+        RecordedEvent fetch = events.stream().filter(e -> e.getString("phase").equals("test_fetch")).findFirst().orElseThrow();
+        RecordedEvent merge = events.stream().filter(e -> e.getString("phase").equals("test_merge")).findFirst().orElseThrow();
+        assertEquals(7, fetch.getInt("rows"));
+        assertEquals("IllegalStateException: timeout", fetch.getString("error"));
+        assertEquals(3, merge.getInt("commands"));
+        assertEquals(120, merge.getLong("bytes"));
+        assertEquals(0, merge.getInt("rows"));
+        assertNull(merge.getString("error"));
+        assertEquals(before + 1, Metrics.shared().timer("sync.db.phase.test_merge").snapshot().count());
+    }
+}
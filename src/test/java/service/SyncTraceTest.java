@@ -0,0 +1,112 @@
+package service;
+
+import COMMON.JSONUtils;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("SyncTrace Tests")
+class SyncTraceTest {
+
+    @Test
+    @DisplayName("Should nest phase spans under the round with their counts and errors")
+    void shouldBuildSpanTree() {
+        SyncTrace trace;
+        try (SyncTrace round = SyncTrace.begin(SyncPhase.DATABASE, null)) {
+            trace = round;
+            try (SyncPhase merge = SyncPhase.start(SyncPhase.DATABASE, "merge")) {
+                SyncPhase.addCommands(2);
+                try (SyncPhase fetch = SyncPhase.start(SyncPhase.DATABASE, "fetch")) {
+                    SyncPhase.addRows(5);
+                    fetch.fail(new IllegalStateException("timeout"));
+                }
+                assertSame(merge, SyncPhase.current());
+            }
+            round.record(2, 5);
+        }
+        assertNull(SyncTrace.active());
+
+        SyncTrace.Span root = trace.root();
+        assertTrue(root.isFinished());
+        assertEquals(5, root.getRows());
+        SyncTrace.Span merge = root.getChildren().get(0);
+        assertEquals("db.merge", merge.getName());
+        assertEquals(2, merge.getCommands());
+        SyncTrace.Span fetch = merge.getChildren().get(0);
+        assertEquals("db.fetch", fetch.getName());
+        assertEquals(5, fetch.getRows());
+        assertEquals("IllegalStateException: timeout", fetch.getError());
+    }
+
+    @Test
+    @DisplayName("Should not create spans outside a traced round")
+    void shouldIgnorePhasesWithoutTrace() {
+        try (SyncPhase phase = SyncPhase.start(SyncPhase.API, "untraced")) {
+            assertNull(phase.getSpan());
+        }
+    }
+
+    @Test
+    @DisplayName("Should carry the trace and phase to bootstrap fetch threads")
+    void shouldPropagateToWorkers() throws Exception {
+        ExecutorService worker = Executors.newSingleThreadExecutor();
+        try (SyncTrace round = SyncTrace.begin(SyncPhase.DATABASE, null)) {
+            BootstrapCoordinator.Phase<Integer> fetch = SyncPhase.inheriting(() -> {
+                try (SyncPhase phase = SyncPhase.start(SyncPhase.DATABASE, "folders")) {
+                    assertNotNull(phase.getSpan());
+                    SyncPhase.addRows(3);
+                }
+                return 3;
+            });
+            assertEquals(3, worker.submit(fetch::fetch).get());
+            // The worker thread is left as it was
+            assertNull(worker.submit(SyncTrace::active).get());
+
+            SyncTrace.Span folders = round.root().getChildren().get(0);
+            assertEquals("db.folders", folders.getName());
+            assertEquals(3, folders.getRows());
+        } finally {
+            worker.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Should roll the trace file and export every retained trace")
+    void shouldRollAndExport(@TempDir File dir) throws Exception {
+        SyncTraceLog log = new SyncTraceLog(dir, 300);
+        for (int i = 0; i < 12; i++) {
+            try (SyncTrace round = SyncTrace.begin(SyncPhase.API, log)) {
+                assertSame(round, SyncTrace.active());
+                try (SyncPhase phase = SyncPhase.start(SyncPhase.API, "sync_commands")) {
+                    assertNotNull(phase.getSpan());
+                    SyncPhase.addCommands(i);
+                }
+            }
+        }
+        assertTrue(new File(dir, SyncTraceLog.rolledName(1)).exists());
+        assertTrue(new File(dir, SyncTraceLog.rolledName(SyncTraceLog.KEEP_FILES)).exists());
+        assertFalse(new File(dir, SyncTraceLog.rolledName(SyncTraceLog.KEEP_FILES + 1)).exists());
+
+        List<Map<String, Object>> retained = log.readAll();
+        assertTrue(retained.size() < 12, "older traces are dropped");
+        Path exported = log.export(dir.toPath().resolve("export"));
+        Map<String, Object> document = JSONUtils.readJsonFile(exported.toFile());
+        List<?> traces = (List<?>) document.get("traces");
+        assertEquals(retained.size(), traces.size());
+        Map<?, ?> last = (Map<?, ?>) traces.get(traces.size() - 1);
+        assertEquals("api", last.get("service"));
+        Map<?, ?> root = (Map<?, ?>) last.get("root");
+        Map<?, ?> phase = (Map<?, ?>) ((List<?>) root.get("children")).get(0);
+        assertEquals("api.sync_commands", phase.get("name"));
+        assertEquals(11, phase.get("commands"));
+    }
+}
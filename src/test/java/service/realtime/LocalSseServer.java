@@ -0,0 +1,109 @@
+package service.realtime;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-process stand-in for the API's SSE endpoint, built on com.sun.net.httpserver.
+ * Tests push raw event frames, drop the connection, or make the endpoint reject
+ * connections to exercise reconnect and polling fallback without the real backend.
+ */
+class LocalSseServer implements AutoCloseable {
+    private static final String DROP = "\u0000drop";
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final BlockingQueue<String> outbox = new LinkedBlockingQueue<>();
+    private final List<String> lastEventIds = new CopyOnWriteArrayList<>();
+    private final AtomicInteger connections = new AtomicInteger();
+    private volatile int rejectStatus;
+
+    LocalSseServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/sse", this::handle);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    URI uri(String path) {
+        return URI.create("http://127.0.0.1:" + server.getAddress().getPort() + path);
+    }
+
+    /** Queue a raw frame; it is written to the current (or next) connection. */
+    void send(String frame) {
+        outbox.add(frame);
+    }
+
+    void sendEvent(String id, String type, String data) {
+        send("id: " + id + "\nevent: " + type + "\ndata: " + data + "\n\n");
+    }
+
+    /** Close the current stream from the server side. */
+    void dropConnection() {
+        outbox.add(DROP);
+    }
+
+    /** Reject new connections with the given status; 0 accepts them again. */
+    void rejectWith(int status) {
+        rejectStatus = status;
+    }
+
+    int getConnectionCount() {
+        return connections.get();
+    }
+
+    /** Last-Event-ID header of every connection attempt, null when absent. */
+    List<String> getLastEventIds() {
+        return lastEventIds;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        connections.incrementAndGet();
+        lastEventIds.add(exchange.getRequestHeaders().getFirst("Last-Event-ID"));
+        if (rejectStatus != 0) {
+            exchange.sendResponseHeaders(rejectStatus, -1);
+            exchange.close();
+            return;
+        }
+        exchange.getResponseHeaders().add("Content-Type", "text/event-stream");
+        exchange.sendResponseHeaders(200, 0);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(": connected\n\n".getBytes(StandardCharsets.UTF_8));
+            out.flush();
+            while (true) {
+                String frame = outbox.poll(50, TimeUnit.MILLISECONDS);
+                if (frame == null) {
+                    if (server.getAddress() == null) return;
+                    continue;
+                }
+                if (DROP.equals(frame)) return;
+                out.write(frame.getBytes(StandardCharsets.UTF_8));
+                out.flush();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            // client went away
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,179 @@
+package service.realtime;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for SSE parsing and the realtime client against a local stand-in server.
+ */
+@DisplayName("Realtime Sync Tests")
+class RealtimeSyncClientTest {
+
+    @Nested
+    @DisplayName("SseEventParser")
+    class ParserTests {
+
+        @Test
+        @DisplayName("Should assemble events from arbitrarily split chunks")
+        void shouldParseSplitChunks() {
+            List<SseEvent> events = new ArrayList<>();
+            SseEventParser parser = new SseEventParser(events::add);
+            String stream = ": heartbeat\r\nid: 7\r\nevent: task_updated\r\ndata: {\"a\":1,\r\ndata: \"b\":2}\r\n\r\ndata: plain\n\n";
+            for (char c : stream.toCharArray()) {
+                parser.feed(String.valueOf(c));
+            }
+            assertEquals(2, events.size());
+            assertEquals(new SseEvent("7", "task_updated", "{\"a\":1,\n\"b\":2}"), events.get(0));
+            assertEquals(new SseEvent("7", "message", "plain"), events.get(1));
+            assertEquals("7", parser.getLastEventId());
+        }
+
+        @Test
+        @DisplayName("Should honour retry and ignore events without data")
+        void shouldHandleRetryAndEmptyEvents() {
+            List<SseEvent> events = new ArrayList<>();
+            SseEventParser parser = new SseEventParser(events::add);
+            parser.feed("retry: 2500\nevent: ping\n\nretry: soon\nid: 9\n\n");
+            assertTrue(events.isEmpty());
+            assertEquals(2500, parser.getRetryMs());
+            assertEquals("9", parser.getLastEventId());
+
+            parser.feed("data: partial");
+            parser.reset();
+            parser.feed("\n\n");
+            assertTrue(events.isEmpty(), "reset discards the half-received event");
+        }
+
+        @Test
+        @DisplayName("Should keep the previous event id when the event carrying a new one is cut off")
+        void shouldNotAdvanceIdOfDiscardedEvent() {
+            List<SseEvent> events = new ArrayList<>();
+            SseEventParser parser = new SseEventParser(events::add);
+            parser.feed("id: 4\ndata: done\n\n");
+            assertEquals("4", parser.getLastEventId());
+
+            parser.feed("id: 5\ndata: x");
+            assertEquals("4", parser.getLastEventId(), "id applies only once the event is dispatched");
+            parser.reset();
+            assertEquals("4", parser.getLastEventId());
+
+            parser.feed("\n\n");
+            assertEquals(1, events.size());
+            assertEquals("4", parser.getLastEventId());
+        }
+    }
+
+    @Nested
+    @DisplayName("RealtimeSyncClient")
+    class ClientTests {
+        private LocalSseServer server;
+        private RealtimeSyncClient client;
+        private BlockingQueue<SseEvent> received;
+        private List<RealtimeSyncClient.State> states;
+        private AtomicInteger polls;
+
+        @BeforeEach
+        void setUp() throws Exception {
+            server = new LocalSseServer();
+            received = new LinkedBlockingQueue<>();
+            states = new java.util.concurrent.CopyOnWriteArrayList<>();
+            polls = new AtomicInteger();
+            client = new RealtimeSyncClient.Builder(server.uri("/sse/user/test"), new RealtimeSyncClient.Listener() {
+                    @Override
+                    public void onEvent(SseEvent event) {
+                        received.add(event);
+                    }
+
+                    @Override
+                    public void onStateChanged(RealtimeSyncClient.State state) {
+                        states.add(state);
+                    }
+                })
+                .pollTask(polls::incrementAndGet, 50)
+                .reconnectDelay(20, 100)
+                .fallbackAfterFailures(2)
+                .idleTimeout(0)
+                .build();
+        }
+
+        @AfterEach
+        void tearDown() {
+            client.stop();
+            server.close();
+        }
+
+        @Test
+        @DisplayName("Should deliver pushed events with low latency")
+        void shouldDeliverEventsQuickly() throws Exception {
+            client.start();
+            waitFor(() -> client.getState() == RealtimeSyncClient.State.STREAMING);
+
+            long start = System.nanoTime();
+            server.sendEvent("1", "task_updated", "{\"entityId\":\"t1\"}");
+            SseEvent event = received.poll(5, TimeUnit.SECONDS);
+            long latencyMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+            assertNotNull(event);
+            assertEquals("task_updated", event.event());
+            assertTrue(latencyMs < 500, "event latency was " + latencyMs + " ms");
+            assertEquals(0, polls.get(), "no polling while streaming");
+        }
+
+        @Test
+        @DisplayName("Should resume with Last-Event-ID after the server drops the stream")
+        void shouldResumeAfterDrop() throws Exception {
+            client.start();
+            server.sendEvent("41", "task_created", "{}");
+            server.sendEvent("42", "task_updated", "{}");
+            assertNotNull(received.poll(5, TimeUnit.SECONDS));
+            assertNotNull(received.poll(5, TimeUnit.SECONDS));
+
+            server.dropConnection();
+            waitFor(() -> server.getConnectionCount() >= 2);
+            server.sendEvent("43", "task_deleted", "{}");
+
+            SseEvent replayed = received.poll(5, TimeUnit.SECONDS);
+            assertNotNull(replayed);
+            assertEquals("43", replayed.id());
+            assertNull(server.getLastEventIds().get(0));
+            assertEquals("42", server.getLastEventIds().get(1));
+            assertTrue(client.getReconnectCount() >= 1);
+        }
+
+        @Test
+        @DisplayName("Should fall back to polling while the stream is rejected and stop once it recovers")
+        void shouldFallBackToPolling() throws Exception {
+            server.rejectWith(503);
+            client.start();
+            waitFor(() -> polls.get() >= 2);
+            assertTrue(states.contains(RealtimeSyncClient.State.POLLING));
+
+            server.rejectWith(0);
+            waitFor(() -> client.getState() == RealtimeSyncClient.State.STREAMING);
+            int pollsAtRecovery = polls.get();
+            Thread.sleep(200);
+            assertTrue(polls.get() <= pollsAtRecovery + 1, "polling should stop once streaming resumes");
+        }
+
+        private void waitFor(BooleanSupplier condition) throws InterruptedException {
+            long deadline = System.currentTimeMillis() + 5000;
+            while (!condition.getAsBoolean()) {
+                if (System.currentTimeMillis() > deadline) fail("condition not met within 5 s");
+                Thread.sleep(10);
+            }
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package service.sync;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import model.Folder;
+import model.Task;
+import model.TaskHandlerV2;
+import model.TaskStatus;
+import service.realtime.SseEvent;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("RealtimeEventApplier Tests")
+class RealtimeEventApplierTest {
+
+    private TaskHandlerV2 handler;
+    private RealtimeEventApplier applier;
+
+    @BeforeEach
+    void setUp() {
+        handler = new TaskHandlerV2(UUID.randomUUID().toString());
+        handler.getCommandQueue().clearCommands();
+        applier = new RealtimeEventApplier(handler);
+    }
+
+    @Test
+    @DisplayName("Should add, update and remove tasks from task events")
+    void shouldApplyTaskEvents() {
+        assertEquals(RealtimeEventApplier.Change.TASKS, applier.apply(new SseEvent("1", "task_created",
+            "{\"entityId\":\"t1\",\"data\":{\"task_title\":\"From server\",\"status\":\"pending\"}}")));
+        Task created = handler.getTaskById("t1");
+        assertNotNull(created);
+        assertEquals("From server", created.getTitle());
+        assertEquals("cloud", created.getSync_status());
+
+        applier.apply(new SseEvent("2", "message",
+            "{\"event_type\":\"task_updated\",\"entity_id\":\"t1\",\"event_data\":{\"task_title\":\"Renamed\",\"status\":\"completed\"}}"));
+        assertEquals(TaskStatus.completed, handler.getTaskById("t1").getStatus());
+
+        applier.apply(new SseEvent("3", "task_deleted", "{\"entityId\":\"t1\"}"));
+        assertNull(handler.getTaskById("t1"));
+    }
+
+    @Test
+    @DisplayName("Should update the folder list from folder events")
+    void shouldApplyFolderEvents() {
+        assertEquals(RealtimeEventApplier.Change.FOLDERS, applier.apply(new SseEvent("1", "folder_created",
+            "{\"entityId\":\"f1\",\"data\":{\"folder_name\":\"Inbox\"}}")));
+        List<Folder> folders = handler.getFoldersList();
+        assertTrue(folders.stream().anyMatch(f -> "f1".equals(f.getFolder_id()) && "Inbox".equals(f.getFolder_name())));
+
+        applier.apply(new SseEvent("2", "folder_deleted", "{\"entityId\":\"f1\"}"));
+        assertTrue(handler.getFoldersList().stream().noneMatch(f -> "f1".equals(f.getFolder_id())));
+    }
+
+    @Test
+    @DisplayName("Should ignore malformed and unknown events")
+    void shouldIgnoreUnknownEvents() {
+        assertEquals(RealtimeEventApplier.Change.NONE, applier.apply(new SseEvent(null, "message", "not json")));
+        assertEquals(RealtimeEventApplier.Change.NONE, applier.apply(new SseEvent(null, "heartbeat", "{}")));
+    }
+}
@@ -0,0 +1,76 @@
+package service.transport;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for CircuitBreaker state transitions and RetryPolicy backoff bounds.
+ */
+@DisplayName("CircuitBreaker Tests")
+class CircuitBreakerTest {
+
+    @Test
+    @DisplayName("Should open after consecutive failures and half-open after cool-down")
+    void shouldOpenAndHalfOpen() {
+        AtomicLong now = new AtomicLong(0);
+        CircuitBreaker breaker = new CircuitBreaker(3, 1000, now::get);
+
+        assertFalse(breaker.recordFailure());
+        assertFalse(breaker.recordFailure());
+        assertTrue(breaker.recordFailure(), "third failure should open the circuit");
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.allowRequest());
+
+        now.set(1000);
+        assertTrue(breaker.allowRequest(), "one trial is admitted after the cool-down");
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertFalse(breaker.allowRequest(), "only one trial at a time");
+
+        breaker.recordSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertTrue(breaker.allowRequest());
+    }
+
+    @Test
+    @DisplayName("Should re-open when the half-open trial fails")
+    void shouldReopenOnFailedTrial() {
+        AtomicLong now = new AtomicLong(0);
+        CircuitBreaker breaker = new CircuitBreaker(1, 500, now::get);
+
+        assertTrue(breaker.recordFailure());
+        breaker.halfOpen();
+        assertTrue(breaker.allowRequest());
+        assertTrue(breaker.recordFailure());
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.isAvailable());
+    }
+
+    @Test
+    @DisplayName("Success resets the failure count")
+    void successResetsFailures() {
+        CircuitBreaker breaker = new CircuitBreaker(2, 1000, () -> 0L);
+        breaker.recordFailure();
+        breaker.recordSuccess();
+        assertFalse(breaker.recordFailure());
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    @DisplayName("Retry delays stay within the exponential ceiling")
+    void retryDelaysAreBounded() {
+        RetryPolicy policy = new RetryPolicy(5, 100, 1000);
+        assertEquals(100, policy.backoffCeiling(1));
+        assertEquals(200, policy.backoffCeiling(2));
+        assertEquals(400, policy.backoffCeiling(3));
+        assertEquals(1000, policy.backoffCeiling(5));
+        for (int i = 0; i < 50; i++) {
+            long d = policy.delayBeforeRetry(3);
+            assertTrue(d >= 0 && d <= 400);
+        }
+        assertEquals(0, RetryPolicy.none().delayBeforeRetry(1));
+    }
+}
@@ -0,0 +1,107 @@
+package service.transport;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import service.ServiceUnavailableException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for ResilientTransport retry, short-circuit and connectivity reporting.
+ */
+@DisplayName("ResilientTransport Tests")
+class ResilientTransportTest {
+
+    private ConnectivityMonitor monitor;
+    private List<Long> sleeps;
+    private List<ConnectivityMonitor.State> transitions;
+    private ResilientTransport transport;
+
+    @BeforeEach
+    void setUp() {
+        monitor = new ConnectivityMonitor(60000, 60000);
+        sleeps = new ArrayList<>();
+        transitions = new ArrayList<>();
+        monitor.addListener((endpoint, state) -> transitions.add(state));
+        transport = new ResilientTransport("test", new RetryPolicy(3, 10, 100),
+            new CircuitBreaker(3, 60000), monitor, sleeps::add);
+    }
+
+    @Test
+    @DisplayName("Should retry idempotent calls until they succeed")
+    void shouldRetryIdempotentCalls() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        String result = transport.execute("read", true, () -> {
+            if (calls.incrementAndGet() < 3) throw new ConnectException("refused");
+            return "ok";
+        });
+        assertEquals("ok", result);
+        assertEquals(3, calls.get());
+        assertEquals(2, sleeps.size());
+        assertTrue(monitor.isOnline("test"));
+    }
+
+    @Test
+    @DisplayName("Should not retry non-idempotent calls")
+    void shouldNotRetryNonIdempotentCalls() {
+        AtomicInteger calls = new AtomicInteger();
+        assertThrows(IOException.class, () -> transport.execute("write", false, () -> {
+            calls.incrementAndGet();
+            throw new IOException("reset");
+        }));
+        assertEquals(1, calls.get());
+        assertTrue(sleeps.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should short-circuit and report offline once the breaker opens")
+    void shouldShortCircuitWhenOpen() {
+        assertThrows(IOException.class, () -> transport.execute("read", true, () -> {
+            throw new IOException("timeout");
+        }));
+        assertEquals(CircuitBreaker.State.OPEN, transport.getBreaker().getState());
+        assertFalse(transport.isAvailable());
+        assertEquals(List.of(ConnectivityMonitor.State.OFFLINE), transitions);
+
+        AtomicInteger calls = new AtomicInteger();
+        assertThrows(ServiceUnavailableException.class, () -> transport.execute("read", true, () -> calls.incrementAndGet()));
+        assertEquals(0, calls.get(), "open circuit must not reach the backend");
+    }
+
+    @Test
+    @DisplayName("Logical errors do not count against the breaker")
+    void logicalErrorsAreNotTransient() {
+        assertThrows(SQLException.class, () -> transport.execute("query", true, () -> {
+            throw new SQLException("syntax error", "42601");
+        }));
+        assertEquals(0, transport.getBreaker().getConsecutiveFailures());
+        assertTrue(ResilientTransport.isTransient(new SQLException("wrapped", new SQLException("conn", "08006"))));
+        assertFalse(ResilientTransport.isTransient(new IllegalStateException("bad")));
+    }
+
+    @Test
+    @DisplayName("Should retry transient results and close the circuit after a successful probe")
+    void shouldRecoverAfterProbe() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        Integer status = transport.execute("get", true, () -> calls.incrementAndGet() < 2 ? 503 : 200, s -> s == 503);
+        assertEquals(200, status);
+
+        for (int i = 0; i < 3; i++) transport.getBreaker().recordFailure();
+        monitor.reportOffline("test");
+        monitor.registerProbe("test", () -> true);
+        assertTrue(monitor.probeNow("test"));
+        assertEquals(CircuitBreaker.State.HALF_OPEN, transport.getBreaker().getState());
+        assertEquals("ok", transport.execute("trial", true, () -> "ok"));
+        assertEquals(CircuitBreaker.State.CLOSED, transport.getBreaker().getState());
+        assertEquals(ConnectivityMonitor.State.ONLINE, transitions.get(transitions.size() - 1));
+    }
+}